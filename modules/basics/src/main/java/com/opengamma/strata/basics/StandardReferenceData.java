@@ -5,29 +5,36 @@
  */
 package com.opengamma.strata.basics;
 
-import com.google.common.collect.ImmutableMap;
+import java.util.Optional;
+
 import com.opengamma.strata.basics.date.HolidayCalendar;
+import com.opengamma.strata.basics.date.HolidayCalendarId;
 import com.opengamma.strata.basics.date.HolidayCalendars;
 
 /**
  * Provides standard reference data for holiday calendars in common currencies.
+ * <p>
+ * Each holiday calendar is looked up when it is first requested, so only the calendars
+ * that are used are created.
  */
-final class StandardReferenceData {
+enum StandardReferenceData implements ReferenceData {
 
   /**
    * Standard reference data.
    */
-  static ReferenceData INSTANCE;
-  static {
-    ImmutableMap.Builder<ReferenceDataId<?>, Object> builder = ImmutableMap.builder();
-    for (HolidayCalendar cal : HolidayCalendars.extendedEnum().lookupAll().values()) {
-      builder.put(cal.getId(), cal);
-    }
-    INSTANCE = ReferenceData.of(builder.build());
-  }
+  INSTANCE;
 
-  // restricted constructor
-  private StandardReferenceData() {
+  //-------------------------------------------------------------------------
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> Optional<T> findValue(ReferenceDataId<T> id) {
+    if (id instanceof HolidayCalendarId) {
+      HolidayCalendarId calendarId = (HolidayCalendarId) id;
+      Optional<HolidayCalendar> calendar = HolidayCalendars.extendedEnum().find(calendarId.getName())
+          .filter(cal -> cal.getId().equals(calendarId));
+      return (Optional<T>) calendar;
+    }
+    return Optional.empty();
   }
 
 }
@@ -21,7 +21,13 @@ import java.time.MonthDay;
 import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.collect.named.NamedLookup;
 
 /**
  * Implementation of some common global holiday calendars.
@@ -29,115 +35,92 @@ import java.util.Set;
  * The data provided here has been identified through direct research and is not
  * derived from a vendor of holiday calendar data.
  * This data may or may not be sufficient for your production needs.
+ * <p>
+ * The following calendars are provided:
+ * <ul>
+ * <li>'GBLO' - London bank holidays, 1950 to 2099
+ * <li>'FRPA' - Paris public holidays, 1950 to 2099
+ * <li>'CHZU' - Zurich public holidays, 1950 to 2099
+ * <li>'EUTA' - TARGET interbank payment system holidays, 1997 to 2099, see 2006 ISDA definitions 1.8
+ * <li>'USGS' - United States Government Securities as per SIFMA, 1950 to 2099, see 2006 ISDA definitions 1.11
+ * <li>'USNY' - New York holidays, 1950 to 2099
+ * <li>'NYFD' - Federal Reserve Bank of New York holidays, 1950 to 2099, see 2006 ISDA definitions 1.9
+ * <li>'NYSE' - New York Stock Exchange holidays, 1950 to 2099, see 2006 ISDA definitions 1.10
+ * <li>'JPTO' - Tokyo bank holidays, 1950 to 2099
+ * <li>'CATO' - Toronto holidays, 1950 to 2099
+ * </ul>
+ * Future and past dates are an extrapolations of the latest known rules.
+ * <p>
+ * Each calendar is only created when it is first looked up.
+ * It is decoded from a binary {@link HolidayCalendarSnapshot} resource, which is generated from the rules
+ * below and checked against them by the tests. If the resource is not available, the rules are used directly.
  */
-final class GlobalHolidayCalendars {
+final class GlobalHolidayCalendars
+    implements NamedLookup<HolidayCalendar> {
 
   /**
-   * The holiday calendar for London, United Kingdom, with code 'GBLO'.
-   * <p>
-   * This constant provides the calendar for London bank holidays.
-   * <p>
-   * The default implementation is based on original research and covers 1950 to 2099.
-   * Future dates are an extrapolations of the latest known rules.
-   */
-  public static final HolidayCalendar GBLO = generateLondon();
-  /**
-   * The holiday calendar for Paris, France, with code 'FRPA'.
-   * <p>
-   * This constant provides the calendar for Paris public holidays.
-   * <p>
-   * The default implementation is based on original research and covers 1950 to 2099.
-   * Future and past dates are an extrapolations of the latest known rules.
-   */
-  public static final HolidayCalendar FRPA = generateParis();
-  /**
-   * The holiday calendar for Zurich, Switzerland, with code 'EUTA'.
-   * <p>
-   * This constant provides the calendar for Zurich public holidays.
-   * <p>
-   * The default implementation is based on original research and covers 1950 to 2099.
-   * Future and past dates are an extrapolations of the latest known rules.
-   */
-  public static final HolidayCalendar CHZU = generateZurich();
-  /**
-   * The holiday calendar for the European Union TARGET system, with code 'EUTA'.
-   * <p>
-   * This constant provides the calendar for the TARGET interbank payment system holidays.
-   * <p>
-   * The default implementation is based on original research and covers 1997 to 2099.
-   * Future dates are an extrapolations of the latest known rules.
-   * <p>
-   * Referenced by the 2006 ISDA definitions 1.8.
-   */
-  public static final HolidayCalendar EUTA = generateEuropeanTarget();
-  /**
-   * The holiday calendar for United States Government Securities, with code 'USGS'.
-   * <p>
-   * This constant provides the calendar for United States Government Securities as per SIFMA.
-   * <p>
-   * The default implementation is based on original research and covers 1950 to 2099.
-   * Future and past dates are an extrapolations of the latest known rules.
-   * <p>
-   * Referenced by the 2006 ISDA definitions 1.11.
-   */
-  public static final HolidayCalendar USGS = generateUsGovtSecurities();
-  /**
-   * The holiday calendar for New York, United States, with code 'USNY'.
-   * <p>
-   * This constant provides the calendar for New York holidays.
-   * <p>
-   * The default implementation is based on original research and covers 1950 to 2099.
-   * Future and past dates are an extrapolations of the latest known rules.
+   * The name of the snapshot resource, relative to this class.
    */
-  public static final HolidayCalendar USNY = generateUsNewYork();
+  static final String SNAPSHOT_RESOURCE = "GlobalHolidayCalendars.bin";
   /**
-   * The holiday calendar for the Federal Reserve Bank of New York, with code 'NYFD'.
-   * <p>
-   * This constant provides the calendar for the Federal Reserve Bank of New York holidays.
-   * <p>
-   * The default implementation is based on original research and covers 1950 to 2099.
-   * Future and past dates are an extrapolations of the latest known rules.
-   * <p>
-   * Referenced by the 2006 ISDA definitions 1.9.
+   * The generators of the calendars, keyed by name.
    */
-  public static final HolidayCalendar NYFD = generateNewYorkFed();
+  static final ImmutableMap<String, Supplier<ImmutableHolidayCalendar>> GENERATORS =
+      ImmutableMap.<String, Supplier<ImmutableHolidayCalendar>>builder()
+          .put("GBLO", GlobalHolidayCalendars::generateLondon)
+          .put("FRPA", GlobalHolidayCalendars::generateParis)
+          .put("CHZU", GlobalHolidayCalendars::generateZurich)
+          .put("EUTA", GlobalHolidayCalendars::generateEuropeanTarget)
+          .put("USGS", GlobalHolidayCalendars::generateUsGovtSecurities)
+          .put("USNY", GlobalHolidayCalendars::generateUsNewYork)
+          .put("NYFD", GlobalHolidayCalendars::generateNewYorkFed)
+          .put("NYSE", GlobalHolidayCalendars::generateNewYorkStockExchange)
+          .put("JPTO", GlobalHolidayCalendars::generateTokyo)
+          .put("CATO", GlobalHolidayCalendars::generateToronto)
+          .build();
   /**
-   * The holiday calendar for the New York Stock Exchange, with code 'NYSE'.
-   * <p>
-   * This constant provides the calendar for the New York Stock Exchange.
-   * <p>
-   * The default implementation is based on original research and covers 1950 to 2099.
-   * Future and past dates are an extrapolations of the latest known rules.
-   * <p>
-   * Referenced by the 2006 ISDA definitions 1.10.
+   * The singleton instance of the lookup.
    */
-  public static final HolidayCalendar NYSE = generateNewYorkStockExchange();
-  /**
-   * The holiday calendar for Tokyo, Japan, with code 'JPTO'.
-   * <p>
-   * This constant provides the calendar for Tokyo bank holidays.
-   * <p>
-   * The default implementation is based on original research and covers 1950 to 2099.
-   * Future and past dates are an extrapolations of the latest known rules.
-   */
-  public static final HolidayCalendar JPTO = generateTokyo();
+  static final GlobalHolidayCalendars INSTANCE = new GlobalHolidayCalendars();
+
   /**
-   * The holiday calendar for Toronto, Canada, with code 'CATO'.
-   * <p>
-   * This constant provides the calendar for Toronto holidays.
-   * <p>
-   * The default implementation is based on original research and covers 1950 to 2099.
-   * Future and past dates are an extrapolations of the latest known rules.
+   * The calendars that have been created, keyed by name.
    */
-  public static final HolidayCalendar CATO = generateToronto();
+  private final ConcurrentHashMap<String, HolidayCalendar> calendars = new ConcurrentHashMap<>();
 
-  //-------------------------------------------------------------------------
   /**
    * Restricted constructor.
    */
   private GlobalHolidayCalendars() {
   }
 
+  //-------------------------------------------------------------------------
+  @Override
+  public HolidayCalendar lookup(String name) {
+    Supplier<ImmutableHolidayCalendar> generator = GENERATORS.get(name);
+    if (generator == null) {
+      return null;
+    }
+    return calendars.computeIfAbsent(name, key -> SnapshotHolder.SNAPSHOT
+        .flatMap(snapshot -> snapshot.calendar(key))
+        .orElseGet(generator));
+  }
+
+  @Override
+  public ImmutableMap<String, HolidayCalendar> lookupAll() {
+    ImmutableMap.Builder<String, HolidayCalendar> builder = ImmutableMap.builder();
+    for (String name : GENERATORS.keySet()) {
+      builder.put(name, lookup(name));
+    }
+    return builder.build();
+  }
+
+  // the snapshot is only read when the first calendar is looked up
+  private static final class SnapshotHolder {
+    private static final Optional<HolidayCalendarSnapshot> SNAPSHOT =
+        HolidayCalendarSnapshot.load(GlobalHolidayCalendars.class, SNAPSHOT_RESOURCE);
+  }
+
   //-------------------------------------------------------------------------
   // generate GBLO
   // common law (including before 1871) good friday and christmas day (unadjusted for weekends)
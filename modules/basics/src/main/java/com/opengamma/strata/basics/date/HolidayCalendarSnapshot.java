@@ -0,0 +1,214 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.basics.date;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteStreams;
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * A compact binary snapshot of a set of holiday calendars.
+ * <p>
+ * Generating calendars from rules is a noticeable part of the start up time of short-lived processes.
+ * The snapshot holds the weekend days and holidays of each calendar in binary form.
+ * Each holiday is stored as the number of days since the previous holiday, using two bytes.
+ * <p>
+ * The snapshot is read once, but each calendar is only decoded when it is requested.
+ * The snapshot of the global calendars is a resource generated from the rules in {@link GlobalHolidayCalendars}.
+ */
+final class HolidayCalendarSnapshot {
+
+  /**
+   * The logger.
+   */
+  private static final Logger log = Logger.getLogger(HolidayCalendarSnapshot.class.getName());
+  /**
+   * The header of the binary format, including the version.
+   */
+  private static final int HEADER = 0x48434c01;
+
+  /**
+   * The binary data.
+   */
+  private final byte[] data;
+  /**
+   * The offset of each calendar in the data, keyed by name.
+   */
+  private final ImmutableMap<String, Integer> offsets;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a snapshot from its binary form.
+   * <p>
+   * The names of the calendars are indexed, but the calendars are not decoded.
+   * The array is not copied.
+   *
+   * @param data  the binary data
+   * @return the snapshot
+   * @throws IllegalArgumentException if the data is not a valid snapshot
+   */
+  static HolidayCalendarSnapshot of(byte[] data) {
+    ArgChecker.notNull(data, "data");
+    try {
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+      if (in.readInt() != HEADER) {
+        throw new IllegalArgumentException("Invalid holiday calendar snapshot header");
+      }
+      int count = in.readInt();
+      ImmutableMap.Builder<String, Integer> offsets = ImmutableMap.builder();
+      for (int i = 0; i < count; i++) {
+        int offset = data.length - in.available();
+        offsets.put(in.readUTF(), offset);
+        in.readByte();
+        int holidayCount = in.readInt();
+        if (holidayCount > 0) {
+          in.readInt();
+          in.skipBytes(2 * (holidayCount - 1));
+        }
+      }
+      return new HolidayCalendarSnapshot(data, offsets.build());
+    } catch (IOException ex) {
+      throw new IllegalArgumentException("Invalid holiday calendar snapshot", ex);
+    }
+  }
+
+  /**
+   * Loads a snapshot from a resource, returning empty if the resource is not found or invalid.
+   *
+   * @param type  the class that the resource name is relative to
+   * @param resourceName  the resource name
+   * @return the snapshot, empty if not available
+   */
+  static Optional<HolidayCalendarSnapshot> load(Class<?> type, String resourceName) {
+    try (InputStream in = type.getResourceAsStream(resourceName)) {
+      if (in == null) {
+        return Optional.empty();
+      }
+      return Optional.of(of(ByteStreams.toByteArray(in)));
+    } catch (IOException | RuntimeException ex) {
+      log.log(Level.WARNING, "Unable to load holiday calendar snapshot: " + resourceName, ex);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Writes the binary form of a list of calendars.
+   *
+   * @param calendars  the calendars
+   * @return the binary data
+   */
+  static byte[] write(List<ImmutableHolidayCalendar> calendars) {
+    try {
+      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(baos);
+      out.writeInt(HEADER);
+      out.writeInt(calendars.size());
+      for (ImmutableHolidayCalendar calendar : calendars) {
+        out.writeUTF(calendar.getName());
+        int weekendMask = 0;
+        for (DayOfWeek dow : calendar.getWeekendDays()) {
+          weekendMask |= 1 << dow.ordinal();
+        }
+        out.writeByte(weekendMask);
+        out.writeInt(calendar.getHolidays().size());
+        Long previous = null;
+        for (LocalDate holiday : calendar.getHolidays()) {
+          long epochDay = holiday.toEpochDay();
+          if (previous == null) {
+            out.writeInt(Math.toIntExact(epochDay));
+          } else {
+            long gap = epochDay - previous;
+            ArgChecker.isTrue(gap <= Character.MAX_VALUE, "Gap between holidays is too large: {}", holiday);
+            out.writeChar((int) gap);
+          }
+          previous = epochDay;
+        }
+      }
+      out.flush();
+      return baos.toByteArray();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Restricted constructor.
+   *
+   * @param data  the binary data
+   * @param offsets  the offsets of the calendars
+   */
+  private HolidayCalendarSnapshot(byte[] data, ImmutableMap<String, Integer> offsets) {
+    this.data = data;
+    this.offsets = offsets;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the names of the calendars in the snapshot.
+   *
+   * @return the names
+   */
+  ImmutableSet<String> names() {
+    return offsets.keySet();
+  }
+
+  /**
+   * Decodes a calendar from the snapshot, returning empty if it is not in the snapshot.
+   *
+   * @param name  the name of the calendar
+   * @return the calendar, empty if not found
+   */
+  Optional<ImmutableHolidayCalendar> calendar(String name) {
+    Integer offset = offsets.get(name);
+    if (offset == null) {
+      return Optional.empty();
+    }
+    try {
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, offset, data.length - offset));
+      in.readUTF();
+      int weekendMask = in.readByte();
+      Set<DayOfWeek> weekendDays = EnumSet.noneOf(DayOfWeek.class);
+      for (DayOfWeek dow : DayOfWeek.values()) {
+        if ((weekendMask & (1 << dow.ordinal())) != 0) {
+          weekendDays.add(dow);
+        }
+      }
+      int holidayCount = in.readInt();
+      List<LocalDate> holidays = new ArrayList<>(holidayCount);
+      if (holidayCount > 0) {
+        long epochDay = in.readInt();
+        holidays.add(LocalDate.ofEpochDay(epochDay));
+        for (int i = 1; i < holidayCount; i++) {
+          epochDay += in.readChar();
+          holidays.add(LocalDate.ofEpochDay(epochDay));
+        }
+      }
+      return Optional.of(ImmutableHolidayCalendar.of(HolidayCalendarId.of(name), holidays, weekendDays));
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+}
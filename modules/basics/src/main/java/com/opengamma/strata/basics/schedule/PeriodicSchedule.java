@@ -57,7 +57,7 @@ import com.opengamma.strata.collect.ArgChecker;
  * <pre>
  *  // example swap using builder
  *  BusinessDayAdjustment businessDayAdj =
- *    BusinessDayAdjustment.of(BusinessDayConventions.MODIFIED_FOLLOWING, GlobalHolidayCalendars.EUTA);
+ *    BusinessDayAdjustment.of(BusinessDayConventions.MODIFIED_FOLLOWING, HolidayCalendarIds.EUTA);
  *  PeriodicSchedule definition = PeriodicSchedule.builder()
  *      .startDate(LocalDate.of(2014, 2, 12))
  *      .endDate(LocalDate.of(2015, 3, 31))
@@ -8,8 +8,8 @@ package com.opengamma.strata.basics;
 import static com.opengamma.strata.collect.TestHelper.assertSerialization;
 import static com.opengamma.strata.collect.TestHelper.assertThrows;
 import static com.opengamma.strata.collect.TestHelper.coverBeanEquals;
+import static com.opengamma.strata.collect.TestHelper.coverEnum;
 import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
-import static com.opengamma.strata.collect.TestHelper.coverPrivateConstructor;
 import static org.testng.Assert.assertEquals;
 
 import java.util.HashMap;
@@ -19,6 +19,9 @@ import java.util.Optional;
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.date.HolidayCalendarId;
+import com.opengamma.strata.basics.date.HolidayCalendarIds;
+import com.opengamma.strata.basics.date.HolidayCalendars;
 
 /**
  * Test {@link ReferenceData} and {@link ImmutableReferenceData}.
@@ -82,6 +85,18 @@ public class ReferenceDataTest {
     assertThrows(() -> ReferenceData.of(dataMap), IllegalArgumentException.class);
   }
 
+  public void test_standard() {
+    ReferenceData test = ReferenceData.standard();
+
+    assertEquals(test.containsValue(HolidayCalendarIds.GBLO), true);
+    assertEquals(test.getValue(HolidayCalendarIds.GBLO), HolidayCalendars.of("GBLO"));
+    assertEquals(test.findValue(HolidayCalendarIds.NO_HOLIDAYS), Optional.of(HolidayCalendars.NO_HOLIDAYS));
+
+    assertEquals(test.containsValue(HolidayCalendarId.of("Rubbish")), false);
+    assertThrows(() -> test.getValue(HolidayCalendarId.of("Rubbish")), ReferenceDataNotFoundException.class);
+    assertEquals(test.findValue(ID1), Optional.empty());
+  }
+
   //-------------------------------------------------------------------------
   public void test_defaultMethods() {
     ReferenceData test = new ReferenceData() {
@@ -141,13 +156,14 @@ public class ReferenceDataTest {
     ImmutableReferenceData test2 = ImmutableReferenceData.of(dataMap2);
     coverBeanEquals(test, test2);
 
-    coverPrivateConstructor(StandardReferenceData.class);
+    coverEnum(StandardReferenceData.class);
   }
 
   public void test_serialization() {
     Map<ReferenceDataId<?>, Object> dataMap = ImmutableMap.of(ID1, VAL1);
     ReferenceData test = ImmutableReferenceData.of(dataMap);
     assertSerialization(test);
+    assertSerialization(ReferenceData.standard());
   }
 
 }
@@ -9,6 +9,8 @@ import static com.opengamma.strata.collect.TestHelper.coverPrivateConstructor;
 import static java.time.DayOfWeek.SATURDAY;
 import static java.time.DayOfWeek.SUNDAY;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
 
 import java.time.LocalDate;
 import java.time.MonthDay;
@@ -674,6 +676,16 @@ public class GlobalHolidayCalendarsTest {
     return MonthDay.of(month, day);
   }
 
+  //-------------------------------------------------------------------------
+  public void test_lookup() {
+    GlobalHolidayCalendars test = GlobalHolidayCalendars.INSTANCE;
+    assertEquals(test.lookup("GBLO"), GlobalHolidayCalendars.generateLondon());
+    assertSame(test.lookup("GBLO"), test.lookup("GBLO"));
+    assertNull(test.lookup("Rubbish"));
+    assertEquals(test.lookupAll().keySet(), GlobalHolidayCalendars.GENERATORS.keySet());
+    assertEquals(HolidayCalendars.of("USNY"), GlobalHolidayCalendars.generateUsNewYork());
+  }
+
   //-------------------------------------------------------------------------
   public static void coverage() {
     coverPrivateConstructor(GlobalHolidayCalendars.class);
@@ -0,0 +1,59 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.basics.date;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates the snapshot resource of the global holiday calendars.
+ * <p>
+ * This must be run whenever the rules in {@link GlobalHolidayCalendars} change.
+ * {@link HolidayCalendarSnapshotTest} fails if the resource does not match the rules.
+ */
+public final class HolidayCalendarSnapshotGenerator {
+
+  /**
+   * The location of the resource, relative to the root of the project.
+   */
+  static final String RESOURCE_FILE =
+      "modules/basics/src/main/resources/com/opengamma/strata/basics/date/" + GlobalHolidayCalendars.SNAPSHOT_RESOURCE;
+
+  /**
+   * Restricted constructor.
+   */
+  private HolidayCalendarSnapshotGenerator() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Writes the snapshot resource.
+   *
+   * @param args  optionally, the file to write, defaulting to the resource file relative to the working directory
+   * @throws IOException if an IO error occurs
+   */
+  public static void main(String[] args) throws IOException {
+    Path file = Paths.get(args.length > 0 ? args[0] : RESOURCE_FILE);
+    Files.createDirectories(file.toAbsolutePath().getParent());
+    Files.write(file, generate());
+  }
+
+  /**
+   * Generates the binary form of the snapshot from the rules.
+   *
+   * @return the binary data
+   */
+  static byte[] generate() {
+    List<ImmutableHolidayCalendar> calendars = new ArrayList<>();
+    GlobalHolidayCalendars.GENERATORS.values().forEach(generator -> calendars.add(generator.get()));
+    return HolidayCalendarSnapshot.write(calendars);
+  }
+
+}
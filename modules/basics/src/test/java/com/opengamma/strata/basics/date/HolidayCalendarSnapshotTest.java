@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.basics.date;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static java.time.DayOfWeek.FRIDAY;
+import static java.time.DayOfWeek.SATURDAY;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Test {@link HolidayCalendarSnapshot}.
+ */
+@Test
+public class HolidayCalendarSnapshotTest {
+
+  public void test_resource_matchesRules() throws IOException {
+    try (InputStream in = GlobalHolidayCalendars.class.getResourceAsStream(GlobalHolidayCalendars.SNAPSHOT_RESOURCE)) {
+      assertNotNull(in, "Snapshot resource not found, run HolidayCalendarSnapshotGenerator");
+      assertTrue(
+          Arrays.equals(ByteStreams.toByteArray(in), HolidayCalendarSnapshotGenerator.generate()),
+          "Snapshot resource does not match the rules, run HolidayCalendarSnapshotGenerator");
+    }
+  }
+
+  public void test_roundTrip_global() {
+    List<ImmutableHolidayCalendar> calendars = new ArrayList<>();
+    GlobalHolidayCalendars.GENERATORS.values().forEach(generator -> calendars.add(generator.get()));
+    HolidayCalendarSnapshot test = HolidayCalendarSnapshot.of(HolidayCalendarSnapshot.write(calendars));
+    assertEquals(test.names(), GlobalHolidayCalendars.GENERATORS.keySet());
+    for (ImmutableHolidayCalendar calendar : calendars) {
+      assertEquals(test.calendar(calendar.getName()), Optional.of(calendar));
+    }
+    assertEquals(test.calendar("Rubbish"), Optional.empty());
+  }
+
+  public void test_roundTrip_weekendsAndEmpty() {
+    ImmutableHolidayCalendar empty = ImmutableHolidayCalendar.of(
+        HolidayCalendarId.of("Empty"), ImmutableList.of(), FRIDAY, SATURDAY);
+    ImmutableHolidayCalendar single = ImmutableHolidayCalendar.of(
+        HolidayCalendarId.of("Single"), ImmutableList.of(LocalDate.of(2016, 1, 1)), ImmutableList.of());
+    byte[] data = HolidayCalendarSnapshot.write(ImmutableList.of(empty, single));
+    HolidayCalendarSnapshot test = HolidayCalendarSnapshot.of(data);
+    assertEquals(test.calendar("Empty"), Optional.of(empty));
+    assertEquals(test.calendar("Single"), Optional.of(single));
+  }
+
+  public void test_invalid() {
+    assertThrowsIllegalArg(() -> HolidayCalendarSnapshot.of(new byte[] {1, 2, 3, 4}));
+    assertThrowsIllegalArg(() -> HolidayCalendarSnapshot.of(new byte[0]));
+  }
+
+  public void test_load_notFound() {
+    assertFalse(HolidayCalendarSnapshot.load(HolidayCalendarSnapshotTest.class, "Rubbish.bin").isPresent());
+  }
+
+}
@@ -0,0 +1,271 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.Result;
+
+/**
+ * Results of performing calculations for a set of targets over a set of scenarios, stored by column.
+ * <p>
+ * This holds the same information as {@link Results}, but stores numeric results in primitive form.
+ * A column whose successful results are all of the same numeric type, such as {@code Double},
+ * {@code CurrencyAmount}, {@code ValuesArray} or {@code CurrencyValuesArray}, holds its values
+ * in blocks of doubles laid out by row and then scenario. Failures are recorded separately.
+ * This avoids the overhead of an object for each cell, which dominates the memory used by
+ * large sets of results. Columns of other types hold the results as objects.
+ * <p>
+ * The blocks of doubles can optionally be held in memory-mapped temporary files in a spill directory
+ * rather than on the heap. The files are deleted once mapped, and the memory is released when the
+ * results are garbage collected.
+ * <p>
+ * The results of a cell can be obtained as a {@link Result} using {@link #get(int, int)},
+ * which creates the result object on demand. The numeric values can be obtained without
+ * creating any objects using {@link #getValue(int, int, int)}.
+ * <p>
+ * Instances are created using {@link ColumnarResultsBuilder}, or from an instance of {@code Results}.
+ * This class is immutable and thread-safe.
+ */
+public final class ColumnarResults {
+
+  /**
+   * The column headers.
+   */
+  private final ImmutableList<ColumnHeader> columns;
+  /**
+   * The number of rows.
+   */
+  private final int rowCount;
+  /**
+   * The results of each column.
+   */
+  private final ResultColumn[] resultColumns;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance holding the results of the calculations, storing numeric values on the heap.
+   *
+   * @param results  the results of the calculations
+   * @return the columnar results
+   */
+  public static ColumnarResults of(Results results) {
+    return populate(ColumnarResultsBuilder.of(results.getColumns(), results.getRowCount()), results);
+  }
+
+  /**
+   * Obtains an instance holding the results of the calculations, storing numeric values
+   * in memory-mapped files in the specified directory.
+   *
+   * @param results  the results of the calculations
+   * @param spillDirectory  the directory used to store numeric values
+   * @return the columnar results
+   */
+  public static ColumnarResults of(Results results, Path spillDirectory) {
+    return populate(ColumnarResultsBuilder.of(results.getColumns(), results.getRowCount(), spillDirectory), results);
+  }
+
+  // populates the builder from the results
+  private static ColumnarResults populate(ColumnarResultsBuilder builder, Results results) {
+    for (int rowIndex = 0; rowIndex < results.getRowCount(); rowIndex++) {
+      for (int columnIndex = 0; columnIndex < results.getColumnCount(); columnIndex++) {
+        builder.add(rowIndex, columnIndex, results.get(rowIndex, columnIndex));
+      }
+    }
+    return builder.build();
+  }
+
+  // creates an instance
+  ColumnarResults(List<ColumnHeader> columns, int rowCount, ResultColumn[] resultColumns) {
+    this.columns = ImmutableList.copyOf(columns);
+    this.rowCount = rowCount;
+    this.resultColumns = resultColumns;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the column headers.
+   *
+   * @return the column headers
+   */
+  public ImmutableList<ColumnHeader> getColumns() {
+    return columns;
+  }
+
+  /**
+   * Gets the number of rows in the results.
+   * <p>
+   * The number of rows equals the number of targets input to the calculation.
+   *
+   * @return the number of rows
+   */
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Gets the number of columns in the results.
+   *
+   * @return the number of columns
+   */
+  public int getColumnCount() {
+    return columns.size();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns the results for a target and column for a set of scenarios.
+   * <p>
+   * The result is equal to the result that was added, but may not be the same instance.
+   *
+   * @param rowIndex  the index of the row containing the results for a target
+   * @param columnIndex  the index of the column
+   * @return the results for the specified row and column for a set of scenarios
+   */
+  public Result<?> get(int rowIndex, int columnIndex) {
+    return column(columnIndex).get(checkRow(rowIndex));
+  }
+
+  /**
+   * Checks whether the result for a target and column is a success.
+   *
+   * @param rowIndex  the index of the row containing the results for a target
+   * @param columnIndex  the index of the column
+   * @return true if the result is a success
+   */
+  public boolean isSuccess(int rowIndex, int columnIndex) {
+    return column(columnIndex).isSuccess(checkRow(rowIndex));
+  }
+
+  /**
+   * Checks whether the values of a column are stored in primitive form.
+   * <p>
+   * If true, the values of the successful results in the column can be obtained using
+   * {@link #getValue(int, int, int)} and {@link #getValues(int, int)}.
+   *
+   * @param columnIndex  the index of the column
+   * @return true if the values of the column are numeric
+   */
+  public boolean isNumeric(int columnIndex) {
+    return column(columnIndex) instanceof ResultColumn.DoubleColumn;
+  }
+
+  /**
+   * Gets the number of scenarios of the values of a numeric column.
+   *
+   * @param columnIndex  the index of the column
+   * @return the number of scenarios
+   * @throws IllegalArgumentException if the column is not numeric
+   */
+  public int getScenarioCount(int columnIndex) {
+    return numericColumn(columnIndex).getScenarioCount();
+  }
+
+  /**
+   * Gets the value for a target, column and scenario.
+   * <p>
+   * The column must be numeric and the result must be a success.
+   * For a currency amount, the value is the amount, in the currency of the result.
+   *
+   * @param rowIndex  the index of the row containing the results for a target
+   * @param columnIndex  the index of the column
+   * @param scenarioIndex  the index of the scenario
+   * @return the value
+   * @throws IllegalArgumentException if the column is not numeric or the result is a failure
+   */
+  public double getValue(int rowIndex, int columnIndex, int scenarioIndex) {
+    ResultColumn.DoubleColumn column = numericColumn(columnIndex);
+    ArgChecker.inRange(scenarioIndex, 0, column.getScenarioCount(), "scenarioIndex");
+    return column.getValue(checkSuccess(column, rowIndex, columnIndex), scenarioIndex);
+  }
+
+  /**
+   * Gets the values for a target and column, one for each scenario.
+   * <p>
+   * The column must be numeric and the result must be a success.
+   *
+   * @param rowIndex  the index of the row containing the results for a target
+   * @param columnIndex  the index of the column
+   * @return the values
+   * @throws IllegalArgumentException if the column is not numeric or the result is a failure
+   */
+  public DoubleArray getValues(int rowIndex, int columnIndex) {
+    ResultColumn.DoubleColumn column = numericColumn(columnIndex);
+    return column.getValues(checkSuccess(column, rowIndex, columnIndex));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Converts these results to an instance of {@link Results}.
+   * <p>
+   * This creates an object for each cell.
+   *
+   * @return the results
+   */
+  public Results toResults() {
+    List<Result<?>> cells = new ArrayList<>(rowCount * resultColumns.length);
+    for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+      for (ResultColumn column : resultColumns) {
+        cells.add(column.get(rowIndex));
+      }
+    }
+    return Results.of(columns, cells);
+  }
+
+  //-------------------------------------------------------------------------
+  // checks the row index is valid
+  private int checkRow(int rowIndex) {
+    if (rowIndex < 0 || rowIndex >= rowCount) {
+      throw new IllegalArgumentException(Messages.format(
+          "Row index must be greater than or equal to zero and less than the row count ({}), but it was {}",
+          rowCount,
+          rowIndex));
+    }
+    return rowIndex;
+  }
+
+  // obtains the column, checking the index is valid
+  private ResultColumn column(int columnIndex) {
+    if (columnIndex < 0 || columnIndex >= resultColumns.length) {
+      throw new IllegalArgumentException(Messages.format(
+          "Column index must be greater than or equal to zero and less than the column count ({}), but it was {}",
+          resultColumns.length,
+          columnIndex));
+    }
+    return resultColumns[columnIndex];
+  }
+
+  // obtains the numeric column, checking the index is valid
+  private ResultColumn.DoubleColumn numericColumn(int columnIndex) {
+    ResultColumn column = column(columnIndex);
+    if (!(column instanceof ResultColumn.DoubleColumn)) {
+      throw new IllegalArgumentException(Messages.format("Column {} is not numeric", columns.get(columnIndex)));
+    }
+    return (ResultColumn.DoubleColumn) column;
+  }
+
+  // checks the result of the row is a success
+  private int checkSuccess(ResultColumn.DoubleColumn column, int rowIndex, int columnIndex) {
+    if (!column.isSuccess(checkRow(rowIndex))) {
+      throw new IllegalArgumentException(Messages.format(
+          "Result for row {} and column {} is a failure", rowIndex, columns.get(columnIndex)));
+    }
+    return rowIndex;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return Messages.format("ColumnarResults[columns={}, rowCount={}]", columns, rowCount);
+  }
+
+}
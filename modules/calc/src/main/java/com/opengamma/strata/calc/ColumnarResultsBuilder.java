@@ -0,0 +1,171 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.result.Result;
+
+/**
+ * Builder for {@link ColumnarResults}.
+ * <p>
+ * The results of each cell are added individually, in any order, and every cell must be added
+ * before the results are built. The storage of each column is chosen when the first successful
+ * result of the column is added. If a later result of the column does not match, such as a value
+ * of a different type or with a different number of scenarios, the column reverts to storing objects.
+ * <p>
+ * The built results take ownership of the column storage, so the builder cannot be used once
+ * the results have been built.
+ * <p>
+ * This class is mutable and not thread-safe.
+ */
+public final class ColumnarResultsBuilder {
+
+  /**
+   * The column headers.
+   */
+  private final ImmutableList<ColumnHeader> columns;
+  /**
+   * The number of rows.
+   */
+  private final int rowCount;
+  /**
+   * The directory used to store numeric values, null to store them on the heap.
+   */
+  private final Path spillDirectory;
+  /**
+   * The results of each column, null until the first successful result of the column is added.
+   */
+  private final ResultColumn[] resultColumns;
+  /**
+   * The failures added to each column before the first successful result, keyed by row.
+   */
+  private final List<Map<Integer, Result<?>>> pendingFailures;
+  /**
+   * Whether the results have been built, after which the columns belong to the results.
+   */
+  private boolean built;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a builder that stores numeric values on the heap.
+   *
+   * @param columns  the column headers
+   * @param rowCount  the number of rows
+   * @return the builder
+   */
+  public static ColumnarResultsBuilder of(List<ColumnHeader> columns, int rowCount) {
+    return new ColumnarResultsBuilder(columns, rowCount, null);
+  }
+
+  /**
+   * Obtains a builder that stores numeric values in memory-mapped files in the specified directory.
+   *
+   * @param columns  the column headers
+   * @param rowCount  the number of rows
+   * @param spillDirectory  the directory used to store numeric values
+   * @return the builder
+   */
+  public static ColumnarResultsBuilder of(List<ColumnHeader> columns, int rowCount, Path spillDirectory) {
+    ArgChecker.notNull(spillDirectory, "spillDirectory");
+    return new ColumnarResultsBuilder(columns, rowCount, spillDirectory);
+  }
+
+  // restricted constructor
+  private ColumnarResultsBuilder(List<ColumnHeader> columns, int rowCount, Path spillDirectory) {
+    ArgChecker.notNull(columns, "columns");
+    ArgChecker.notNegative(rowCount, "rowCount");
+    this.columns = ImmutableList.copyOf(columns);
+    this.rowCount = rowCount;
+    this.spillDirectory = spillDirectory;
+    this.resultColumns = new ResultColumn[columns.size()];
+    this.pendingFailures = new ArrayList<>(columns.size());
+    for (int i = 0; i < columns.size(); i++) {
+      pendingFailures.add(new HashMap<>());
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Adds the result of a cell.
+   * <p>
+   * If a result has already been added for the cell, it is replaced.
+   *
+   * @param rowIndex  the index of the row containing the results for a target
+   * @param columnIndex  the index of the column
+   * @param result  the result of the cell
+   * @return this builder
+   * @throws IllegalStateException if the results have already been built
+   */
+  public ColumnarResultsBuilder add(int rowIndex, int columnIndex, Result<?> result) {
+    checkNotBuilt();
+    ArgChecker.inRange(rowIndex, 0, rowCount, "rowIndex");
+    ArgChecker.inRange(columnIndex, 0, columns.size(), "columnIndex");
+    ArgChecker.notNull(result, "result");
+    ResultColumn column = resultColumns[columnIndex];
+    if (column == null) {
+      if (result.isFailure()) {
+        pendingFailures.get(columnIndex).put(rowIndex, result);
+        return this;
+      }
+      column = ResultColumn.of(rowCount, result, spillDirectory);
+      pendingFailures.get(columnIndex).forEach(column::set);
+      pendingFailures.set(columnIndex, null);
+      resultColumns[columnIndex] = column;
+    }
+    if (!column.set(rowIndex, result)) {
+      column = ResultColumn.ObjectColumn.copyOf(rowCount, column);
+      column.set(rowIndex, result);
+      resultColumns[columnIndex] = column;
+    }
+    return this;
+  }
+
+  /**
+   * Builds the results.
+   * <p>
+   * The results take ownership of the columns, so this builder cannot be used afterwards.
+   *
+   * @return the results
+   * @throws IllegalStateException if the result of a cell has not been added or the results have already been built
+   */
+  public ColumnarResults build() {
+    checkNotBuilt();
+    ResultColumn[] builtColumns = new ResultColumn[resultColumns.length];
+    for (int columnIndex = 0; columnIndex < resultColumns.length; columnIndex++) {
+      ResultColumn column = resultColumns[columnIndex];
+      if (column == null) {
+        // no successful results, so the failures are stored as objects
+        column = new ResultColumn.ObjectColumn(rowCount);
+        pendingFailures.get(columnIndex).forEach(column::set);
+      }
+      for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+        if (!column.isSet(rowIndex)) {
+          throw new IllegalStateException(Messages.format(
+              "No result added for row {} and column {}", rowIndex, columns.get(columnIndex)));
+        }
+      }
+      builtColumns[columnIndex] = column;
+    }
+    built = true;
+    return new ColumnarResults(columns, rowCount, builtColumns);
+  }
+
+  // checks the columns have not been handed over to built results
+  private void checkNotBuilt() {
+    if (built) {
+      throw new IllegalStateException("Results have already been built");
+    }
+  }
+
+}
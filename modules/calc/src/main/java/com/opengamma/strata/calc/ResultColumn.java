@@ -0,0 +1,370 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc;
+
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.collect.Unchecked;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.CurrencyValuesArray;
+import com.opengamma.strata.data.scenario.ValuesArray;
+
+/**
+ * The results of a single column of {@link ColumnarResults}.
+ * <p>
+ * Numeric results are stored in primitive form, see {@link DoubleColumn}.
+ * All other results are stored as objects, see {@link ObjectColumn}.
+ */
+abstract class ResultColumn {
+
+  /**
+   * Obtains an empty column, suitable for storing the specified result.
+   * <p>
+   * A column of primitive values is returned if the value of the result is numeric.
+   *
+   * @param rowCount  the number of rows
+   * @param result  the first result to be stored
+   * @param spillDirectory  the directory used to store primitive values, null to store them on the heap
+   * @return the column
+   */
+  static ResultColumn of(int rowCount, Result<?> result, Path spillDirectory) {
+    if (result.isSuccess()) {
+      Object value = result.getValue();
+      Kind kind = Kind.of(value);
+      if (kind != null) {
+        return new DoubleColumn(rowCount, kind, kind.scenarioCount(value), spillDirectory);
+      }
+    }
+    return new ObjectColumn(rowCount);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Sets the result of a row, returning false if the result cannot be stored in this column.
+   *
+   * @param rowIndex  the row index
+   * @param result  the result
+   * @return true if the result was stored
+   */
+  abstract boolean set(int rowIndex, Result<?> result);
+
+  /**
+   * Checks whether a result has been set for a row.
+   *
+   * @param rowIndex  the row index
+   * @return true if a result has been set
+   */
+  abstract boolean isSet(int rowIndex);
+
+  /**
+   * Checks whether the result of a row is a success.
+   *
+   * @param rowIndex  the row index
+   * @return true if the result is a success
+   */
+  abstract boolean isSuccess(int rowIndex);
+
+  /**
+   * Gets the result of a row, null if not set.
+   *
+   * @param rowIndex  the row index
+   * @return the result
+   */
+  abstract Result<?> get(int rowIndex);
+
+  //-------------------------------------------------------------------------
+  /**
+   * The kinds of numeric value that can be stored in primitive form.
+   */
+  enum Kind {
+    /** A {@code Double}. */
+    DOUBLE,
+    /** A {@code CurrencyAmount}. */
+    CURRENCY_AMOUNT,
+    /** A {@code ValuesArray}, one value for each scenario. */
+    VALUES_ARRAY,
+    /** A {@code CurrencyValuesArray}, one amount for each scenario. */
+    CURRENCY_VALUES_ARRAY;
+
+    // the kind of the value, null if the value cannot be stored in primitive form
+    static Kind of(Object value) {
+      if (value instanceof Double) {
+        return DOUBLE;
+      } else if (value instanceof CurrencyAmount) {
+        return CURRENCY_AMOUNT;
+      } else if (value instanceof ValuesArray) {
+        return VALUES_ARRAY;
+      } else if (value instanceof CurrencyValuesArray) {
+        return CURRENCY_VALUES_ARRAY;
+      }
+      return null;
+    }
+
+    // the number of scenarios of a value of this kind
+    int scenarioCount(Object value) {
+      switch (this) {
+        case VALUES_ARRAY:
+          return ((ValuesArray) value).getScenarioCount();
+        case CURRENCY_VALUES_ARRAY:
+          return ((CurrencyValuesArray) value).getScenarioCount();
+        default:
+          return 1;
+      }
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * A column storing numeric results as primitive values.
+   * <p>
+   * The values are laid out by row and then scenario in blocks of doubles, either on the heap or
+   * in memory-mapped temporary files. The currency of each row is held separately where applicable.
+   * Failures are recorded in a bitmap with the failure results held in a sparse map.
+   */
+  static final class DoubleColumn extends ResultColumn {
+
+    /**
+     * The number of bits of the index within a block.
+     */
+    private static final int BLOCK_BITS = 27;
+    /**
+     * The maximum number of values in a block, sized to keep each mapped region below 2GB.
+     */
+    private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+
+    /** The kind of the values. */
+    private final Kind kind;
+    /** The number of scenarios of each value. */
+    private final int scenarioCount;
+    /** The blocks of values. */
+    private final DoubleBuffer[] blocks;
+    /** The currency of each row, null if the values have no currency. */
+    private final Currency[] currencies;
+    /** The rows whose result is a success. */
+    private final BitSet successes;
+    /** The rows whose result is a failure. */
+    private final BitSet failures;
+    /** The failure results, keyed by row. */
+    private final Map<Integer, Result<?>> failureResults = new HashMap<>();
+
+    DoubleColumn(int rowCount, Kind kind, int scenarioCount, Path spillDirectory) {
+      this.kind = kind;
+      this.scenarioCount = scenarioCount;
+      this.blocks = allocate((long) rowCount * scenarioCount, spillDirectory);
+      boolean hasCurrency = kind == Kind.CURRENCY_AMOUNT || kind == Kind.CURRENCY_VALUES_ARRAY;
+      this.currencies = hasCurrency ? new Currency[rowCount] : null;
+      this.successes = new BitSet(rowCount);
+      this.failures = new BitSet(rowCount);
+    }
+
+    // allocates the blocks of values
+    private static DoubleBuffer[] allocate(long size, Path spillDirectory) {
+      DoubleBuffer[] blocks = new DoubleBuffer[(int) ((size + BLOCK_SIZE - 1) >>> BLOCK_BITS)];
+      if (spillDirectory == null) {
+        for (int i = 0; i < blocks.length; i++) {
+          blocks[i] = DoubleBuffer.wrap(new double[blockLength(size, i)]);
+        }
+        return blocks;
+      }
+      // the file is deleted when the channel is closed, the mapped regions remain valid until garbage collected
+      Unchecked.wrap(() -> {
+        Path file = Files.createTempFile(spillDirectory, "strata-results-", ".bin");
+        try (FileChannel channel = FileChannel.open(
+            file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE)) {
+          for (int i = 0; i < blocks.length; i++) {
+            long position = ((long) i << BLOCK_BITS) * Double.BYTES;
+            long length = (long) blockLength(size, i) * Double.BYTES;
+            blocks[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, length).asDoubleBuffer();
+          }
+        }
+      });
+      return blocks;
+    }
+
+    // the length of a block
+    private static int blockLength(long size, int blockIndex) {
+      return (int) Math.min(BLOCK_SIZE, size - ((long) blockIndex << BLOCK_BITS));
+    }
+
+    //-------------------------------------------------------------------------
+    /**
+     * Gets the number of scenarios of each value.
+     *
+     * @return the number of scenarios
+     */
+    int getScenarioCount() {
+      return scenarioCount;
+    }
+
+    /**
+     * Gets the value of a row for a scenario.
+     * <p>
+     * The result of the row must be a success.
+     *
+     * @param rowIndex  the row index
+     * @param scenarioIndex  the scenario index
+     * @return the value
+     */
+    double getValue(int rowIndex, int scenarioIndex) {
+      long index = (long) rowIndex * scenarioCount + scenarioIndex;
+      return blocks[(int) (index >>> BLOCK_BITS)].get((int) (index & (BLOCK_SIZE - 1)));
+    }
+
+    /**
+     * Gets the values of a row, one for each scenario.
+     * <p>
+     * The result of the row must be a success.
+     *
+     * @param rowIndex  the row index
+     * @return the values
+     */
+    DoubleArray getValues(int rowIndex) {
+      return DoubleArray.of(scenarioCount, scenarioIndex -> getValue(rowIndex, scenarioIndex));
+    }
+
+    // sets the value of a row for a scenario
+    private void setValue(int rowIndex, int scenarioIndex, double value) {
+      long index = (long) rowIndex * scenarioCount + scenarioIndex;
+      blocks[(int) (index >>> BLOCK_BITS)].put((int) (index & (BLOCK_SIZE - 1)), value);
+    }
+
+    //-------------------------------------------------------------------------
+    @Override
+    boolean set(int rowIndex, Result<?> result) {
+      if (result.isFailure()) {
+        successes.clear(rowIndex);
+        failures.set(rowIndex);
+        failureResults.put(rowIndex, result);
+        return true;
+      }
+      Object value = result.getValue();
+      if (Kind.of(value) != kind || kind.scenarioCount(value) != scenarioCount) {
+        return false;
+      }
+      switch (kind) {
+        case DOUBLE:
+          setValue(rowIndex, 0, (Double) value);
+          break;
+        case CURRENCY_AMOUNT:
+          CurrencyAmount amount = (CurrencyAmount) value;
+          currencies[rowIndex] = amount.getCurrency();
+          setValue(rowIndex, 0, amount.getAmount());
+          break;
+        case VALUES_ARRAY:
+          setValues(rowIndex, ((ValuesArray) value).getValues());
+          break;
+        case CURRENCY_VALUES_ARRAY:
+          CurrencyValuesArray amounts = (CurrencyValuesArray) value;
+          currencies[rowIndex] = amounts.getCurrency();
+          setValues(rowIndex, amounts.getValues());
+          break;
+        default:
+          throw new IllegalStateException("Unknown kind: " + kind);
+      }
+      failures.clear(rowIndex);
+      failureResults.remove(rowIndex);
+      successes.set(rowIndex);
+      return true;
+    }
+
+    // sets the values of a row
+    private void setValues(int rowIndex, DoubleArray values) {
+      for (int i = 0; i < scenarioCount; i++) {
+        setValue(rowIndex, i, values.get(i));
+      }
+    }
+
+    @Override
+    boolean isSet(int rowIndex) {
+      return successes.get(rowIndex) || failures.get(rowIndex);
+    }
+
+    @Override
+    boolean isSuccess(int rowIndex) {
+      return successes.get(rowIndex);
+    }
+
+    @Override
+    Result<?> get(int rowIndex) {
+      if (!successes.get(rowIndex)) {
+        return failureResults.get(rowIndex);
+      }
+      switch (kind) {
+        case DOUBLE:
+          return Result.success(getValue(rowIndex, 0));
+        case CURRENCY_AMOUNT:
+          return Result.success(CurrencyAmount.of(currencies[rowIndex], getValue(rowIndex, 0)));
+        case VALUES_ARRAY:
+          return Result.success(ValuesArray.of(getValues(rowIndex)));
+        case CURRENCY_VALUES_ARRAY:
+          return Result.success(CurrencyValuesArray.of(currencies[rowIndex], getValues(rowIndex)));
+        default:
+          throw new IllegalStateException("Unknown kind: " + kind);
+      }
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * A column storing results as objects.
+   */
+  static final class ObjectColumn extends ResultColumn {
+
+    /** The results, one for each row. */
+    private final Result<?>[] results;
+
+    ObjectColumn(int rowCount) {
+      this.results = new Result<?>[rowCount];
+    }
+
+    /**
+     * Obtains a column containing the results of another column.
+     *
+     * @param rowCount  the number of rows
+     * @param column  the column to copy
+     * @return the column
+     */
+    static ObjectColumn copyOf(int rowCount, ResultColumn column) {
+      ObjectColumn copy = new ObjectColumn(rowCount);
+      for (int i = 0; i < rowCount; i++) {
+        copy.results[i] = column.get(i);
+      }
+      return copy;
+    }
+
+    @Override
+    boolean set(int rowIndex, Result<?> result) {
+      results[rowIndex] = result;
+      return true;
+    }
+
+    @Override
+    boolean isSet(int rowIndex) {
+      return results[rowIndex] != null;
+    }
+
+    @Override
+    boolean isSuccess(int rowIndex) {
+      return results[rowIndex] != null && results[rowIndex].isSuccess();
+    }
+
+    @Override
+    Result<?> get(int rowIndex) {
+      return results[rowIndex];
+    }
+  }
+
+}
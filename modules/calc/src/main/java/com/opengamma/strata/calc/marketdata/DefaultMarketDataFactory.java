@@ -9,18 +9,32 @@ import static com.opengamma.strata.collect.Guavate.not;
 import static com.opengamma.strata.collect.Guavate.toImmutableMap;
 import static com.opengamma.strata.collect.Guavate.toImmutableSet;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import com.google.common.collect.ImmutableMap;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.calc.marketdata.scenario.PerturbationMapping;
 import com.opengamma.strata.calc.marketdata.scenario.ScenarioDefinition;
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.MapStream;
+import com.opengamma.strata.collect.Unchecked;
+import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
 import com.opengamma.strata.collect.tuple.Pair;
 import com.opengamma.strata.data.MarketDataId;
 import com.opengamma.strata.data.ObservableId;
@@ -31,9 +45,19 @@ import com.opengamma.strata.data.scenario.ScenarioMarketData;
  * The default market data factory.
  * <p>
  * This uses two providers, one for observable data and one for time-series.
+ * The providers are invoked asynchronously, so that observable data and time-series are fetched
+ * in parallel with each other and with the building of non-observable market data.
+ * Blocking requests to the providers run on an executor, by default a bounded pool of daemon threads
+ * shared by all factories, rather than the common fork-join pool used for computation.
+ * A request that does not complete within the timeout is cancelled, which interrupts the blocking request.
  */
 final class DefaultMarketDataFactory implements MarketDataFactory {
 
+  /** The timeout used when no timeout is specified, effectively waiting indefinitely. */
+  static final Duration NO_TIMEOUT = Duration.ofNanos(Long.MAX_VALUE);
+  /** The executor used for blocking requests to the providers when no executor is specified. */
+  private static final Executor DEFAULT_PROVIDER_EXECUTOR = createProviderExecutor();
+
   /** Builds observable market data. */
   private final ObservableDataProvider observableDataProvider;
 
@@ -43,6 +67,12 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
   /** Market data functions, keyed by the type of the market data ID they can handle. */
   private final Map<Class<? extends MarketDataId<?>>, MarketDataFunction<?, ?>> functions;
 
+  /** The maximum time to wait for the providers in each step of building. */
+  private final Duration providerTimeout;
+
+  /** The executor used for blocking requests to the providers. */
+  private final Executor providerExecutor;
+
   //-------------------------------------------------------------------------
   /**
    * Creates an instance of the factory based on providers of market data and time-series.
@@ -53,14 +83,61 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
    * @param timeSeriesProvider  the provider time-series
    * @param functions  the functions that create the market data
    */
+  DefaultMarketDataFactory(
+      ObservableDataProvider observableDataProvider,
+      TimeSeriesProvider timeSeriesProvider,
+      List<MarketDataFunction<?, ?>> functions) {
+
+    this(observableDataProvider, timeSeriesProvider, NO_TIMEOUT, functions);
+  }
+
+  /**
+   * Creates an instance of the factory based on providers of market data and time-series,
+   * specifying the maximum time to wait for the providers.
+   * <p>
+   * The market data functions are used to build the market data.
+   * Any observable data or time-series not provided within the timeout is recorded as a failure.
+   *
+   * @param observableDataProvider  the provider observable market data
+   * @param timeSeriesProvider  the provider time-series
+   * @param providerTimeout  the maximum time to wait for the providers in each step of building
+   * @param functions  the functions that create the market data
+   */
+  DefaultMarketDataFactory(
+      ObservableDataProvider observableDataProvider,
+      TimeSeriesProvider timeSeriesProvider,
+      Duration providerTimeout,
+      List<MarketDataFunction<?, ?>> functions) {
+
+    this(observableDataProvider, timeSeriesProvider, providerTimeout, DEFAULT_PROVIDER_EXECUTOR, functions);
+  }
+
+  /**
+   * Creates an instance of the factory based on providers of market data and time-series,
+   * specifying the maximum time to wait for the providers and the executor used to invoke them.
+   * <p>
+   * The market data functions are used to build the market data.
+   * Any observable data or time-series not provided within the timeout is recorded as a failure.
+   *
+   * @param observableDataProvider  the provider observable market data
+   * @param timeSeriesProvider  the provider time-series
+   * @param providerTimeout  the maximum time to wait for the providers in each step of building
+   * @param providerExecutor  the executor used for blocking requests to the providers
+   * @param functions  the functions that create the market data
+   */
   @SuppressWarnings("unchecked")
   DefaultMarketDataFactory(
       ObservableDataProvider observableDataProvider,
       TimeSeriesProvider timeSeriesProvider,
+      Duration providerTimeout,
+      Executor providerExecutor,
       List<MarketDataFunction<?, ?>> functions) {
 
+    ArgChecker.isFalse(providerTimeout.isNegative() || providerTimeout.isZero(), "Timeout must be positive");
     this.observableDataProvider = observableDataProvider;
     this.timeSeriesProvider = timeSeriesProvider;
+    this.providerTimeout = providerTimeout;
+    this.providerExecutor = ArgChecker.notNull(providerExecutor, "providerExecutor");
 
     // Use a HashMap instead of an ImmutableMap.Builder so values can be overwritten.
     // If the functions argument includes a missing mapping builder it can overwrite the one inserted below
@@ -125,20 +202,13 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
       // The requirements contained in the leaf nodes
       MarketDataRequirements leafRequirements = pair.getSecond();
 
-      // Time series of observable data ------------------------------------------------------------
+      // Request observable data and time-series ---------------------------------------------------
 
       // Build any time series that are required but not available
-      leafRequirements.getTimeSeries().stream()
+      Set<ObservableId> timeSeriesIds = leafRequirements.getTimeSeries().stream()
           .filter(id -> marketData.getTimeSeries(id).isEmpty())
           .filter(id -> suppliedData.getTimeSeries(id).isEmpty())
-          .forEach(id -> dataBuilder.addTimeSeriesResult(id, timeSeriesProvider.provideTimeSeries(id)));
-
-      // Copy supplied time series to the scenario data
-      leafRequirements.getTimeSeries().stream()
-          .filter(id -> !suppliedData.getTimeSeries(id).isEmpty())
-          .forEach(id -> dataBuilder.addTimeSeries(id, suppliedData.getTimeSeries(id)));
-
-      // Single values of observable data -----------------------------------------------------------
+          .collect(toImmutableSet());
 
       // Filter out IDs for the data that is already available
       Set<ObservableId> observableIds = leafRequirements.getObservables().stream()
@@ -146,16 +216,18 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
           .filter(not(suppliedData::containsValue))
           .collect(toImmutableSet());
 
-      // Observable data is built in bulk so it can be efficiently requested from data provider in one operation
-      if (!observableIds.isEmpty()) {
-        Map<ObservableId, Result<Double>> observableResults = observableDataProvider.provideObservableData(observableIds);
-        MapStream.of(observableResults).forEach((id, res) -> addObservableResult(id, res, scenarioDefinition, dataBuilder));
-      }
-
-      // Copy observable data from the supplied data to the builder, applying any matching perturbations
-      leafRequirements.getObservables().stream()
-          .filter(suppliedData::containsValue)
-          .forEach(id -> addValue(id, suppliedData.getValue(id), scenarioDefinition, dataBuilder));
+      // Both providers are invoked asynchronously so the requests run in parallel with each other
+      // and with the building of the non-observable data below
+      // Observable data is requested in bulk so it can be efficiently requested from data provider in one operation
+      long deadline = System.nanoTime() + Math.min(providerTimeout.toNanos(), Long.MAX_VALUE / 2);
+      CompletableFuture<Map<ObservableId, Result<LocalDateDoubleTimeSeries>>> timeSeriesFuture =
+          timeSeriesIds.isEmpty() ?
+              CompletableFuture.completedFuture(ImmutableMap.of()) :
+              timeSeriesProvider.provideTimeSeriesAsync(timeSeriesIds, providerExecutor);
+      CompletableFuture<Map<ObservableId, Result<Double>>> observableFuture =
+          observableIds.isEmpty() ?
+              CompletableFuture.completedFuture(ImmutableMap.of()) :
+              observableDataProvider.provideObservableDataAsync(observableIds, providerExecutor);
 
       // Non-observable data -----------------------------------------------------------------------
 
@@ -168,6 +240,30 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
       Map<MarketDataId<?>, Result<MarketDataBox<?>>> nonObservableResults =
           buildNonObservableData(nonObservableIds, marketDataConfig, marketData, refData);
 
+      // Time series of observable data ------------------------------------------------------------
+
+      Map<ObservableId, Result<LocalDateDoubleTimeSeries>> timeSeriesResults =
+          awaitResults(timeSeriesFuture, timeSeriesIds, deadline, "time-series");
+      timeSeriesIds.forEach(id -> dataBuilder.addTimeSeriesResult(id, timeSeriesResult(id, timeSeriesResults)));
+
+      // Copy supplied time series to the scenario data
+      leafRequirements.getTimeSeries().stream()
+          .filter(id -> !suppliedData.getTimeSeries(id).isEmpty())
+          .forEach(id -> dataBuilder.addTimeSeries(id, suppliedData.getTimeSeries(id)));
+
+      // Single values of observable data -----------------------------------------------------------
+
+      Map<ObservableId, Result<Double>> observableResults =
+          awaitResults(observableFuture, observableIds, deadline, "market data");
+      MapStream.of(observableResults).forEach((id, res) -> addObservableResult(id, res, scenarioDefinition, dataBuilder));
+
+      // Copy observable data from the supplied data to the builder, applying any matching perturbations
+      leafRequirements.getObservables().stream()
+          .filter(suppliedData::containsValue)
+          .forEach(id -> addValue(id, suppliedData.getValue(id), scenarioDefinition, dataBuilder));
+
+      // Non-observable data -----------------------------------------------------------------------
+
       MapStream.of(nonObservableResults).forEach((id, result) -> addResult(id, result, scenarioDefinition, dataBuilder));
 
       // Copy supplied data to the scenario data after applying perturbations
@@ -186,7 +282,70 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
     return builtData;
   }
 
+  // creates a bounded pool of daemon threads, which stop when idle
+  private static Executor createProviderExecutor() {
+    int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+    ThreadFactory threadFactory = r -> {
+      Thread t = Executors.defaultThreadFactory().newThread(r);
+      t.setName("MarketDataProvider-" + t.getName());
+      t.setDaemon(true);
+      return t;
+    };
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
   //-------------------------------------------------------------------------
+  /**
+   * Waits for the results of a provider, up to the deadline.
+   * <p>
+   * If the provider does not complete in time, the request is cancelled and every requested identifier is a failure.
+   * If the provider fails with an exception, the exception is rethrown.
+   *
+   * @param future  the future results of the provider
+   * @param ids  the identifiers requested from the provider
+   * @param deadline  the deadline, as a {@link System#nanoTime()} value
+   * @param description  the description of the data, used in failure messages
+   * @return the results of the provider, keyed by identifier
+   */
+  private <T> Map<ObservableId, Result<T>> awaitResults(
+      CompletableFuture<Map<ObservableId, Result<T>>> future,
+      Set<ObservableId> ids,
+      long deadline,
+      String description) {
+
+    try {
+      return future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException ex) {
+      future.cancel(true);
+      return ids.stream()
+          .collect(toImmutableMap(
+              id -> id,
+              id -> Result.failure(
+                  FailureReason.MISSING_DATA,
+                  "No {} provided for ID '{}' within the timeout of {}",
+                  description,
+                  id,
+                  providerTimeout)));
+    } catch (ExecutionException ex) {
+      throw Unchecked.propagate(ex.getCause());
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw Unchecked.propagate(ex);
+    }
+  }
+
+  // the time-series result for an ID, a failure if the provider did not return one
+  private static Result<LocalDateDoubleTimeSeries> timeSeriesResult(
+      ObservableId id,
+      Map<ObservableId, Result<LocalDateDoubleTimeSeries>> results) {
+
+    Result<LocalDateDoubleTimeSeries> result = results.get(id);
+    return result != null ? result : Result.failure(FailureReason.MISSING_DATA, "No time-series found for ID '{}'", id);
+  }
+
   /**
    * Builds items of non-observable market data using a market data function.
    *
@@ -5,7 +5,9 @@
  */
 package com.opengamma.strata.calc.marketdata;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.ReferenceData;
@@ -56,6 +58,57 @@ public interface MarketDataFactory {
     return new DefaultMarketDataFactory(observableDataProvider, timeSeriesProvider, functions);
   }
 
+  /**
+   * Obtains an instance of the factory based on providers of market data and time-series,
+   * specifying the maximum time to wait for the providers.
+   * <p>
+   * The market data functions are used to build the market data.
+   * The providers are invoked asynchronously, and any observable data or time-series
+   * not provided within the timeout is recorded as a failure.
+   * Blocking requests to the providers run on a bounded pool of daemon threads shared by all factories.
+   *
+   * @param observableDataProvider  the provider of observable market data
+   * @param timeSeriesProvider  the provider of time-series
+   * @param providerTimeout  the maximum time to wait for the providers in each step of building
+   * @param functions  the functions that create the market data
+   * @return the market data factory
+   */
+  public static MarketDataFactory of(
+      ObservableDataProvider observableDataProvider,
+      TimeSeriesProvider timeSeriesProvider,
+      Duration providerTimeout,
+      List<MarketDataFunction<?, ?>> functions) {
+
+    return new DefaultMarketDataFactory(observableDataProvider, timeSeriesProvider, providerTimeout, functions);
+  }
+
+  /**
+   * Obtains an instance of the factory based on providers of market data and time-series,
+   * specifying the maximum time to wait for the providers and the executor used to invoke them.
+   * <p>
+   * The market data functions are used to build the market data.
+   * The providers are invoked asynchronously, and any observable data or time-series
+   * not provided within the timeout is recorded as a failure.
+   * Blocking requests to the providers run on the executor, which is not shut down by the factory.
+   *
+   * @param observableDataProvider  the provider of observable market data
+   * @param timeSeriesProvider  the provider of time-series
+   * @param providerTimeout  the maximum time to wait for the providers in each step of building
+   * @param providerExecutor  the executor used to run blocking requests to the providers
+   * @param functions  the functions that create the market data
+   * @return the market data factory
+   */
+  public static MarketDataFactory of(
+      ObservableDataProvider observableDataProvider,
+      TimeSeriesProvider timeSeriesProvider,
+      Duration providerTimeout,
+      Executor providerExecutor,
+      List<MarketDataFunction<?, ?>> functions) {
+
+    return new DefaultMarketDataFactory(
+        observableDataProvider, timeSeriesProvider, providerTimeout, providerExecutor, functions);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Builds a set of market data.
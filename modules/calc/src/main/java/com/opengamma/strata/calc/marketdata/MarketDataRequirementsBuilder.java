@@ -7,8 +7,8 @@ package com.opengamma.strata.calc.marketdata;
 
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.collect.ArgChecker;
@@ -17,20 +17,22 @@ import com.opengamma.strata.data.ObservableId;
 
 /**
  * Mutable builder for creating instances of {@link MarketDataRequirements}.
+ * <p>
+ * The builder is backed by concurrent sets, so requirements may be added from multiple threads.
  */
 public final class MarketDataRequirementsBuilder {
 
   /** IDs identifying the observable market data values required for the calculations. */
-  private final Set<ObservableId> observables = new HashSet<>();
+  private final Set<ObservableId> observables = ConcurrentHashMap.newKeySet();
 
   /** IDs identifying the non-observable market data values required for the calculations. */
-  private final Set<MarketDataId<?>> nonObservables = new HashSet<>();
+  private final Set<MarketDataId<?>> nonObservables = ConcurrentHashMap.newKeySet();
 
   /** IDs identifying the time series of market data values required for the calculations. */
-  private final Set<ObservableId> timeSeries = new HashSet<>();
+  private final Set<ObservableId> timeSeries = ConcurrentHashMap.newKeySet();
 
   /** The currencies used in the outputs of the calculations. */
-  private final Set<Currency> outputCurrencies = new HashSet<>();
+  private final Set<Currency> outputCurrencies = ConcurrentHashMap.newKeySet();
 
   /**
    * Adds requirements for time series of observable market data.
@@ -9,6 +9,8 @@ import static com.opengamma.strata.collect.Guavate.toImmutableMap;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.collect.result.Result;
@@ -49,4 +51,26 @@ public interface ObservableDataProvider {
    */
   public abstract Map<ObservableId, Result<Double>> provideObservableData(Set<? extends ObservableId> identifiers);
 
+  /**
+   * Asynchronously provides market data for the specified identifiers.
+   * <p>
+   * The future completes with the same map as {@link #provideObservableData(Set)}.
+   * This allows the market data factory to continue building other market data while the values are fetched.
+   * <p>
+   * The default implementation invokes {@link #provideObservableData(Set)} using the executor.
+   * Cancelling the future interrupts the request, so a request that does not complete within the timeout
+   * of the market data factory releases its thread if it responds to interruption.
+   * Implementations with a non-blocking means of fetching market data should override this method.
+   *
+   * @param identifiers  the market data identifiers to find
+   * @param executor  the executor supplied by the market data factory to run blocking requests
+   * @return the future map of market data values, keyed by identifier
+   */
+  public default CompletableFuture<Map<ObservableId, Result<Double>>> provideObservableDataAsync(
+      Set<? extends ObservableId> identifiers,
+      Executor executor) {
+
+    return ProviderRequests.supplyAsync(() -> provideObservableData(identifiers), executor);
+  }
+
 }
@@ -0,0 +1,61 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+
+/**
+ * Invokes blocking requests to market data providers asynchronously.
+ */
+final class ProviderRequests {
+
+  /**
+   * Restricted constructor.
+   */
+  private ProviderRequests() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Invokes a blocking request using the executor.
+   * <p>
+   * Cancelling the returned future interrupts the thread running the request, releasing it back to the executor
+   * if the request responds to interruption. This differs from {@link CompletableFuture#supplyAsync},
+   * where cancelling the future leaves the request running.
+   *
+   * @param <T>  the type of the result
+   * @param request  the blocking request
+   * @param executor  the executor used to run the request
+   * @return the future result of the request
+   */
+  static <T> CompletableFuture<T> supplyAsync(Supplier<T> request, Executor executor) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    FutureTask<Void> task = new FutureTask<>(
+        () -> {
+          try {
+            future.complete(request.get());
+          } catch (Throwable ex) {
+            future.completeExceptionally(ex);
+          }
+        },
+        null);
+    future.whenComplete((result, ex) -> {
+      if (future.isCancelled()) {
+        task.cancel(true);
+      }
+    });
+    try {
+      executor.execute(task);
+    } catch (RuntimeException ex) {
+      future.completeExceptionally(ex);
+    }
+    return future;
+  }
+
+}
@@ -5,6 +5,13 @@
  */
 package com.opengamma.strata.calc.marketdata;
 
+import static com.opengamma.strata.collect.Guavate.toImmutableMap;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
 import com.opengamma.strata.data.ObservableId;
@@ -53,4 +60,46 @@ public interface TimeSeriesProvider {
    */
   public abstract Result<LocalDateDoubleTimeSeries> provideTimeSeries(ObservableId identifier);
 
+  /**
+   * Provides the time-series for the specified identifiers.
+   * <p>
+   * The implementation will provide a time-series for each identifier, returning
+   * a failure if unable to do so. The returned map must contain one entry for each
+   * identifier that was requested.
+   * <p>
+   * The default implementation invokes {@link #provideTimeSeries(ObservableId)} for each identifier.
+   * Implementations that can fetch multiple time-series in one operation should override this method.
+   *
+   * @param identifiers  the market data identifiers to find
+   * @return the map of time-series, keyed by identifier
+   */
+  public default Map<ObservableId, Result<LocalDateDoubleTimeSeries>> provideTimeSeries(
+      Set<? extends ObservableId> identifiers) {
+
+    return identifiers.stream()
+        .collect(toImmutableMap(id -> id, id -> provideTimeSeries(id)));
+  }
+
+  /**
+   * Asynchronously provides the time-series for the specified identifiers.
+   * <p>
+   * The future completes with the same map as {@link #provideTimeSeries(Set)}.
+   * This allows the market data factory to continue building other market data while the time-series are fetched.
+   * <p>
+   * The default implementation invokes {@link #provideTimeSeries(Set)} using the executor.
+   * Cancelling the future interrupts the request, so a request that does not complete within the timeout
+   * of the market data factory releases its thread if it responds to interruption.
+   * Implementations with a non-blocking means of fetching time-series should override this method.
+   *
+   * @param identifiers  the market data identifiers to find
+   * @param executor  the executor supplied by the market data factory to run blocking requests
+   * @return the future map of time-series, keyed by identifier
+   */
+  public default CompletableFuture<Map<ObservableId, Result<LocalDateDoubleTimeSeries>>> provideTimeSeriesAsync(
+      Set<? extends ObservableId> identifiers,
+      Executor executor) {
+
+    return ProviderRequests.supplyAsync(() -> provideTimeSeries(identifiers), executor);
+  }
+
 }
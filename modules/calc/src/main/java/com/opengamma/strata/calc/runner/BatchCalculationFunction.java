@@ -0,0 +1,60 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.calc.Measure;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * A calculation function that can calculate measures for several targets in one invocation.
+ * <p>
+ * A calculation runner groups tasks that use the same function, parameters and measures.
+ * Where the function implements this interface, each group is calculated by a single call to
+ * {@link #calculateBatch(List, Set, CalculationParameters, ScenarioMarketData, ReferenceData)}.
+ * This allows work that depends only on the parameters and market data, such as looking up
+ * market data and creating providers, to be performed once for the whole group.
+ * <p>
+ * The result for each target must be the same as the result of
+ * {@link #calculate(CalculationTarget, Set, CalculationParameters, ScenarioMarketData, ReferenceData)}.
+ *
+ * @param <T>  the type of target handled by this function
+ */
+public interface BatchCalculationFunction<T extends CalculationTarget>
+    extends CalculationFunction<T> {
+
+  /**
+   * Calculates values of multiple measures for several targets using multiple sets of market data.
+   * <p>
+   * The targets share the same parameters and measures.
+   * The set of measures must only contain measures that the function supports,
+   * as returned by {@link #supportedMeasures()}. The market data must provide at least the
+   * set of data requested by {@link #requirements(CalculationTarget, Set, CalculationParameters, ReferenceData)}
+   * for each target.
+   * <p>
+   * An exception thrown by this method causes each target to be calculated separately.
+   *
+   * @param targets  the targets of the calculation
+   * @param measures  the set of measures to calculate
+   * @param parameters  the parameters that affect how the calculation is performed
+   * @param marketData  the multi-scenario market data to be used in the calculation
+   * @param refData  the reference data to be used in the calculation
+   * @return the read-only maps of calculated values keyed by their measure, one for each target in order
+   */
+  public abstract List<Map<Measure, Result<?>>> calculateBatch(
+      List<T> targets,
+      Set<Measure> measures,
+      CalculationParameters parameters,
+      ScenarioMarketData marketData,
+      ReferenceData refData);
+
+}
@@ -6,6 +6,7 @@
 package com.opengamma.strata.calc.runner;
 
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 import com.opengamma.strata.basics.CalculationTarget;
@@ -99,6 +100,24 @@ public interface CalculationFunction<T extends CalculationTarget> {
       CalculationParameters parameters,
       ReferenceData refData);
 
+  /**
+   * Returns a key that determines the requirements of the target, empty if not known.
+   * <p>
+   * When the market data requirements of many tasks are gathered, the requirements returned by
+   * {@link #requirements(CalculationTarget, Set, CalculationParameters, ReferenceData)} are shared between
+   * targets with equal keys, for the same measures and parameters.
+   * The key should capture the aspects of the target that the requirements depend on, such as
+   * the set of currencies and indices.
+   * <p>
+   * By default, the key is empty and the requirements are determined separately for each target.
+   *
+   * @param target  the target of the calculation
+   * @return the key, empty if the requirements must be determined separately for the target
+   */
+  public default Optional<Object> requirementsKey(T target) {
+    return Optional.empty();
+  }
+
   /**
    * Calculates values of multiple measures for the target using multiple sets of market data.
    * <p>
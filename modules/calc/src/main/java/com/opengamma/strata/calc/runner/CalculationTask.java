@@ -11,7 +11,9 @@ import static com.opengamma.strata.collect.Guavate.toImmutableSet;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.joda.beans.BeanDefinition;
 import org.joda.beans.ImmutableBean;
@@ -139,14 +141,59 @@ public final class CalculationTask implements ImmutableBean {
    * @param refData  the reference data
    * @return requirements specifying the market data the function needs to perform its calculations
    */
-  @SuppressWarnings("unchecked")
   public MarketDataRequirements requirements(ReferenceData refData) {
     // determine market data requirements of the function
     FunctionRequirements functionRequirements = function.requirements(target, getMeasures(), parameters, refData);
-    ObservableSource obsSource = functionRequirements.getObservableSource();
 
     // convert function requirements to market data requirements
     MarketDataRequirementsBuilder requirementsBuilder = MarketDataRequirements.builder();
+    addFunctionRequirements(functionRequirements, requirementsBuilder);
+    addFxRequirements(functionRequirements, refData, requirementsBuilder);
+    return requirementsBuilder.build();
+  }
+
+  /**
+   * Adds the requirements specifying the market data the function needs to a builder,
+   * sharing the function requirements between tasks with the same requirements key.
+   * <p>
+   * The function requirements are cached using the function, the key returned by
+   * {@link CalculationFunction#requirementsKey(CalculationTarget)}, the measures and the parameters.
+   * The function requirements are calculated and added to the builder once for each cache key,
+   * by the task that populates the cache. This is safe to call from multiple threads if the builder
+   * is thread-safe, as the cache calculates each entry atomically.
+   *
+   * @param refData  the reference data
+   * @param requirementsBuilder  the builder to add to
+   * @param cache  the cache of function requirements
+   */
+  void addRequirements(
+      ReferenceData refData,
+      MarketDataRequirementsBuilder requirementsBuilder,
+      ConcurrentHashMap<List<Object>, FunctionRequirements> cache) {
+
+    Set<Measure> measures = getMeasures();
+    Optional<Object> requirementsKey = function.requirementsKey(target);
+    FunctionRequirements functionRequirements;
+    if (requirementsKey.isPresent()) {
+      List<Object> cacheKey = ImmutableList.of(function, requirementsKey.get(), measures, parameters);
+      functionRequirements = cache.computeIfAbsent(cacheKey, key -> {
+        FunctionRequirements calculated = function.requirements(target, measures, parameters, refData);
+        addFunctionRequirements(calculated, requirementsBuilder);
+        return calculated;
+      });
+    } else {
+      functionRequirements = function.requirements(target, measures, parameters, refData);
+      addFunctionRequirements(functionRequirements, requirementsBuilder);
+    }
+    addFxRequirements(functionRequirements, refData, requirementsBuilder);
+  }
+
+  // converts function requirements to market data requirements
+  private static void addFunctionRequirements(
+      FunctionRequirements functionRequirements,
+      MarketDataRequirementsBuilder requirementsBuilder) {
+
+    ObservableSource obsSource = functionRequirements.getObservableSource();
     for (ObservableId id : functionRequirements.getTimeSeriesRequirements()) {
       requirementsBuilder.addTimeSeries(id.withObservableSource(obsSource));
     }
@@ -157,8 +204,15 @@ public final class CalculationTask implements ImmutableBean {
         requirementsBuilder.addValues(id);
       }
     }
+  }
 
-    // add requirements for the FX rates needed to convert the output values into the reporting currency
+  // adds requirements for the FX rates needed to convert the output values into the reporting currency
+  private void addFxRequirements(
+      FunctionRequirements functionRequirements,
+      ReferenceData refData,
+      MarketDataRequirementsBuilder requirementsBuilder) {
+
+    ObservableSource obsSource = functionRequirements.getObservableSource();
     for (CalculationTaskCell cell : cells) {
       if (cell.getMeasure().isCurrencyConvertible()) {
         Currency reportingCurrency = cell.reportingCurrency(this, refData);
@@ -170,7 +224,6 @@ public final class CalculationTask implements ImmutableBean {
         requirementsBuilder.addValues(fxRateIds);
       }
     }
-    return requirementsBuilder.build();
   }
 
   /**
@@ -200,8 +253,26 @@ public final class CalculationTask implements ImmutableBean {
     // calculate the results
     Map<Measure, Result<?>> results = calculate(marketData, refData);
 
+    // convert the results
+    return createResults(results, ScenarioFxRateProvider.of(marketData), refData);
+  }
+
+  /**
+   * Converts the calculated values into the results of each cell.
+   * <p>
+   * This is used when the values have been calculated outside the task, for example in a batch.
+   *
+   * @param results  the calculated values, keyed by measure
+   * @param fxProvider  the provider of FX rates for currency conversion
+   * @param refData  the reference data
+   * @return results of the calculation
+   */
+  CalculationResults createResults(
+      Map<Measure, Result<?>> results,
+      ScenarioFxRateProvider fxProvider,
+      ReferenceData refData) {
+
     // convert the results, using a normal loop for better stack traces
-    ScenarioFxRateProvider fxProvider = ScenarioFxRateProvider.of(marketData);
     ImmutableList.Builder<CalculationResult> resultBuilder = ImmutableList.builder();
     for (CalculationTaskCell cell : cells) {
       resultBuilder.add(cell.createResult(this, target, results, fxProvider, refData));
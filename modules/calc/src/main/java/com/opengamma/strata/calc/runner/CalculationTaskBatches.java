@@ -0,0 +1,140 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.calc.Measure;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.ScenarioFxRateProvider;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * Groups calculation tasks into batches that can be calculated by a single function invocation.
+ * <p>
+ * Tasks are batched if their function implements {@link BatchCalculationFunction} and they share
+ * the same function, parameters and measures. All other tasks are calculated alone.
+ */
+final class CalculationTaskBatches {
+
+  /**
+   * Restricted constructor.
+   */
+  private CalculationTaskBatches() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Groups the tasks into batches.
+   * <p>
+   * The tasks of each group are split into batches of similar size, no larger than the maximum size.
+   * Groups are split into at least as many batches as the parallelism, where possible,
+   * such that batching does not reduce the number of tasks that can run concurrently.
+   *
+   * @param tasks  the tasks
+   * @param maxBatchSize  the maximum number of tasks in a batch, one to disable batching
+   * @param parallelism  the number of batches that can be calculated concurrently
+   * @return the batches, each containing at least one task
+   */
+  static List<List<CalculationTask>> batch(List<CalculationTask> tasks, int maxBatchSize, int parallelism) {
+    List<List<CalculationTask>> batches = new ArrayList<>();
+    if (maxBatchSize <= 1) {
+      tasks.forEach(task -> batches.add(ImmutableList.of(task)));
+      return batches;
+    }
+    Map<List<Object>, List<CalculationTask>> groups = new LinkedHashMap<>();
+    for (CalculationTask task : tasks) {
+      if (task.getFunction() instanceof BatchCalculationFunction) {
+        List<Object> key = ImmutableList.of(task.getFunction(), task.getParameters(), task.getMeasures());
+        groups.computeIfAbsent(key, k -> new ArrayList<>()).add(task);
+      } else {
+        batches.add(ImmutableList.of(task));
+      }
+    }
+    for (List<CalculationTask> group : groups.values()) {
+      int size = group.size();
+      int batchCount = Math.max((size + maxBatchSize - 1) / maxBatchSize, Math.min(size, parallelism));
+      int batchSize = (size + batchCount - 1) / batchCount;
+      for (int start = 0; start < size; start += batchSize) {
+        batches.add(group.subList(start, Math.min(start + batchSize, size)));
+      }
+    }
+    return batches;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Executes a batch of tasks.
+   * <p>
+   * A batch of more than one task is calculated by a single invocation of the batch function.
+   * If the batch function fails, each task is calculated separately, such that the failure only
+   * affects the results of the tasks that cause it.
+   *
+   * @param batch  the tasks, created by {@link #batch(List, int, int)}
+   * @param marketData  the market data used in the calculation
+   * @param refData  the reference data
+   * @return the results of each task, in order
+   */
+  static List<CalculationResults> execute(
+      List<CalculationTask> batch,
+      ScenarioMarketData marketData,
+      ReferenceData refData) {
+
+    if (batch.size() == 1) {
+      return ImmutableList.of(batch.get(0).execute(marketData, refData));
+    }
+    List<Map<Measure, Result<?>>> calculated;
+    try {
+      calculated = calculate(batch, marketData, refData);
+    } catch (RuntimeException ex) {
+      return batch.stream()
+          .map(task -> task.execute(marketData, refData))
+          .collect(toImmutableList());
+    }
+    // convert the results, sharing the FX rate provider
+    ScenarioFxRateProvider fxProvider = ScenarioFxRateProvider.of(marketData);
+    ImmutableList.Builder<CalculationResults> builder = ImmutableList.builder();
+    for (int i = 0; i < batch.size(); i++) {
+      builder.add(batch.get(i).createResults(calculated.get(i), fxProvider, refData));
+    }
+    return builder.build();
+  }
+
+  // invokes the batch function
+  @SuppressWarnings("unchecked")
+  private static List<Map<Measure, Result<?>>> calculate(
+      List<CalculationTask> batch,
+      ScenarioMarketData marketData,
+      ReferenceData refData) {
+
+    CalculationTask first = batch.get(0);
+    BatchCalculationFunction<CalculationTarget> function =
+        (BatchCalculationFunction<CalculationTarget>) first.getFunction();
+    List<CalculationTarget> targets = batch.stream()
+        .map(CalculationTask::getTarget)
+        .collect(toImmutableList());
+    List<Map<Measure, Result<?>>> calculated =
+        function.calculateBatch(targets, first.getMeasures(), first.getParameters(), marketData, refData);
+    if (calculated.size() != batch.size()) {
+      throw new IllegalStateException(Messages.format(
+          "Function '{}' returned {} results for {} targets",
+          function.getClass().getSimpleName(),
+          calculated.size(),
+          batch.size()));
+    }
+    return calculated;
+  }
+
+}
@@ -78,6 +78,24 @@ public interface CalculationTaskRunner extends AutoCloseable {
     return DefaultCalculationTaskRunner.of(executor);
   }
 
+  /**
+   * Creates a calculation task runner capable of performing calculations, specifying the executor
+   * and the maximum batch size.
+   * <p>
+   * Tasks whose function implements {@link BatchCalculationFunction} are grouped into batches
+   * of up to the specified size, each of which is calculated by a single invocation of the function.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   *
+   * @param executor  the executor to use
+   * @param maxBatchSize  the maximum number of tasks calculated by a single invocation of a batch function,
+   *   one to disable batching
+   * @return the calculation task runner
+   */
+  public static CalculationTaskRunner of(ExecutorService executor, int maxBatchSize) {
+    return DefaultCalculationTaskRunner.of(executor, maxBatchSize);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Performs calculations for a single set of market data.
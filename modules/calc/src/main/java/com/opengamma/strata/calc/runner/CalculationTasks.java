@@ -9,6 +9,7 @@ import static com.opengamma.strata.collect.Guavate.toImmutableList;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.joda.beans.BeanDefinition;
 import org.joda.beans.ImmutableBean;
@@ -42,6 +43,11 @@ import com.opengamma.strata.collect.Messages;
 @BeanDefinition(style = "light")
 public final class CalculationTasks implements ImmutableBean {
 
+  /**
+   * The number of tasks above which the requirements are gathered in parallel.
+   */
+  private static final int PARALLEL_REQUIREMENTS_THRESHOLD = 1000;
+
   /**
    * The targets that calculations will be performed on.
    * <p>
@@ -195,16 +201,25 @@ public final class CalculationTasks implements ImmutableBean {
    * Gets the market data that is required to perform the calculations.
    * <p>
    * This can be used to pass into the market data system to obtain and calibrate data.
+   * <p>
+   * Where a function provides a {@linkplain CalculationFunction#requirementsKey(CalculationTarget) requirements key},
+   * the function requirements are determined once for each distinct key, measures and parameters.
+   * Large sets of tasks are processed in parallel.
    *
    * @param refData  the reference data
    * @return the market data required for all calculations
    * @throws RuntimeException if unable to obtain the requirements
    */
   public MarketDataRequirements requirements(ReferenceData refData) {
-    // use for loop not streams for shorter stack traces
     MarketDataRequirementsBuilder builder = MarketDataRequirements.builder();
-    for (CalculationTask task : tasks) {
-      builder.addRequirements(task.requirements(refData));
+    ConcurrentHashMap<List<Object>, FunctionRequirements> cache = new ConcurrentHashMap<>();
+    if (tasks.size() < PARALLEL_REQUIREMENTS_THRESHOLD) {
+      // use for loop not streams for shorter stack traces
+      for (CalculationTask task : tasks) {
+        task.addRequirements(refData, builder, cache);
+      }
+    } else {
+      tasks.parallelStream().forEach(task -> task.addRequirements(refData, builder, cache));
     }
     return builder.build();
   }
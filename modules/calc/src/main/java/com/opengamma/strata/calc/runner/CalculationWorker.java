@@ -0,0 +1,411 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.joda.beans.Bean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.Unchecked;
+import com.opengamma.strata.collect.io.BeanBinaryCodec;
+import com.opengamma.strata.data.scenario.CachingScenarioMarketData;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * A worker that performs calculation tasks on behalf of a {@link DistributedCalculationTaskRunner}.
+ * <p>
+ * The worker receives the market data and reference data once, followed by any number of partitions of tasks.
+ * The results of each task are sent back as soon as they are available, tagged with the index of the task
+ * in the partition, followed by a message indicating that the partition is complete.
+ * <p>
+ * Messages are lists of values encoded using {@link BeanBinaryCodec}, preceded by their length.
+ * The first element of each message is its type.
+ * <p>
+ * Before any message is exchanged, both ends of the connection prove that they know a shared token.
+ * The end that opened the connection sends the token first, and the other end only replies with
+ * the token once it has checked it. The worker reads the token from the environment variable
+ * {@value #TOKEN_VARIABLE}.
+ * <p>
+ * A calculation function that is not a bean is sent as the name of its class,
+ * and created on the worker using its public no-arg constructor.
+ */
+public final class CalculationWorker {
+
+  /**
+   * The logger.
+   */
+  private static final Logger log = LoggerFactory.getLogger(CalculationWorker.class);
+
+  /** Message sent to the worker containing the market data and reference data. */
+  static final String DATA = "data";
+  /** Message sent to the worker containing a partition of tasks. */
+  static final String TASKS = "tasks";
+  /** Message sent by the worker containing the results of a task. */
+  static final String RESULT = "result";
+  /** Message sent by the worker when all the tasks of a partition are complete. */
+  static final String DONE = "done";
+  /** Message sent by the worker when a partition could not be calculated. */
+  static final String ERROR = "error";
+  /** Message sent to the worker asking it to stop. */
+  static final String STOP = "stop";
+  /**
+   * The environment variable containing the token shared by the worker and the runner.
+   */
+  public static final String TOKEN_VARIABLE = "STRATA_CALCULATION_WORKER_TOKEN";
+  /**
+   * The time allowed for the other end of a connection to send its token, in milliseconds.
+   */
+  private static final int HANDSHAKE_TIMEOUT_MILLIS = 30_000;
+
+  /**
+   * The functions created from the name of their class, keyed by class name.
+   */
+  private static final ConcurrentHashMap<String, CalculationFunction<?>> FUNCTIONS = new ConcurrentHashMap<>();
+
+  /**
+   * Restricted constructor.
+   */
+  private CalculationWorker() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Starts a worker.
+   * <p>
+   * The worker either connects to a runner, or listens for runners to connect to it:
+   * <pre>
+   *  connect &lt;host&gt; &lt;port&gt; &lt;threads&gt;
+   *  listen &lt;port&gt; &lt;threads&gt; [&lt;bind address&gt;]
+   * </pre>
+   * A thread count of zero or less uses the number of available processors.
+   * A listening worker only accepts connections on the loopback address unless a bind address is specified.
+   * <p>
+   * The token shared with the runner must be set in the environment variable {@value #TOKEN_VARIABLE}.
+   *
+   * @param args  the arguments
+   * @throws IOException if an IO error occurs
+   */
+  public static void main(String[] args) throws IOException {
+    boolean connect = (args.length == 4 && args[0].equals("connect"));
+    boolean listen = ((args.length == 3 || args.length == 4) && args[0].equals("listen"));
+    if (!connect && !listen) {
+      throw new IllegalArgumentException(
+          "Usage: CalculationWorker connect <host> <port> <threads> | listen <port> <threads> [<bind address>]");
+    }
+    String token = System.getenv(TOKEN_VARIABLE);
+    if (token == null || token.isEmpty()) {
+      throw new IllegalArgumentException("Environment variable must be set: " + TOKEN_VARIABLE);
+    }
+    if (connect) {
+      try (Socket socket = new Socket(args[1], Integer.parseInt(args[2]))) {
+        serve(socket, Integer.parseInt(args[3]), token, true);
+      }
+    } else {
+      int threads = Integer.parseInt(args[2]);
+      InetAddress bindAddress = (args.length == 4 ? InetAddress.getByName(args[3]) : InetAddress.getLoopbackAddress());
+      try (ServerSocket server = new ServerSocket(Integer.parseInt(args[1]), 50, bindAddress)) {
+        log.info("Calculation worker listening on {}:{}", bindAddress.getHostAddress(), server.getLocalPort());
+        while (true) {
+          try (Socket socket = server.accept()) {
+            serve(socket, threads, token, false);
+          } catch (IOException | RuntimeException ex) {
+            log.warn("Calculation worker connection failed", ex);
+          }
+        }
+      }
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Serves a connected runner until it asks the worker to stop or closes the connection.
+   *
+   * @param socket  the socket connected to the runner
+   * @param threads  the number of threads used to perform the tasks, zero or less for the number of processors
+   * @param token  the token shared with the runner
+   * @param opened  true if the worker opened the connection, false if it accepted it
+   * @throws IOException if an IO error occurs, or the runner does not send the token
+   */
+  static void serve(Socket socket, int threads, String token, boolean opened) throws IOException {
+    socket.setTcpNoDelay(true);
+    DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    handshake(socket, in, out, token, opened);
+    int effectiveThreads = (threads <= 0 ? Runtime.getRuntime().availableProcessors() : threads);
+    ExecutorService executor = createExecutor(effectiveThreads);
+    try {
+      ScenarioMarketData marketData = null;
+      ReferenceData refData = null;
+      while (true) {
+        List<?> message;
+        try {
+          message = readMessage(in);
+        } catch (EOFException ex) {
+          return;
+        }
+        String type = (String) message.get(0);
+        if (type.equals(DATA)) {
+          // values derived from the market data are shared by all tasks until the next market data is received
+          marketData = CachingScenarioMarketData.of((ScenarioMarketData) message.get(1));
+          refData = (ReferenceData) message.get(2);
+
+        } else if (type.equals(TASKS)) {
+          ArgChecker.isTrue(marketData != null, "Tasks received before market data");
+          Integer partitionId = (Integer) message.get(1);
+          try {
+            List<?> indices = (List<?>) message.get(2);
+            List<?> encodedTasks = (List<?>) message.get(3);
+            runTasks(partitionId, indices, encodedTasks, marketData, refData, executor, effectiveThreads, out);
+          } catch (ExecutionException | RuntimeException ex) {
+            log.warn("Calculation worker failed to calculate partition " + partitionId, ex);
+            writeMessage(out, ImmutableList.of(ERROR, partitionId, String.valueOf(ex)));
+          }
+          writeMessage(out, ImmutableList.of(DONE, partitionId));
+
+        } else if (type.equals(STOP)) {
+          return;
+        } else {
+          throw new IllegalArgumentException("Unknown message type: " + type);
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  // performs the tasks of a partition in batches, sending each set of results as soon as it is available
+  private static void runTasks(
+      Integer partitionId,
+      List<?> indices,
+      List<?> encodedTasks,
+      ScenarioMarketData marketData,
+      ReferenceData refData,
+      ExecutorService executor,
+      int threads,
+      DataOutputStream out) throws ExecutionException {
+
+    Map<CalculationTask, Object> taskIndices = new IdentityHashMap<>();
+    List<CalculationTask> tasks = new ArrayList<>(encodedTasks.size());
+    for (int i = 0; i < encodedTasks.size(); i++) {
+      CalculationTask task = decodeTask((List<?>) encodedTasks.get(i));
+      taskIndices.put(task, indices.get(i));
+      tasks.add(task);
+    }
+    List<List<CalculationTask>> batches =
+        CalculationTaskBatches.batch(tasks, DefaultCalculationTaskRunner.DEFAULT_MAX_BATCH_SIZE, threads);
+    List<Future<?>> futures = new ArrayList<>(batches.size());
+    for (List<CalculationTask> batch : batches) {
+      futures.add(executor.submit(() -> {
+        List<CalculationResults> batchResults = CalculationTaskBatches.execute(batch, marketData, refData);
+        for (int i = 0; i < batch.size(); i++) {
+          Object index = taskIndices.get(batch.get(i));
+          byte[] frame = BeanBinaryCodec.encode(ImmutableList.of(RESULT, partitionId, index, batchResults.get(i)));
+          synchronized (out) {
+            Unchecked.wrap(() -> writeFrame(out, frame));
+          }
+        }
+      }));
+    }
+    try {
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while calculating", ex);
+    } finally {
+      futures.forEach(future -> future.cancel(true));
+    }
+  }
+
+  // create an executor with daemon threads
+  private static ExecutorService createExecutor(int threads) {
+    ThreadFactory threadFactory = r -> {
+      Thread t = Executors.defaultThreadFactory().newThread(r);
+      t.setName("CalculationWorker-" + t.getName());
+      t.setDaemon(true);
+      return t;
+    };
+    return Executors.newFixedThreadPool(threads, threadFactory);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Exchanges the shared token with the other end of a connection.
+   * <p>
+   * The end that opened the connection sends its token first. The other end checks the token
+   * before replying with its own, such that a peer connecting to a listening end never learns the token.
+   *
+   * @param socket  the socket
+   * @param in  the input stream of the socket
+   * @param out  the output stream of the socket
+   * @param token  the shared token
+   * @param opened  true if this end opened the connection, false if it accepted it
+   * @throws IOException if an IO error occurs, or the other end does not send the token
+   */
+  static void handshake(
+      Socket socket,
+      DataInputStream in,
+      DataOutputStream out,
+      String token,
+      boolean opened) throws IOException {
+
+    int timeout = socket.getSoTimeout();
+    socket.setSoTimeout(HANDSHAKE_TIMEOUT_MILLIS);
+    try {
+      if (opened) {
+        writeToken(out, token);
+        checkToken(in, token);
+      } else {
+        checkToken(in, token);
+        writeToken(out, token);
+      }
+    } finally {
+      socket.setSoTimeout(timeout);
+    }
+  }
+
+  // writes the token, flushing the stream
+  private static void writeToken(DataOutputStream out, String token) throws IOException {
+    out.writeUTF(token);
+    out.flush();
+  }
+
+  // reads the token sent by the other end, comparing it in constant time
+  private static void checkToken(DataInputStream in, String token) throws IOException {
+    byte[] received = in.readUTF().getBytes(StandardCharsets.UTF_8);
+    if (!MessageDigest.isEqual(received, token.getBytes(StandardCharsets.UTF_8))) {
+      throw new IOException("Calculation worker connection rejected, invalid token");
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Writes a message, preceded by its length.
+   *
+   * @param out  the output stream
+   * @param message  the message, the first element of which is the type
+   * @throws IOException if an IO error occurs
+   */
+  static void writeMessage(DataOutputStream out, List<?> message) throws IOException {
+    byte[] frame = BeanBinaryCodec.encode(message);
+    synchronized (out) {
+      writeFrame(out, frame);
+    }
+  }
+
+  /**
+   * Writes an encoded message, preceded by its length, flushing the stream.
+   *
+   * @param out  the output stream
+   * @param frame  the encoded message
+   * @throws IOException if an IO error occurs
+   */
+  static void writeFrame(DataOutputStream out, byte[] frame) throws IOException {
+    out.writeInt(frame.length);
+    out.write(frame);
+    out.flush();
+  }
+
+  /**
+   * Reads a message written by {@link #writeMessage(DataOutputStream, List)}.
+   *
+   * @param in  the input stream
+   * @return the message
+   * @throws EOFException if the stream ends before the start of the message
+   * @throws IOException if an IO error occurs
+   */
+  static List<?> readMessage(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    byte[] frame = new byte[length];
+    in.readFully(frame);
+    return BeanBinaryCodec.decode(frame, List.class);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Converts a task to a form that can be encoded.
+   * <p>
+   * The function is replaced by the name of its class unless it is a bean.
+   *
+   * @param task  the task
+   * @return the encodable form of the task
+   * @throws IllegalArgumentException if the function cannot be sent to a worker
+   */
+  static ImmutableList<Object> encodeTask(CalculationTask task) {
+    CalculationFunction<?> function = task.getFunction();
+    Object functionForm = function;
+    if (!(function instanceof Bean)) {
+      try {
+        function.getClass().getConstructor();
+      } catch (NoSuchMethodException ex) {
+        throw new IllegalArgumentException(Messages.format(
+            "Calculation function cannot be sent to a worker, it must be a bean or have a public " +
+                "no-arg constructor: {}",
+            function.getClass().getName()));
+      }
+      functionForm = function.getClass().getName();
+    }
+    return ImmutableList.of(task.getTarget(), functionForm, task.getParameters(), task.getCells());
+  }
+
+  /**
+   * Converts the encodable form of a task back to the task.
+   *
+   * @param encoded  the encodable form of the task
+   * @return the task
+   */
+  @SuppressWarnings("unchecked")
+  static CalculationTask decodeTask(List<?> encoded) {
+    Object functionForm = encoded.get(1);
+    CalculationFunction<?> function = (functionForm instanceof String ?
+        FUNCTIONS.computeIfAbsent((String) functionForm, CalculationWorker::createFunction) :
+        (CalculationFunction<?>) functionForm);
+    return CalculationTask.of(
+        (CalculationTarget) encoded.get(0),
+        function,
+        (CalculationParameters) encoded.get(2),
+        (List<CalculationTaskCell>) encoded.get(3));
+  }
+
+  // creates a function using its public no-arg constructor
+  // the class is checked to be a function before it is initialized or any of its code is run
+  private static CalculationFunction<?> createFunction(String className) {
+    Class<?> cls = Unchecked.wrap(() -> Class.forName(className, false, CalculationWorker.class.getClassLoader()));
+    if (!CalculationFunction.class.isAssignableFrom(cls)) {
+      throw new IllegalArgumentException("Class is not a calculation function: " + className);
+    }
+    return Unchecked.wrap(() -> (CalculationFunction<?>) cls.getConstructor().newInstance());
+  }
+
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.calc.ColumnHeader;
+import com.opengamma.strata.calc.ColumnarResults;
+import com.opengamma.strata.calc.ColumnarResultsBuilder;
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * Calculation listener that receives the results of individual calculations
+ * and builds a set of {@link ColumnarResults}.
+ * <p>
+ * Each result is stored as soon as it is received, so numeric results never exist as a complete
+ * list of result objects. This allows the results of large calculations to be held compactly,
+ * optionally in memory-mapped files.
+ */
+public final class ColumnarResultsListener
+    extends AggregatingCalculationListener<ColumnarResults> {
+
+  /**
+   * The builder that is populated as the results arrive.
+   */
+  private final ColumnarResultsBuilder builder;
+
+  /**
+   * Creates an instance for the tasks, storing numeric values on the heap.
+   *
+   * @param tasks  the tasks whose results are received
+   */
+  public ColumnarResultsListener(CalculationTasks tasks) {
+    this.builder = ColumnarResultsBuilder.of(headers(tasks), tasks.getTargets().size());
+  }
+
+  /**
+   * Creates an instance for the tasks, storing numeric values in memory-mapped files in the specified directory.
+   *
+   * @param tasks  the tasks whose results are received
+   * @param spillDirectory  the directory used to store numeric values
+   */
+  public ColumnarResultsListener(CalculationTasks tasks, Path spillDirectory) {
+    this.builder = ColumnarResultsBuilder.of(headers(tasks), tasks.getTargets().size(), spillDirectory);
+  }
+
+  // the column headers of the tasks
+  private static List<ColumnHeader> headers(CalculationTasks tasks) {
+    ArgChecker.notNull(tasks, "tasks");
+    return tasks.getColumns().stream()
+        .map(c -> c.toHeader())
+        .collect(toImmutableList());
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public void resultReceived(CalculationTarget target, CalculationResult result) {
+    builder.add(result.getRowIndex(), result.getColumnIndex(), result.getResult());
+  }
+
+  @Override
+  protected ColumnarResults createAggregateResult() {
+    return builder.build();
+  }
+
+}
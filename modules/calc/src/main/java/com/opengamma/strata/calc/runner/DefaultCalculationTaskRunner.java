@@ -25,6 +25,7 @@ import com.opengamma.strata.calc.Results;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.Messages;
 import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.CachingScenarioMarketData;
 import com.opengamma.strata.data.scenario.ScenarioArray;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 
@@ -32,14 +33,30 @@ import com.opengamma.strata.data.scenario.ScenarioMarketData;
  * The default calculation task runner.
  * <p>
  * This uses a single instance of {@link ExecutorService}.
+ * <p>
+ * Tasks whose function implements {@link BatchCalculationFunction} are grouped into batches,
+ * each of which is calculated by a single invocation of the function.
  */
 class DefaultCalculationTaskRunner implements CalculationTaskRunner {
 
+  /**
+   * The default maximum number of tasks in a batch.
+   */
+  static final int DEFAULT_MAX_BATCH_SIZE = 64;
+
   /**
    * Executes the tasks that perform the individual calculations.
    * This will typically be multi-threaded, but single or direct executors also work.
    */
   private final ExecutorService executor;
+  /**
+   * The maximum number of tasks calculated by a single invocation of a batch function.
+   */
+  private final int maxBatchSize;
+  /**
+   * The number of tasks that the executor can run concurrently, used when forming batches.
+   */
+  private final int parallelism;
 
   //-------------------------------------------------------------------------
   /**
@@ -56,7 +73,8 @@ class DefaultCalculationTaskRunner implements CalculationTaskRunner {
    * @return the calculation task runner
    */
   static DefaultCalculationTaskRunner ofMultiThreaded() {
-    return new DefaultCalculationTaskRunner(createExecutor(Runtime.getRuntime().availableProcessors()));
+    int threads = Runtime.getRuntime().availableProcessors();
+    return new DefaultCalculationTaskRunner(createExecutor(threads), DEFAULT_MAX_BATCH_SIZE, threads);
   }
 
   /**
@@ -68,7 +86,22 @@ class DefaultCalculationTaskRunner implements CalculationTaskRunner {
    * @return the calculation task runner
    */
   static DefaultCalculationTaskRunner of(ExecutorService executor) {
-    return new DefaultCalculationTaskRunner(executor);
+    return of(executor, DEFAULT_MAX_BATCH_SIZE);
+  }
+
+  /**
+   * Creates a calculation task runner capable of performing calculations, specifying the executor
+   * and the maximum batch size.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * 
+   * @param executor  the executor to use
+   * @param maxBatchSize  the maximum number of tasks calculated by a single invocation of a batch function,
+   *   one to disable batching
+   * @return the calculation task runner
+   */
+  static DefaultCalculationTaskRunner of(ExecutorService executor, int maxBatchSize) {
+    return new DefaultCalculationTaskRunner(executor, maxBatchSize, Runtime.getRuntime().availableProcessors());
   }
 
   // create an executor with daemon threads
@@ -88,9 +121,13 @@ class DefaultCalculationTaskRunner implements CalculationTaskRunner {
    * Creates an instance specifying the executor to use.
    * 
    * @param executor  the executor that is used to perform the calculations
+   * @param maxBatchSize  the maximum number of tasks in a batch
+   * @param parallelism  the number of tasks that the executor can run concurrently
    */
-  private DefaultCalculationTaskRunner(ExecutorService executor) {
+  private DefaultCalculationTaskRunner(ExecutorService executor, int maxBatchSize, int parallelism) {
     this.executor = ArgChecker.notNull(executor, "executor");
+    this.maxBatchSize = ArgChecker.notNegativeOrZero(maxBatchSize, "maxBatchSize");
+    this.parallelism = parallelism;
   }
 
   //-------------------------------------------------------------------------
@@ -124,7 +161,7 @@ class DefaultCalculationTaskRunner implements CalculationTaskRunner {
    * <p>
    * If this method is called with a {@code ScenarioArray} containing more than one value it throws an exception.
    */
-  private static Result<?> unwrapScenarioResult(Result<?> result) {
+  static Result<?> unwrapScenarioResult(Result<?> result) {
     if (result.isFailure()) {
       return result;
     }
@@ -176,21 +213,24 @@ class DefaultCalculationTaskRunner implements CalculationTaskRunner {
     // the wrapper ensures thread-safety for the listener
     // it also calls the listener with single CalculationResult cells, not CalculationResults
     Consumer<CalculationResults> consumer = new ListenerWrapper(listener, taskList.size());
-    // run each task using the executor
-    taskList.stream().forEach(task -> runTask(task, marketData, refData, consumer));
+    // values derived from the market data, such as rates providers, are shared by all tasks in the run
+    ScenarioMarketData cachingMarketData = CachingScenarioMarketData.of(marketData);
+    // run each batch of tasks using the executor
+    CalculationTaskBatches.batch(taskList, maxBatchSize, parallelism).stream()
+        .forEach(batch -> runBatch(batch, cachingMarketData, refData, consumer));
   }
 
-  // submits a task to the executor to be run
-  private void runTask(
-      CalculationTask task,
+  // submits a batch of tasks to the executor to be run
+  private void runBatch(
+      List<CalculationTask> batch,
       ScenarioMarketData marketData,
       ReferenceData refData,
       Consumer<CalculationResults> consumer) {
 
-    // the task is executed, with the result passed to the consumer
+    // the batch is executed, with the result of each task passed to the consumer
     // the consumer wraps the listener to ensure thread-safety
-    Supplier<CalculationResults> taskExecutor = () -> task.execute(marketData, refData);
-    CompletableFuture.supplyAsync(taskExecutor, executor).thenAccept(consumer);
+    Supplier<List<CalculationResults>> batchExecutor = () -> CalculationTaskBatches.execute(batch, marketData, refData);
+    CompletableFuture.supplyAsync(batchExecutor, executor).thenAccept(results -> results.forEach(consumer));
   }
 
   //-------------------------------------------------------------------------
@@ -204,7 +244,7 @@ class DefaultCalculationTaskRunner implements CalculationTaskRunner {
    * Calculation listener that receives the results of individual calculations
    * and builds a set of {@link Results}. This is used by the non-async methods.
    */
-  private static final class AggregatingListener extends AggregatingCalculationListener<Results> {
+  static final class AggregatingListener extends AggregatingCalculationListener<Results> {
 
     /** Comparator for sorting the results by row and then column. */
     private static final Comparator<CalculationResult> COMPARATOR =
@@ -217,7 +257,7 @@ class DefaultCalculationTaskRunner implements CalculationTaskRunner {
     /** The columns that define what values are calculated. */
     private final List<Column> columns;
 
-    private AggregatingListener(List<Column> columns) {
+    AggregatingListener(List<Column> columns) {
       this.columns = columns;
     }
 
@@ -257,11 +297,11 @@ class DefaultCalculationTaskRunner implements CalculationTaskRunner {
    * containing a single value before passing the value to the delegate listener.
    * This is used by the single scenario async method.
    */
-  private static final class UnwrappingListener implements CalculationListener {
+  static final class UnwrappingListener implements CalculationListener {
 
     private final CalculationListener delegate;
 
-    private UnwrappingListener(CalculationListener delegate) {
+    UnwrappingListener(CalculationListener delegate) {
       this.delegate = delegate;
     }
 
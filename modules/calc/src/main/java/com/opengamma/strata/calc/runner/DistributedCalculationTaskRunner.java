@@ -0,0 +1,618 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Paths;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.BaseEncoding;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.calc.runner.DefaultCalculationTaskRunner.AggregatingListener;
+import com.opengamma.strata.calc.runner.DefaultCalculationTaskRunner.UnwrappingListener;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.io.BeanBinaryCodec;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * A calculation task runner that partitions the tasks across worker processes.
+ * <p>
+ * Each worker is a {@link CalculationWorker}, either started by this runner as a child process
+ * of the current JVM, or already running on a known host and port.
+ * The runner and the workers authenticate each other using a shared token when they connect.
+ * The market data and reference data are encoded once per run and sent once to each worker.
+ * <p>
+ * The tasks are grouped into partitions of similar estimated cost, several per worker, which are
+ * handed out to the workers as they become free, the most expensive first.
+ * The results of each task are passed to the listener as soon as they are received.
+ * If a worker fails, the tasks of its partition that have no results are retried on another worker,
+ * such that each task is delivered exactly once. After a fixed number of attempts the remaining
+ * cells of the partition are returned as failures.
+ * <p>
+ * The targets, parameters and market data must be beans or convertible by Joda-Convert.
+ * Calculation functions must either be beans or have a public no-arg constructor.
+ * It is recommended to use try-with-resources to manage the runner, as this stops the workers.
+ */
+public final class DistributedCalculationTaskRunner implements CalculationTaskRunner {
+
+  /**
+   * The logger.
+   */
+  private static final Logger log = LoggerFactory.getLogger(DistributedCalculationTaskRunner.class);
+  /**
+   * The number of partitions created for each worker.
+   * Using several allows workers that finish early to take on more work.
+   */
+  private static final int PARTITIONS_PER_WORKER = 4;
+  /**
+   * The maximum number of times a partition is sent to a worker.
+   */
+  private static final int MAX_ATTEMPTS = 3;
+  /**
+   * The time allowed to connect to a worker, in milliseconds.
+   */
+  private static final int CONNECT_TIMEOUT_MILLIS = 30_000;
+  /**
+   * The source of run identifiers, used to determine whether a worker already has the market data.
+   */
+  private static final AtomicLong RUN_IDS = new AtomicLong();
+
+  /**
+   * The workers.
+   */
+  private final ImmutableList<WorkerConnection> workers;
+  /**
+   * The token shared with the workers.
+   */
+  private final String token;
+  /**
+   * The function estimating the cost of a task.
+   */
+  private final ToDoubleFunction<CalculationTask> costFunction;
+  /**
+   * The server socket that child processes connect to, null if the workers are remote.
+   */
+  private final ServerSocket server;
+  /**
+   * Executes the threads that drive the workers, one per worker for each run.
+   */
+  private final ExecutorService executor;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates a runner that starts workers as child processes of the current JVM.
+   * <p>
+   * The child processes use the same Java installation and class path as the current JVM.
+   * They are started when first needed and stopped when the runner is closed.
+   * They connect to the runner on the loopback address, authenticated by a randomly generated token.
+   * The cost of each task is estimated as the number of cells it calculates.
+   *
+   * @param processCount  the number of processes
+   * @param threadsPerProcess  the number of threads in each process, zero or less for the number of processors
+   * @return the calculation task runner
+   */
+  public static DistributedCalculationTaskRunner ofLocalProcesses(int processCount, int threadsPerProcess) {
+    return ofLocalProcesses(processCount, threadsPerProcess, task -> task.getCells().size());
+  }
+
+  /**
+   * Creates a runner that starts workers as child processes of the current JVM, specifying the cost function.
+   * <p>
+   * The child processes use the same Java installation and class path as the current JVM.
+   * They are started when first needed and stopped when the runner is closed.
+   * They connect to the runner on the loopback address, authenticated by a randomly generated token.
+   *
+   * @param processCount  the number of processes
+   * @param threadsPerProcess  the number of threads in each process, zero or less for the number of processors
+   * @param costFunction  the function estimating the relative cost of a task
+   * @return the calculation task runner
+   */
+  public static DistributedCalculationTaskRunner ofLocalProcesses(
+      int processCount,
+      int threadsPerProcess,
+      ToDoubleFunction<CalculationTask> costFunction) {
+
+    ArgChecker.notNegativeOrZero(processCount, "processCount");
+    ServerSocket server;
+    try {
+      server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    byte[] tokenBytes = new byte[32];
+    new SecureRandom().nextBytes(tokenBytes);
+    String token = BaseEncoding.base16().encode(tokenBytes);
+    return new DistributedCalculationTaskRunner(processCount, null, token, threadsPerProcess, server, costFunction);
+  }
+
+  /**
+   * Creates a runner that uses workers that are already running.
+   * <p>
+   * Each worker must be listening on the specified address, see {@link CalculationWorker#main(String[])}.
+   * The cost of each task is estimated as the number of cells it calculates.
+   *
+   * @param addresses  the addresses of the workers
+   * @param token  the token shared with the workers
+   * @return the calculation task runner
+   */
+  public static DistributedCalculationTaskRunner ofRemoteWorkers(List<InetSocketAddress> addresses, String token) {
+    return ofRemoteWorkers(addresses, token, task -> task.getCells().size());
+  }
+
+  /**
+   * Creates a runner that uses workers that are already running, specifying the cost function.
+   * <p>
+   * Each worker must be listening on the specified address, see {@link CalculationWorker#main(String[])}.
+   *
+   * @param addresses  the addresses of the workers
+   * @param token  the token shared with the workers
+   * @param costFunction  the function estimating the relative cost of a task
+   * @return the calculation task runner
+   */
+  public static DistributedCalculationTaskRunner ofRemoteWorkers(
+      List<InetSocketAddress> addresses,
+      String token,
+      ToDoubleFunction<CalculationTask> costFunction) {
+
+    ArgChecker.notEmpty(addresses, "addresses");
+    ArgChecker.notEmpty(token, "token");
+    return new DistributedCalculationTaskRunner(addresses.size(), addresses, token, 0, null, costFunction);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates an instance.
+   *
+   * @param workerCount  the number of workers
+   * @param addresses  the addresses of the workers, null if the workers are child processes
+   * @param token  the token shared with the workers
+   * @param threadsPerProcess  the number of threads in each child process
+   * @param server  the server socket that child processes connect to, null if the workers are remote
+   * @param costFunction  the function estimating the cost of a task
+   */
+  private DistributedCalculationTaskRunner(
+      int workerCount,
+      List<InetSocketAddress> addresses,
+      String token,
+      int threadsPerProcess,
+      ServerSocket server,
+      ToDoubleFunction<CalculationTask> costFunction) {
+
+    this.token = token;
+    this.costFunction = ArgChecker.notNull(costFunction, "costFunction");
+    this.server = server;
+    ImmutableList.Builder<WorkerConnection> builder = ImmutableList.builder();
+    for (int i = 0; i < workerCount; i++) {
+      builder.add(new WorkerConnection(addresses != null ? addresses.get(i) : null, threadsPerProcess));
+    }
+    this.workers = builder.build();
+    ThreadFactory threadFactory = r -> {
+      Thread t = Executors.defaultThreadFactory().newThread(r);
+      t.setName("DistributedCalculationTaskRunner-" + t.getName());
+      t.setDaemon(true);
+      return t;
+    };
+    this.executor = Executors.newCachedThreadPool(threadFactory);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public Results calculateSingleScenario(
+      CalculationTasks tasks,
+      ScenarioMarketData marketData,
+      ReferenceData refData) {
+
+    // since there is only one scenario it is not desirable to return scenario result containers
+    Results results = calculateMultipleScenarios(tasks, marketData, refData);
+    List<Result<?>> mappedResults = results.getCells().stream()
+        .map(r -> DefaultCalculationTaskRunner.unwrapScenarioResult(r))
+        .collect(toImmutableList());
+    return Results.of(results.getColumns(), mappedResults);
+  }
+
+  @Override
+  public Results calculateMultipleScenarios(
+      CalculationTasks tasks,
+      ScenarioMarketData marketData,
+      ReferenceData refData) {
+
+    AggregatingListener listener = new AggregatingListener(tasks.getColumns());
+    calculateMultipleScenariosAsync(tasks, marketData, refData, listener);
+    return listener.result();
+  }
+
+  @Override
+  public void calculateSingleScenarioAsync(
+      CalculationTasks tasks,
+      ScenarioMarketData marketData,
+      ReferenceData refData,
+      CalculationListener listener) {
+
+    // the listener is decorated to unwrap ScenarioArrays containing a single result
+    calculateMultipleScenariosAsync(tasks, marketData, refData, new UnwrappingListener(listener));
+  }
+
+  @Override
+  public void calculateMultipleScenariosAsync(
+      CalculationTasks tasks,
+      ScenarioMarketData marketData,
+      ReferenceData refData,
+      CalculationListener listener) {
+
+    List<CalculationTask> taskList = tasks.getTasks();
+    // the wrapper ensures thread-safety for the listener
+    Consumer<CalculationResults> consumer = new ListenerWrapper(listener, taskList.size());
+    // the market data is encoded once, and sent once to each worker
+    byte[] dataFrame = BeanBinaryCodec.encode(ImmutableList.of(CalculationWorker.DATA, marketData, refData));
+    Run run = new Run(RUN_IDS.incrementAndGet(), dataFrame, partition(taskList), consumer);
+    for (WorkerConnection worker : workers) {
+      executor.execute(() -> run.drive(worker));
+    }
+  }
+
+  // groups the tasks into partitions of similar cost, most expensive first
+  // each task is added to the cheapest partition, taking the most expensive tasks first
+  private List<Partition> partition(List<CalculationTask> tasks) {
+    int partitionCount = Math.min(tasks.size(), workers.size() * PARTITIONS_PER_WORKER);
+    double[] costs = tasks.stream().mapToDouble(costFunction).toArray();
+    List<Integer> order = new ArrayList<>(tasks.size());
+    for (int i = 0; i < tasks.size(); i++) {
+      order.add(i);
+    }
+    order.sort(Comparator.comparingDouble((Integer i) -> costs[i]).reversed());
+    PriorityQueue<Partition> queue = new PriorityQueue<>(Comparator.comparingDouble((Partition p) -> p.cost));
+    for (int i = 0; i < partitionCount; i++) {
+      queue.add(new Partition(i));
+    }
+    for (int taskIndex : order) {
+      Partition partition = queue.poll();
+      partition.add(tasks.get(taskIndex), costs[taskIndex]);
+      queue.add(partition);
+    }
+    List<Partition> partitions = new ArrayList<>(queue);
+    partitions.sort(Comparator.comparingDouble((Partition p) -> p.cost).reversed());
+    return partitions;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Stops the workers and releases the resources held by the runner.
+   */
+  @Override
+  public void close() {
+    for (WorkerConnection worker : workers) {
+      worker.stop();
+    }
+    if (server != null) {
+      try {
+        server.close();
+      } catch (IOException ex) {
+        log.warn("Unable to close calculation worker server socket", ex);
+      }
+    }
+    executor.shutdownNow();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * A group of tasks that are sent to a worker together.
+   * <p>
+   * A partition is only processed by one driver thread at a time, handed over via the queue of the run.
+   */
+  private static final class Partition {
+
+    /** The identifier of the partition. */
+    private final int id;
+    /** The tasks. */
+    private final List<CalculationTask> tasks = new ArrayList<>();
+    /** The tasks, in the form sent to the worker. */
+    private final List<ImmutableList<Object>> encodedTasks = new ArrayList<>();
+    /** Whether the results of each task have been delivered. */
+    private final List<Boolean> delivered = new ArrayList<>();
+    /** The estimated cost of the tasks. */
+    private double cost;
+    /** The number of times the partition has been sent to a worker. */
+    private int attempts;
+
+    private Partition(int id) {
+      this.id = id;
+    }
+
+    private void add(CalculationTask task, double taskCost) {
+      tasks.add(task);
+      encodedTasks.add(CalculationWorker.encodeTask(task));
+      delivered.add(false);
+      cost += taskCost;
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The state of a single run of a set of tasks.
+   */
+  private final class Run {
+
+    /** The identifier of the run. */
+    private final long runId;
+    /** The encoded market data and reference data message. */
+    private final byte[] dataFrame;
+    /** The partitions waiting to be sent to a worker. */
+    private final BlockingQueue<Partition> queue;
+    /** The consumer of the results. */
+    private final Consumer<CalculationResults> consumer;
+    /** The number of partitions that are not yet complete. */
+    private final AtomicInteger remaining;
+    /** The number of workers still taking partitions from the queue. */
+    private final AtomicInteger liveDrivers;
+
+    private Run(long runId, byte[] dataFrame, List<Partition> partitions, Consumer<CalculationResults> consumer) {
+      this.runId = runId;
+      this.dataFrame = dataFrame;
+      this.queue = new LinkedBlockingQueue<>(partitions);
+      this.consumer = consumer;
+      this.remaining = new AtomicInteger(partitions.size());
+      this.liveDrivers = new AtomicInteger(workers.size());
+    }
+
+    // takes partitions from the queue and sends them to the worker until all partitions are complete
+    private void drive(WorkerConnection worker) {
+      while (remaining.get() > 0) {
+        Partition partition;
+        try {
+          partition = queue.poll(100, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          retire(ex);
+          return;
+        }
+        if (partition == null) {
+          continue;
+        }
+        try {
+          worker.ensureConnected();
+        } catch (IOException | RuntimeException ex) {
+          log.warn("Unable to connect to calculation worker", ex);
+          queue.add(partition);
+          retire(ex);
+          return;
+        }
+        try {
+          worker.runPartition(runId, dataFrame, partition, consumer);
+          remaining.decrementAndGet();
+        } catch (IOException | RuntimeException ex) {
+          log.warn("Calculation worker failed to calculate partition " + partition.id, ex);
+          worker.disconnect();
+          partition.attempts++;
+          if (partition.attempts >= MAX_ATTEMPTS) {
+            fail(partition, ex);
+          } else {
+            queue.add(partition);
+          }
+        }
+      }
+    }
+
+    // called when a driver stops, failing the queued partitions if there are no other drivers
+    private void retire(Exception ex) {
+      if (liveDrivers.decrementAndGet() == 0) {
+        Partition partition;
+        while ((partition = queue.poll()) != null) {
+          fail(partition, ex);
+        }
+      }
+    }
+
+    // returns failures for the cells of the tasks that have not been delivered
+    private void fail(Partition partition, Exception ex) {
+      for (int i = 0; i < partition.tasks.size(); i++) {
+        if (!partition.delivered.get(i)) {
+          CalculationTask task = partition.tasks.get(i);
+          List<CalculationResult> results = task.getCells().stream()
+              .map(cell -> CalculationResult.of(
+                  cell.getRowIndex(),
+                  cell.getColumnIndex(),
+                  Result.failure(FailureReason.ERROR, ex, "Distributed calculation failed: {}", ex.getMessage())))
+              .collect(toImmutableList());
+          partition.delivered.set(i, true);
+          consumer.accept(CalculationResults.of(task.getTarget(), results));
+        }
+      }
+      remaining.decrementAndGet();
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The connection to a single worker.
+   */
+  private final class WorkerConnection {
+
+    /** The address of the worker, null if the worker is a child process. */
+    private final InetSocketAddress address;
+    /** The number of threads in the child process. */
+    private final int threads;
+    /** The child process, null if not started or the worker is remote. */
+    private Process process;
+    /** The socket, null if not connected. */
+    private Socket socket;
+    /** The input stream of the socket. */
+    private DataInputStream in;
+    /** The output stream of the socket. */
+    private DataOutputStream out;
+    /** The run for which the worker has the market data. */
+    private long dataRunId = -1;
+
+    private WorkerConnection(InetSocketAddress address, int threads) {
+      this.address = address;
+      this.threads = threads;
+    }
+
+    // connects to the worker, starting the child process if necessary
+    private synchronized void ensureConnected() throws IOException {
+      if (socket != null) {
+        return;
+      }
+      if (address != null) {
+        Socket remote = new Socket();
+        try {
+          remote.connect(address, CONNECT_TIMEOUT_MILLIS);
+        } catch (IOException ex) {
+          remote.close();
+          throw ex;
+        }
+        attach(remote, true);
+        return;
+      }
+      // only one child process is started at a time, so the next connection accepted is from that process
+      synchronized (server) {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        ProcessBuilder builder = new ProcessBuilder(
+            java,
+            "-cp",
+            System.getProperty("java.class.path"),
+            CalculationWorker.class.getName(),
+            "connect",
+            server.getInetAddress().getHostAddress(),
+            Integer.toString(server.getLocalPort()),
+            Integer.toString(threads))
+                .inheritIO();
+        // the token is passed in the environment, as the command line is visible to other users
+        builder.environment().put(CalculationWorker.TOKEN_VARIABLE, token);
+        process = builder.start();
+        try {
+          server.setSoTimeout(CONNECT_TIMEOUT_MILLIS);
+          attach(server.accept(), false);
+        } catch (IOException ex) {
+          disconnect();
+          throw ex;
+        }
+      }
+    }
+
+    // authenticates the worker, then uses the connection
+    private void attach(Socket connected, boolean opened) throws IOException {
+      connected.setTcpNoDelay(true);
+      DataInputStream connectedIn = new DataInputStream(new BufferedInputStream(connected.getInputStream()));
+      DataOutputStream connectedOut = new DataOutputStream(new BufferedOutputStream(connected.getOutputStream()));
+      try {
+        CalculationWorker.handshake(connected, connectedIn, connectedOut, token, opened);
+      } catch (IOException ex) {
+        connected.close();
+        throw ex;
+      }
+      socket = connected;
+      in = connectedIn;
+      out = connectedOut;
+      dataRunId = -1;
+    }
+
+    // sends the tasks of the partition that have not been delivered, delivering each result as it arrives
+    private synchronized void runPartition(
+        long runId,
+        byte[] dataFrame,
+        Partition partition,
+        Consumer<CalculationResults> consumer) throws IOException {
+
+      if (dataRunId != runId) {
+        CalculationWorker.writeFrame(out, dataFrame);
+        dataRunId = runId;
+      }
+      List<Integer> indices = new ArrayList<>();
+      List<ImmutableList<Object>> encodedTasks = new ArrayList<>();
+      for (int i = 0; i < partition.tasks.size(); i++) {
+        if (!partition.delivered.get(i)) {
+          indices.add(i);
+          encodedTasks.add(partition.encodedTasks.get(i));
+        }
+      }
+      CalculationWorker.writeMessage(
+          out, ImmutableList.of(CalculationWorker.TASKS, partition.id, indices, encodedTasks));
+      while (true) {
+        List<?> message = CalculationWorker.readMessage(in);
+        String type = (String) message.get(0);
+        if (type.equals(CalculationWorker.RESULT)) {
+          int index = (Integer) message.get(2);
+          if (!partition.delivered.get(index)) {
+            partition.delivered.set(index, true);
+            consumer.accept((CalculationResults) message.get(3));
+          }
+        } else if (type.equals(CalculationWorker.ERROR)) {
+          throw new IOException("Calculation worker failed: " + message.get(2));
+        } else if (type.equals(CalculationWorker.DONE)) {
+          if (partition.delivered.contains(false)) {
+            throw new IOException("Calculation worker did not return all results");
+          }
+          return;
+        } else {
+          throw new IOException("Unknown message type: " + type);
+        }
+      }
+    }
+
+    // asks the worker to stop, then disconnects
+    private synchronized void stop() {
+      if (socket != null) {
+        try {
+          CalculationWorker.writeMessage(out, ImmutableList.of(CalculationWorker.STOP));
+        } catch (IOException ex) {
+          log.debug("Unable to stop calculation worker", ex);
+        }
+      }
+      disconnect();
+    }
+
+    // closes the connection, destroying the child process if there is one
+    private synchronized void disconnect() {
+      if (socket != null) {
+        try {
+          socket.close();
+        } catch (IOException ex) {
+          log.debug("Unable to close calculation worker socket", ex);
+        }
+        socket = null;
+        in = null;
+        out = null;
+      }
+      if (process != null) {
+        process.destroy();
+        process = null;
+      }
+    }
+  }
+
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc;
+
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.CurrencyValuesArray;
+import com.opengamma.strata.data.scenario.ValuesArray;
+
+/**
+ * Test {@link ColumnarResults} and {@link ColumnarResultsBuilder}.
+ */
+@Test
+public class ColumnarResultsTest {
+
+  private static final ColumnHeader HEADER1 = ColumnHeader.of(ColumnName.of("A"), TestingMeasures.PAR_RATE);
+  private static final ColumnHeader HEADER2 = ColumnHeader.of(ColumnName.of("B"), TestingMeasures.PRESENT_VALUE);
+  private static final ColumnHeader HEADER3 = ColumnHeader.of(ColumnName.of("C"), TestingMeasures.CASH_FLOWS);
+  private static final List<ColumnHeader> HEADERS = ImmutableList.of(HEADER1, HEADER2, HEADER3);
+  private static final Result<?> FAILURE = Result.failure(FailureReason.ERROR, "Failed");
+
+  //-------------------------------------------------------------------------
+  public void test_of() {
+    Results results = results();
+    ColumnarResults test = ColumnarResults.of(results);
+    assertEquals(test.getColumns(), HEADERS);
+    assertEquals(test.getRowCount(), 3);
+    assertEquals(test.getColumnCount(), 3);
+    for (int row = 0; row < 3; row++) {
+      for (int column = 0; column < 3; column++) {
+        assertEquals(test.get(row, column), results.get(row, column));
+        assertEquals(test.isSuccess(row, column), results.get(row, column).isSuccess());
+      }
+    }
+    assertEquals(test.toResults(), results);
+  }
+
+  public void test_numericColumns() {
+    ColumnarResults test = ColumnarResults.of(results());
+    assertTrue(test.isNumeric(0));
+    assertTrue(test.isNumeric(1));
+    assertFalse(test.isNumeric(2));
+    assertEquals(test.getScenarioCount(0), 2);
+    assertEquals(test.getScenarioCount(1), 2);
+    assertEquals(test.getValue(0, 0, 1), 2d);
+    assertEquals(test.getValue(2, 0, 0), 5d);
+    assertEquals(test.getValues(1, 1), DoubleArray.of(30d, 40d));
+    assertThrowsIllegalArg(() -> test.getValue(1, 0, 0), "Result for row 1 .* is a failure");
+    assertThrowsIllegalArg(() -> test.getValue(0, 0, 2));
+    assertThrowsIllegalArg(() -> test.getValues(0, 2), "Column .* is not numeric");
+    assertThrowsIllegalArg(() -> test.getScenarioCount(2), "Column .* is not numeric");
+  }
+
+  public void test_spill() throws Exception {
+    Path directory = Files.createTempDirectory("strata-results-test");
+    try {
+      Results results = results();
+      ColumnarResults test = ColumnarResults.of(results, directory);
+      assertTrue(test.isNumeric(0));
+      assertEquals(test.getValue(2, 0, 1), 6d);
+      assertEquals(test.toResults(), results);
+      // the spill file is deleted once mapped
+      try (Stream<Path> files = Files.list(directory)) {
+        assertEquals(files.count(), 0L);
+      }
+    } finally {
+      Files.deleteIfExists(directory);
+    }
+  }
+
+  public void test_scalars() {
+    ColumnarResults test = ColumnarResultsBuilder.of(ImmutableList.of(HEADER1, HEADER2), 2)
+        .add(1, 0, Result.success(1.5d))
+        .add(0, 0, Result.success(2.5d))
+        .add(0, 1, Result.success(CurrencyAmount.of(GBP, 10d)))
+        .add(1, 1, Result.success(CurrencyAmount.of(USD, 20d)))
+        .build();
+    assertTrue(test.isNumeric(0));
+    assertTrue(test.isNumeric(1));
+    assertEquals(test.getScenarioCount(0), 1);
+    assertEquals(test.get(0, 0), Result.success(2.5d));
+    assertEquals(test.get(1, 1), Result.success(CurrencyAmount.of(USD, 20d)));
+    assertEquals(test.getValue(0, 1, 0), 10d);
+  }
+
+  public void test_mismatchedValues() {
+    ColumnarResults test = ColumnarResultsBuilder.of(ImmutableList.of(HEADER1, HEADER2), 2)
+        .add(0, 0, Result.success(ValuesArray.of(DoubleArray.of(1d, 2d))))
+        .add(1, 0, Result.success(ValuesArray.of(DoubleArray.of(1d))))
+        .add(0, 1, Result.success(1d))
+        .add(1, 1, Result.success("Text"))
+        .build();
+    assertFalse(test.isNumeric(0));
+    assertFalse(test.isNumeric(1));
+    assertEquals(test.get(0, 0), Result.success(ValuesArray.of(DoubleArray.of(1d, 2d))));
+    assertEquals(test.get(1, 0), Result.success(ValuesArray.of(DoubleArray.of(1d))));
+    assertEquals(test.get(0, 1), Result.success(1d));
+    assertEquals(test.get(1, 1), Result.success("Text"));
+  }
+
+  public void test_failures() {
+    ColumnarResults test = ColumnarResultsBuilder.of(ImmutableList.of(HEADER1, HEADER2), 2)
+        .add(0, 0, FAILURE)
+        .add(1, 0, Result.success(1d))
+        .add(0, 1, FAILURE)
+        .add(1, 1, FAILURE)
+        .build();
+    assertTrue(test.isNumeric(0));
+    assertFalse(test.isNumeric(1));
+    assertEquals(test.get(0, 0), FAILURE);
+    assertFalse(test.isSuccess(0, 0));
+    assertTrue(test.isSuccess(1, 0));
+    assertEquals(test.get(1, 1), FAILURE);
+  }
+
+  public void test_invalid() {
+    ColumnarResultsBuilder builder = ColumnarResultsBuilder.of(HEADERS, 1);
+    assertThrowsIllegalArg(() -> builder.add(1, 0, FAILURE));
+    assertThrowsIllegalArg(() -> builder.add(0, 3, FAILURE));
+    assertThrows(
+        () -> builder.add(0, 0, FAILURE).build(), IllegalStateException.class, "No result added for row 0 .*");
+    ColumnarResults test = ColumnarResults.of(results());
+    assertThrows(() -> test.get(3, 0), IllegalArgumentException.class, "Row index must be greater than or.*");
+    assertThrows(() -> test.get(0, -1), IllegalArgumentException.class, "Column index must be greater than or.*");
+  }
+
+  public void test_usedAfterBuild() {
+    ColumnarResultsBuilder builder = ColumnarResultsBuilder.of(ImmutableList.of(HEADER1), 1)
+        .add(0, 0, Result.success(1d));
+    ColumnarResults test = builder.build();
+    assertThrows(() -> builder.add(0, 0, Result.success(2d)), IllegalStateException.class, "Results have already.*");
+    assertThrows(() -> builder.build(), IllegalStateException.class, "Results have already.*");
+    assertEquals(test.get(0, 0), Result.success(1d));
+  }
+
+  //-------------------------------------------------------------------------
+  // three rows with a column of values, a column of currency values and a column of objects
+  private static Results results() {
+    return Results.of(HEADERS, ImmutableList.of(
+        Result.success(ValuesArray.of(DoubleArray.of(1d, 2d))),
+        Result.success(CurrencyValuesArray.of(GBP, DoubleArray.of(10d, 20d))),
+        Result.success("A"),
+        FAILURE,
+        Result.success(CurrencyValuesArray.of(USD, DoubleArray.of(30d, 40d))),
+        Result.success("B"),
+        Result.success(ValuesArray.of(DoubleArray.of(5d, 6d))),
+        FAILURE,
+        FAILURE));
+  }
+
+}
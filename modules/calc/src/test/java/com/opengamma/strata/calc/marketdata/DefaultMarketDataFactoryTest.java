@@ -7,18 +7,28 @@ package com.opengamma.strata.calc.marketdata;
 
 import static com.opengamma.strata.collect.Guavate.toImmutableMap;
 import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
 import static com.opengamma.strata.collect.TestHelper.date;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.StandardId;
 import com.opengamma.strata.calc.marketdata.scenario.MarketDataFilter;
@@ -844,6 +854,188 @@ public class DefaultMarketDataFactoryTest {
     assertThat(values).isEqualTo(expectedValues);
   }
 
+  /**
+   * Tests building with providers that take time to respond, checking they are invoked once for all IDs.
+   * <p>
+   * The providers and the market data function only return once all three are running,
+   * so the build only succeeds if the requests overlap each other and the building of non-observable data.
+   */
+  public void buildWithSlowProviders() {
+    TestObservableId id1 = TestObservableId.of(StandardId.of("reqs", "a"));
+    TestObservableId id2 = TestObservableId.of(StandardId.of("reqs", "b"));
+    LocalDateDoubleTimeSeries timeSeries = LocalDateDoubleTimeSeries.builder()
+        .put(date(2011, 3, 8), 1)
+        .build();
+    CountDownLatch allRunning = new CountDownLatch(3);
+    SlowTimeSeriesProvider timeSeriesProvider =
+        new SlowTimeSeriesProvider(ImmutableMap.of(id1, timeSeries), allRunning);
+    SlowObservableDataProvider observableDataProvider = new SlowObservableDataProvider(allRunning);
+    MarketDataFactory factory = MarketDataFactory.of(
+        observableDataProvider,
+        timeSeriesProvider,
+        Duration.ofSeconds(30),
+        ImmutableList.of(new AwaitingMarketDataFunction(allRunning)));
+
+    AwaitingId awaitingId = new AwaitingId();
+    MarketDataRequirements requirements = MarketDataRequirements.builder()
+        .addValues(id1, id2)
+        .addValues(awaitingId)
+        .addTimeSeries(id1, id2)
+        .build();
+    BuiltScenarioMarketData suppliedData = BuiltScenarioMarketData.builder(date(2011, 3, 8)).build();
+    BuiltScenarioMarketData marketData = factory.buildMarketData(requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA);
+    assertThat(marketData.getValue(id1).getSingleValue()).isEqualTo(1d);
+    assertThat(marketData.getValue(id2).getSingleValue()).isEqualTo(2d);
+    assertThat(marketData.getTimeSeries(id1)).isEqualTo(timeSeries);
+    assertThat(marketData.getTimeSeriesFailures()).containsOnlyKeys(id2);
+    assertThat(marketData.getValue(awaitingId).getSingleValue()).isEqualTo("built");
+    assertThat(timeSeriesProvider.requestCount.get()).isEqualTo(1);
+    assertThat(observableDataProvider.requestCount.get()).isEqualTo(1);
+  }
+
+  /**
+   * Tests that a request that does not complete within the timeout is interrupted,
+   * so it does not prevent later requests from running on the executor.
+   */
+  public void buildAfterProviderTimeout() throws Exception {
+    TestObservableId id1 = TestObservableId.of(StandardId.of("reqs", "a"));
+    CountDownLatch interrupted = new CountDownLatch(1);
+    AtomicInteger requestCount = new AtomicInteger();
+    ObservableDataProvider observableDataProvider = ids -> {
+      if (requestCount.incrementAndGet() == 1) {
+        try {
+          new CountDownLatch(1).await();
+        } catch (InterruptedException ex) {
+          interrupted.countDown();
+        }
+      }
+      return new TestObservableDataProvider().provideObservableData(ids);
+    };
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      MarketDataFactory factory = MarketDataFactory.of(
+          observableDataProvider,
+          new TestTimeSeriesProvider(ImmutableMap.of()),
+          Duration.ofMillis(500),
+          executor,
+          ImmutableList.of());
+      MarketDataRequirements requirements = MarketDataRequirements.builder()
+          .addValues(id1)
+          .build();
+      BuiltScenarioMarketData suppliedData = BuiltScenarioMarketData.builder(date(2011, 3, 8)).build();
+
+      BuiltScenarioMarketData timedOut =
+          factory.buildMarketData(requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA);
+      assertThat(timedOut.getValueFailures()).containsOnlyKeys(id1);
+      assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+
+      // the single thread of the executor is free to run the next request
+      BuiltScenarioMarketData marketData =
+          factory.buildMarketData(requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA);
+      assertThat(marketData.getValue(id1).getSingleValue()).isEqualTo(1d);
+      assertThat(requestCount.get()).isEqualTo(2);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Tests that blocking requests to the providers run on the specified executor.
+   */
+  public void buildWithProviderExecutor() {
+    TestObservableId id1 = TestObservableId.of(StandardId.of("reqs", "a"));
+    LocalDateDoubleTimeSeries timeSeries = LocalDateDoubleTimeSeries.builder()
+        .put(date(2011, 3, 8), 1)
+        .build();
+    AtomicInteger executed = new AtomicInteger();
+    Executor executor = command -> {
+      executed.incrementAndGet();
+      command.run();
+    };
+    MarketDataFactory factory = MarketDataFactory.of(
+        new TestObservableDataProvider(),
+        new TestTimeSeriesProvider(ImmutableMap.of(id1, timeSeries)),
+        Duration.ofSeconds(30),
+        executor,
+        ImmutableList.of());
+
+    MarketDataRequirements requirements = MarketDataRequirements.builder()
+        .addValues(id1)
+        .addTimeSeries(id1)
+        .build();
+    BuiltScenarioMarketData suppliedData = BuiltScenarioMarketData.builder(date(2011, 3, 8)).build();
+    BuiltScenarioMarketData marketData = factory.buildMarketData(requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA);
+    assertThat(marketData.getValue(id1).getSingleValue()).isEqualTo(1d);
+    assertThat(marketData.getTimeSeries(id1)).isEqualTo(timeSeries);
+    assertThat(executed.get()).isEqualTo(2);
+  }
+
+  /**
+   * Tests that observable data and time-series not provided within the timeout are failures.
+   */
+  public void buildWithProviderTimeout() {
+    TestObservableId id1 = TestObservableId.of(StandardId.of("reqs", "a"));
+    TimeSeriesProvider timeSeriesProvider = new TestTimeSeriesProvider(ImmutableMap.of()) {
+      @Override
+      public CompletableFuture<Map<ObservableId, Result<LocalDateDoubleTimeSeries>>> provideTimeSeriesAsync(
+          Set<? extends ObservableId> identifiers,
+          Executor executor) {
+        return new CompletableFuture<>();
+      }
+    };
+    ObservableDataProvider observableDataProvider = new TestObservableDataProvider() {
+      @Override
+      public CompletableFuture<Map<ObservableId, Result<Double>>> provideObservableDataAsync(
+          Set<? extends ObservableId> identifiers,
+          Executor executor) {
+        return new CompletableFuture<>();
+      }
+    };
+    MarketDataFactory factory = MarketDataFactory.of(
+        observableDataProvider,
+        timeSeriesProvider,
+        Duration.ofMillis(50),
+        ImmutableList.of());
+
+    MarketDataRequirements requirements = MarketDataRequirements.builder()
+        .addValues(id1)
+        .addTimeSeries(id1)
+        .build();
+    BuiltScenarioMarketData suppliedData = BuiltScenarioMarketData.builder(date(2011, 3, 8)).build();
+    BuiltScenarioMarketData marketData = factory.buildMarketData(requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA);
+    assertThat(marketData.getValueFailures()).containsOnlyKeys(id1);
+    assertThat(marketData.getValueFailures().get(id1).getReason()).isEqualTo(FailureReason.MISSING_DATA);
+    assertThat(marketData.getTimeSeriesFailures()).containsOnlyKeys(id1);
+  }
+
+  /**
+   * Tests that an exception thrown by a provider is propagated.
+   */
+  public void buildWithProviderException() {
+    TestObservableId id1 = TestObservableId.of(StandardId.of("reqs", "a"));
+    ObservableDataProvider observableDataProvider = ids -> {
+      throw new IllegalStateException("Provider failed");
+    };
+    MarketDataFactory factory = MarketDataFactory.of(
+        observableDataProvider,
+        new TestTimeSeriesProvider(ImmutableMap.of()));
+    MarketDataRequirements requirements = MarketDataRequirements.builder()
+        .addValues(id1)
+        .build();
+    BuiltScenarioMarketData suppliedData = BuiltScenarioMarketData.builder(date(2011, 3, 8)).build();
+    assertThrows(
+        () -> factory.buildMarketData(requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA),
+        IllegalStateException.class,
+        "Provider failed");
+  }
+
+  public void test_invalidTimeout() {
+    assertThrowsIllegalArg(() -> MarketDataFactory.of(
+        ObservableDataProvider.none(), TimeSeriesProvider.none(), Duration.ZERO, ImmutableList.of()));
+    assertThrowsIllegalArg(() -> MarketDataFactory.of(
+        ObservableDataProvider.none(), TimeSeriesProvider.none(), Duration.ofSeconds(1), null, ImmutableList.of()));
+  }
+
   /**
    * Tests ObservableDataProvider.none(), which is never normally be invoked.
    */
@@ -859,7 +1051,7 @@ public class DefaultMarketDataFactoryTest {
   /**
    * Simple time series provider backed by a map.
    */
-  private static final class TestTimeSeriesProvider implements TimeSeriesProvider {
+  private static class TestTimeSeriesProvider implements TimeSeriesProvider {
 
     private final Map<? extends ObservableId, LocalDateDoubleTimeSeries> timeSeries;
 
@@ -874,10 +1066,72 @@ public class DefaultMarketDataFactoryTest {
     }
   }
 
+  /**
+   * Time series provider backed by a map, simulating the latency of a remote data source.
+   */
+  private static final class SlowTimeSeriesProvider implements TimeSeriesProvider {
+
+    private final Map<? extends ObservableId, LocalDateDoubleTimeSeries> timeSeries;
+    private final CountDownLatch allRunning;
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    private SlowTimeSeriesProvider(
+        Map<? extends ObservableId, LocalDateDoubleTimeSeries> timeSeries,
+        CountDownLatch allRunning) {
+
+      this.timeSeries = timeSeries;
+      this.allRunning = allRunning;
+    }
+
+    @Override
+    public Result<LocalDateDoubleTimeSeries> provideTimeSeries(ObservableId id) {
+      throw new UnsupportedOperationException("Time series should be requested in bulk");
+    }
+
+    @Override
+    public Map<ObservableId, Result<LocalDateDoubleTimeSeries>> provideTimeSeries(Set<? extends ObservableId> ids) {
+      requestCount.incrementAndGet();
+      awaitAllRunning(allRunning);
+      return ids.stream()
+          .collect(toImmutableMap(
+              id -> id,
+              id -> Result.ofNullable(timeSeries.get(id), FailureReason.MISSING_DATA, "No time series for ID {}", id)));
+    }
+  }
+
+  /**
+   * Builds observable data by parsing the value of the standard ID, simulating the latency of a remote data source.
+   */
+  private static final class SlowObservableDataProvider implements ObservableDataProvider {
+
+    private final ObservableDataProvider underlying = new TestObservableDataProvider();
+    private final CountDownLatch allRunning;
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    private SlowObservableDataProvider(CountDownLatch allRunning) {
+      this.allRunning = allRunning;
+    }
+
+    @Override
+    public Map<ObservableId, Result<Double>> provideObservableData(Set<? extends ObservableId> requirements) {
+      requestCount.incrementAndGet();
+      awaitAllRunning(allRunning);
+      return underlying.provideObservableData(requirements);
+    }
+  }
+
+  // signals this task is running and waits for the other tasks, failing if they do not run at the same time
+  private static void awaitAllRunning(CountDownLatch allRunning) {
+    allRunning.countDown();
+    if (!Uninterruptibles.awaitUninterruptibly(allRunning, 10, TimeUnit.SECONDS)) {
+      throw new IllegalStateException("Tasks did not run in parallel");
+    }
+  }
+
   /**
    * Builds observable data by parsing the value of the standard ID.
    */
-  private static final class TestObservableDataProvider implements ObservableDataProvider {
+  private static class TestObservableDataProvider implements ObservableDataProvider {
 
     // demonstrates provider that maps identifiers
     private final Map<ObservableId, ObservableId> idMap =
@@ -1289,6 +1543,55 @@ public class DefaultMarketDataFactoryTest {
     }
   }
 
+  /**
+   * Market data ID for non-observable market data with no requirements, built by {@link AwaitingMarketDataFunction}.
+   */
+  private static final class AwaitingId implements MarketDataId<String> {
+
+    @Override
+    public Class<String> getMarketDataType() {
+      return String.class;
+    }
+
+    @Override
+    public String toString() {
+      return "AwaitingId";
+    }
+  }
+
+  /**
+   * Market data function that only builds its value once the other tasks are running.
+   */
+  private static final class AwaitingMarketDataFunction implements MarketDataFunction<String, AwaitingId> {
+
+    private final CountDownLatch allRunning;
+
+    private AwaitingMarketDataFunction(CountDownLatch allRunning) {
+      this.allRunning = allRunning;
+    }
+
+    @Override
+    public MarketDataRequirements requirements(AwaitingId id, MarketDataConfig marketDataConfig) {
+      return MarketDataRequirements.empty();
+    }
+
+    @Override
+    public MarketDataBox<String> build(
+        AwaitingId id,
+        MarketDataConfig marketDataConfig,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      awaitAllRunning(allRunning);
+      return MarketDataBox.ofSingleValue("built");
+    }
+
+    @Override
+    public Class<AwaitingId> getMarketDataIdType() {
+      return AwaitingId.class;
+    }
+  }
+
   /**
    * A perturbation which perturbs a string by appending another string to it.
    */
@@ -0,0 +1,184 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.calc.ReportingCurrency.NATURAL;
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static com.opengamma.strata.collect.TestHelper.coverPrivateConstructor;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.Measure;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.calc.TestingMeasures;
+import com.opengamma.strata.calc.runner.CalculationTaskTest.TestTarget;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.ImmutableScenarioMarketData;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * Test {@link CalculationTaskBatches} and batching in {@link DefaultCalculationTaskRunner}.
+ */
+@Test
+public class CalculationTaskBatchesTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.empty();
+  private static final ScenarioMarketData MARKET_DATA = ImmutableScenarioMarketData.builder(date(2011, 3, 8)).build();
+
+  //-------------------------------------------------------------------------
+  public void test_batch() {
+    List<CalculationTask> tasks = tasks(new BatchFunction(false), 10);
+    assertEquals(batchSizes(CalculationTaskBatches.batch(tasks, 4, 1)), ImmutableList.of(4, 4, 2));
+    assertEquals(batchSizes(CalculationTaskBatches.batch(tasks, 20, 1)), ImmutableList.of(10));
+    assertEquals(batchSizes(CalculationTaskBatches.batch(tasks, 20, 5)), ImmutableList.of(2, 2, 2, 2, 2));
+    assertEquals(batchSizes(CalculationTaskBatches.batch(tasks, 1, 1)).size(), 10);
+  }
+
+  public void test_batch_notBatchFunction() {
+    List<CalculationTask> tasks = tasks(new CalculationTaskTest.TestFunction(), 3);
+    assertEquals(batchSizes(CalculationTaskBatches.batch(tasks, 4, 1)), ImmutableList.of(1, 1, 1));
+  }
+
+  public void test_batch_differentFunctions() {
+    List<CalculationTask> tasks = new ArrayList<>(tasks(new BatchFunction(false), 3));
+    tasks.addAll(tasks(new BatchFunction(false), 2));
+    assertEquals(batchSizes(CalculationTaskBatches.batch(tasks, 4, 1)), ImmutableList.of(3, 2));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_execute() {
+    BatchFunction function = new BatchFunction(false);
+    List<CalculationTask> tasks = tasks(function, 3);
+    List<CalculationResults> results = CalculationTaskBatches.execute(tasks, MARKET_DATA, REF_DATA);
+    assertEquals(function.batchCount, 1);
+    assertEquals(function.singleCount, 0);
+    for (int i = 0; i < tasks.size(); i++) {
+      assertEquals(results.get(i), tasks.get(i).execute(MARKET_DATA, REF_DATA));
+    }
+  }
+
+  public void test_execute_batchFailure() {
+    BatchFunction function = new BatchFunction(true);
+    List<CalculationTask> tasks = tasks(function, 3);
+    List<CalculationResults> results = CalculationTaskBatches.execute(tasks, MARKET_DATA, REF_DATA);
+    assertEquals(function.singleCount, 3);
+    assertEquals(results.get(1).getCells().get(0).getResult().getValue(), ScenarioArray.of("bar"));
+  }
+
+  public void test_runner() {
+    BatchFunction function = new BatchFunction(false);
+    List<CalculationTask> taskList = tasks(function, 10);
+    CalculationTasks tasks =
+        CalculationTasks.of(taskList, ImmutableList.of(Column.of(TestingMeasures.PRESENT_VALUE)));
+    CalculationTaskRunner test = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService(), 4);
+    Results results = test.calculateMultipleScenarios(tasks, MARKET_DATA, REF_DATA);
+    assertEquals(results.getRowCount(), 10);
+    for (int i = 0; i < 10; i++) {
+      assertEquals(results.get(i, 0).getValue(), ScenarioArray.of("bar"));
+    }
+  }
+
+  public void coverage() {
+    coverPrivateConstructor(CalculationTaskBatches.class);
+  }
+
+  //-------------------------------------------------------------------------
+  private static List<CalculationTask> tasks(CalculationFunction<TestTarget> function, int count) {
+    List<CalculationTask> tasks = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      CalculationTaskCell cell = CalculationTaskCell.of(i, 0, TestingMeasures.PRESENT_VALUE, NATURAL);
+      tasks.add(CalculationTask.of(new TestTarget(), function, cell));
+    }
+    return tasks;
+  }
+
+  private static List<Integer> batchSizes(List<List<CalculationTask>> batches) {
+    return batches.stream().map(List::size).collect(toImmutableList());
+  }
+
+  //-------------------------------------------------------------------------
+  private static final class BatchFunction implements BatchCalculationFunction<TestTarget> {
+
+    private final boolean failBatch;
+    private int batchCount;
+    private int singleCount;
+
+    private BatchFunction(boolean failBatch) {
+      this.failBatch = failBatch;
+    }
+
+    @Override
+    public Class<TestTarget> targetType() {
+      return TestTarget.class;
+    }
+
+    @Override
+    public Set<Measure> supportedMeasures() {
+      return ImmutableSet.of(TestingMeasures.PRESENT_VALUE);
+    }
+
+    @Override
+    public Currency naturalCurrency(TestTarget target, ReferenceData refData) {
+      return USD;
+    }
+
+    @Override
+    public FunctionRequirements requirements(
+        TestTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ReferenceData refData) {
+
+      return FunctionRequirements.empty();
+    }
+
+    @Override
+    public Map<Measure, Result<?>> calculate(
+        TestTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      singleCount++;
+      return ImmutableMap.of(TestingMeasures.PRESENT_VALUE, Result.success(ScenarioArray.of("bar")));
+    }
+
+    @Override
+    public List<Map<Measure, Result<?>>> calculateBatch(
+        List<TestTarget> targets,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      batchCount++;
+      if (failBatch) {
+        throw new IllegalStateException("Batch failed");
+      }
+      Map<Measure, Result<?>> result =
+          ImmutableMap.of(TestingMeasures.PRESENT_VALUE, Result.success(ScenarioArray.of("bar")));
+      return targets.stream().map(target -> result).collect(toImmutableList());
+    }
+  }
+
+}
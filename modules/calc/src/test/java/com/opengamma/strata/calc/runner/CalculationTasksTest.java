@@ -10,8 +10,12 @@ import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.testng.Assert.assertNotNull;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.testng.annotations.Test;
 
@@ -19,16 +23,20 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.calc.CalculationRules;
 import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.Measure;
 import com.opengamma.strata.calc.TestingMeasures;
 import com.opengamma.strata.calc.marketdata.MarketDataRequirements;
 import com.opengamma.strata.calc.marketdata.TestId;
 import com.opengamma.strata.calc.marketdata.TestObservableId;
 import com.opengamma.strata.calc.runner.CalculationTaskTest.TestFunction;
 import com.opengamma.strata.calc.runner.CalculationTaskTest.TestTarget;
+import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.data.MarketDataId;
 import com.opengamma.strata.data.ObservableId;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
 
 /**
  * Test {@link CalculationTasks}.
@@ -102,6 +110,25 @@ public class CalculationTasksTest {
     assertThat(timeSeries.iterator().next()).isEqualTo(timeSeriesId);
   }
 
+  public void test_requirements_sharedByKey() {
+    KeyedFunction function = new KeyedFunction();
+    CalculationFunctions functions = CalculationFunctions.of(ImmutableMap.of(TestTarget.class, function));
+    CalculationRules calculationRules = CalculationRules.of(functions, USD);
+    List<TestTarget> targets = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      targets.add(new TestTarget());
+    }
+    List<Column> columns = ImmutableList.of(Column.of(TestingMeasures.PRESENT_VALUE));
+
+    CalculationTasks test = CalculationTasks.of(calculationRules, targets, columns);
+
+    MarketDataRequirements requirements = test.requirements(REF_DATA);
+    assertThat(function.requirementsCount.get()).isEqualTo(1);
+    assertThat(requirements.getNonObservables()).isEqualTo(ImmutableSet.of(TestId.of("1")));
+    assertThat(requirements.getTimeSeries())
+        .isEqualTo(ImmutableSet.of(TestObservableId.of("3", CalculationTaskTest.OBS_SOURCE)));
+  }
+
   //-------------------------------------------------------------------------
   public void testToString() {
     List<TestTarget> targets = ImmutableList.of(TARGET1, TARGET1);
@@ -114,4 +141,59 @@ public class CalculationTasksTest {
     assertThat(task.toString()).isEqualTo("CalculationTasks[grid=2x3]");
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Function whose requirements are the same for all targets.
+   */
+  private static final class KeyedFunction implements CalculationFunction<TestTarget> {
+
+    private final AtomicInteger requirementsCount = new AtomicInteger();
+
+    @Override
+    public Class<TestTarget> targetType() {
+      return TestTarget.class;
+    }
+
+    @Override
+    public Set<Measure> supportedMeasures() {
+      return ImmutableSet.of(TestingMeasures.PRESENT_VALUE);
+    }
+
+    @Override
+    public Currency naturalCurrency(TestTarget target, ReferenceData refData) {
+      return USD;
+    }
+
+    @Override
+    public Optional<Object> requirementsKey(TestTarget target) {
+      return Optional.of("key");
+    }
+
+    @Override
+    public FunctionRequirements requirements(
+        TestTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ReferenceData refData) {
+
+      requirementsCount.incrementAndGet();
+      return FunctionRequirements.builder()
+          .valueRequirements(TestId.of("1"))
+          .timeSeriesRequirements(TestObservableId.of("3"))
+          .observableSource(CalculationTaskTest.OBS_SOURCE)
+          .build();
+    }
+
+    @Override
+    public Map<Measure, Result<?>> calculate(
+        TestTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      throw new UnsupportedOperationException();
+    }
+  }
+
 }
@@ -25,16 +25,19 @@ import com.opengamma.strata.basics.CalculationTarget;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.ColumnarResults;
 import com.opengamma.strata.calc.Measure;
 import com.opengamma.strata.calc.TestingMeasures;
 import com.opengamma.strata.calc.Results;
 import com.opengamma.strata.calc.marketdata.TestId;
 import com.opengamma.strata.calc.marketdata.TestObservableId;
 import com.opengamma.strata.calc.runner.CalculationTaskTest.TestTarget;
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.data.scenario.ImmutableScenarioMarketData;
 import com.opengamma.strata.data.scenario.ScenarioArray;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
+import com.opengamma.strata.data.scenario.ValuesArray;
 
 /**
  * Test {@link CalculationTaskRunner} and {@link DefaultCalculationTaskRunner}.
@@ -121,6 +124,29 @@ public class DefaultCalculationTaskRunnerTest {
     assertThat(result2).hasValue(scenarioResult);
   }
 
+  /**
+   * Test that numeric results are stored in primitive form by the columnar listener.
+   */
+  public void columnarResultsAsync() {
+    ValuesArray scenarioResult = ValuesArray.of(DoubleArray.of(1d, 2d, 3d));
+    ScenarioResultFunction fn = new ScenarioResultFunction(TestingMeasures.PAR_RATE, scenarioResult);
+    CalculationTaskCell cell = CalculationTaskCell.of(0, 0, TestingMeasures.PAR_RATE, NATURAL);
+    CalculationTask task = CalculationTask.of(TARGET, fn, cell);
+    Column column = Column.of(TestingMeasures.PAR_RATE);
+    CalculationTasks tasks = CalculationTasks.of(ImmutableList.of(task), ImmutableList.of(column));
+
+    // using the direct executor means there is no need to close/shutdown the runner
+    CalculationTaskRunner test = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService());
+    ColumnarResultsListener listener = new ColumnarResultsListener(tasks);
+
+    ScenarioMarketData marketData = ImmutableScenarioMarketData.builder(VAL_DATE).build();
+    test.calculateMultipleScenariosAsync(tasks, marketData, REF_DATA, listener);
+    ColumnarResults results = listener.result();
+    assertThat(results.isNumeric(0)).isTrue();
+    assertThat(results.getValue(0, 0, 2)).isEqualTo(3d);
+    assertThat(results.get(0, 0)).hasValue(scenarioResult);
+  }
+
   //-------------------------------------------------------------------------
   public static final class TestFunction implements CalculationFunction<TestTarget> {
 
@@ -172,9 +198,9 @@ public class DefaultCalculationTaskRunnerTest {
   private static final class ScenarioResultFunction implements CalculationFunction<TestTarget> {
 
     private final Measure measure;
-    private final ScenarioArray<String> result;
+    private final ScenarioArray<?> result;
 
-    private ScenarioResultFunction(Measure measure, ScenarioArray<String> result) {
+    private ScenarioResultFunction(Measure measure, ScenarioArray<?> result) {
       this.measure = measure;
       this.result = result;
     }
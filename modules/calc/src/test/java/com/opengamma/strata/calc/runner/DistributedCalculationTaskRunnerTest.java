@@ -0,0 +1,344 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.calc.ReportingCurrency.NATURAL;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.joda.convert.FromString;
+import org.joda.convert.ToString;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.Measure;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.calc.TestingMeasures;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.scenario.ImmutableScenarioMarketData;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * Test {@link DistributedCalculationTaskRunner} and {@link CalculationWorker}.
+ */
+@Test
+public class DistributedCalculationTaskRunnerTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.empty();
+  private static final ScenarioMarketData MARKET_DATA = ImmutableScenarioMarketData.builder(date(2011, 3, 8)).build();
+  private static final int TASK_COUNT = 25;
+  private static final String TOKEN = "token";
+
+  //-------------------------------------------------------------------------
+  public void test_calculate() throws IOException {
+    CalculationTasks tasks = tasks();
+    Results expected = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService())
+        .calculateMultipleScenarios(tasks, MARKET_DATA, REF_DATA);
+    try (ServerSocket server1 = startWorker(0);
+        ServerSocket server2 = startWorker(0);
+        DistributedCalculationTaskRunner test = DistributedCalculationTaskRunner.ofRemoteWorkers(
+            ImmutableList.of(address(server1), address(server2)),
+            TOKEN,
+            task -> ((IndexTarget) task.getTarget()).index)) {
+
+      assertEquals(test.calculateMultipleScenarios(tasks, MARKET_DATA, REF_DATA), expected);
+      assertEquals(test.calculateMultipleScenarios(tasks, MARKET_DATA, REF_DATA), expected);
+      Results single = test.calculateSingleScenario(tasks, MARKET_DATA, REF_DATA);
+      assertEquals(single.get(3, 0).getValue(), "value3");
+    }
+  }
+
+  public void test_calculate_localProcesses() {
+    CalculationTasks tasks = tasks();
+    Results expected = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService())
+        .calculateMultipleScenarios(tasks, MARKET_DATA, REF_DATA);
+    try (DistributedCalculationTaskRunner test = DistributedCalculationTaskRunner.ofLocalProcesses(2, 1)) {
+      assertEquals(test.calculateMultipleScenarios(tasks, MARKET_DATA, REF_DATA), expected);
+      // the child processes are reused by the second run
+      assertEquals(test.calculateMultipleScenarios(tasks, MARKET_DATA, REF_DATA), expected);
+    }
+  }
+
+  public void test_calculate_marketDataSentOncePerRun() throws IOException {
+    CalculationTasks tasks = tasks();
+    ScenarioMarketData marketData = ImmutableScenarioMarketData.builder(date(2011, 3, 8))
+        .addValue(new CountingId(), "counted")
+        .build();
+    Results expected = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService())
+        .calculateMultipleScenarios(tasks, marketData, REF_DATA);
+    try (ServerSocket server = startWorker(0);
+        DistributedCalculationTaskRunner test =
+            DistributedCalculationTaskRunner.ofRemoteWorkers(ImmutableList.of(address(server)), TOKEN)) {
+
+      int decoded = CountingId.DECODED.get();
+      // the worker receives the market data once, although it calculates several partitions
+      assertEquals(test.calculateMultipleScenarios(tasks, marketData, REF_DATA), expected);
+      assertEquals(CountingId.DECODED.get(), decoded + 1);
+      // the second run sends the market data again
+      assertEquals(test.calculateMultipleScenarios(tasks, marketData, REF_DATA), expected);
+      assertEquals(CountingId.DECODED.get(), decoded + 2);
+    }
+  }
+
+  public void test_calculate_retry() throws IOException {
+    CalculationTasks tasks = tasks();
+    Results expected = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService())
+        .calculateMultipleScenarios(tasks, MARKET_DATA, REF_DATA);
+    // the worker closes the first connection after receiving the first partition
+    try (ServerSocket server = startWorker(1);
+        DistributedCalculationTaskRunner test =
+            DistributedCalculationTaskRunner.ofRemoteWorkers(ImmutableList.of(address(server)), TOKEN)) {
+
+      assertEquals(test.calculateMultipleScenarios(tasks, MARKET_DATA, REF_DATA), expected);
+    }
+  }
+
+  public void test_calculate_workerUnavailable() throws IOException {
+    CalculationTasks tasks = tasks();
+    InetSocketAddress address;
+    try (ServerSocket server = new ServerSocket(0)) {
+      address = address(server);
+    }
+    try (DistributedCalculationTaskRunner test =
+        DistributedCalculationTaskRunner.ofRemoteWorkers(ImmutableList.of(address), TOKEN)) {
+
+      assertFailures(test.calculateMultipleScenarios(tasks, MARKET_DATA, REF_DATA));
+    }
+  }
+
+  public void test_calculate_invalidToken() throws IOException {
+    CalculationTasks tasks = tasks();
+    try (ServerSocket server = startWorker(0);
+        DistributedCalculationTaskRunner test =
+            DistributedCalculationTaskRunner.ofRemoteWorkers(ImmutableList.of(address(server)), "other")) {
+
+      assertFailures(test.calculateMultipleScenarios(tasks, MARKET_DATA, REF_DATA));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_encodeTask() {
+    CalculationTask task = CalculationTask.of(
+        new IndexTarget(2), new IndexFunction(), CalculationTaskCell.of(2, 0, TestingMeasures.PRESENT_VALUE, NATURAL));
+    List<Object> encoded = CalculationWorker.encodeTask(task);
+    assertEquals(encoded.get(1), IndexFunction.class.getName());
+    CalculationTask decoded = CalculationWorker.decodeTask(encoded);
+    assertEquals(decoded.getTarget(), task.getTarget());
+    assertEquals(decoded.getCells(), task.getCells());
+    assertEquals(decoded.getFunction().getClass(), IndexFunction.class);
+  }
+
+  public void test_decodeTask_notFunction() {
+    CalculationTask task = CalculationTask.of(
+        new IndexTarget(2), new IndexFunction(), CalculationTaskCell.of(2, 0, TestingMeasures.PRESENT_VALUE, NATURAL));
+    List<Object> encoded = new ArrayList<>(CalculationWorker.encodeTask(task));
+    encoded.set(1, String.class.getName());
+    assertThrowsIllegalArg(() -> CalculationWorker.decodeTask(encoded));
+  }
+
+  public void test_encodeTask_noConstructor() {
+    CalculationTask task = CalculationTask.of(
+        new IndexTarget(2),
+        new NoConstructorFunction("x"),
+        CalculationTaskCell.of(2, 0, TestingMeasures.PRESENT_VALUE, NATURAL));
+    assertThrowsIllegalArg(() -> CalculationWorker.encodeTask(task));
+  }
+
+  public void test_main_badArgs() {
+    assertThrowsIllegalArg(() -> CalculationWorker.main(new String[] {"foo"}));
+    assertThrowsIllegalArg(() -> CalculationWorker.main(new String[] {"listen", "0", "1", "localhost", "foo"}));
+  }
+
+  //-------------------------------------------------------------------------
+  private static CalculationTasks tasks() {
+    List<CalculationTask> tasks = new ArrayList<>();
+    for (int i = 0; i < TASK_COUNT; i++) {
+      CalculationTaskCell cell = CalculationTaskCell.of(i, 0, TestingMeasures.PRESENT_VALUE, NATURAL);
+      tasks.add(CalculationTask.of(new IndexTarget(i), new IndexFunction(), cell));
+    }
+    return CalculationTasks.of(tasks, ImmutableList.of(Column.of(TestingMeasures.PRESENT_VALUE)));
+  }
+
+  private static void assertFailures(Results results) {
+    assertEquals(results.getRowCount(), TASK_COUNT);
+    for (int i = 0; i < TASK_COUNT; i++) {
+      assertTrue(results.get(i, 0).isFailure());
+      assertEquals(results.get(i, 0).getFailure().getReason(), FailureReason.ERROR);
+    }
+  }
+
+  private static InetSocketAddress address(ServerSocket server) {
+    return new InetSocketAddress(server.getInetAddress(), server.getLocalPort());
+  }
+
+  // starts a worker in this JVM, which drops the specified number of connections after receiving tasks
+  private static ServerSocket startWorker(int connectionsToDrop) throws IOException {
+    ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    Thread thread = new Thread(() -> {
+      int dropped = 0;
+      while (!server.isClosed()) {
+        try (Socket socket = server.accept()) {
+          if (dropped < connectionsToDrop) {
+            dropped++;
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            CalculationWorker.handshake(socket, in, out, TOKEN, false);
+            CalculationWorker.readMessage(in);
+            CalculationWorker.readMessage(in);
+          } else {
+            CalculationWorker.serve(socket, 2, TOKEN, false);
+          }
+        } catch (IOException ex) {
+          // server closed or connection rejected
+        }
+      }
+    });
+    thread.setDaemon(true);
+    thread.start();
+    return server;
+  }
+
+  //-------------------------------------------------------------------------
+  // the target is sent to the workers in its string form
+  public static final class IndexTarget implements CalculationTarget {
+
+    private final int index;
+
+    private IndexTarget(int index) {
+      this.index = index;
+    }
+
+    @FromString
+    public static IndexTarget parse(String str) {
+      return new IndexTarget(Integer.parseInt(str));
+    }
+
+    @ToString
+    @Override
+    public String toString() {
+      return Integer.toString(index);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof IndexTarget && ((IndexTarget) obj).index == index;
+    }
+
+    @Override
+    public int hashCode() {
+      return index;
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  public static class IndexFunction implements CalculationFunction<IndexTarget> {
+
+    @Override
+    public Class<IndexTarget> targetType() {
+      return IndexTarget.class;
+    }
+
+    @Override
+    public Set<Measure> supportedMeasures() {
+      return ImmutableSet.of(TestingMeasures.PRESENT_VALUE);
+    }
+
+    @Override
+    public Currency naturalCurrency(IndexTarget target, ReferenceData refData) {
+      return USD;
+    }
+
+    @Override
+    public FunctionRequirements requirements(
+        IndexTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ReferenceData refData) {
+
+      return FunctionRequirements.empty();
+    }
+
+    @Override
+    public Map<Measure, Result<?>> calculate(
+        IndexTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      return ImmutableMap.of(TestingMeasures.PRESENT_VALUE, Result.success(ScenarioArray.of("value" + target.index)));
+    }
+  }
+
+  private static final class NoConstructorFunction extends IndexFunction {
+
+    private NoConstructorFunction(String unused) {
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // an identifier that counts the number of times it is decoded
+  public static final class CountingId implements MarketDataId<String> {
+
+    private static final AtomicInteger DECODED = new AtomicInteger();
+
+    @FromString
+    public static CountingId parse(String str) {
+      DECODED.incrementAndGet();
+      return new CountingId();
+    }
+
+    @Override
+    public Class<String> getMarketDataType() {
+      return String.class;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof CountingId;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    @ToString
+    @Override
+    public String toString() {
+      return "CountingId";
+    }
+  }
+
+}
@@ -0,0 +1,615 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.collect;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * An immutable map that shares structure between versions.
+ * <p>
+ * This is a hash array mapped trie, where each node of the tree holds up to 32 entries or child nodes.
+ * Adding, replacing or removing an entry copies only the nodes on the path to the entry,
+ * taking time proportional to the logarithm of the size of the map.
+ * All other nodes are shared with the original map, which remains unchanged.
+ * <p>
+ * The structural sharing also allows the differences between two versions of a map
+ * to be found without examining the parts of the maps that are shared.
+ * <p>
+ * Null keys and values are not permitted.
+ * This class is immutable and thread-safe if the keys and values are.
+ *
+ * @param <K>  the key type
+ * @param <V>  the value type
+ */
+public final class PersistentHashMap<K, V> {
+
+  /**
+   * The number of bits of the hash used at each level of the tree.
+   */
+  private static final int BITS = 5;
+  /**
+   * The mask for the bits of the hash used at each level of the tree.
+   */
+  private static final int MASK = (1 << BITS) - 1;
+  /**
+   * An empty map.
+   */
+  private static final PersistentHashMap<Object, Object> EMPTY = new PersistentHashMap<>(BitmapNode.EMPTY, 0);
+
+  /**
+   * The root node.
+   */
+  private final Node root;
+  /**
+   * The number of entries.
+   */
+  private final int size;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an empty map.
+   *
+   * @param <K>  the key type
+   * @param <V>  the value type
+   * @return the empty map
+   */
+  @SuppressWarnings("unchecked")
+  public static <K, V> PersistentHashMap<K, V> empty() {
+    return (PersistentHashMap<K, V>) EMPTY;
+  }
+
+  /**
+   * Obtains an instance containing the entries of the specified map.
+   *
+   * @param <K>  the key type
+   * @param <V>  the value type
+   * @param map  the map to copy
+   * @return the map
+   */
+  public static <K, V> PersistentHashMap<K, V> of(Map<? extends K, ? extends V> map) {
+    ArgChecker.notNull(map, "map");
+    return PersistentHashMap.<K, V>empty().withAll(map);
+  }
+
+  // restricted constructor
+  private PersistentHashMap(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the number of entries in the map.
+   *
+   * @return the size of the map
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Checks if the map is empty.
+   *
+   * @return true if the map is empty
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Checks if the map contains the specified key.
+   *
+   * @param key  the key to find
+   * @return true if the map contains the key
+   */
+  public boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  /**
+   * Gets the value associated with the specified key.
+   *
+   * @param key  the key to find
+   * @return the value, null if not found
+   */
+  @SuppressWarnings("unchecked")
+  public V get(Object key) {
+    ArgChecker.notNull(key, "key");
+    return (V) root.find(hash(key), 0, key);
+  }
+
+  /**
+   * Finds the value associated with the specified key.
+   *
+   * @param key  the key to find
+   * @return the value, empty if not found
+   */
+  public Optional<V> find(Object key) {
+    return Optional.ofNullable(get(key));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns a map with the specified entry added or replaced.
+   * <p>
+   * If the map already contains the same value for the key, this map is returned.
+   *
+   * @param key  the key
+   * @param value  the value
+   * @return the map with the entry
+   */
+  public PersistentHashMap<K, V> with(K key, V value) {
+    ArgChecker.notNull(key, "key");
+    ArgChecker.notNull(value, "value");
+    boolean[] added = new boolean[1];
+    Node newRoot = root.put(0, hash(key), key, value, added);
+    if (newRoot == root) {
+      return this;
+    }
+    return new PersistentHashMap<>(newRoot, added[0] ? size + 1 : size);
+  }
+
+  /**
+   * Returns a map with the specified entries added or replaced.
+   *
+   * @param map  the entries to add
+   * @return the map with the entries
+   */
+  public PersistentHashMap<K, V> withAll(Map<? extends K, ? extends V> map) {
+    ArgChecker.notNull(map, "map");
+    PersistentHashMap<K, V> result = this;
+    for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+      result = result.with(entry.getKey(), entry.getValue());
+    }
+    return result;
+  }
+
+  /**
+   * Returns a map without the specified key.
+   * <p>
+   * If the map does not contain the key, this map is returned.
+   *
+   * @param key  the key to remove
+   * @return the map without the key
+   */
+  public PersistentHashMap<K, V> without(Object key) {
+    ArgChecker.notNull(key, "key");
+    Node newRoot = root.remove(0, hash(key), key);
+    if (newRoot == root) {
+      return this;
+    }
+    return new PersistentHashMap<>(newRoot == null ? BitmapNode.EMPTY : newRoot, size - 1);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Performs an action for each entry in the map.
+   * <p>
+   * The order of the entries is not defined.
+   *
+   * @param action  the action to perform
+   */
+  @SuppressWarnings("unchecked")
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    ArgChecker.notNull(action, "action");
+    root.forEach((BiConsumer<Object, Object>) action);
+  }
+
+  /**
+   * Returns the keys of the map.
+   *
+   * @return the set of keys
+   */
+  public ImmutableSet<K> keySet() {
+    ImmutableSet.Builder<K> builder = ImmutableSet.builder();
+    forEach((key, value) -> builder.add(key));
+    return builder.build();
+  }
+
+  /**
+   * Returns the entries of the map as an immutable map.
+   *
+   * @return the map
+   */
+  public ImmutableMap<K, V> toMap() {
+    ImmutableMap.Builder<K, V> builder = ImmutableMap.builder();
+    forEach(builder::put);
+    return builder.build();
+  }
+
+  /**
+   * Finds the keys whose entries differ between this map and another.
+   * <p>
+   * The result contains the keys that are in only one of the maps, and the keys whose values
+   * are not equal in the two maps. Parts of the maps that are shared, such as when one map
+   * was derived from the other, are not examined.
+   *
+   * @param other  the other map
+   * @return the keys whose entries differ
+   */
+  @SuppressWarnings("unchecked")
+  public ImmutableSet<K> differences(PersistentHashMap<K, V> other) {
+    ArgChecker.notNull(other, "other");
+    ImmutableSet.Builder<K> builder = ImmutableSet.builder();
+    differences(root, other.root, key -> builder.add((K) key));
+    return builder.build();
+  }
+
+  // finds the differences between two nodes at the same level of the tree
+  private static void differences(Node node, Node other, Consumer<Object> result) {
+    if (node == other) {
+      return;
+    }
+    if (node instanceof BitmapNode && other instanceof BitmapNode) {
+      BitmapNode first = (BitmapNode) node;
+      BitmapNode second = (BitmapNode) other;
+      int bitmap = first.bitmap | second.bitmap;
+      while (bitmap != 0) {
+        int bit = Integer.lowestOneBit(bitmap);
+        bitmap &= ~bit;
+        Object firstChild = first.childAt(bit);
+        Object secondChild = second.childAt(bit);
+        if (firstChild instanceof Node && secondChild instanceof Node) {
+          differences((Node) firstChild, (Node) secondChild, result);
+        } else {
+          entryDifferences(first.entriesAt(bit), second.entriesAt(bit), result);
+        }
+      }
+    } else {
+      entryDifferences(entries(node), entries(other), result);
+    }
+  }
+
+  // finds the differences between two sets of entries
+  private static void entryDifferences(
+      Map<Object, Object> first,
+      Map<Object, Object> second,
+      Consumer<Object> result) {
+
+    for (Map.Entry<Object, Object> entry : first.entrySet()) {
+      Object otherValue = second.get(entry.getKey());
+      if (otherValue == null || !(otherValue == entry.getValue() || otherValue.equals(entry.getValue()))) {
+        result.accept(entry.getKey());
+      }
+    }
+    for (Object key : second.keySet()) {
+      if (!first.containsKey(key)) {
+        result.accept(key);
+      }
+    }
+  }
+
+  // the entries of a node
+  private static Map<Object, Object> entries(Node node) {
+    Map<Object, Object> map = new HashMap<>();
+    node.forEach(map::put);
+    return map;
+  }
+
+  // the hash of a key, spreading the higher bits
+  private static int hash(Object key) {
+    int hash = key.hashCode();
+    return hash ^ (hash >>> 16);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Checks if this map is equal to another map.
+   * <p>
+   * The maps are equal if they contain the same entries.
+   *
+   * @param obj  the other object
+   * @return true if equal
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj instanceof PersistentHashMap) {
+      PersistentHashMap<K, V> other = (PersistentHashMap<K, V>) obj;
+      return size == other.size && differences(other).isEmpty();
+    }
+    return false;
+  }
+
+  /**
+   * Returns a suitable hash code, consistent with {@link Map#hashCode()}.
+   *
+   * @return the hash code
+   */
+  @Override
+  public int hashCode() {
+    int[] hash = new int[1];
+    forEach((key, value) -> hash[0] += key.hashCode() ^ value.hashCode());
+    return hash[0];
+  }
+
+  @Override
+  public String toString() {
+    return toMap().toString();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * A node in the tree.
+   */
+  private abstract static class Node {
+
+    // finds the value for the key, null if not found
+    abstract Object find(int hash, int shift, Object key);
+
+    // returns the node with the key added or replaced, setting the flag if the key was added
+    abstract Node put(int shift, int hash, Object key, Object value, boolean[] added);
+
+    // returns the node without the key, null if the node is then empty
+    abstract Node remove(int shift, int hash, Object key);
+
+    // performs the action for each entry
+    abstract void forEach(BiConsumer<Object, Object> action);
+  }
+
+  /**
+   * A node holding up to 32 entries or child nodes, indexed by a bitmap.
+   * <p>
+   * The array holds a pair of elements for each bit set in the bitmap.
+   * An entry is stored as the key followed by the value.
+   * A child node is stored as null followed by the node.
+   */
+  private static final class BitmapNode extends Node {
+
+    private static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+    private final int bitmap;
+    private final Object[] array;
+
+    private BitmapNode(int bitmap, Object[] array) {
+      this.bitmap = bitmap;
+      this.array = array;
+    }
+
+    // the index of the pair for the bit in the array
+    private int index(int bit) {
+      return 2 * Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    // the child node at the bit, or the key of the entry, null if none
+    private Object childAt(int bit) {
+      if ((bitmap & bit) == 0) {
+        return null;
+      }
+      int index = index(bit);
+      return array[index] == null ? array[index + 1] : array[index];
+    }
+
+    // the entries held at the bit, either directly or by a child
+    private Map<Object, Object> entriesAt(int bit) {
+      if ((bitmap & bit) == 0) {
+        return new HashMap<>();
+      }
+      int index = index(bit);
+      if (array[index] == null) {
+        return entries((Node) array[index + 1]);
+      }
+      Map<Object, Object> map = new HashMap<>();
+      map.put(array[index], array[index + 1]);
+      return map;
+    }
+
+    @Override
+    Object find(int hash, int shift, Object key) {
+      int bit = 1 << ((hash >>> shift) & MASK);
+      if ((bitmap & bit) == 0) {
+        return null;
+      }
+      int index = index(bit);
+      Object keyOrNull = array[index];
+      if (keyOrNull == null) {
+        return ((Node) array[index + 1]).find(hash, shift + BITS, key);
+      }
+      return key.equals(keyOrNull) ? array[index + 1] : null;
+    }
+
+    @Override
+    Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+      int bit = 1 << ((hash >>> shift) & MASK);
+      int index = index(bit);
+      if ((bitmap & bit) == 0) {
+        // insert a new entry
+        Object[] newArray = new Object[array.length + 2];
+        System.arraycopy(array, 0, newArray, 0, index);
+        newArray[index] = key;
+        newArray[index + 1] = value;
+        System.arraycopy(array, index, newArray, index + 2, array.length - index);
+        added[0] = true;
+        return new BitmapNode(bitmap | bit, newArray);
+      }
+      Object keyOrNull = array[index];
+      Object valueOrNode = array[index + 1];
+      if (keyOrNull == null) {
+        // update the child node
+        Node child = (Node) valueOrNode;
+        Node newChild = child.put(shift + BITS, hash, key, value, added);
+        return newChild == child ? this : withPair(index, null, newChild);
+      }
+      if (key.equals(keyOrNull)) {
+        // replace the value
+        return valueOrNode == value ? this : withPair(index, keyOrNull, value);
+      }
+      // replace the entry by a child node holding both entries
+      added[0] = true;
+      Node child = createNode(shift + BITS, keyOrNull, valueOrNode, hash, key, value);
+      return withPair(index, null, child);
+    }
+
+    @Override
+    Node remove(int shift, int hash, Object key) {
+      int bit = 1 << ((hash >>> shift) & MASK);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+      int index = index(bit);
+      Object keyOrNull = array[index];
+      if (keyOrNull == null) {
+        Node child = (Node) array[index + 1];
+        Node newChild = child.remove(shift + BITS, hash, key);
+        if (newChild == child) {
+          return this;
+        }
+        if (newChild == null) {
+          return withoutPair(bit, index);
+        }
+        if (newChild instanceof BitmapNode && ((BitmapNode) newChild).isSingleEntry()) {
+          // move a single remaining entry up into this node
+          Object[] childArray = ((BitmapNode) newChild).array;
+          return withPair(index, childArray[0], childArray[1]);
+        }
+        return withPair(index, null, newChild);
+      }
+      if (key.equals(keyOrNull)) {
+        return withoutPair(bit, index);
+      }
+      return this;
+    }
+
+    @Override
+    void forEach(BiConsumer<Object, Object> action) {
+      for (int i = 0; i < array.length; i += 2) {
+        if (array[i] == null) {
+          ((Node) array[i + 1]).forEach(action);
+        } else {
+          action.accept(array[i], array[i + 1]);
+        }
+      }
+    }
+
+    // checks if this node holds a single entry and no child nodes
+    private boolean isSingleEntry() {
+      return array.length == 2 && array[0] != null;
+    }
+
+    // a copy of this node with the pair at the index replaced
+    private BitmapNode withPair(int index, Object keyOrNull, Object valueOrNode) {
+      Object[] newArray = array.clone();
+      newArray[index] = keyOrNull;
+      newArray[index + 1] = valueOrNode;
+      return new BitmapNode(bitmap, newArray);
+    }
+
+    // a copy of this node without the pair at the index, null if the node is then empty
+    private BitmapNode withoutPair(int bit, int index) {
+      if (bitmap == bit) {
+        return null;
+      }
+      Object[] newArray = new Object[array.length - 2];
+      System.arraycopy(array, 0, newArray, 0, index);
+      System.arraycopy(array, index + 2, newArray, index, array.length - index - 2);
+      return new BitmapNode(bitmap & ~bit, newArray);
+    }
+
+    // creates a node holding two entries
+    private static Node createNode(int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+      int hash1 = hash(key1);
+      if (hash1 == hash2) {
+        return new CollisionNode(hash1, new Object[] {key1, value1, key2, value2});
+      }
+      boolean[] added = new boolean[1];
+      return EMPTY
+          .put(shift, hash1, key1, value1, added)
+          .put(shift, hash2, key2, value2, added);
+    }
+  }
+
+  /**
+   * A node holding entries whose keys have the same hash.
+   * <p>
+   * The array holds each entry as the key followed by the value.
+   */
+  private static final class CollisionNode extends Node {
+
+    private final int hash;
+    private final Object[] array;
+
+    private CollisionNode(int hash, Object[] array) {
+      this.hash = hash;
+      this.array = array;
+    }
+
+    // the index of the key in the array, -1 if not found
+    private int index(Object key) {
+      for (int i = 0; i < array.length; i += 2) {
+        if (key.equals(array[i])) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    Object find(int hash, int shift, Object key) {
+      int index = index(key);
+      return index < 0 ? null : array[index + 1];
+    }
+
+    @Override
+    Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+      if (hash != this.hash) {
+        // nest this node in a bitmap node, then add the entry to that
+        int bit = 1 << ((this.hash >>> shift) & MASK);
+        return new BitmapNode(bit, new Object[] {null, this}).put(shift, hash, key, value, added);
+      }
+      int index = index(key);
+      if (index >= 0) {
+        if (array[index + 1] == value) {
+          return this;
+        }
+        Object[] newArray = array.clone();
+        newArray[index + 1] = value;
+        return new CollisionNode(hash, newArray);
+      }
+      Object[] newArray = new Object[array.length + 2];
+      System.arraycopy(array, 0, newArray, 0, array.length);
+      newArray[array.length] = key;
+      newArray[array.length + 1] = value;
+      added[0] = true;
+      return new CollisionNode(hash, newArray);
+    }
+
+    @Override
+    Node remove(int shift, int hash, Object key) {
+      int index = index(key);
+      if (index < 0) {
+        return this;
+      }
+      if (array.length == 4) {
+        // a single entry remains, which no longer needs a collision node
+        int remaining = index == 0 ? 2 : 0;
+        boolean[] added = new boolean[1];
+        return BitmapNode.EMPTY.put(shift, hash, array[remaining], array[remaining + 1], added);
+      }
+      Object[] newArray = new Object[array.length - 2];
+      System.arraycopy(array, 0, newArray, 0, index);
+      System.arraycopy(array, index + 2, newArray, index, array.length - index - 2);
+      return new CollisionNode(hash, newArray);
+    }
+
+    @Override
+    void forEach(BiConsumer<Object, Object> action) {
+      for (int i = 0; i < array.length; i += 2) {
+        action.accept(array[i], array[i + 1]);
+      }
+    }
+  }
+
+}
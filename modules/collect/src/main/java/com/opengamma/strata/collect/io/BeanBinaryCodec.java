@@ -0,0 +1,691 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.collect.io;
+
+import java.lang.reflect.Array;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanBuilder;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
+import org.joda.convert.RenameHandler;
+import org.joda.convert.StringConvert;
+import org.joda.convert.TypedStringConverter;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.ImmutableSortedSet;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.collect.array.IntArray;
+
+/**
+ * Encodes and decodes Joda-Beans in a compact binary format.
+ * <p>
+ * This is intended to move objects such as market data and calculation results between processes.
+ * Beans are encoded property by property using their meta-bean. The names of the serializable
+ * properties of a bean type are written once, the first time the type is encoded.
+ * Strings, types and values converted by Joda-Convert are interned, such that repeated
+ * identifiers are written as a reference to their first occurrence. Beans that can also be converted
+ * by Joda-Convert, such as standard identifiers, are interned in the same way. They are still written
+ * property by property the first time, as their string form may depend on registered names.
+ * <p>
+ * Primitive arrays, {@link DoubleArray}, {@link IntArray}, {@link DoubleMatrix} and arrays of dates
+ * are written as blocks of binary data, read back in bulk from the buffer.
+ * The buffer may be a direct or memory mapped buffer.
+ * <p>
+ * Lists, sets and maps are decoded as Guava immutable collections.
+ * Sorted sets and sorted maps are decoded using the natural order of their elements.
+ * Objects which are neither beans nor convertible by Joda-Convert cannot be encoded.
+ * Java serialization is deliberately not used, such that decoding untrusted data only creates
+ * beans and values converted from strings. A type named in the data is only initialized once it is
+ * known to be a bean, and values are only converted from strings for types known to Joda-Convert.
+ * <p>
+ * The format is not intended for long term storage, as it depends on the bean definitions.
+ */
+public final class BeanBinaryCodec {
+
+  /**
+   * The header of the binary format, including the version.
+   */
+  private static final int HEADER = 0x53424303;
+
+  private static final byte NULL = 0;
+  private static final byte TRUE = 1;
+  private static final byte FALSE = 2;
+  private static final byte INT = 3;
+  private static final byte LONG = 4;
+  private static final byte DOUBLE = 5;
+  private static final byte STRING = 6;
+  private static final byte DATE = 7;
+  private static final byte DOUBLES = 8;
+  private static final byte INTS = 9;
+  private static final byte LONGS = 10;
+  private static final byte DATES = 11;
+  private static final byte OBJECTS = 12;
+  private static final byte DOUBLE_ARRAY = 13;
+  private static final byte INT_ARRAY = 14;
+  private static final byte DOUBLE_MATRIX = 15;
+  private static final byte LIST = 16;
+  private static final byte SET = 17;
+  private static final byte SORTED_SET = 18;
+  private static final byte MAP = 19;
+  private static final byte SORTED_MAP = 20;
+  private static final byte BEAN = 21;
+  private static final byte CONVERTED = 22;
+  private static final byte CONVERTED_REF = 23;
+  private static final byte BEAN_REF = 24;
+
+  /**
+   * Restricted constructor.
+   */
+  private BeanBinaryCodec() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Encodes an object to the binary format.
+   *
+   * @param value  the value to encode, may be null
+   * @return the binary data
+   * @throws IllegalArgumentException if the value or one of its properties cannot be encoded
+   */
+  public static byte[] encode(Object value) {
+    Writer writer = new Writer();
+    writer.buf.putInt(HEADER);
+    writer.writeValue(value);
+    return writer.toByteArray();
+  }
+
+  /**
+   * Decodes an object from the binary format.
+   *
+   * @param <T>  the type of the object
+   * @param data  the binary data
+   * @param type  the expected type of the object
+   * @return the decoded object
+   * @throws IllegalArgumentException if the data is invalid or not of the expected type
+   */
+  public static <T> T decode(byte[] data, Class<T> type) {
+    ArgChecker.notNull(data, "data");
+    return decode(ByteBuffer.wrap(data), type);
+  }
+
+  /**
+   * Decodes an object from a buffer holding the binary format.
+   * <p>
+   * The object is read from the current position of the buffer, which is advanced to the end of the object.
+   *
+   * @param <T>  the type of the object
+   * @param buffer  the buffer
+   * @param type  the expected type of the object
+   * @return the decoded object
+   * @throws IllegalArgumentException if the data is invalid or not of the expected type
+   */
+  public static <T> T decode(ByteBuffer buffer, Class<T> type) {
+    ArgChecker.notNull(buffer, "buffer");
+    ArgChecker.notNull(type, "type");
+    try {
+      if (buffer.getInt() != HEADER) {
+        throw new IllegalArgumentException("Invalid binary bean header");
+      }
+      Object value = new Reader(buffer).readValue();
+      if (value != null && !type.isInstance(value)) {
+        throw new IllegalArgumentException(
+            "Decoded object was of type " + value.getClass().getName() + " but expected " + type.getName());
+      }
+      return type.cast(value);
+    } catch (BufferUnderflowException ex) {
+      throw new IllegalArgumentException("Binary bean data was truncated", ex);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // writes the binary format to a growing buffer
+  private static final class Writer {
+    private final StringConvert convert = JodaBeanUtils.stringConverter();
+    private final Map<String, Integer> strings = new HashMap<>();
+    private final Map<Class<?>, Integer> types = new HashMap<>();
+    private final Map<Class<?>, List<MetaProperty<?>>> beanTypes = new HashMap<>();
+    private final Map<Class<?>, Integer> beanTypeIndices = new HashMap<>();
+    private final Map<Object, Integer> converted = new HashMap<>();
+    private final Map<Bean, Integer> internedBeans = new HashMap<>();
+    private ByteBuffer buf = ByteBuffer.allocate(1024);
+
+    private byte[] toByteArray() {
+      byte[] result = new byte[buf.position()];
+      System.arraycopy(buf.array(), 0, result, 0, result.length);
+      return result;
+    }
+
+    private void writeValue(Object value) {
+      if (value == null) {
+        writeTag(NULL);
+      } else if (value instanceof String) {
+        writeTag(STRING);
+        writeString((String) value);
+      } else if (value instanceof Double) {
+        writeTag(DOUBLE);
+        ensure(8);
+        buf.putDouble((Double) value);
+      } else if (value instanceof Integer) {
+        writeTag(INT);
+        ensure(4);
+        buf.putInt((Integer) value);
+      } else if (value instanceof Long) {
+        writeTag(LONG);
+        ensure(8);
+        buf.putLong((Long) value);
+      } else if (value instanceof Boolean) {
+        writeTag((Boolean) value ? TRUE : FALSE);
+      } else if (value instanceof LocalDate) {
+        writeTag(DATE);
+        writeSignedVarLong(((LocalDate) value).toEpochDay());
+      } else if (value instanceof double[]) {
+        writeTag(DOUBLES);
+        writeDoubles((double[]) value);
+      } else if (value instanceof int[]) {
+        writeTag(INTS);
+        writeInts((int[]) value);
+      } else if (value instanceof long[]) {
+        writeTag(LONGS);
+        long[] array = (long[]) value;
+        writeVarInt(array.length);
+        ensure(8 * array.length);
+        buf.asLongBuffer().put(array);
+        buf.position(buf.position() + 8 * array.length);
+      } else if (value instanceof LocalDate[] && !containsNull((LocalDate[]) value)) {
+        writeTag(DATES);
+        LocalDate[] array = (LocalDate[]) value;
+        writeVarInt(array.length);
+        long previous = 0;
+        for (LocalDate date : array) {
+          long epochDay = date.toEpochDay();
+          writeSignedVarLong(epochDay - previous);
+          previous = epochDay;
+        }
+      } else if (value instanceof Object[]) {
+        writeTag(OBJECTS);
+        Object[] array = (Object[]) value;
+        writeType(array.getClass().getComponentType());
+        writeVarInt(array.length);
+        for (Object element : array) {
+          writeValue(element);
+        }
+      } else if (value instanceof DoubleArray) {
+        writeTag(DOUBLE_ARRAY);
+        writeDoubles(((DoubleArray) value).toArrayUnsafe());
+      } else if (value instanceof IntArray) {
+        writeTag(INT_ARRAY);
+        writeInts(((IntArray) value).toArrayUnsafe());
+      } else if (value instanceof DoubleMatrix) {
+        writeTag(DOUBLE_MATRIX);
+        DoubleMatrix matrix = (DoubleMatrix) value;
+        writeVarInt(matrix.rowCount());
+        writeVarInt(matrix.columnCount());
+        for (double[] row : matrix.toArrayUnsafe()) {
+          ensure(8 * row.length);
+          buf.asDoubleBuffer().put(row);
+          buf.position(buf.position() + 8 * row.length);
+        }
+      } else if (value instanceof Bean) {
+        writeBean((Bean) value);
+      } else if (convert.isConvertible(convertibleType(value))) {
+        writeConverted(value);
+      } else if (value instanceof Collection) {
+        Collection<?> collection = (Collection<?>) value;
+        writeTag(value instanceof SortedSet ? SORTED_SET : value instanceof Set ? SET : LIST);
+        writeVarInt(collection.size());
+        for (Object element : collection) {
+          writeValue(element);
+        }
+      } else if (value instanceof Map) {
+        Map<?, ?> map = (Map<?, ?>) value;
+        writeTag(value instanceof SortedMap ? SORTED_MAP : MAP);
+        writeVarInt(map.size());
+        for (Entry<?, ?> entry : map.entrySet()) {
+          writeValue(entry.getKey());
+          writeValue(entry.getValue());
+        }
+      } else {
+        throw new IllegalArgumentException("Unable to encode object of type " + value.getClass().getName());
+      }
+    }
+
+    // beans that are also convertible are identifiers, such as standard ids, which are interned
+    private void writeBean(Bean bean) {
+      boolean intern = convert.isConvertible(bean.getClass());
+      Integer index = (intern ? internedBeans.get(bean) : null);
+      if (index != null) {
+        writeTag(BEAN_REF);
+        writeVarInt(index);
+        return;
+      }
+      writeTag(BEAN);
+      for (MetaProperty<?> property : writeBeanType(bean)) {
+        writeValue(property.get(bean));
+      }
+      if (intern) {
+        internedBeans.put(bean, internedBeans.size());
+      }
+    }
+
+    private void writeConverted(Object value) {
+      Integer index = converted.get(value);
+      if (index != null) {
+        writeTag(CONVERTED_REF);
+        writeVarInt(index);
+      } else {
+        @SuppressWarnings("unchecked")
+        TypedStringConverter<Object> converter =
+            (TypedStringConverter<Object>) convert.findTypedConverter(convertibleType(value));
+        writeTag(CONVERTED);
+        writeType(converter.getEffectiveType());
+        writeString(converter.convertToString(value));
+        converted.put(value, converted.size());
+      }
+    }
+
+    // the type is written in full the first time, then as a reference
+    private void writeType(Class<?> type) {
+      Integer index = types.get(type);
+      if (index != null) {
+        writeVarInt(index + 1);
+      } else {
+        writeVarInt(0);
+        writeString(type.getName());
+        types.put(type, types.size());
+      }
+    }
+
+    // the bean type and the names of its properties are written in full the first time, then as a reference
+    private List<MetaProperty<?>> writeBeanType(Bean bean) {
+      Class<?> type = bean.getClass();
+      List<MetaProperty<?>> properties = beanTypes.get(type);
+      if (properties != null) {
+        writeVarInt(beanTypeIndices.get(type) + 1);
+        return properties;
+      }
+      properties = new ArrayList<>();
+      for (MetaProperty<?> property : bean.metaBean().metaPropertyIterable()) {
+        if (property.style().isSerializable()) {
+          properties.add(property);
+        }
+      }
+      writeVarInt(0);
+      writeString(type.getName());
+      writeVarInt(properties.size());
+      for (MetaProperty<?> property : properties) {
+        writeString(property.name());
+      }
+      beanTypeIndices.put(type, beanTypes.size());
+      beanTypes.put(type, properties);
+      return properties;
+    }
+
+    // the string is written in full the first time, then as a reference
+    private void writeString(String str) {
+      Integer index = strings.get(str);
+      if (index != null) {
+        writeVarInt(index + 1);
+      } else {
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(0);
+        writeVarInt(bytes.length);
+        ensure(bytes.length);
+        buf.put(bytes);
+        strings.put(str, strings.size());
+      }
+    }
+
+    private void writeDoubles(double[] array) {
+      writeVarInt(array.length);
+      ensure(8 * array.length);
+      buf.asDoubleBuffer().put(array);
+      buf.position(buf.position() + 8 * array.length);
+    }
+
+    private void writeInts(int[] array) {
+      writeVarInt(array.length);
+      ensure(4 * array.length);
+      buf.asIntBuffer().put(array);
+      buf.position(buf.position() + 4 * array.length);
+    }
+
+    private void writeTag(byte tag) {
+      ensure(1);
+      buf.put(tag);
+    }
+
+    private void writeVarInt(int value) {
+      ensure(5);
+      int remaining = value;
+      while ((remaining & ~0x7F) != 0) {
+        buf.put((byte) ((remaining & 0x7F) | 0x80));
+        remaining >>>= 7;
+      }
+      buf.put((byte) remaining);
+    }
+
+    private void writeSignedVarLong(long value) {
+      ensure(10);
+      long remaining = (value << 1) ^ (value >> 63);
+      while ((remaining & ~0x7FL) != 0) {
+        buf.put((byte) ((remaining & 0x7F) | 0x80));
+        remaining >>>= 7;
+      }
+      buf.put((byte) remaining);
+    }
+
+    private void ensure(int size) {
+      if (buf.remaining() < size) {
+        int capacity = Math.max(buf.capacity() * 2, buf.position() + size);
+        ByteBuffer expanded = ByteBuffer.allocate(capacity);
+        buf.flip();
+        expanded.put(buf);
+        buf = expanded;
+      }
+    }
+
+    // the type used to find the converter, handling enum constants with a body
+    private static Class<?> convertibleType(Object value) {
+      return value instanceof Enum ? ((Enum<?>) value).getDeclaringClass() : value.getClass();
+    }
+
+    private static boolean containsNull(Object[] array) {
+      for (Object element : array) {
+        if (element == null) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // reads the binary format from a buffer
+  private static final class Reader {
+    private final StringConvert convert = JodaBeanUtils.stringConverter();
+    private final List<String> strings = new ArrayList<>();
+    private final List<Class<?>> types = new ArrayList<>();
+    private final List<MetaBean> beanTypes = new ArrayList<>();
+    private final List<MetaProperty<?>[]> beanProperties = new ArrayList<>();
+    private final List<Object> converted = new ArrayList<>();
+    private final List<Bean> internedBeans = new ArrayList<>();
+    private final ByteBuffer buf;
+
+    private Reader(ByteBuffer buf) {
+      this.buf = buf;
+    }
+
+    private Object readValue() {
+      byte tag = buf.get();
+      switch (tag) {
+        case NULL:
+          return null;
+        case TRUE:
+          return Boolean.TRUE;
+        case FALSE:
+          return Boolean.FALSE;
+        case INT:
+          return buf.getInt();
+        case LONG:
+          return buf.getLong();
+        case DOUBLE:
+          return buf.getDouble();
+        case STRING:
+          return readString();
+        case DATE:
+          return LocalDate.ofEpochDay(readSignedVarLong());
+        case DOUBLES:
+          return readDoubles();
+        case INTS:
+          return readInts();
+        case LONGS: {
+          long[] array = new long[readLength(8)];
+          buf.asLongBuffer().get(array);
+          buf.position(buf.position() + 8 * array.length);
+          return array;
+        }
+        case DATES: {
+          LocalDate[] array = new LocalDate[readLength(1)];
+          long epochDay = 0;
+          for (int i = 0; i < array.length; i++) {
+            epochDay += readSignedVarLong();
+            array[i] = LocalDate.ofEpochDay(epochDay);
+          }
+          return array;
+        }
+        case OBJECTS: {
+          Class<?> componentType = readType();
+          int length = readLength(1);
+          Object[] array = (Object[]) Array.newInstance(componentType, length);
+          for (int i = 0; i < length; i++) {
+            array[i] = readValue();
+          }
+          return array;
+        }
+        case DOUBLE_ARRAY:
+          return DoubleArray.ofUnsafe(readDoubles());
+        case INT_ARRAY:
+          return IntArray.ofUnsafe(readInts());
+        case DOUBLE_MATRIX: {
+          int rowCount = readLength(0);
+          int columnCount = readLength(0);
+          if ((long) rowCount * columnCount * 8 > buf.remaining() || (columnCount == 0 && rowCount != 0)) {
+            throw new IllegalArgumentException("Invalid binary bean matrix size: " + rowCount + "x" + columnCount);
+          }
+          double[][] array = new double[rowCount][columnCount];
+          for (double[] row : array) {
+            buf.asDoubleBuffer().get(row);
+            buf.position(buf.position() + 8 * row.length);
+          }
+          return DoubleMatrix.ofUnsafe(array);
+        }
+        case BEAN:
+          return readBean();
+        case BEAN_REF:
+          return reference(internedBeans, readVarInt());
+        case LIST:
+          return ImmutableList.copyOf(readElements());
+        case SET:
+          return ImmutableSet.copyOf(readElements());
+        case SORTED_SET:
+          return ImmutableSortedSet.copyOf(readElements());
+        case MAP:
+          return ImmutableMap.copyOf(readEntries());
+        case SORTED_MAP:
+          return ImmutableSortedMap.copyOf(readEntries());
+        case CONVERTED: {
+          Class<?> type = readType();
+          if (!convert.isConvertible(type)) {
+            throw new IllegalArgumentException("Type is not convertible by Joda-Convert: " + type.getName());
+          }
+          Object value = convert.convertFromString(type, readString());
+          converted.add(value);
+          return value;
+        }
+        case CONVERTED_REF:
+          return reference(converted, readVarInt());
+        default:
+          throw new IllegalArgumentException("Invalid binary bean tag: " + tag);
+      }
+    }
+
+    private Object readBean() {
+      int index = readVarInt();
+      MetaBean metaBean;
+      MetaProperty<?>[] properties;
+      if (index > 0) {
+        metaBean = reference(beanTypes, index - 1);
+        properties = reference(beanProperties, index - 1);
+      } else {
+        metaBean = JodaBeanUtils.metaBean(loadBeanType(readString()));
+        properties = new MetaProperty<?>[readLength(1)];
+        for (int i = 0; i < properties.length; i++) {
+          properties[i] = metaBean.metaProperty(readString());
+        }
+        beanTypes.add(metaBean);
+        beanProperties.add(properties);
+      }
+      BeanBuilder<? extends Bean> builder = metaBean.builder();
+      for (MetaProperty<?> property : properties) {
+        Object value = readValue();
+        if (value != null) {
+          builder.set(property, value);
+        }
+      }
+      Bean bean = builder.build();
+      // interned in the same order as when writing
+      if (convert.isConvertible(bean.getClass())) {
+        internedBeans.add(bean);
+      }
+      return bean;
+    }
+
+    private List<Object> readElements() {
+      int size = readLength(1);
+      List<Object> elements = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        elements.add(readValue());
+      }
+      return elements;
+    }
+
+    private Map<Object, Object> readEntries() {
+      int size = readLength(2);
+      Map<Object, Object> entries = new LinkedHashMap<>();
+      for (int i = 0; i < size; i++) {
+        Object key = readValue();
+        entries.put(key, readValue());
+      }
+      return entries;
+    }
+
+    private Class<?> readType() {
+      int index = readVarInt();
+      if (index > 0) {
+        return reference(types, index - 1);
+      }
+      Class<?> type = loadType(readString());
+      types.add(type);
+      return type;
+    }
+
+    private String readString() {
+      int index = readVarInt();
+      if (index > 0) {
+        return reference(strings, index - 1);
+      }
+      byte[] bytes = new byte[readLength(1)];
+      buf.get(bytes);
+      String str = new String(bytes, StandardCharsets.UTF_8);
+      strings.add(str);
+      return str;
+    }
+
+    private double[] readDoubles() {
+      double[] array = new double[readLength(8)];
+      buf.asDoubleBuffer().get(array);
+      buf.position(buf.position() + 8 * array.length);
+      return array;
+    }
+
+    private int[] readInts() {
+      int[] array = new int[readLength(4)];
+      buf.asIntBuffer().get(array);
+      buf.position(buf.position() + 4 * array.length);
+      return array;
+    }
+
+    // reads a length, checking it against the remaining data before anything is allocated
+    private int readLength(int minBytesPerElement) {
+      int length = readVarInt();
+      if (length < 0 || (long) length * minBytesPerElement > buf.remaining()) {
+        throw new IllegalArgumentException("Invalid binary bean length: " + length);
+      }
+      return length;
+    }
+
+    private int readVarInt() {
+      int result = 0;
+      for (int shift = 0; shift < 35; shift += 7) {
+        byte b = buf.get();
+        result |= (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return result;
+        }
+      }
+      throw new IllegalArgumentException("Invalid binary bean variable length integer");
+    }
+
+    private long readSignedVarLong() {
+      long result = 0;
+      for (int shift = 0; shift < 70; shift += 7) {
+        byte b = buf.get();
+        result |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return (result >>> 1) ^ -(result & 1);
+        }
+      }
+      throw new IllegalArgumentException("Invalid binary bean variable length integer");
+    }
+
+    // obtains a previously read value
+    private static <T> T reference(List<T> values, int index) {
+      if (index < 0 || index >= values.size()) {
+        throw new IllegalArgumentException("Invalid binary bean reference: " + index);
+      }
+      return values.get(index);
+    }
+
+    // loads a bean type, only initializing it once it is known to be a bean, which registers its meta-bean
+    private static Class<?> loadBeanType(String name) {
+      Class<?> type = loadType(name);
+      if (!Bean.class.isAssignableFrom(type)) {
+        throw new IllegalArgumentException("Type is not a bean: " + name);
+      }
+      try {
+        return Class.forName(type.getName(), true, type.getClassLoader());
+      } catch (ClassNotFoundException ex) {
+        throw new IllegalArgumentException("Unable to find type: " + name, ex);
+      }
+    }
+
+    // loads the type without initializing it, such that none of its code is run
+    private static Class<?> loadType(String name) {
+      Class<?> renamed = RenameHandler.INSTANCE.getTypeRenames().get(name);
+      if (renamed != null) {
+        return renamed;
+      }
+      try {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        return Class.forName(name, false, loader != null ? loader : BeanBinaryCodec.class.getClassLoader());
+      } catch (ClassNotFoundException ex) {
+        throw new IllegalArgumentException("Unable to find type: " + name, ex);
+      }
+    }
+  }
+
+}
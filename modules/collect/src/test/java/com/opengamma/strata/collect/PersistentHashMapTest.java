@@ -0,0 +1,191 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.collect;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Test {@link PersistentHashMap}.
+ */
+@Test
+public class PersistentHashMapTest {
+
+  //-------------------------------------------------------------------------
+  public void test_empty() {
+    PersistentHashMap<String, Integer> test = PersistentHashMap.empty();
+    assertEquals(test.size(), 0);
+    assertTrue(test.isEmpty());
+    assertNull(test.get("a"));
+    assertEquals(test.find("a"), Optional.empty());
+    assertFalse(test.containsKey("a"));
+    assertEquals(test.keySet(), ImmutableSet.of());
+    assertEquals(test.toMap(), ImmutableMap.of());
+    assertSame(test.without("a"), test);
+  }
+
+  public void test_with_without() {
+    PersistentHashMap<String, Integer> base = PersistentHashMap.empty();
+    PersistentHashMap<String, Integer> test1 = base.with("a", 1);
+    PersistentHashMap<String, Integer> test2 = test1.with("b", 2).with("a", 3);
+    assertEquals(test1.toMap(), ImmutableMap.of("a", 1));
+    assertEquals(test2.toMap(), ImmutableMap.of("a", 3, "b", 2));
+    assertEquals(test2.get("a"), Integer.valueOf(3));
+    assertEquals(test2.find("b"), Optional.of(2));
+    assertTrue(test2.containsKey("b"));
+    assertEquals(test2.size(), 2);
+    // earlier versions are unchanged
+    assertEquals(base.size(), 0);
+    assertEquals(test1.toMap(), ImmutableMap.of("a", 1));
+    // removal
+    PersistentHashMap<String, Integer> test3 = test2.without("a");
+    assertEquals(test3.toMap(), ImmutableMap.of("b", 2));
+    assertSame(test3.without("a"), test3);
+    assertTrue(test3.without("b").isEmpty());
+  }
+
+  public void test_with_sameValue() {
+    Integer value = 1234;
+    PersistentHashMap<String, Integer> test = PersistentHashMap.<String, Integer>empty().with("a", value);
+    assertSame(test.with("a", value), test);
+  }
+
+  public void test_of() {
+    Map<String, Integer> map = ImmutableMap.of("a", 1, "b", 2, "c", 3);
+    PersistentHashMap<String, Integer> test = PersistentHashMap.of(map);
+    assertEquals(test.toMap(), map);
+    assertEquals(test.keySet(), map.keySet());
+    assertEquals(
+        test.withAll(ImmutableMap.of("c", 4, "d", 5)).toMap(),
+        ImmutableMap.of("a", 1, "b", 2, "c", 4, "d", 5));
+  }
+
+  public void test_null() {
+    PersistentHashMap<String, Integer> test = PersistentHashMap.empty();
+    assertThrowsIllegalArg(() -> test.get(null));
+    assertThrowsIllegalArg(() -> test.with(null, 1));
+    assertThrowsIllegalArg(() -> test.with("a", null));
+    assertThrowsIllegalArg(() -> test.without(null));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_large() {
+    Random random = new Random(1);
+    Map<Integer, Integer> expected = new HashMap<>();
+    PersistentHashMap<Integer, Integer> test = PersistentHashMap.empty();
+    for (int i = 0; i < 20_000; i++) {
+      Integer key = random.nextInt(10_000) * 7919;
+      if (random.nextInt(4) == 0) {
+        expected.remove(key);
+        test = test.without(key);
+      } else {
+        expected.put(key, i);
+        test = test.with(key, i);
+      }
+    }
+    assertEquals(test.size(), expected.size());
+    assertEquals(test.toMap(), expected);
+    assertEquals(test.hashCode(), expected.hashCode());
+  }
+
+  public void test_collisions() {
+    Collider a = new Collider("a", 1);
+    Collider b = new Collider("b", 1);
+    Collider c = new Collider("c", 1);
+    Collider d = new Collider("d", 33);
+    PersistentHashMap<Collider, String> test = PersistentHashMap.<Collider, String>empty()
+        .with(a, "A")
+        .with(b, "B")
+        .with(c, "C")
+        .with(d, "D");
+    assertEquals(test.size(), 4);
+    assertEquals(test.get(a), "A");
+    assertEquals(test.get(b), "B");
+    assertEquals(test.get(c), "C");
+    assertEquals(test.get(d), "D");
+    assertNull(test.get(new Collider("e", 1)));
+    assertEquals(test.with(b, "X").get(b), "X");
+    PersistentHashMap<Collider, String> removed = test.without(b).without(a);
+    assertEquals(removed.toMap(), ImmutableMap.of(c, "C", d, "D"));
+    assertEquals(removed.without(c).without(d).size(), 0);
+    assertEquals(test.differences(test.without(b)), ImmutableSet.of(b));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_differences() {
+    Map<String, Integer> map = new HashMap<>();
+    for (int i = 0; i < 1000; i++) {
+      map.put("key" + i, i);
+    }
+    PersistentHashMap<String, Integer> base = PersistentHashMap.of(map);
+    PersistentHashMap<String, Integer> test = base
+        .with("key5", -5)
+        .with("key500", 500)
+        .without("key7")
+        .with("new", 1);
+    assertEquals(base.differences(base), ImmutableSet.of());
+    assertEquals(base.differences(test), ImmutableSet.of("key5", "key7", "new"));
+    assertEquals(test.differences(base), ImmutableSet.of("key5", "key7", "new"));
+    // maps built independently
+    assertEquals(PersistentHashMap.of(map).differences(base), ImmutableSet.of());
+  }
+
+  public void test_equalsHashCodeToString() {
+    PersistentHashMap<String, Integer> test = PersistentHashMap.of(ImmutableMap.of("a", 1, "b", 2));
+    PersistentHashMap<String, Integer> same = PersistentHashMap.<String, Integer>empty().with("b", 2).with("a", 1);
+    assertEquals(test, test);
+    assertEquals(test, same);
+    assertEquals(test.hashCode(), same.hashCode());
+    assertEquals(test.hashCode(), ImmutableMap.of("a", 1, "b", 2).hashCode());
+    assertNotEquals(test, test.with("a", 3));
+    assertNotEquals(test, test.without("a"));
+    assertNotEquals(test, "");
+    assertEquals(PersistentHashMap.of(ImmutableMap.of("a", 1)).toString(), "{a=1}");
+  }
+
+  //-------------------------------------------------------------------------
+  // a key with a controlled hash code
+  private static final class Collider {
+    private final String name;
+    private final int hash;
+
+    private Collider(String name, int hash) {
+      this.name = name;
+      this.hash = hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof Collider && ((Collider) obj).name.equals(name);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
+}
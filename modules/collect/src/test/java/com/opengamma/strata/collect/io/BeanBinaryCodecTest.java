@@ -0,0 +1,224 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.collect.io;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.ImmutableSortedSet;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.collect.array.IntArray;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.collect.tuple.DoublesPair;
+import com.opengamma.strata.collect.tuple.Pair;
+
+/**
+ * Test {@link BeanBinaryCodec}.
+ */
+@Test
+public class BeanBinaryCodecTest {
+
+  private static final AtomicBoolean INITIALIZED = new AtomicBoolean();
+
+  public void test_simpleValues() {
+    assertRoundTrip(null);
+    assertRoundTrip("Hello");
+    assertRoundTrip(true);
+    assertRoundTrip(false);
+    assertRoundTrip(-12);
+    assertRoundTrip(Long.MIN_VALUE);
+    assertRoundTrip(1.5d);
+    assertRoundTrip(Double.NaN);
+    assertRoundTrip(date(2016, 7, 1));
+    assertRoundTrip(LocalDate.MAX);
+    assertRoundTrip(Period.ofMonths(3));
+    assertRoundTrip(FailureReason.CALCULATION_FAILED);
+  }
+
+  public void test_arrays() {
+    double[] doubles = {1d, -2.5d, Double.MAX_VALUE};
+    assertTrue(Arrays.equals(roundTrip(doubles, double[].class), doubles));
+    int[] ints = {1, -2, Integer.MAX_VALUE};
+    assertTrue(Arrays.equals(roundTrip(ints, int[].class), ints));
+    long[] longs = {1L, -2L, Long.MAX_VALUE};
+    assertTrue(Arrays.equals(roundTrip(longs, long[].class), longs));
+    LocalDate[] dates = {date(2016, 7, 1), date(2015, 1, 1), LocalDate.MIN};
+    assertTrue(Arrays.equals(roundTrip(dates, LocalDate[].class), dates));
+    LocalDate[] datesWithNull = {date(2016, 7, 1), null};
+    assertTrue(Arrays.equals(roundTrip(datesWithNull, LocalDate[].class), datesWithNull));
+    String[] strings = {"a", "b", "a"};
+    assertTrue(Arrays.equals(roundTrip(strings, String[].class), strings));
+    assertRoundTrip(DoubleArray.of(1d, 2d, 3d));
+    assertRoundTrip(DoubleArray.EMPTY);
+    assertRoundTrip(IntArray.of(1, 2, 3));
+    assertRoundTrip(DoubleMatrix.of(2, 3, 1d, 2d, 3d, 4d, 5d, 6d));
+    assertRoundTrip(DoubleMatrix.EMPTY);
+  }
+
+  public void test_collections() {
+    assertRoundTrip(ImmutableList.of("a", 1, date(2016, 7, 1)));
+    assertRoundTrip(ImmutableSet.of("b", "a"));
+    assertRoundTrip(ImmutableSortedSet.of("b", "a"));
+    assertRoundTrip(ImmutableMap.of("b", DoubleArray.of(1d), "a", DoubleArray.of(2d)));
+    assertRoundTrip(ImmutableSortedMap.of("b", 1, "a", 2));
+  }
+
+  public void test_beans() {
+    LocalDateDoubleTimeSeries timeSeries = LocalDateDoubleTimeSeries.builder()
+        .put(date(2016, 7, 1), 1d)
+        .put(date(2016, 7, 4), 2d)
+        .put(date(2016, 7, 5), 3d)
+        .build();
+    assertRoundTrip(timeSeries);
+    assertRoundTrip(LocalDateDoubleTimeSeries.empty());
+    assertRoundTrip(Pair.of(Period.ofMonths(3), timeSeries));
+    assertRoundTrip(ImmutableList.of(
+        Result.success(DoubleArray.of(1d, 2d)),
+        Result.success(DoubleArray.of(3d)),
+        Result.failure(FailureReason.MISSING_DATA, "Missing {}", "data")));
+  }
+
+  public void test_compact() throws IOException {
+    double[] values = new double[1000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = i / 7d;
+    }
+    ImmutableMap<String, DoubleArray> map = ImmutableMap.of("a", DoubleArray.ofUnsafe(values), "b", DoubleArray.of(1d));
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(baos)) {
+      out.writeObject(map);
+    }
+    byte[] encoded = BeanBinaryCodec.encode(map);
+    assertTrue(encoded.length < baos.size());
+    assertTrue(encoded.length < 8 * values.length + 64);
+  }
+
+  public void test_decode_buffer() {
+    byte[] encoded = BeanBinaryCodec.encode(DoubleArray.of(1d, 2d));
+    ByteBuffer buffer = ByteBuffer.allocateDirect(encoded.length + 2);
+    buffer.put((byte) 1).put(encoded).put((byte) 2).flip();
+    buffer.position(1);
+    assertEquals(BeanBinaryCodec.decode(buffer, DoubleArray.class), DoubleArray.of(1d, 2d));
+    assertEquals(buffer.get(), (byte) 2);
+  }
+
+  public void test_decode_invalid() {
+    byte[] encoded = BeanBinaryCodec.encode(DoubleArray.of(1d, 2d));
+    assertThrowsIllegalArg(() -> BeanBinaryCodec.decode(encoded, String.class));
+    assertThrowsIllegalArg(() -> BeanBinaryCodec.decode(Arrays.copyOf(encoded, encoded.length - 1), DoubleArray.class));
+    assertThrowsIllegalArg(() -> BeanBinaryCodec.decode(new byte[] {1, 2, 3, 4, 5}, Object.class));
+  }
+
+  public void test_decode_corruptLength() {
+    // negative length
+    assertThrowsIllegalArg(() -> BeanBinaryCodec.decode(data(8, 0xFF, 0xFF, 0xFF, 0xFF, 0x0F), Object.class));
+    // length larger than the remaining data
+    assertThrowsIllegalArg(() -> BeanBinaryCodec.decode(data(8, 0xFF, 0xFF, 0xFF, 0xFF, 0x07), Object.class));
+    assertThrowsIllegalArg(() -> BeanBinaryCodec.decode(data(16, 0xFF, 0xFF, 0x7F), Object.class));
+    assertThrowsIllegalArg(() -> BeanBinaryCodec.decode(data(15, 0x7F, 0x7F), Object.class));
+    // reference to a string not yet read
+    assertThrowsIllegalArg(() -> BeanBinaryCodec.decode(data(6, 0x05), Object.class));
+  }
+
+  public void test_convertibleBeansInterned() {
+    ImmutableList<DoublesPair> pairs = ImmutableList.of(
+        DoublesPair.of(1.5d, 2.5d), DoublesPair.of(1.5d, 2.5d), DoublesPair.of(1.5d, 2.5d), DoublesPair.of(1.5d, 2.5d));
+    byte[] encoded = BeanBinaryCodec.encode(pairs);
+    List<?> decoded = BeanBinaryCodec.decode(encoded, List.class);
+    assertEquals(decoded, pairs);
+    assertSame(decoded.get(3), decoded.get(0));
+    byte[] single = BeanBinaryCodec.encode(ImmutableList.of(DoublesPair.of(1.5d, 2.5d)));
+    // each repeated pair is a tag and a reference
+    assertEquals(encoded.length, single.length + 3 * 2);
+  }
+
+  public void test_encode_invalid() {
+    assertThrowsIllegalArg(() -> BeanBinaryCodec.encode(new Object()));
+    // serializable objects are not written using Java serialization
+    assertThrowsIllegalArg(() -> BeanBinaryCodec.encode(ImmutableListMultimap.of("a", 1, "a", 2)));
+  }
+
+  public void test_decode_serialized() {
+    // the earlier version of the format, which allowed Java serialized objects, is rejected
+    byte[] serialized = {0x53, 0x42, 0x43, 0x02, 24, 0x04, (byte) 0xAC, (byte) 0xED, 0x00, 0x05};
+    assertThrowsIllegalArg(() -> BeanBinaryCodec.decode(serialized, Object.class));
+  }
+
+  public void test_decode_typeNotInitialized() {
+    String name = NotBean.class.getName();
+    // neither a bean nor convertible, so the type is rejected before it is initialized
+    assertThrowsIllegalArg(() -> BeanBinaryCodec.decode(typeData(21, name), Object.class));
+    assertThrowsIllegalArg(() -> BeanBinaryCodec.decode(typeData(22, name), Object.class));
+    assertFalse(INITIALIZED.get());
+  }
+
+  //-------------------------------------------------------------------------
+  private static void assertRoundTrip(Object value) {
+    Object decoded = roundTrip(value, Object.class);
+    if (value == null) {
+      assertNull(decoded);
+    } else {
+      assertEquals(decoded, value);
+    }
+  }
+
+  private static <T> T roundTrip(T value, Class<T> type) {
+    return BeanBinaryCodec.decode(BeanBinaryCodec.encode(value), type);
+  }
+
+  // the header followed by the bytes
+  private static byte[] data(int... bytes) {
+    ByteBuffer buffer = ByteBuffer.allocate(4 + bytes.length);
+    buffer.put(BeanBinaryCodec.encode(null), 0, 4);
+    for (int b : bytes) {
+      buffer.put((byte) b);
+    }
+    return buffer.array();
+  }
+
+  // the header, the tag and the name of a type that has not been read before
+  private static byte[] typeData(int tag, String typeName) {
+    byte[] name = typeName.getBytes(StandardCharsets.UTF_8);
+    ByteBuffer buffer = ByteBuffer.allocate(8 + name.length);
+    buffer.put(BeanBinaryCodec.encode(null), 0, 4);
+    buffer.put((byte) tag).put((byte) 0).put((byte) 0).put((byte) name.length).put(name);
+    return buffer.array();
+  }
+
+  // records whether the type has been initialized
+  static final class NotBean {
+    static {
+      INITIALIZED.set(true);
+    }
+  }
+
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data.scenario;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.FxRateProvider;
+import com.opengamma.strata.collect.array.DoubleArray;
+
+/**
+ * A provider of FX rates for scenarios that caches the rates of each currency pair.
+ * <p>
+ * The first request for a currency pair obtains the rates for all scenarios from the underlying provider.
+ * Subsequent requests for the pair are served from a table of rates, one for each scenario,
+ * without any further market data lookup or triangulation.
+ */
+class CachingScenarioFxRateProvider implements ScenarioFxRateProvider {
+
+  /**
+   * The underlying provider.
+   */
+  private final ScenarioFxRateProvider underlying;
+  /**
+   * The rates for each scenario, keyed by base currency then counter currency.
+   */
+  private final ConcurrentHashMap<Currency, ConcurrentHashMap<Currency, DoubleArray>> rates =
+      new ConcurrentHashMap<>();
+
+  // creates an instance
+  CachingScenarioFxRateProvider(ScenarioFxRateProvider underlying) {
+    this.underlying = underlying;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public int getScenarioCount() {
+    return underlying.getScenarioCount();
+  }
+
+  @Override
+  public double fxRate(Currency baseCurrency, Currency counterCurrency, int scenarioIndex) {
+    if (baseCurrency.equals(counterCurrency)) {
+      return 1;
+    }
+    return fxRates(baseCurrency, counterCurrency).get(scenarioIndex);
+  }
+
+  @Override
+  public DoubleArray fxRates(Currency baseCurrency, Currency counterCurrency) {
+    ConcurrentHashMap<Currency, DoubleArray> counterRates = rates.get(baseCurrency);
+    if (counterRates == null) {
+      counterRates = rates.computeIfAbsent(baseCurrency, ccy -> new ConcurrentHashMap<>());
+    }
+    DoubleArray pairRates = counterRates.get(counterCurrency);
+    if (pairRates == null) {
+      pairRates = counterRates.computeIfAbsent(counterCurrency, ccy -> underlying.fxRates(baseCurrency, ccy));
+    }
+    return pairRates;
+  }
+
+  @Override
+  public FxRateProvider fxRateProvider(int scenarioIndex) {
+    return underlying.fxRateProvider(scenarioIndex);
+  }
+
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data.scenario;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.collect.tuple.Pair;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.MarketDataName;
+import com.opengamma.strata.data.ObservableId;
+
+/**
+ * Multi-scenario market data that caches values derived from the underlying market data.
+ * <p>
+ * Calculation functions typically build views of the market data, such as rates providers,
+ * that depend only on the market data and a lookup, not on the target being calculated.
+ * This class allows such views to be built once and shared between all the functions that use them.
+ * <p>
+ * The calculation runner creates an instance for each run, wrapping the market data of the run.
+ * The derived values are therefore shared between all the tasks of the run, and discarded at its end.
+ * <p>
+ * All other methods delegate to the underlying market data.
+ * This class is thread-safe if the derived values are immutable.
+ */
+public final class CachingScenarioMarketData
+    implements ScenarioMarketData {
+
+  /**
+   * The underlying market data.
+   */
+  private final ScenarioMarketData underlying;
+  /**
+   * The derived values, keyed by the type and key.
+   */
+  private final ConcurrentHashMap<Pair<Class<?>, Object>, Object> derivedValues = new ConcurrentHashMap<>();
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance that caches values derived from the underlying market data.
+   * <p>
+   * If the market data is already an instance of this class, it is returned.
+   *
+   * @param underlying  the underlying market data
+   * @return the caching market data
+   */
+  public static CachingScenarioMarketData of(ScenarioMarketData underlying) {
+    ArgChecker.notNull(underlying, "underlying");
+    if (underlying instanceof CachingScenarioMarketData) {
+      return (CachingScenarioMarketData) underlying;
+    }
+    return new CachingScenarioMarketData(underlying);
+  }
+
+  // restricted constructor
+  private CachingScenarioMarketData(ScenarioMarketData underlying) {
+    this.underlying = underlying;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the underlying market data.
+   *
+   * @return the underlying market data
+   */
+  public ScenarioMarketData getUnderlying() {
+    return underlying;
+  }
+
+  /**
+   * Gets a value derived from the underlying market data, creating it if necessary.
+   * <p>
+   * The key identifies the derived value within the type, and is typically the lookup used to create it.
+   * The function is invoked at most once for each type and key, and receives the underlying market data.
+   *
+   * @param <T>  the type of the derived value
+   * @param type  the type of the derived value
+   * @param key  the key of the derived value
+   * @param function  the function to create the derived value from the underlying market data
+   * @return the derived value
+   */
+  public <T> T derivedValue(Class<T> type, Object key, Function<ScenarioMarketData, ? extends T> function) {
+    ArgChecker.notNull(type, "type");
+    ArgChecker.notNull(key, "key");
+    ArgChecker.notNull(function, "function");
+    Pair<Class<?>, Object> cacheKey = Pair.of(type, key);
+    Object value = derivedValues.computeIfAbsent(cacheKey, k -> function.apply(underlying));
+    return type.cast(value);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public MarketDataBox<LocalDate> getValuationDate() {
+    return underlying.getValuationDate();
+  }
+
+  @Override
+  public int getScenarioCount() {
+    return underlying.getScenarioCount();
+  }
+
+  @Override
+  public MarketData scenario(int scenarioIndex) {
+    return underlying.scenario(scenarioIndex);
+  }
+
+  @Override
+  public boolean containsValue(MarketDataId<?> id) {
+    return underlying.containsValue(id);
+  }
+
+  @Override
+  public <T> MarketDataBox<T> getValue(MarketDataId<T> id) {
+    return underlying.getValue(id);
+  }
+
+  @Override
+  public <T> Optional<MarketDataBox<T>> findValue(MarketDataId<T> id) {
+    return underlying.findValue(id);
+  }
+
+  @Override
+  public <T> Set<MarketDataId<T>> findIds(MarketDataName<T> name) {
+    return underlying.findIds(name);
+  }
+
+  @Override
+  public <T, U extends ScenarioArray<T>> U getScenarioValue(ScenarioMarketDataId<T, U> id) {
+    return underlying.getScenarioValue(id);
+  }
+
+  @Override
+  public LocalDateDoubleTimeSeries getTimeSeries(ObservableId id) {
+    return underlying.getTimeSeries(id);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return Messages.format("CachingScenarioMarketData[{}]", underlying);
+  }
+
+}
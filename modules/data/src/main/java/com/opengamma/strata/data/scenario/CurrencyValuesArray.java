@@ -131,8 +131,7 @@ public final class CurrencyValuesArray
       throw new IllegalArgumentException(Messages.format(
           "Expected {} FX rates but received {}", values.size(), fxRateProvider.getScenarioCount()));
     }
-    DoubleArray convertedValues =
-        values.mapWithIndex((i, v) -> v * fxRateProvider.fxRate(currency, reportingCurrency, i));
+    DoubleArray convertedValues = values.multipliedBy(fxRateProvider.fxRates(currency, reportingCurrency));
     return new CurrencyValuesArray(reportingCurrency, convertedValues);
   }
 
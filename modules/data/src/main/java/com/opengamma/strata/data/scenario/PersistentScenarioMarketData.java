@@ -0,0 +1,359 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data.scenario;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableSet;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.PersistentHashMap;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.MarketDataName;
+import com.opengamma.strata.data.MarketDataNotFoundException;
+import com.opengamma.strata.data.NamedMarketDataId;
+import com.opengamma.strata.data.ObservableId;
+
+/**
+ * An immutable set of multi-scenario market data that shares structure between versions.
+ * <p>
+ * This implementation of {@link ScenarioMarketData} is intended for market data that is updated frequently,
+ * such as when a new version is derived for each tick of a live market data feed.
+ * Adding, replacing or removing a value creates a new version of the market data in time
+ * proportional to the logarithm of the number of values, sharing all unchanged values with
+ * the previous version, which remains valid.
+ * <p>
+ * Each version is numbered, and the identifiers whose values differ between two versions can be
+ * obtained efficiently using {@link #changedIds(PersistentScenarioMarketData)}.
+ */
+public final class PersistentScenarioMarketData
+    implements ScenarioMarketData {
+
+  /**
+   * The number of scenarios.
+   */
+  private final int scenarioCount;
+  /**
+   * The valuation date associated with each scenario.
+   */
+  private final MarketDataBox<LocalDate> valuationDate;
+  /**
+   * The market data values.
+   */
+  private final PersistentHashMap<MarketDataId<?>, MarketDataBox<?>> values;
+  /**
+   * The time-series.
+   */
+  private final PersistentHashMap<ObservableId, LocalDateDoubleTimeSeries> timeSeries;
+  /**
+   * The version, incremented each time the market data is changed.
+   */
+  private final long version;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance containing no market data.
+   *
+   * @param scenarioCount  the number of scenarios
+   * @param valuationDate  the valuation dates associated with the market data, one for each scenario
+   * @return empty market data
+   */
+  public static PersistentScenarioMarketData empty(int scenarioCount, MarketDataBox<LocalDate> valuationDate) {
+    ArgChecker.notNegative(scenarioCount, "scenarioCount");
+    ArgChecker.notNull(valuationDate, "valuationDate");
+    return new PersistentScenarioMarketData(
+        scenarioCount, valuationDate, PersistentHashMap.empty(), PersistentHashMap.empty(), 0);
+  }
+
+  /**
+   * Obtains an instance from a valuation date, map of values and time-series.
+   * <p>
+   * The valuation date and map of values must have the same number of scenarios.
+   *
+   * @param scenarioCount  the number of scenarios
+   * @param valuationDate  the valuation dates associated with the market data, one for each scenario
+   * @param values  the market data values, one for each scenario
+   * @param timeSeries  the time-series
+   * @return a set of market data containing the values in the maps
+   */
+  public static PersistentScenarioMarketData of(
+      int scenarioCount,
+      MarketDataBox<LocalDate> valuationDate,
+      Map<? extends MarketDataId<?>, ? extends MarketDataBox<?>> values,
+      Map<? extends ObservableId, LocalDateDoubleTimeSeries> timeSeries) {
+
+    ArgChecker.notNull(values, "values");
+    ArgChecker.notNull(timeSeries, "timeSeries");
+    return empty(scenarioCount, valuationDate).withValues(values).withTimeSeries(timeSeries);
+  }
+
+  // restricted constructor
+  private PersistentScenarioMarketData(
+      int scenarioCount,
+      MarketDataBox<LocalDate> valuationDate,
+      PersistentHashMap<MarketDataId<?>, MarketDataBox<?>> values,
+      PersistentHashMap<ObservableId, LocalDateDoubleTimeSeries> timeSeries,
+      long version) {
+
+    this.scenarioCount = scenarioCount;
+    this.valuationDate = valuationDate;
+    this.values = values;
+    this.timeSeries = timeSeries;
+    this.version = version;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public MarketDataBox<LocalDate> getValuationDate() {
+    return valuationDate;
+  }
+
+  @Override
+  public int getScenarioCount() {
+    return scenarioCount;
+  }
+
+  /**
+   * Gets the version of the market data.
+   * <p>
+   * The version starts at zero and is incremented each time a changed copy is created.
+   * Versions derived independently from the same market data may have the same number.
+   *
+   * @return the version
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  @Override
+  public boolean containsValue(MarketDataId<?> id) {
+    return values.containsKey(id);
+  }
+
+  @Override
+  public <T> MarketDataBox<T> getValue(MarketDataId<T> id) {
+    // no type check against id.getMarketDataType() as checked on insertion
+    @SuppressWarnings("unchecked")
+    MarketDataBox<T> value = (MarketDataBox<T>) values.get(id);
+    if (value == null) {
+      throw new MarketDataNotFoundException(msgValueNotFound(id));
+    }
+    return value;
+  }
+
+  // extracted to aid inlining performance
+  private String msgValueNotFound(MarketDataId<?> id) {
+    return Messages.format(
+        "Market data not found for identifier '{}' of type '{}'", id, id.getClass().getSimpleName());
+  }
+
+  @Override
+  public <T> Optional<MarketDataBox<T>> findValue(MarketDataId<T> id) {
+    // no type check against id.getMarketDataType() as checked on insertion
+    @SuppressWarnings("unchecked")
+    MarketDataBox<T> value = (MarketDataBox<T>) values.get(id);
+    return Optional.ofNullable(value);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> Set<MarketDataId<T>> findIds(MarketDataName<T> name) {
+    // no type check against id.getMarketDataType() as checked on insertion
+    return values.keySet().stream()
+        .filter(id -> id instanceof NamedMarketDataId)
+        .filter(id -> ((NamedMarketDataId<?>) id).getMarketDataName().equals(name))
+        .map(id -> (MarketDataId<T>) id)
+        .collect(toImmutableSet());
+  }
+
+  @Override
+  public LocalDateDoubleTimeSeries getTimeSeries(ObservableId id) {
+    LocalDateDoubleTimeSeries found = timeSeries.get(id);
+    return found == null ? LocalDateDoubleTimeSeries.empty() : found;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns a copy of this market data with the specified value.
+   * <p>
+   * The result shares all other values with this instance, and has a version one higher than this instance.
+   * If the same value instance is already present, this instance is returned.
+   *
+   * @param id  the identifier
+   * @param value  the value to associate with the identifier
+   * @return the market data with the specified identifier and value
+   * @throws IllegalArgumentException if the scenario count does not match
+   */
+  @Override
+  public <T> PersistentScenarioMarketData withValue(MarketDataId<T> id, MarketDataBox<T> value) {
+    ArgChecker.notNull(id, "id");
+    ImmutableScenarioMarketData.checkType(id, value, scenarioCount);
+    return with(values.with(id, value), timeSeries);
+  }
+
+  /**
+   * Returns a copy of this market data with the specified values.
+   * <p>
+   * The result shares all other values with this instance, and has a version one higher than this instance.
+   *
+   * @param values  the values to add or replace
+   * @return the market data with the specified values
+   * @throws IllegalArgumentException if the scenario count does not match
+   */
+  public PersistentScenarioMarketData withValues(Map<? extends MarketDataId<?>, ? extends MarketDataBox<?>> values) {
+    ArgChecker.notNull(values, "values");
+    PersistentHashMap<MarketDataId<?>, MarketDataBox<?>> newValues = this.values;
+    for (Map.Entry<? extends MarketDataId<?>, ? extends MarketDataBox<?>> entry : values.entrySet()) {
+      ImmutableScenarioMarketData.checkType(entry.getKey(), entry.getValue(), scenarioCount);
+      newValues = newValues.with(entry.getKey(), entry.getValue());
+    }
+    return with(newValues, timeSeries);
+  }
+
+  /**
+   * Returns a copy of this market data without the specified value.
+   * <p>
+   * If the value is not present, this instance is returned.
+   *
+   * @param id  the identifier to remove
+   * @return the market data without the specified identifier
+   */
+  public PersistentScenarioMarketData withoutValue(MarketDataId<?> id) {
+    return with(values.without(id), timeSeries);
+  }
+
+  /**
+   * Returns a copy of this market data with the specified time-series.
+   * <p>
+   * The result shares all other data with this instance.
+   *
+   * @param id  the identifier
+   * @param series  the time-series
+   * @return the market data with the specified time-series
+   */
+  public PersistentScenarioMarketData withTimeSeries(ObservableId id, LocalDateDoubleTimeSeries series) {
+    return with(values, timeSeries.with(id, series));
+  }
+
+  /**
+   * Returns a copy of this market data with the specified time-series.
+   * <p>
+   * The result shares all other data with this instance.
+   *
+   * @param timeSeries  the time-series to add or replace
+   * @return the market data with the specified time-series
+   */
+  public PersistentScenarioMarketData withTimeSeries(
+      Map<? extends ObservableId, LocalDateDoubleTimeSeries> timeSeries) {
+
+    return with(values, this.timeSeries.withAll(timeSeries));
+  }
+
+  /**
+   * Returns a copy of this market data without the specified time-series.
+   * <p>
+   * If the time-series is not present, this instance is returned.
+   *
+   * @param id  the identifier to remove
+   * @return the market data without the specified time-series
+   */
+  public PersistentScenarioMarketData withoutTimeSeries(ObservableId id) {
+    return with(values, timeSeries.without(id));
+  }
+
+  // returns the next version, or this instance if nothing changed
+  private PersistentScenarioMarketData with(
+      PersistentHashMap<MarketDataId<?>, MarketDataBox<?>> newValues,
+      PersistentHashMap<ObservableId, LocalDateDoubleTimeSeries> newTimeSeries) {
+
+    if (newValues == values && newTimeSeries == timeSeries) {
+      return this;
+    }
+    return new PersistentScenarioMarketData(scenarioCount, valuationDate, newValues, newTimeSeries, version + 1);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Finds the identifiers of the values that differ between this market data and another.
+   * <p>
+   * The result contains the identifiers that are in only one of the two sets of market data,
+   * and those whose values are not equal. When one set of market data was derived from the other,
+   * this takes time proportional to the number of changes, not the number of values.
+   *
+   * @param other  the other market data, typically an earlier or later version of this market data
+   * @return the identifiers whose values differ
+   */
+  public ImmutableSet<MarketDataId<?>> changedIds(PersistentScenarioMarketData other) {
+    ArgChecker.notNull(other, "other");
+    return values.differences(other.values);
+  }
+
+  /**
+   * Finds the identifiers of the time-series that differ between this market data and another.
+   *
+   * @param other  the other market data, typically an earlier or later version of this market data
+   * @return the identifiers whose time-series differ
+   */
+  public ImmutableSet<ObservableId> changedTimeSeriesIds(PersistentScenarioMarketData other) {
+    ArgChecker.notNull(other, "other");
+    return timeSeries.differences(other.timeSeries);
+  }
+
+  /**
+   * Converts this market data to an instance of {@link ImmutableScenarioMarketData}.
+   *
+   * @return the immutable market data
+   */
+  public ImmutableScenarioMarketData toImmutableScenarioMarketData() {
+    return ImmutableScenarioMarketData.of(scenarioCount, valuationDate, values.toMap(), timeSeries.toMap());
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Checks if this market data is equal to another.
+   * <p>
+   * The comparison checks the scenario count, valuation date, values and time-series, but not the version.
+   *
+   * @param obj  the other object
+   * @return true if equal
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj instanceof PersistentScenarioMarketData) {
+      PersistentScenarioMarketData other = (PersistentScenarioMarketData) obj;
+      return scenarioCount == other.scenarioCount &&
+          valuationDate.equals(other.valuationDate) &&
+          values.equals(other.values) &&
+          timeSeries.equals(other.timeSeries);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = scenarioCount;
+    hash = hash * 31 + valuationDate.hashCode();
+    hash = hash * 31 + values.hashCode();
+    return hash * 31 + timeSeries.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return Messages.format(
+        "PersistentScenarioMarketData[scenarioCount={}, version={}, values={}, timeSeries={}]",
+        scenarioCount, version, values.size(), timeSeries.size());
+  }
+
+}
@@ -7,6 +7,8 @@ package com.opengamma.strata.data.scenario;
 
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.currency.FxRateProvider;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.data.ObservableSource;
 
 /**
  * A provider of FX rates for scenarios.
@@ -22,11 +24,22 @@ public interface ScenarioFxRateProvider {
 
   /**
    * Returns a scenario FX rate provider which takes its data from the provided market data.
+   * <p>
+   * If the market data is an instance of {@link CachingScenarioMarketData}, the provider is shared
+   * by all users of the market data. The shared provider holds the rates of every scenario
+   * for each currency pair that has been requested, avoiding the cost of looking up and
+   * triangulating the rates each time an amount is converted.
    *
    * @param marketData  market data containing FX rates
    * @return a scenario FX rate provider which takes its data from the provided market data
    */
   public static ScenarioFxRateProvider of(ScenarioMarketData marketData) {
+    if (marketData instanceof CachingScenarioMarketData) {
+      return ((CachingScenarioMarketData) marketData).derivedValue(
+          ScenarioFxRateProvider.class,
+          ObservableSource.NONE,
+          underlying -> new CachingScenarioFxRateProvider(new DefaultScenarioFxRateProvider(underlying)));
+    }
     return new DefaultScenarioFxRateProvider(marketData);
   }
 
@@ -68,6 +81,25 @@ public interface ScenarioFxRateProvider {
     return fxRateProvider(scenarioIndex).fxRate(baseCurrency, counterCurrency);
   }
 
+  /**
+   * Gets the FX rates for the specified currency pair, one for each scenario.
+   * <p>
+   * The rates returned are the rates from the base currency to the counter currency
+   * as defined by this formula: {@code (1 * baseCurrency = fxRate * counterCurrency)}.
+   * The rates will all be 1 if the two input currencies are the same.
+   * <p>
+   * This is more efficient than {@link #fxRate(Currency, Currency, int)} when all
+   * scenarios are to be converted.
+   *
+   * @param baseCurrency  the base currency, to convert from
+   * @param counterCurrency  the counter currency, to convert to
+   * @return the FX rates for the currency pair, one for each scenario
+   * @throws RuntimeException if no FX rate could be found
+   */
+  public default DoubleArray fxRates(Currency baseCurrency, Currency counterCurrency) {
+    return DoubleArray.of(getScenarioCount(), i -> fxRate(baseCurrency, counterCurrency, i));
+  }
+
   /**
    * Gets the FX rate provider for the specified scenario index.
    * 
@@ -0,0 +1,137 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertSame;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+
+/**
+ * Test {@link PersistentMarketData}.
+ */
+@Test
+public class PersistentMarketDataTest {
+
+  private static final LocalDate VAL_DATE = date(2015, 6, 30);
+  private static final TestingNamedId ID1 = new TestingNamedId("1");
+  private static final TestingNamedId ID2 = new TestingNamedId("2");
+  private static final TestingNamedId ID3 = new TestingNamedId("3");
+  private static final TestingObservableId ID4 = new TestingObservableId("4");
+  private static final TestingObservableId ID5 = new TestingObservableId("5");
+  private static final String VAL1 = "1";
+  private static final String VAL2 = "2";
+  private static final String VAL3 = "3";
+  private static final LocalDateDoubleTimeSeries TIME_SERIES = LocalDateDoubleTimeSeries.builder()
+      .put(date(2011, 3, 8), 1.1)
+      .put(date(2011, 3, 10), 1.2)
+      .build();
+
+  //-------------------------------------------------------------------------
+  public void test_of() {
+    PersistentMarketData test = PersistentMarketData.of(
+        VAL_DATE, ImmutableMap.of(ID1, VAL1, ID2, VAL2), ImmutableMap.of(ID4, TIME_SERIES));
+
+    assertEquals(test.getValuationDate(), VAL_DATE);
+    assertEquals(test.containsValue(ID1), true);
+    assertEquals(test.getValue(ID1), VAL1);
+    assertEquals(test.findValue(ID2), Optional.of(VAL2));
+    assertEquals(test.containsValue(ID3), false);
+    assertThrows(() -> test.getValue(ID3), MarketDataNotFoundException.class);
+    assertEquals(test.findValue(ID3), Optional.empty());
+    assertEquals(test.findIds(ID1.getMarketDataName()), ImmutableSet.of(ID1));
+    assertEquals(test.findIds(new TestingName("Foo")), ImmutableSet.of());
+    assertEquals(test.getTimeSeries(ID4), TIME_SERIES);
+    assertEquals(test.getTimeSeries(ID5), LocalDateDoubleTimeSeries.empty());
+  }
+
+  public void test_of_badType() {
+    Map<MarketDataId<?>, Object> dataMap = ImmutableMap.of(ID1, 123d);
+    assertThrows(() -> PersistentMarketData.of(VAL_DATE, dataMap, ImmutableMap.of()), ClassCastException.class);
+  }
+
+  public void test_withValue_null() {
+    assertThrowsIllegalArg(() -> PersistentMarketData.empty(VAL_DATE).withValue(ID1, null));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_versions() {
+    PersistentMarketData base = PersistentMarketData.empty(VAL_DATE);
+    PersistentMarketData test1 = base.withValue(ID1, VAL1);
+    PersistentMarketData test2 = test1.withValue(ID2, VAL2).withTimeSeries(ID4, TIME_SERIES);
+    PersistentMarketData test3 = test2.withValue(ID1, VAL3).withoutValue(ID2).withoutTimeSeries(ID4);
+
+    assertEquals(base.getVersion(), 0);
+    assertEquals(test1.getVersion(), 1);
+    assertEquals(test2.getVersion(), 3);
+    assertEquals(test3.getVersion(), 6);
+    // earlier versions are unchanged
+    assertEquals(base.containsValue(ID1), false);
+    assertEquals(test1.getValue(ID1), VAL1);
+    assertEquals(test2.getValue(ID1), VAL1);
+    assertEquals(test2.getValue(ID2), VAL2);
+    assertEquals(test2.getTimeSeries(ID4), TIME_SERIES);
+    assertEquals(test3.getValue(ID1), VAL3);
+    assertEquals(test3.containsValue(ID2), false);
+    assertEquals(test3.getTimeSeries(ID4), LocalDateDoubleTimeSeries.empty());
+    // unchanged
+    assertSame(test2.withValue(ID1, VAL1), test2);
+    assertSame(test2.withoutValue(ID3), test2);
+    assertSame(test2.withoutTimeSeries(ID5), test2);
+  }
+
+  public void test_changedIds() {
+    PersistentMarketData base = PersistentMarketData.of(
+        VAL_DATE, ImmutableMap.of(ID1, VAL1, ID2, VAL2), ImmutableMap.of(ID4, TIME_SERIES));
+    PersistentMarketData test = base
+        .withValue(ID1, VAL3)
+        .withValue(ID3, VAL3)
+        .withTimeSeries(ID5, TIME_SERIES);
+
+    assertEquals(test.changedIds(base), ImmutableSet.of(ID1, ID3));
+    assertEquals(base.changedIds(test), ImmutableSet.of(ID1, ID3));
+    assertEquals(test.changedIds(test), ImmutableSet.of());
+    assertEquals(test.changedTimeSeriesIds(base), ImmutableSet.of(ID5));
+    assertEquals(base.withValue(ID1, new String(VAL1)).changedIds(base), ImmutableSet.of());
+  }
+
+  public void test_toImmutableMarketData() {
+    PersistentMarketData test = PersistentMarketData.of(
+        VAL_DATE, ImmutableMap.of(ID1, VAL1, ID2, VAL2), ImmutableMap.of(ID4, TIME_SERIES));
+    ImmutableMarketData expected = ImmutableMarketData.builder(VAL_DATE)
+        .addValue(ID1, VAL1)
+        .addValue(ID2, VAL2)
+        .addTimeSeries(ID4, TIME_SERIES)
+        .build();
+    assertEquals(test.toImmutableMarketData(), expected);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_equalsHashCode() {
+    PersistentMarketData test = PersistentMarketData.of(VAL_DATE, ImmutableMap.of(ID1, VAL1), ImmutableMap.of());
+    PersistentMarketData same = PersistentMarketData.empty(VAL_DATE).withValue(ID2, VAL2).withValue(ID1, VAL1)
+        .withoutValue(ID2);
+    assertEquals(test, same);
+    assertEquals(test.hashCode(), same.hashCode());
+    assertNotEquals(test, test.withValue(ID1, VAL2));
+    assertNotEquals(test, PersistentMarketData.of(VAL_DATE.plusDays(1), ImmutableMap.of(ID1, VAL1), ImmutableMap.of()));
+    assertNotEquals(test, test.withTimeSeries(ID4, TIME_SERIES));
+    assertNotEquals(test, "");
+  }
+
+}
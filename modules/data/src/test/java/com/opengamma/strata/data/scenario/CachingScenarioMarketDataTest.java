@@ -0,0 +1,78 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data.scenario;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.MarketDataNotFoundException;
+import com.opengamma.strata.data.TestingNamedId;
+import com.opengamma.strata.data.TestingObservableId;
+
+/**
+ * Test {@link CachingScenarioMarketData}.
+ */
+@Test
+public class CachingScenarioMarketDataTest {
+
+  private static final LocalDate VAL_DATE = date(2015, 6, 30);
+  private static final TestingNamedId ID1 = new TestingNamedId("1");
+  private static final TestingNamedId ID2 = new TestingNamedId("2");
+  private static final TestingObservableId ID3 = new TestingObservableId("3");
+  private static final MarketDataBox<String> VAL1 = MarketDataBox.ofScenarioValues("1a", "1b");
+  private static final LocalDateDoubleTimeSeries TIME_SERIES = LocalDateDoubleTimeSeries.builder()
+      .put(date(2011, 3, 8), 1.1)
+      .put(date(2011, 3, 10), 1.2)
+      .build();
+  private static final ImmutableScenarioMarketData BASE_DATA = ImmutableScenarioMarketData.builder(VAL_DATE)
+      .addBox(ID1, VAL1)
+      .addTimeSeries(ID3, TIME_SERIES)
+      .build();
+
+  //-------------------------------------------------------------------------
+  public void test_delegation() {
+    CachingScenarioMarketData test = CachingScenarioMarketData.of(BASE_DATA);
+    assertSame(test.getUnderlying(), BASE_DATA);
+    assertSame(CachingScenarioMarketData.of(test), test);
+    assertEquals(test.getValuationDate(), MarketDataBox.ofSingleValue(VAL_DATE));
+    assertEquals(test.getScenarioCount(), 2);
+    assertEquals(test.scenario(1).getValue(ID1), "1b");
+    assertEquals(test.containsValue(ID1), true);
+    assertEquals(test.containsValue(ID2), false);
+    assertEquals(test.getValue(ID1), VAL1);
+    assertThrows(() -> test.getValue(ID2), MarketDataNotFoundException.class);
+    assertEquals(test.findValue(ID1), Optional.of(VAL1));
+    assertEquals(test.findValue(ID2), Optional.empty());
+    assertEquals(test.findIds(ID1.getMarketDataName()), ImmutableSet.of(ID1));
+    assertEquals(test.getTimeSeries(ID3), TIME_SERIES);
+  }
+
+  public void test_derivedValue() {
+    CachingScenarioMarketData test = CachingScenarioMarketData.of(BASE_DATA);
+    AtomicInteger count = new AtomicInteger();
+    String value1 = test.derivedValue(String.class, "A", md -> md.getScenarioCount() + "-" + count.incrementAndGet());
+    String value2 = test.derivedValue(String.class, "A", md -> md.getScenarioCount() + "-" + count.incrementAndGet());
+    String value3 = test.derivedValue(String.class, "B", md -> md.getScenarioCount() + "-" + count.incrementAndGet());
+    Integer value4 = test.derivedValue(Integer.class, "A", md -> count.incrementAndGet());
+    assertEquals(value1, "2-1");
+    assertSame(value2, value1);
+    assertEquals(value3, "2-2");
+    assertEquals(value4, Integer.valueOf(3));
+    // a new instance has a new cache
+    assertEquals(CachingScenarioMarketData.of(BASE_DATA).derivedValue(String.class, "A", md -> "new"), "new");
+  }
+
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data.scenario;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.MarketDataNotFoundException;
+import com.opengamma.strata.data.ObservableId;
+
+/**
+ * Test {@link PersistentScenarioMarketData}.
+ */
+@Test
+public class PersistentScenarioMarketDataTest {
+
+  private static final LocalDate VAL_DATE = date(2015, 6, 30);
+  private static final MarketDataBox<LocalDate> VAL_DATE_BOX = MarketDataBox.ofSingleValue(VAL_DATE);
+  private static final TestObservableId ID1 = TestObservableId.of("1");
+  private static final TestObservableId ID2 = TestObservableId.of("2");
+  private static final TestObservableId ID3 = TestObservableId.of("3");
+  private static final MarketDataBox<Double> BOX1 = MarketDataBox.ofScenarioValues(1d, 2d);
+  private static final MarketDataBox<Double> BOX2 = MarketDataBox.ofScenarioValues(3d, 4d);
+  private static final MarketDataBox<Double> BOX3 = MarketDataBox.ofScenarioValues(5d);
+  private static final LocalDateDoubleTimeSeries TIME_SERIES = LocalDateDoubleTimeSeries.builder()
+      .put(date(2011, 3, 8), 1.1)
+      .put(date(2011, 3, 10), 1.2)
+      .build();
+
+  //-------------------------------------------------------------------------
+  public void test_of() {
+    Map<MarketDataId<?>, MarketDataBox<?>> dataMap = ImmutableMap.of(ID1, BOX1);
+    Map<ObservableId, LocalDateDoubleTimeSeries> tsMap = ImmutableMap.of(ID1, TIME_SERIES);
+    PersistentScenarioMarketData test = PersistentScenarioMarketData.of(2, VAL_DATE_BOX, dataMap, tsMap);
+    assertThat(test.getValuationDate()).isEqualTo(VAL_DATE_BOX);
+    assertThat(test.getScenarioCount()).isEqualTo(2);
+    assertThat(test.containsValue(ID1)).isTrue();
+    assertThat(test.containsValue(ID2)).isFalse();
+    assertThat(test.getValue(ID1)).isEqualTo(BOX1);
+    assertThrows(() -> test.getValue(ID2), MarketDataNotFoundException.class);
+    assertThat(test.findValue(ID1)).hasValue(BOX1);
+    assertThat(test.findValue(ID2)).isEmpty();
+    assertThat(test.getTimeSeries(ID1)).isEqualTo(TIME_SERIES);
+    assertThat(test.getTimeSeries(ID2)).isEqualTo(LocalDateDoubleTimeSeries.empty());
+    assertThat(test.scenario(1).getValue(ID1)).isEqualTo(2d);
+  }
+
+  public void test_withValue_wrongScenarioCount() {
+    PersistentScenarioMarketData test = PersistentScenarioMarketData.empty(2, VAL_DATE_BOX);
+    assertThrowsIllegalArg(() -> test.withValue(ID1, BOX3));
+    assertThrowsIllegalArg(() -> test.withValue(ID1, null));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_versions() {
+    PersistentScenarioMarketData base = PersistentScenarioMarketData.empty(2, VAL_DATE_BOX);
+    PersistentScenarioMarketData test1 = base.withValue(ID1, BOX1).withTimeSeries(ID1, TIME_SERIES);
+    PersistentScenarioMarketData test2 = test1.withValue(ID1, BOX2).withoutValue(ID2).withoutTimeSeries(ID1);
+
+    assertThat(base.getVersion()).isEqualTo(0);
+    assertThat(test1.getVersion()).isEqualTo(2);
+    assertThat(test2.getVersion()).isEqualTo(4);
+    assertThat(base.containsValue(ID1)).isFalse();
+    assertThat(test1.getValue(ID1)).isEqualTo(BOX1);
+    assertThat(test1.getTimeSeries(ID1)).isEqualTo(TIME_SERIES);
+    assertThat(test2.getValue(ID1)).isEqualTo(BOX2);
+    assertThat(test2.getTimeSeries(ID1)).isEqualTo(LocalDateDoubleTimeSeries.empty());
+    assertThat(test1.withValue(ID1, BOX1)).isSameAs(test1);
+  }
+
+  public void test_changedIds() {
+    PersistentScenarioMarketData base = PersistentScenarioMarketData.of(
+        2, VAL_DATE_BOX, ImmutableMap.of(ID1, BOX1, ID2, BOX1), ImmutableMap.of(ID1, TIME_SERIES));
+    PersistentScenarioMarketData test = base
+        .withValue(ID2, BOX2)
+        .withValue(ID3, BOX2)
+        .withoutTimeSeries(ID1);
+    assertThat(test.changedIds(base)).containsOnly(ID2, ID3);
+    assertThat(base.changedIds(test)).containsOnly(ID2, ID3);
+    assertThat(test.changedIds(test)).isEmpty();
+    assertThat(test.changedTimeSeriesIds(base)).containsOnly(ID1);
+  }
+
+  public void test_toImmutableScenarioMarketData() {
+    Map<MarketDataId<?>, MarketDataBox<?>> dataMap = ImmutableMap.of(ID1, BOX1, ID2, BOX2);
+    Map<ObservableId, LocalDateDoubleTimeSeries> tsMap = ImmutableMap.of(ID1, TIME_SERIES);
+    PersistentScenarioMarketData test = PersistentScenarioMarketData.of(2, VAL_DATE_BOX, dataMap, tsMap);
+    assertThat(test.toImmutableScenarioMarketData())
+        .isEqualTo(ImmutableScenarioMarketData.of(2, VAL_DATE_BOX, dataMap, tsMap));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_equalsHashCode() {
+    PersistentScenarioMarketData test = PersistentScenarioMarketData.empty(2, VAL_DATE_BOX).withValue(ID1, BOX1);
+    PersistentScenarioMarketData same = PersistentScenarioMarketData.empty(2, VAL_DATE_BOX)
+        .withValue(ID2, BOX2)
+        .withValue(ID1, BOX1)
+        .withoutValue(ID2);
+    assertThat(test).isEqualTo(same);
+    assertThat(test.hashCode()).isEqualTo(same.hashCode());
+    assertThat(test).isNotEqualTo(test.withValue(ID1, BOX2));
+    assertThat(test).isNotEqualTo(PersistentScenarioMarketData.empty(1, VAL_DATE_BOX));
+    assertThat(test).isNotEqualTo("");
+  }
+
+}
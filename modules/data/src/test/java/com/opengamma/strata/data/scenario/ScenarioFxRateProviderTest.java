@@ -14,6 +14,7 @@ import org.testng.annotations.Test;
 
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.currency.FxRate;
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.data.FxRateId;
 
 @Test
@@ -37,4 +38,30 @@ public class ScenarioFxRateProviderTest {
   public void fxRate() {
     assertThat(fxRateProvider.fxRate(Currency.GBP, Currency.USD, 0)).isEqualTo(1.4d);
   }
+
+  public void fxRates() {
+    assertThat(fxRateProvider.fxRates(Currency.GBP, Currency.USD)).isEqualTo(DoubleArray.of(1.4d));
+    assertThat(fxRateProvider.fxRates(Currency.USD, Currency.GBP)).isEqualTo(DoubleArray.of(1d / 1.4d));
+    assertThat(fxRateProvider.fxRates(Currency.GBP, Currency.GBP)).isEqualTo(DoubleArray.of(1d));
+  }
+
+  public void caching() {
+    ScenarioMarketData marketData = ImmutableScenarioMarketData.builder(LocalDate.of(2011, 3, 8))
+        .addBox(
+            FxRateId.of(Currency.GBP, Currency.USD),
+            MarketDataBox.ofScenarioValues(
+                FxRate.of(Currency.GBP, Currency.USD, 1.4d), FxRate.of(Currency.GBP, Currency.USD, 1.5d)))
+        .build();
+    CachingScenarioMarketData cachingMarketData = CachingScenarioMarketData.of(marketData);
+    ScenarioFxRateProvider test = ScenarioFxRateProvider.of(cachingMarketData);
+    assertThat(ScenarioFxRateProvider.of(cachingMarketData)).isSameAs(test);
+    assertThat(test.getScenarioCount()).isEqualTo(2);
+    assertThat(test.fxRate(Currency.GBP, Currency.USD, 1)).isEqualTo(1.5d);
+    assertThat(test.fxRate(Currency.GBP, Currency.GBP, 1)).isEqualTo(1d);
+    assertThat(test.convert(10, Currency.GBP, Currency.USD, 0)).isEqualTo(14d);
+    assertThat(test.fxRates(Currency.GBP, Currency.USD)).isEqualTo(DoubleArray.of(1.4d, 1.5d));
+    assertThat(test.fxRates(Currency.GBP, Currency.USD)).isSameAs(test.fxRates(Currency.GBP, Currency.USD));
+    assertThat(test.fxRates(Currency.USD, Currency.GBP)).isEqualTo(DoubleArray.of(1d / 1.4d, 1d / 1.5d));
+    assertThat(test.fxRateProvider(1).fxRate(Currency.GBP, Currency.USD)).isEqualTo(1.5d);
+  }
 }
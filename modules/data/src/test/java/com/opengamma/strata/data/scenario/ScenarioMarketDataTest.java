@@ -5,6 +5,8 @@
  */
 package com.opengamma.strata.data.scenario;
 
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
 import static com.opengamma.strata.collect.Guavate.toImmutableList;
 import static com.opengamma.strata.collect.TestHelper.assertThrows;
 import static com.opengamma.strata.collect.TestHelper.coverBeanEquals;
@@ -24,8 +26,11 @@ import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.basics.currency.FxRate;
 import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.io.BeanBinaryCodec;
 import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.FxRateId;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.data.MarketDataId;
 import com.opengamma.strata.data.MarketDataName;
@@ -67,6 +72,16 @@ public class ScenarioMarketDataTest {
     assertThat(test.getTimeSeries(ID2)).isEqualTo(LocalDateDoubleTimeSeries.empty());
   }
 
+  public void test_binaryCodec() {
+    // the identifiers must be beans, as the codec does not use Java serialization
+    FxRateId id = FxRateId.of(GBP, USD);
+    Map<MarketDataId<?>, MarketDataBox<?>> dataMap =
+        ImmutableMap.of(id, MarketDataBox.ofScenarioValues(FxRate.of(GBP, USD, 1.4), FxRate.of(GBP, USD, 1.5)));
+    ImmutableScenarioMarketData test = ImmutableScenarioMarketData.of(2, VAL_DATE, dataMap, ImmutableMap.of());
+    byte[] encoded = BeanBinaryCodec.encode(test);
+    assertThat(BeanBinaryCodec.decode(encoded, ImmutableScenarioMarketData.class)).isEqualTo(test);
+  }
+
   public void test_of_noScenarios() {
     Map<MarketDataId<?>, MarketDataBox<?>> dataMap = ImmutableMap.of(ID1, MarketDataBox.empty());
     ScenarioMarketData test = ScenarioMarketData.of(0, VAL_DATE, dataMap, ImmutableMap.of());
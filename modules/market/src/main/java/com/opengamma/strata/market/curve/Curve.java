@@ -8,10 +8,12 @@ package com.opengamma.strata.market.curve;
 import static com.opengamma.strata.collect.Guavate.toImmutableList;
 
 import java.time.Period;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.IntStream;
 
 import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivity;
 import com.opengamma.strata.market.param.ParameterMetadata;
@@ -102,6 +104,39 @@ public interface Curve extends ParameterizedData {
    */
   public abstract UnitParameterSensitivity yValueParameterSensitivity(double x);
 
+  /**
+   * Computes the y-values for the specified x-values.
+   * <p>
+   * The y-values are written in the result array, which must be at least as long as the x-values.
+   * Implementations may be more efficient when the x-values are sorted in ascending order,
+   * as is typically the case for the payment times of a swap leg.
+   * 
+   * @param x  the x-values to find the y-values for
+   * @param result  the array in which the y-values are written
+   */
+  public default void yValues(double[] x, double[] result) {
+    ArgChecker.isTrue(result.length >= x.length, "Result array must be at least as long as the x-values");
+    for (int i = 0; i < x.length; i++) {
+      result[i] = yValue(x[i]);
+    }
+  }
+
+  /**
+   * Computes the sensitivities of the y-values with respect to the curve parameters.
+   * <p>
+   * This returns a list with one sensitivity for each x-value, in the same order.
+   * Implementations may be more efficient when the x-values are sorted in ascending order.
+   * 
+   * @param x  the x-values at which the parameter sensitivities are computed
+   * @return the sensitivities
+   * @throws RuntimeException if a sensitivity cannot be calculated
+   */
+  public default List<UnitParameterSensitivity> yValueParameterSensitivities(double[] x) {
+    return Arrays.stream(x)
+        .mapToObj(this::yValueParameterSensitivity)
+        .collect(toImmutableList());
+  }
+
   /**
    * Computes the first derivative of the curve.
    * <p>
@@ -31,6 +31,7 @@ import org.joda.beans.impl.direct.DirectMetaPropertyMap;
 
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
 import com.opengamma.strata.market.interpolator.BoundCurveInterpolator;
 import com.opengamma.strata.market.interpolator.CurveExtrapolator;
 import com.opengamma.strata.market.interpolator.CurveExtrapolators;
@@ -221,6 +222,19 @@ public final class InterpolatedNodalCurve
     return createParameterSensitivity(boundInterpolator.parameterSensitivity(x));
   }
 
+  @Override
+  public void yValues(double[] x, double[] result) {
+    boundInterpolator.interpolate(x, result);
+  }
+
+  @Override
+  public List<UnitParameterSensitivity> yValueParameterSensitivities(double[] x) {
+    DoubleMatrix sensitivities = boundInterpolator.parameterSensitivity(x);
+    return IntStream.range(0, x.length)
+        .mapToObj(i -> createParameterSensitivity(sensitivities.row(i)))
+        .collect(toImmutableList());
+  }
+
   @Override
   public double firstDerivative(double x) {
     return boundInterpolator.firstDerivative(x);
@@ -9,9 +9,14 @@ import java.util.Arrays;
 
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
 
 /**
  * Abstract interpolator implementation.
+ * <p>
+ * The batch methods locate the x-values with a cursor that only moves forward while the x-values are sorted.
+ * Subclasses using {@link #lowerBoundIndex(double, double[])} should override
+ * {@link #doInterpolate(double, int)} and {@link #doParameterSensitivity(double, int)} to benefit from it.
  */
 public abstract class AbstractBoundCurveInterpolator
     implements BoundCurveInterpolator {
@@ -24,6 +29,10 @@ public abstract class AbstractBoundCurveInterpolator
    * The right extrapolator.
    */
   private final BoundCurveExtrapolator extrapolatorRight;
+  /**
+   * The x-values of the nodes.
+   */
+  private final double[] xValues;
   /**
    * The x-value of the first node.
    */
@@ -51,6 +60,7 @@ public abstract class AbstractBoundCurveInterpolator
     ArgChecker.isTrue(size > 1, "Curve node arrays must have at least two nodes");
     this.extrapolatorLeft = ExceptionCurveExtrapolator.INSTANCE;
     this.extrapolatorRight = ExceptionCurveExtrapolator.INSTANCE;
+    this.xValues = xValues.toArrayUnsafe();
     this.firstXValue = xValues.get(0);
     this.lastXValue = xValues.get(size - 1);
     this.lastYValue = yValues.get(size - 1);
@@ -70,6 +80,7 @@ public abstract class AbstractBoundCurveInterpolator
 
     this.extrapolatorLeft = ArgChecker.notNull(extrapolatorLeft, "extrapolatorLeft");
     this.extrapolatorRight = ArgChecker.notNull(extrapolatorRight, "extrapolatorRight");
+    this.xValues = base.xValues;
     this.firstXValue = base.firstXValue;
     this.lastXValue = base.lastXValue;
     this.lastYValue = base.lastYValue;
@@ -96,6 +107,20 @@ public abstract class AbstractBoundCurveInterpolator
    */
   protected abstract double doInterpolate(double xValue);
 
+  /**
+   * Method for subclasses to calculate the interpolated value when the lower bound index is known.
+   * <p>
+   * The index is the one returned by {@link #lowerBoundIndex(double, double[])} for the x-values of the nodes.
+   * The default implementation ignores the index.
+   * 
+   * @param xValue  the x-value
+   * @param lowerIndex  the index of the last node lower than or equal to the x-value
+   * @return the interpolated y-value
+   */
+  protected double doInterpolate(double xValue, int lowerIndex) {
+    return doInterpolate(xValue);
+  }
+
   @Override
   public final double firstDerivative(double xValue) {
     if (xValue < firstXValue) {
@@ -132,6 +157,70 @@ public abstract class AbstractBoundCurveInterpolator
    */
   protected abstract DoubleArray doParameterSensitivity(double xValue);
 
+  /**
+   * Method for subclasses to calculate parameter sensitivity when the lower bound index is known.
+   * <p>
+   * The index is the one returned by {@link #lowerBoundIndex(double, double[])} for the x-values of the nodes.
+   * The default implementation ignores the index.
+   * 
+   * @param xValue  the x-value
+   * @param lowerIndex  the index of the last node lower than or equal to the x-value
+   * @return the parameter sensitivity
+   */
+  protected DoubleArray doParameterSensitivity(double xValue, int lowerIndex) {
+    return doParameterSensitivity(xValue);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public final void interpolate(double[] x, double[] result) {
+    ArgChecker.isTrue(result.length >= x.length, "Result array must be at least as long as the x-values");
+    int lowerIndex = 0;
+    double previous = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < x.length; i++) {
+      double xValue = x[i];
+      if (xValue < firstXValue) {
+        result[i] = extrapolatorLeft.leftExtrapolate(xValue);
+      } else if (xValue > lastXValue) {
+        result[i] = extrapolatorRight.rightExtrapolate(xValue);
+      } else if (xValue == lastXValue) {
+        result[i] = lastYValue;
+      } else {
+        if (xValue < previous) {
+          lowerIndex = 0;  // not sorted, restart the cursor
+        }
+        lowerIndex = lowerBoundIndex(xValue, xValues, lowerIndex);
+        previous = xValue;
+        result[i] = doInterpolate(xValue, lowerIndex);
+      }
+    }
+  }
+
+  @Override
+  public final DoubleMatrix parameterSensitivity(double[] x) {
+    double[][] result = new double[x.length][];
+    int lowerIndex = 0;
+    double previous = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < x.length; i++) {
+      double xValue = x[i];
+      DoubleArray sensitivity;
+      if (xValue < firstXValue) {
+        sensitivity = extrapolatorLeft.leftExtrapolateParameterSensitivity(xValue);
+      } else if (xValue > lastXValue) {
+        sensitivity = extrapolatorRight.rightExtrapolateParameterSensitivity(xValue);
+      } else {
+        if (xValue < previous) {
+          lowerIndex = 0;  // not sorted, restart the cursor
+        }
+        lowerIndex = lowerBoundIndex(xValue, xValues, lowerIndex);
+        previous = xValue;
+        sensitivity = doParameterSensitivity(xValue, lowerIndex);
+      }
+      result[i] = sensitivity.toArrayUnsafe();
+    }
+    return DoubleMatrix.ofUnsafe(result);
+  }
+
   //-------------------------------------------------------------------------
 
   /**
@@ -165,4 +254,39 @@ public abstract class AbstractBoundCurveInterpolator
     return index;
   }
 
+  /**
+   * Returns the index of the last value in the input array which is lower than the specified value,
+   * searching from a starting index.
+   * <p>
+   * The result is the same as {@link #lowerBoundIndex(double, double[])}, with the additional condition
+   * that the value at the starting index is lower than or equal to the specified value.
+   * The search gallops forward from the starting index, such that the total cost of locating
+   * a sorted sequence of values is proportional to the length of the sequence rather than
+   * its length multiplied by the logarithm of the number of values.
+   *
+   * @param xValue  a value which is less than or equal to the last element in {@code xValues}
+   * @param xValues  an array of values sorted in ascending order
+   * @param fromIndex  the starting index, such that {@code xValues[fromIndex] <= xValue}
+   * @return the index of the last value in {@code xValues} which is lower than {@code xValue}
+   */
+  protected static int lowerBoundIndex(double xValue, double[] xValues, int fromIndex) {
+    int lower = fromIndex;
+    int step = 1;
+    while (lower + step < xValues.length && xValues[lower + step] <= xValue) {
+      lower += step;
+      step <<= 1;
+    }
+    int upper = Math.min(lower + step, xValues.length);
+    // xValues[lower] <= xValue < xValues[upper]
+    while (upper - lower > 1) {
+      int mid = (lower + upper) >>> 1;
+      if (xValues[mid] <= xValue) {
+        lower = mid;
+      } else {
+        upper = mid;
+      }
+    }
+    return lower;
+  }
+
 }
@@ -5,7 +5,9 @@
  */
 package com.opengamma.strata.market.interpolator;
 
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
 
 /**
  * A curve interpolator that has been bound to a specific curve.
@@ -52,6 +54,43 @@ public interface BoundCurveInterpolator {
    */
   public abstract DoubleArray parameterSensitivity(double x);
 
+  /**
+   * Computes the y-values for the specified x-values by interpolation.
+   * <p>
+   * The y-values are written in the result array, which must be at least as long as the x-values.
+   * Implementations are more efficient when the x-values are sorted in ascending order,
+   * but any order is accepted.
+   * 
+   * @param x  the x-values to find the y-values for
+   * @param result  the array in which the y-values are written
+   * @throws RuntimeException if a y-value cannot be calculated
+   */
+  public default void interpolate(double[] x, double[] result) {
+    ArgChecker.isTrue(result.length >= x.length, "Result array must be at least as long as the x-values");
+    for (int i = 0; i < x.length; i++) {
+      result[i] = interpolate(x[i]);
+    }
+  }
+
+  /**
+   * Computes the sensitivities of the y-values with respect to the curve parameters.
+   * <p>
+   * This returns a matrix with one row for each x-value and one column for each parameter of the curve.
+   * Implementations are more efficient when the x-values are sorted in ascending order,
+   * but any order is accepted.
+   * 
+   * @param x  the x-values at which the parameter sensitivities are computed
+   * @return the sensitivities
+   * @throws RuntimeException if a sensitivity cannot be calculated
+   */
+  public default DoubleMatrix parameterSensitivity(double[] x) {
+    double[][] result = new double[x.length][];
+    for (int i = 0; i < x.length; i++) {
+      result[i] = parameterSensitivity(x[i]).toArrayUnsafe();
+    }
+    return DoubleMatrix.ofUnsafe(result);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Binds this interpolator to the specified extrapolators.
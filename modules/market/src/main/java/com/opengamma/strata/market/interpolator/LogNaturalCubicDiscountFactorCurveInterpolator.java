@@ -125,8 +125,19 @@ final class LogNaturalCubicDiscountFactorCurveInterpolator implements CurveInter
         int dimensions,
         int nKnots) {
 
-      // check for 1 less interval that knots 
       int lowerBound = FunctionUtils.getLowerBoundIndex(knots, xValue);
+      return evaluate(xValue, lowerBound, knots, coefMatrix, dimensions, nKnots);
+    }
+
+    private static DoubleArray evaluate(
+        double xValue,
+        int lowerBound,
+        DoubleArray knots,
+        DoubleMatrix coefMatrix,
+        int dimensions,
+        int nKnots) {
+
+      // check for 1 less interval that knots 
       int indicator = lowerBound == nKnots - 1 ? lowerBound - 1 : lowerBound;
 
       DoubleArray resArray = DoubleArray.of(dimensions, i -> {
@@ -211,10 +222,20 @@ final class LogNaturalCubicDiscountFactorCurveInterpolator implements CurveInter
       return logYValues;
     }
 
+    // the knots include the nodes, so the search can start from the index of the lower node
+    private int knotIndex(double xValue, int lowerIndex) {
+      return lowerBoundIndex(xValue, knots.toArrayUnsafe(), lowerIndex);
+    }
+
     //-------------------------------------------------------------------------
     @Override
     protected double doInterpolate(double xValue) {
-      DoubleArray resValue = evaluate(xValue, knots, coefMatrix, dimensions, nKnots);
+      return doInterpolate(xValue, lowerBoundIndex(xValue, xValues));
+    }
+
+    @Override
+    protected double doInterpolate(double xValue, int lowerIndex) {
+      DoubleArray resValue = evaluate(xValue, knotIndex(xValue, lowerIndex), knots, coefMatrix, dimensions, nKnots);
       return Math.exp(resValue.get(0));
     }
 
@@ -230,7 +251,12 @@ final class LogNaturalCubicDiscountFactorCurveInterpolator implements CurveInter
 
     @Override
     protected DoubleArray doParameterSensitivity(double xValue) {
-      int interval = FunctionUtils.getLowerBoundIndex(knots, xValue);
+      return doParameterSensitivity(xValue, lowerBoundIndex(xValue, xValues));
+    }
+
+    @Override
+    protected DoubleArray doParameterSensitivity(double xValue, int lowerIndex) {
+      int interval = knotIndex(xValue, lowerIndex);
       if (interval == nKnots - 1) {
         interval--; // there is 1 less interval that knots
       }
@@ -238,7 +264,7 @@ final class LogNaturalCubicDiscountFactorCurveInterpolator implements CurveInter
       DoubleMatrix coefficientSensitivity = poly.getCoefficientSensitivity(interval);
       double[] resSense = nodeSensitivity(
           xValue, knots, coefMatrix, dimensions, nKnots, interval, coefficientSensitivity).toArray();
-      double resValue = Math.exp(evaluate(xValue, knots, coefMatrix, dimensions, nKnots).get(0));
+      double resValue = Math.exp(evaluate(xValue, interval, knots, coefMatrix, dimensions, nKnots).get(0));
       double[] knotValues = getValues(logYValues);
       final int knotValuesLength = knotValues.length;
       double[] res = new double[knotValuesLength];
@@ -10,6 +10,7 @@ import java.io.Serializable;
 import com.opengamma.strata.basics.value.ValueDerivatives;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
 import com.opengamma.strata.math.impl.function.PiecewisePolynomialWithSensitivityFunction1D;
 import com.opengamma.strata.math.impl.interpolation.NaturalSplineInterpolator;
 import com.opengamma.strata.math.impl.interpolation.PiecewisePolynomialResultsWithSensitivity;
@@ -113,11 +114,29 @@ final class ProductNaturalCubicSplineCurveInterpolator
       return xyValues;
     }
 
+    //-------------------------------------------------------------------------
+    // the knots are the nodes, with one less interval than knots
+    private int interval(int lowerIndex) {
+      return lowerIndex == xValues.length - 1 ? lowerIndex - 1 : lowerIndex;
+    }
+
     //-------------------------------------------------------------------------
     @Override
     protected double doInterpolate(double xValue) {
+      return doInterpolate(xValue, lowerBoundIndex(xValue, xValues));
+    }
+
+    @Override
+    protected double doInterpolate(double xValue, int lowerIndex) {
       ArgChecker.isTrue(Math.abs(xValue) > SMALL, "magnitude of xValue must not be small");
-      double resValue = FUNCTION.evaluate(poly, xValue).get(0);
+      int interval = interval(lowerIndex);
+      DoubleArray coefs = poly.getCoefMatrix().row(interval);
+      double s = xValue - xValues[interval];
+      double resValue = coefs.get(0);
+      for (int i = 1; i < coefs.size(); i++) {
+        resValue = resValue * s + coefs.get(i);
+      }
+      ArgChecker.isFalse(Double.isInfinite(resValue) || Double.isNaN(resValue), "Too large input");
       return resValue / xValue;
     }
 
@@ -130,8 +149,19 @@ final class ProductNaturalCubicSplineCurveInterpolator
 
     @Override
     protected DoubleArray doParameterSensitivity(double xValue) {
+      return doParameterSensitivity(xValue, lowerBoundIndex(xValue, xValues));
+    }
+
+    @Override
+    protected DoubleArray doParameterSensitivity(double xValue, int lowerIndex) {
       ArgChecker.isTrue(Math.abs(xValue) > SMALL, "magnitude of xValue must not be small");
-      DoubleArray resSense = FUNCTION.nodeSensitivity(poly, xValue);
+      int interval = interval(lowerIndex);
+      DoubleMatrix coefficientSensitivity = poly.getCoefficientSensitivity(interval);
+      double s = xValue - xValues[interval];
+      DoubleArray resSense = coefficientSensitivity.row(0);
+      for (int i = 1; i < coefficientSensitivity.rowCount(); i++) {
+        resSense = resSense.multipliedBy(s).plus(coefficientSensitivity.row(i));
+      }
       return resSense.multipliedBy(DoubleArray.of(resSense.size(), i -> xValues[i] / xValue));
     }
 
@@ -10,6 +10,7 @@ import java.util.Optional;
 
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.date.DayCount;
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.Messages;
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.data.MarketDataName;
@@ -132,6 +133,27 @@ public interface DiscountFactors
    */
   public abstract double discountFactor(double yearFraction);
 
+  /**
+   * Gets the discount factors for specified year fractions.
+   * <p>
+   * The year fractions must be based on {@code #relativeYearFraction(LocalDate)}.
+   * The discount factors are written in the result array, which must be at least as long as the year fractions.
+   * The result array may be the same array as the year fractions, in which case they are overwritten.
+   * Implementations may be more efficient when the year fractions are sorted in ascending order,
+   * as is typically the case for the payment dates of a swap leg.
+   * 
+   * @param yearFractions  the year fractions
+   * @param result  the array in which the discount factors are written
+   * @throws RuntimeException if a value cannot be obtained
+   */
+  public default void discountFactors(double[] yearFractions, double[] result) {
+    ArgChecker.isTrue(
+        result.length >= yearFractions.length, "Result array must be at least as long as the year fractions");
+    for (int i = 0; i < yearFractions.length; i++) {
+      result[i] = discountFactor(yearFractions[i]);
+    }
+  }
+
   /**
    * Gets the discount factor for the specified date with z-spread.
    * <p>
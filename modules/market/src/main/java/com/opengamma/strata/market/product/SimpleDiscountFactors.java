@@ -163,6 +163,12 @@ public final class SimpleDiscountFactors
     return curve.yValue(yearFraction);
   }
 
+  @Override
+  public void discountFactors(double[] yearFractions, double[] result) {
+    // read discount factors directly off curve
+    curve.yValues(yearFractions, result);
+  }
+
   @Override
   public double discountFactorWithSpread(
       double yearFraction,
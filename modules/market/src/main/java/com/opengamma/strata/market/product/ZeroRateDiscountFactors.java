@@ -164,6 +164,18 @@ public final class ZeroRateDiscountFactors
     return Math.exp(-yearFraction * curve.yValue(yearFraction));
   }
 
+  @Override
+  public void discountFactors(double[] yearFractions, double[] result) {
+    // convert zero rates to discount factors, the result may be the same array as the year fractions
+    double[] zeroRates = new double[yearFractions.length];
+    curve.yValues(yearFractions, zeroRates);
+    ArgChecker.isTrue(
+        result.length >= yearFractions.length, "Result array must be at least as long as the year fractions");
+    for (int i = 0; i < yearFractions.length; i++) {
+      result[i] = Math.exp(-yearFractions[i] * zeroRates[i]);
+    }
+  }
+
   @Override
   public double discountFactorWithSpread(
       double yearFraction,
@@ -173,6 +173,19 @@ public final class ZeroRatePeriodicDiscountFactors
     return Math.pow(1d + curve.yValue(relativeYearFraction) / frequency, -relativeYearFraction * frequency);
   }
 
+  @Override
+  public void discountFactors(double[] relativeYearFractions, double[] result) {
+    // convert zero rates periodically compounded to discount factors
+    // the result may be the same array as the year fractions
+    double[] zeroRates = new double[relativeYearFractions.length];
+    curve.yValues(relativeYearFractions, zeroRates);
+    ArgChecker.isTrue(
+        result.length >= relativeYearFractions.length, "Result array must be at least as long as the year fractions");
+    for (int i = 0; i < relativeYearFractions.length; i++) {
+      result[i] = Math.pow(1d + zeroRates[i] / frequency, -relativeYearFractions[i] * frequency);
+    }
+  }
+
   @Override
   public double discountFactorWithSpread(
       double yearFraction,
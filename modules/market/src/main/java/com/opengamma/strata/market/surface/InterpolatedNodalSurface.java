@@ -8,9 +8,7 @@ package com.opengamma.strata.market.surface;
 import static com.opengamma.strata.collect.Guavate.toImmutableList;
 
 import java.io.Serializable;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.stream.IntStream;
@@ -30,13 +28,12 @@ import org.joda.beans.impl.direct.DirectMetaPropertyMap;
 
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.collect.array.DoubleArray;
-import com.opengamma.strata.collect.tuple.DoublesPair;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivity;
 import com.opengamma.strata.market.param.ParameterMetadata;
 import com.opengamma.strata.market.param.ParameterPerturbation;
 import com.opengamma.strata.market.param.UnitParameterSensitivity;
 import com.opengamma.strata.math.impl.interpolation.GridInterpolator2D;
-import com.opengamma.strata.math.impl.interpolation.data.Interpolator1DDataBundle;
+import com.opengamma.strata.math.impl.interpolation.data.GridInterpolator2DDataBundle;
 
 /**
  * A surface based on interpolation between a number of nodal points.
@@ -88,7 +85,7 @@ public final class InterpolatedNodalSurface
   /**
    * The underlying data bundle.
    */
-  private transient final Map<Double, Interpolator1DDataBundle> underlyingDataBundle;  // derived and cached, not a property
+  private transient final GridInterpolator2DDataBundle underlyingDataBundle;  // derived and cached, not a property
   /**
    * The parameter metadata.
    */
@@ -155,12 +152,8 @@ public final class InterpolatedNodalSurface
     this.xValues = xValues;
     this.yValues = yValues;
     this.zValues = zValues;
-    Map<DoublesPair, Double> pairs = new HashMap<>();
-    for (int i = 0; i < xValues.size(); i++) {
-      pairs.put(DoublesPair.of(xValues.get(i), yValues.get(i)), zValues.get(i));
-    }
     this.interpolator = interpolator;
-    underlyingDataBundle = interpolator.getDataBundle(pairs);
+    underlyingDataBundle = interpolator.getDataBundle(xValues.toArray(), yValues.toArray(), zValues.toArray());
     this.parameterMetadata = IntStream.range(0, getParameterCount())
         .mapToObj(i -> getParameterMetadata(i))
         .collect(toImmutableList());
@@ -198,28 +191,18 @@ public final class InterpolatedNodalSurface
   //-------------------------------------------------------------------------
   @Override
   public double zValue(double x, double y) {
-    return zValue(DoublesPair.of(x, y));
+    return interpolator.interpolate(underlyingDataBundle, x, y);
   }
 
   @Override
-  public double zValue(DoublesPair xyPair) {
-    return interpolator.interpolate(underlyingDataBundle, xyPair);
+  public DoubleArray zValues(DoubleArray x, DoubleArray y) {
+    return DoubleArray.ofUnsafe(interpolator.interpolate(underlyingDataBundle, x.toArrayUnsafe(), y.toArrayUnsafe()));
   }
 
   @Override
   public UnitParameterSensitivity zValueParameterSensitivity(double x, double y) {
-    return zValueParameterSensitivity(DoublesPair.of(x, y));
-  }
-
-  @Override
-  public UnitParameterSensitivity zValueParameterSensitivity(DoublesPair xyPair) {
-    int size = xValues.size();
-    Map<DoublesPair, Double> result = interpolator.getNodeSensitivitiesForValue(underlyingDataBundle, xyPair);
-    DoubleArray sensitivityValues = DoubleArray.of(size, i -> {
-      Double sensitivity = result.get(DoublesPair.of(xValues.get(i), yValues.get(i)));
-      return sensitivity != null ? sensitivity : 0d;
-    });
-    return createParameterSensitivity(sensitivityValues);
+    double[] sensitivityValues = interpolator.getNodeSensitivitiesForValue(underlyingDataBundle, x, y);
+    return createParameterSensitivity(DoubleArray.ofUnsafe(sensitivityValues));
   }
 
   //-------------------------------------------------------------------------
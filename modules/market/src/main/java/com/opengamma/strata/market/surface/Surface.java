@@ -11,6 +11,7 @@ import java.util.List;
 import java.util.stream.IntStream;
 
 import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.tuple.DoublesPair;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivity;
@@ -98,6 +99,22 @@ public interface Surface extends ParameterizedData {
     return zValue(xyPair.getFirst(), xyPair.getSecond());
   }
 
+  /**
+   * Computes the z-values for the specified x-values and y-values.
+   * <p>
+   * The point at index {@code i} has x-value {@code x.get(i)} and y-value {@code y.get(i)}.
+   * Implementations may compute the values more efficiently than one point at a time,
+   * in particular when consecutive points have the same y-value.
+   * 
+   * @param x  the x-values to find the z-values for
+   * @param y  the y-values to find the z-values for, of the same size as the x-values
+   * @return the values at the x/y points
+   */
+  public default DoubleArray zValues(DoubleArray x, DoubleArray y) {
+    ArgChecker.isTrue(x.size() == y.size(), "Length of x-values and y-values must match");
+    return DoubleArray.of(x.size(), i -> zValue(x.get(i), y.get(i)));
+  }
+
   /**
    * Computes the sensitivity of the z-value with respect to the surface parameters.
    * <p>
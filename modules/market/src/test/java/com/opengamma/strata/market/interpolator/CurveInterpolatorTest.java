@@ -12,6 +12,13 @@ import static com.opengamma.strata.collect.TestHelper.coverPrivateConstructor;
 import static com.opengamma.strata.market.interpolator.CurveInterpolators.DOUBLE_QUADRATIC;
 import static com.opengamma.strata.market.interpolator.CurveInterpolators.LINEAR;
 import static com.opengamma.strata.market.interpolator.CurveInterpolators.LOG_LINEAR;
+import static com.opengamma.strata.market.interpolator.CurveInterpolators.LOG_NATURAL_CUBIC_DISCOUNT_FACTOR;
+import static com.opengamma.strata.market.interpolator.CurveInterpolators.LOG_NATURAL_CUBIC_MONOTONE;
+import static com.opengamma.strata.market.interpolator.CurveInterpolators.NATURAL_CUBIC_SPLINE;
+import static com.opengamma.strata.market.interpolator.CurveInterpolators.NATURAL_SPLINE;
+import static com.opengamma.strata.market.interpolator.CurveInterpolators.PRODUCT_NATURAL_CUBIC_SPLINE;
+import static com.opengamma.strata.market.interpolator.CurveInterpolators.SQUARE_LINEAR;
+import static com.opengamma.strata.market.interpolator.CurveInterpolators.TIME_SQUARE;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
@@ -22,6 +29,7 @@ import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableMap;
 import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
 
 /**
  * Test {@link CurveInterpolator}.
@@ -90,6 +98,45 @@ public class CurveInterpolatorTest {
     assertNotNull(bound.toString());
   }
 
+  //-------------------------------------------------------------------------
+  @DataProvider(name = "batch")
+  static Object[][] data_batch() {
+    return new Object[][] {
+        {LINEAR},
+        {LOG_LINEAR},
+        {SQUARE_LINEAR},
+        {DOUBLE_QUADRATIC},
+        {TIME_SQUARE},
+        {NATURAL_CUBIC_SPLINE},
+        {NATURAL_SPLINE},
+        {LOG_NATURAL_CUBIC_MONOTONE},
+        {PRODUCT_NATURAL_CUBIC_SPLINE},
+        {LOG_NATURAL_CUBIC_DISCOUNT_FACTOR},
+    };
+  }
+
+  @Test(dataProvider = "batch")
+  public void test_bind_batch(CurveInterpolator interpolator) {
+    DoubleArray xValues = DoubleArray.of(0.5, 1d, 2d, 3d, 5d, 7d);
+    DoubleArray yValues = DoubleArray.of(0.03, 0.035, 0.034, 0.04, 0.038, 0.042);
+    BoundCurveInterpolator bound = interpolator.bind(
+        xValues, yValues, CurveExtrapolators.LINEAR, CurveExtrapolators.FLAT);
+    // sorted, then decreasing, including extrapolation and nodes
+    double[] x = {0.1, 0.5, 0.7, 1d, 1.5, 2.5, 2.6, 4d, 7d, 8d, 6d, 1.2, 0.3, 3d, 3d, 5.5};
+    double[] result = new double[x.length];
+    bound.interpolate(x, result);
+    DoubleMatrix sensitivities = bound.parameterSensitivity(x);
+    assertEquals(sensitivities.rowCount(), x.length);
+    for (int i = 0; i < x.length; i++) {
+      assertEquals(result[i], bound.interpolate(x[i]), 1e-14);
+      DoubleArray expected = bound.parameterSensitivity(x[i]);
+      for (int j = 0; j < expected.size(); j++) {
+        assertEquals(sensitivities.get(i, j), expected.get(j), 1e-14);
+      }
+    }
+    assertThrowsIllegalArg(() -> bound.interpolate(x, new double[x.length - 1]));
+  }
+
   //-------------------------------------------------------------------------
   public void coverage() {
     coverPrivateConstructor(CurveInterpolators.class);
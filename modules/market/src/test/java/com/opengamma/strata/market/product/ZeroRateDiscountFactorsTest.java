@@ -94,6 +94,26 @@ public class ZeroRateDiscountFactorsTest {
     assertEquals(test.discountFactor(DATE_AFTER), expected);
   }
 
+  public void test_discountFactors_batch() {
+    ZeroRateDiscountFactors test = ZeroRateDiscountFactors.of(GBP, DATE_VAL, CURVE);
+    double[] yearFractions = {0d, 0.25d, 2d, 1d, 5d, 12d};
+    double[] result = new double[yearFractions.length];
+    test.discountFactors(yearFractions, result);
+    for (int i = 0; i < yearFractions.length; i++) {
+      assertEquals(result[i], test.discountFactor(yearFractions[i]), TOL);
+    }
+  }
+
+  public void test_discountFactors_batch_inPlace() {
+    ZeroRateDiscountFactors test = ZeroRateDiscountFactors.of(GBP, DATE_VAL, CURVE);
+    double[] yearFractions = {0d, 0.25d, 2d, 1d, 5d, 12d};
+    double[] values = yearFractions.clone();
+    test.discountFactors(values, values);
+    for (int i = 0; i < yearFractions.length; i++) {
+      assertEquals(values[i], test.discountFactor(yearFractions[i]), TOL);
+    }
+  }
+
   //-------------------------------------------------------------------------
   public void test_zeroRate() {
     ZeroRateDiscountFactors test = ZeroRateDiscountFactors.of(GBP, DATE_VAL, CURVE);
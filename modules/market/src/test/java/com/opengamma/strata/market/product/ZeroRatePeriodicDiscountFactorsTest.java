@@ -128,6 +128,26 @@ public class ZeroRatePeriodicDiscountFactorsTest {
     assertEquals(test.discountFactor(DATE_AFTER), expected);
   }
 
+  public void test_discountFactors_batch() {
+    ZeroRatePeriodicDiscountFactors test = ZeroRatePeriodicDiscountFactors.of(GBP, DATE_VAL, CURVE);
+    double[] yearFractions = {0d, 0.25d, 2d, 1d, 5d, 12d};
+    double[] result = new double[yearFractions.length];
+    test.discountFactors(yearFractions, result);
+    for (int i = 0; i < yearFractions.length; i++) {
+      assertEquals(result[i], test.discountFactor(yearFractions[i]), TOLERANCE_DF);
+    }
+  }
+
+  public void test_discountFactors_batch_inPlace() {
+    ZeroRatePeriodicDiscountFactors test = ZeroRatePeriodicDiscountFactors.of(GBP, DATE_VAL, CURVE);
+    double[] yearFractions = {0d, 0.25d, 2d, 1d, 5d, 12d};
+    double[] values = yearFractions.clone();
+    test.discountFactors(values, values);
+    for (int i = 0; i < yearFractions.length; i++) {
+      assertEquals(values[i], test.discountFactor(yearFractions[i]), TOLERANCE_DF);
+    }
+  }
+
   //-------------------------------------------------------------------------
   public void test_zeroRate() {
     ZeroRatePeriodicDiscountFactors test = ZeroRatePeriodicDiscountFactors.of(GBP, DATE_VAL, CURVE);
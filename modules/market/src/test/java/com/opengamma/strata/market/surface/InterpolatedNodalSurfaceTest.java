@@ -133,6 +133,18 @@ public class InterpolatedNodalSurfaceTest {
     }
   }
 
+  public void test_lookup_batch() {
+    InterpolatedNodalSurface test = InterpolatedNodalSurface.of(METADATA, XVALUES, YVALUES, ZVALUES, INTERPOLATOR);
+    DoubleArray x = DoubleArray.of(0.5d, 1.5d, 3d, 1d, 3.5d);
+    DoubleArray y = DoubleArray.of(1.5d, 1.5d, 1.5d, 3.7d, 4d);
+    DoubleArray computed = test.zValues(x, y);
+    assertThat(computed.size()).isEqualTo(x.size());
+    for (int i = 0; i < x.size(); ++i) {
+      assertThat(computed.get(i)).isEqualTo(test.zValue(x.get(i), y.get(i)));
+    }
+    assertThrowsIllegalArg(() -> test.zValues(x, DoubleArray.of(1d)));
+  }
+
   //-------------------------------------------------------------------------
   public void test_withZValues() {
     InterpolatedNodalSurface base = InterpolatedNodalSurface.of(METADATA, XVALUES, YVALUES, ZVALUES, INTERPOLATOR);
@@ -0,0 +1,31 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.integration;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Integrator for 1-D functions of primitive {@code double}.
+ * <p>
+ * This is the primitive equivalent of {@link Integrator1D} with {@code Double} inputs and outputs.
+ * The function to integrate and the bounds are not boxed, thus no object is created per function evaluation.
+ * <p>
+ * Implementations are expected to be immutable and thread-safe so that a single instance can be
+ * reused across many integrations.
+ */
+public interface DoubleIntegrator1D {
+
+  /**
+   * Integrates the function between the bounds.
+   *
+   * @param f  the function to integrate
+   * @param lower  the lower bound
+   * @param upper  the upper bound
+   * @return the result of the integration
+   */
+  public abstract double integrate(DoubleUnaryOperator f, double lower, double upper);
+
+}
@@ -0,0 +1,189 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.integration;
+
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * Globally adaptive integrator based on the 7-point Gauss and 15-point Kronrod rules.
+ * <p>
+ * On each interval, the integral is estimated by the 15-point Kronrod rule and the error by the
+ * difference with the embedded 7-point Gauss rule. The interval with the largest error estimate is
+ * bisected until the sum of the error estimates is below the absolute tolerance or the relative
+ * tolerance multiplied by the value, or until the maximum number of intervals is reached.
+ * <p>
+ * The integration bounds must be finite.
+ * <p>
+ * The integration is also available on primitive functions through {@link DoubleIntegrator1D}.
+ * The integrator holds no state beyond its tolerances and can be shared.
+ */
+public class GaussKronrodIntegrator1D extends Integrator1D<Double, Double> implements DoubleIntegrator1D {
+
+  /** The Kronrod abscissas. The odd indices are the Gauss abscissas. */
+  private static final double[] XGK = {
+      0.991455371120812639206854697526329,
+      0.949107912342758524526189684047851,
+      0.864864423359769072789712788640926,
+      0.741531185599394439863864773280788,
+      0.586087235467691130294144845693013,
+      0.405845151377397166906606412076961,
+      0.207784955007898467600689403773245,
+      0.000000000000000000000000000000000};
+  /** The Kronrod weights. */
+  private static final double[] WGK = {
+      0.022935322010529224963732008058970,
+      0.063092092629978553290700663189204,
+      0.104790010322250183839876322541518,
+      0.140653259715525918745189590510238,
+      0.169004726639267902826583426598550,
+      0.190350578064785409913256402421014,
+      0.204432940075298892414161999234649,
+      0.209482141084727828012999174891714};
+  /** The Gauss weights. */
+  private static final double[] WG = {
+      0.129484966168869693270611432679082,
+      0.279705391489276667901467771423780,
+      0.381830050505118944950369775488975,
+      0.417959183673469387755102040816327};
+  private static final double DEF_TOL = 1e-10;
+  private static final int DEF_MAX_INTERVALS = 200;
+
+  private final double _absTol;
+  private final double _relTol;
+  private final int _maxIntervals;
+
+  /**
+   * Constructor from absolute and relative tolerance and maximal number of intervals.
+   *
+   * @param absTol  the absolute tolerance
+   * @param relTol  the relative tolerance
+   * @param maxIntervals  the maximal number of intervals
+   */
+  public GaussKronrodIntegrator1D(double absTol, double relTol, int maxIntervals) {
+    if (absTol < 0.0 || Double.isNaN(absTol) || Double.isInfinite(absTol)) {
+      throw new IllegalArgumentException("Absolute Tolerance must be greater than zero");
+    }
+    if (relTol < 0.0 || Double.isNaN(relTol) || Double.isInfinite(relTol)) {
+      throw new IllegalArgumentException("Relative Tolerance must be greater than zero");
+    }
+    if (maxIntervals < 1) {
+      throw new IllegalArgumentException("Must have maximum of at least 1 interval");
+    }
+    _absTol = absTol;
+    _relTol = relTol;
+    _maxIntervals = maxIntervals;
+  }
+
+  public GaussKronrodIntegrator1D(double absTol, double relTol) {
+    this(absTol, relTol, DEF_MAX_INTERVALS);
+  }
+
+  public GaussKronrodIntegrator1D(double tol) {
+    this(tol, tol, DEF_MAX_INTERVALS);
+  }
+
+  public GaussKronrodIntegrator1D() {
+    this(DEF_TOL, DEF_TOL, DEF_MAX_INTERVALS);
+  }
+
+  public double getRelativeTolerance() {
+    return _relTol;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public Double integrate(Function<Double, Double> f, Double lower, Double upper) {
+    ArgChecker.notNull(f, "f");
+    ArgChecker.notNull(lower, "lower");
+    ArgChecker.notNull(upper, "upper");
+    return integrate((DoubleUnaryOperator) x -> f.apply(x), lower.doubleValue(), upper.doubleValue());
+  }
+
+  @Override
+  public double integrate(DoubleUnaryOperator f, double lower, double upper) {
+    ArgChecker.notNull(f, "f");
+    if (Double.isNaN(lower) || Double.isInfinite(lower) || Double.isInfinite(upper) || Double.isNaN(upper)) {
+      throw new IllegalArgumentException("lower or upper was NaN or Inf");
+    }
+    if (lower == upper) {
+      return 0d;
+    }
+    double[] lowers = new double[_maxIntervals];
+    double[] uppers = new double[_maxIntervals];
+    double[] values = new double[_maxIntervals];
+    double[] errors = new double[_maxIntervals];
+    double[] estimate = new double[2];
+    kronrod(f, lower, upper, estimate);
+    lowers[0] = lower;
+    uppers[0] = upper;
+    values[0] = estimate[0];
+    errors[0] = estimate[1];
+    double total = estimate[0];
+    double totalError = estimate[1];
+    int nbIntervals = 1;
+    while (totalError > Math.max(_absTol, _relTol * Math.abs(total)) && nbIntervals < _maxIntervals) {
+      int worst = 0;
+      for (int i = 1; i < nbIntervals; i++) {
+        if (errors[i] > errors[worst]) {
+          worst = i;
+        }
+      }
+      double a = lowers[worst];
+      double b = uppers[worst];
+      double mid = 0.5 * (a + b);
+      if (mid == a || mid == b) {
+        break;  // interval cannot be split further at double precision
+      }
+      total -= values[worst];
+      totalError -= errors[worst];
+      kronrod(f, a, mid, estimate);
+      uppers[worst] = mid;
+      values[worst] = estimate[0];
+      errors[worst] = estimate[1];
+      total += estimate[0];
+      totalError += estimate[1];
+      kronrod(f, mid, b, estimate);
+      lowers[nbIntervals] = mid;
+      uppers[nbIntervals] = b;
+      values[nbIntervals] = estimate[0];
+      errors[nbIntervals] = estimate[1];
+      total += estimate[0];
+      totalError += estimate[1];
+      nbIntervals++;
+    }
+    return total;
+  }
+
+  // the 15-point Kronrod estimate and the error estimate on [a, b], written in the result array
+  private static void kronrod(DoubleUnaryOperator f, double a, double b, double[] result) {
+    double center = 0.5 * (a + b);
+    double halfLength = 0.5 * (b - a);
+    double fCenter = checkValue(f.applyAsDouble(center));
+    double resultKronrod = fCenter * WGK[7];
+    double resultGauss = fCenter * WG[3];
+    for (int j = 0; j < 7; j++) {
+      double dx = halfLength * XGK[j];
+      double fSum = checkValue(f.applyAsDouble(center - dx)) + checkValue(f.applyAsDouble(center + dx));
+      resultKronrod += WGK[j] * fSum;
+      if (j % 2 == 1) {
+        resultGauss += WG[j / 2] * fSum;
+      }
+    }
+    result[0] = resultKronrod * halfLength;
+    result[1] = Math.abs((resultKronrod - resultGauss) * halfLength);
+  }
+
+  private static double checkValue(double value) {
+    if (Double.isNaN(value) || Double.isInfinite(value)) {
+      throw new IllegalArgumentException("function evaluation returned NaN or Inf");
+    }
+    return value;
+  }
+
+}
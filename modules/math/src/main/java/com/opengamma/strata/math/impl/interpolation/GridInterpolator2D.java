@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.math.impl.interpolation;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
@@ -12,6 +13,7 @@ import java.util.TreeMap;
 
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.tuple.DoublesPair;
+import com.opengamma.strata.math.impl.interpolation.data.GridInterpolator2DDataBundle;
 import com.opengamma.strata.math.impl.interpolation.data.Interpolator1DDataBundle;
 
 /**
@@ -103,6 +105,164 @@ public class GridInterpolator2D extends Interpolator2D {
     return res;
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Creates the primitive data bundle of the points.
+   * <p>
+   * The points are grouped by x-value and sorted by y-value, and the y direction data bundles are built once.
+   * If several points have the same x-value and y-value, the last one is used.
+   *
+   * @param x  the x-values of the points
+   * @param y  the y-values of the points
+   * @param z  the z-values of the points
+   * @return the data bundle
+   */
+  public GridInterpolator2DDataBundle getDataBundle(double[] x, double[] y, double[] z) {
+    ArgChecker.notNull(x, "x");
+    ArgChecker.notNull(y, "y");
+    ArgChecker.notNull(z, "z");
+    int size = x.length;
+    ArgChecker.isTrue(size > 0, "data must not be empty");
+    ArgChecker.isTrue(size == y.length, "x and y must have the same length");
+    ArgChecker.isTrue(size == z.length, "x and z must have the same length");
+    // distinct x-values
+    double[] sortedX = x.clone();
+    Arrays.sort(sortedX);
+    int nbX = 1;
+    for (int i = 1; i < size; i++) {
+      if (Double.compare(sortedX[i], sortedX[nbX - 1]) != 0) {
+        sortedX[nbX++] = sortedX[i];
+      }
+    }
+    double[] xValues = Arrays.copyOf(sortedX, nbX);
+    // group the points by x-value
+    int[] slice = new int[size];
+    int[] counts = new int[nbX];
+    for (int i = 0; i < size; i++) {
+      slice[i] = Arrays.binarySearch(xValues, x[i]);
+      counts[slice[i]]++;
+    }
+    int[][] pointIndices = new int[nbX][];
+    for (int j = 0; j < nbX; j++) {
+      pointIndices[j] = new int[counts[j]];
+      counts[j] = 0;
+    }
+    // insertion sort by y-value within each slice, the slices are small
+    for (int i = 0; i < size; i++) {
+      int j = slice[i];
+      int[] indices = pointIndices[j];
+      int k = counts[j];
+      while (k > 0 && Double.compare(y[indices[k - 1]], y[i]) > 0) {
+        k--;
+      }
+      if (k > 0 && Double.compare(y[indices[k - 1]], y[i]) == 0) {
+        indices[k - 1] = i;
+      } else {
+        System.arraycopy(indices, k, indices, k + 1, counts[j] - k);
+        indices[k] = i;
+        counts[j]++;
+      }
+    }
+    Interpolator1DDataBundle[] ySlices = new Interpolator1DDataBundle[nbX];
+    for (int j = 0; j < nbX; j++) {
+      int[] indices = pointIndices[j].length == counts[j] ? pointIndices[j] : Arrays.copyOf(pointIndices[j], counts[j]);
+      pointIndices[j] = indices;
+      double[] ySlice = new double[indices.length];
+      double[] zSlice = new double[indices.length];
+      for (int k = 0; k < indices.length; k++) {
+        ySlice[k] = y[indices[k]];
+        zSlice[k] = z[indices[k]];
+      }
+      ySlices[j] = _yInterpolator.getDataBundleFromSortedArrays(ySlice, zSlice);
+    }
+    return new GridInterpolator2DDataBundle(size, xValues, ySlices, pointIndices);
+  }
+
+  /**
+   * Interpolates the z-value at a point.
+   * <p>
+   * The y direction data bundles are used directly, no map or boxed value is involved.
+   *
+   * @param data  the data bundle
+   * @param x  the x-value of the point
+   * @param y  the y-value of the point
+   * @return the z-value
+   */
+  public double interpolate(GridInterpolator2DDataBundle data, double x, double y) {
+    ArgChecker.notNull(data, "data bundle");
+    return _xInterpolator.interpolate(xDataBundle(data, y), x);
+  }
+
+  /**
+   * Interpolates the z-values at several points.
+   * <p>
+   * The x direction data bundle is only recomputed when the y-value differs from the one of the previous point.
+   * Grouping the points by y-value thus reduces the computation.
+   *
+   * @param data  the data bundle
+   * @param x  the x-values of the points
+   * @param y  the y-values of the points
+   * @return the z-values
+   */
+  public double[] interpolate(GridInterpolator2DDataBundle data, double[] x, double[] y) {
+    ArgChecker.notNull(data, "data bundle");
+    ArgChecker.notNull(x, "x");
+    ArgChecker.notNull(y, "y");
+    ArgChecker.isTrue(x.length == y.length, "x and y must have the same length");
+    double[] result = new double[x.length];
+    Interpolator1DDataBundle xData = null;
+    for (int i = 0; i < x.length; i++) {
+      if (i == 0 || Double.compare(y[i], y[i - 1]) != 0) {
+        xData = xDataBundle(data, y[i]);
+      }
+      result[i] = _xInterpolator.interpolate(xData, x[i]);
+    }
+    return result;
+  }
+
+  /**
+   * Computes the sensitivity of the z-value at a point to the z-values of the original points.
+   * <p>
+   * The sensitivities are in the order of the points used to create the data bundle.
+   *
+   * @param data  the data bundle
+   * @param x  the x-value of the point
+   * @param y  the y-value of the point
+   * @return the sensitivities
+   */
+  public double[] getNodeSensitivitiesForValue(GridInterpolator2DDataBundle data, double x, double y) {
+    ArgChecker.notNull(data, "data bundle");
+    double[] xValues = data.getXValues();
+    double[] sliceValues = new double[xValues.length];
+    double[][] ySensitivities = new double[xValues.length][];
+    for (int j = 0; j < xValues.length; j++) {
+      Interpolator1DDataBundle ySlice = data.getYSlice(j);
+      sliceValues[j] = _yInterpolator.interpolate(ySlice, y);
+      ySensitivities[j] = _yInterpolator.getNodeSensitivitiesForValue(ySlice, y);
+    }
+    double[] xSensitivities = _xInterpolator.getNodeSensitivitiesForValue(
+        _xInterpolator.getDataBundleFromSortedArrays(xValues, sliceValues), x);
+    double[] result = new double[data.size()];
+    for (int j = 0; j < xValues.length; j++) {
+      int[] indices = data.getPointIndices(j);
+      for (int k = 0; k < indices.length; k++) {
+        result[indices[k]] = xSensitivities[j] * ySensitivities[j][k];
+      }
+    }
+    return result;
+  }
+
+  // the x direction data bundle of the values interpolated on each slice
+  private Interpolator1DDataBundle xDataBundle(GridInterpolator2DDataBundle data, double y) {
+    double[] xValues = data.getXValues();
+    double[] sliceValues = new double[xValues.length];
+    for (int j = 0; j < xValues.length; j++) {
+      sliceValues[j] = _yInterpolator.interpolate(data.getYSlice(j), y);
+    }
+    return _xInterpolator.getDataBundleFromSortedArrays(xValues, sliceValues);
+  }
+
+  //-------------------------------------------------------------------------
   private Map<Double, Interpolator1DDataBundle> testData(final Map<DoublesPair, Double> data) {
     final Map<Double, Interpolator1DDataBundle> result = new TreeMap<>();
     final TreeMap<DoublesPair, Double> sorted = new TreeMap<>();
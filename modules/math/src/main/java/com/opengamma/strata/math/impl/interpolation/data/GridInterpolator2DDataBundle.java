@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.interpolation.data;
+
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * The data of a grid interpolator in two dimensions, held in primitive arrays.
+ * <p>
+ * The points are grouped in slices of constant x-value. Each slice is represented by a one dimensional
+ * data bundle in the y direction, precomputed once. The position of each node of a slice in the original
+ * point arrays is recorded, such that sensitivities can be returned in the order of the original points.
+ * <p>
+ * Instances are created by {@code GridInterpolator2D}. They are not modified after creation and can be shared
+ * between threads. The arrays returned by the getters must not be modified.
+ */
+public final class GridInterpolator2DDataBundle {
+
+  /**
+   * The number of original points.
+   */
+  private final int size;
+  /**
+   * The distinct x-values, sorted.
+   */
+  private final double[] xValues;
+  /**
+   * The y direction data bundles, one for each x-value.
+   */
+  private final Interpolator1DDataBundle[] ySlices;
+  /**
+   * The index in the original points of each node of the y direction data bundles.
+   */
+  private final int[][] pointIndices;
+
+  /**
+   * Creates an instance.
+   * <p>
+   * The arrays are not copied.
+   *
+   * @param size  the number of original points
+   * @param xValues  the distinct x-values, sorted
+   * @param ySlices  the y direction data bundles, one for each x-value
+   * @param pointIndices  the index in the original points of each node of the y direction data bundles
+   */
+  public GridInterpolator2DDataBundle(
+      int size,
+      double[] xValues,
+      Interpolator1DDataBundle[] ySlices,
+      int[][] pointIndices) {
+
+    ArgChecker.notNull(xValues, "xValues");
+    ArgChecker.notNull(ySlices, "ySlices");
+    ArgChecker.notNull(pointIndices, "pointIndices");
+    ArgChecker.isTrue(xValues.length == ySlices.length, "xValues and ySlices must have the same length");
+    ArgChecker.isTrue(xValues.length == pointIndices.length, "xValues and pointIndices must have the same length");
+    this.size = size;
+    this.xValues = xValues;
+    this.ySlices = ySlices;
+    this.pointIndices = pointIndices;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the number of original points.
+   *
+   * @return the number of points
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets the distinct x-values, sorted.
+   *
+   * @return the x-values
+   */
+  public double[] getXValues() {
+    return xValues;
+  }
+
+  /**
+   * Gets the y direction data bundle for an x-value.
+   *
+   * @param xIndex  the index of the x-value
+   * @return the data bundle
+   */
+  public Interpolator1DDataBundle getYSlice(int xIndex) {
+    return ySlices[xIndex];
+  }
+
+  /**
+   * Gets the index in the original points of the nodes of the y direction data bundle for an x-value.
+   *
+   * @param xIndex  the index of the x-value
+   * @return the point indices
+   */
+  public int[] getPointIndices(int xIndex) {
+    return pointIndices[xIndex];
+  }
+
+}
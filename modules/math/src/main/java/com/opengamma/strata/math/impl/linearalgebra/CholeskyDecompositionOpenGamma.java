@@ -5,6 +5,8 @@
  */
 package com.opengamma.strata.math.impl.linearalgebra;
 
+import java.util.stream.IntStream;
+
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.array.DoubleMatrix;
 
@@ -23,6 +25,14 @@ public class CholeskyDecompositionOpenGamma extends Decomposition<CholeskyDecomp
    * The default value for the threshold e_pos.
    */
   public static final double DEFAULT_POSITIVITY_THRESHOLD = 1.0E-10;
+  /**
+   * The number of elements updated by an elimination step above which the update is run in parallel.
+   */
+  private static final int PARALLEL_THRESHOLD = 1 << 16;
+  /**
+   * The number of rows updated by each parallel task.
+   */
+  private static final int PARALLEL_ROWS = 32;
 
   /**
    * {@inheritDoc}
@@ -64,13 +74,35 @@ public class CholeskyDecompositionOpenGamma extends Decomposition<CholeskyDecomp
       for (int looprow = loopcol + 1; looprow < nbRow; looprow++) { // Current column
         l[looprow][loopcol] *= lInverse;
       }
-      for (int j = loopcol + 1; j < nbRow; j++) { // Other columns
-        for (int i = j; i < nbRow; i++) {
-          l[i][j] -= l[i][loopcol] * l[j][loopcol];
-        }
+      // Other columns, updated by row so that the inner loop runs over contiguous memory
+      double[] column = new double[nbRow];
+      for (int j = loopcol + 1; j < nbRow; j++) {
+        column[j] = l[j][loopcol];
+      }
+      int pivot = loopcol;
+      int remaining = nbRow - loopcol - 1;
+      if ((long) remaining * remaining / 2 >= PARALLEL_THRESHOLD) {
+        int taskCount = (remaining + PARALLEL_ROWS - 1) / PARALLEL_ROWS;
+        IntStream.range(0, taskCount).parallel().forEach(task -> {
+          int start = pivot + 1 + task * PARALLEL_ROWS;
+          update(l, column, pivot, start, Math.min(start + PARALLEL_ROWS, nbRow));
+        });
+      } else {
+        update(l, column, pivot, pivot + 1, nbRow);
       }
     }
     return new CholeskyDecompositionOpenGammaResult(l);
   }
 
+  // updates the lower triangle of the rows in the range with the pivot column
+  private static void update(double[][] l, double[] column, int pivot, int startRow, int endRow) {
+    for (int i = startRow; i < endRow; i++) {
+      double[] row = l[i];
+      double factor = row[pivot];
+      for (int j = pivot + 1; j <= i; j++) {
+        row[j] -= factor * column[j];
+      }
+    }
+  }
+
 }
@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import java.util.stream.IntStream;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+
+/**
+ * OpenGamma implementation of LU decomposition with partial pivoting.
+ * <p>
+ * The decomposition is $\mathbf{P}\mathbf{A} = \mathbf{L}\mathbf{U}$, computed in place on a copy
+ * of the rows of the matrix. The elimination is right-looking, so each step updates whole rows
+ * and the inner loop runs over contiguous memory. Rows are swapped by reference rather than by copying.
+ * <p>
+ * For large matrices the update of the rows below the pivot is split between the threads of the common fork-join pool.
+ */
+public class LUDecompositionOpenGamma extends Decomposition<LUDecompositionResult> {
+
+  /**
+   * The default value of the threshold below which the absolute value of a pivot is considered zero,
+   * in which case the matrix is singular. This is the threshold used by the Commons implementation.
+   */
+  public static final double DEFAULT_SINGULARITY_THRESHOLD = 1.0E-11;
+  /**
+   * The number of elements updated by an elimination step above which the update is run in parallel.
+   */
+  private static final int PARALLEL_THRESHOLD = 1 << 16;
+  /**
+   * The number of rows updated by each parallel task.
+   */
+  private static final int PARALLEL_ROWS = 32;
+
+  @Override
+  public LUDecompositionResult apply(DoubleMatrix x) {
+    return evaluate(x, DEFAULT_SINGULARITY_THRESHOLD);
+  }
+
+  /**
+   * Performs the decomposition with a given singularity threshold.
+   *
+   * @param x  the matrix to decompose
+   * @param singularityThreshold  the threshold below which the absolute value of a pivot is considered zero
+   * @return the LU decomposition
+   * @throws IllegalArgumentException if the matrix is not square or is singular
+   */
+  public LUDecompositionResult evaluate(DoubleMatrix x, double singularityThreshold) {
+    ArgChecker.notNull(x, "x");
+    ArgChecker.isTrue(x.isSquare(), "Matrix must be square");
+    int size = x.rowCount();
+    double[][] lu = x.toArray();
+    int[] pivot = IntStream.range(0, size).toArray();
+    boolean evenSwaps = true;
+    for (int k = 0; k < size; k++) {
+      // partial pivoting
+      int pivotRow = k;
+      double pivotAbs = Math.abs(lu[k][k]);
+      for (int i = k + 1; i < size; i++) {
+        double abs = Math.abs(lu[i][k]);
+        if (abs > pivotAbs) {
+          pivotRow = i;
+          pivotAbs = abs;
+        }
+      }
+      ArgChecker.isTrue(pivotAbs > singularityThreshold, "Matrix is singular; could not perform LU decomposition");
+      if (pivotRow != k) {
+        double[] row = lu[pivotRow];
+        lu[pivotRow] = lu[k];
+        lu[k] = row;
+        int index = pivot[pivotRow];
+        pivot[pivotRow] = pivot[k];
+        pivot[k] = index;
+        evenSwaps = !evenSwaps;
+      }
+      // elimination of the rows below the pivot
+      int step = k;
+      int remaining = size - k - 1;
+      if ((long) remaining * remaining >= PARALLEL_THRESHOLD) {
+        int taskCount = (remaining + PARALLEL_ROWS - 1) / PARALLEL_ROWS;
+        IntStream.range(0, taskCount).parallel().forEach(task -> {
+          int start = step + 1 + task * PARALLEL_ROWS;
+          eliminate(lu, step, start, Math.min(start + PARALLEL_ROWS, size));
+        });
+      } else {
+        eliminate(lu, step, step + 1, size);
+      }
+    }
+    return new LUDecompositionOpenGammaResult(lu, pivot, evenSwaps);
+  }
+
+  // eliminates the pivot column from the rows in the range, storing the multipliers in place
+  private static void eliminate(double[][] lu, int step, int startRow, int endRow) {
+    double[] pivotRow = lu[step];
+    double pivot = pivotRow[step];
+    int size = pivotRow.length;
+    for (int i = startRow; i < endRow; i++) {
+      double[] row = lu[i];
+      double multiplier = row[step] / pivot;
+      row[step] = multiplier;
+      if (multiplier != 0d) {
+        for (int j = step + 1; j < size; j++) {
+          row[j] -= multiplier * pivotRow[j];
+        }
+      }
+    }
+  }
+
+}
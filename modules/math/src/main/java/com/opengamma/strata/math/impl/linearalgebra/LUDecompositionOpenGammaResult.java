@@ -0,0 +1,158 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+
+/**
+ * Results of the OpenGamma implementation of LU decomposition ({@link LUDecompositionOpenGamma}).
+ * <p>
+ * The factors are held in a single array, with $\mathbf{U}$ on and above the diagonal and
+ * $\mathbf{L}$ below the diagonal. The diagonal of $\mathbf{L}$ is one and is not stored.
+ */
+public class LUDecompositionOpenGammaResult implements LUDecompositionResult {
+
+  /**
+   * The factors L and U, by row.
+   */
+  private final double[][] lu;
+  /**
+   * The row of the original matrix at each row of the factors.
+   */
+  private final int[] pivot;
+  /**
+   * Whether the pivoting performed an even number of row swaps.
+   */
+  private final boolean evenSwaps;
+
+  /**
+   * Creates an instance.
+   *
+   * @param lu  the factors L and U, by row
+   * @param pivot  the row of the original matrix at each row of the factors
+   * @param evenSwaps  whether the pivoting performed an even number of row swaps
+   */
+  LUDecompositionOpenGammaResult(double[][] lu, int[] pivot, boolean evenSwaps) {
+    this.lu = lu;
+    this.pivot = pivot;
+    this.evenSwaps = evenSwaps;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public DoubleMatrix getL() {
+    int size = lu.length;
+    return DoubleMatrix.of(size, size, (i, j) -> i == j ? 1d : (j < i ? lu[i][j] : 0d));
+  }
+
+  @Override
+  public DoubleMatrix getU() {
+    int size = lu.length;
+    return DoubleMatrix.of(size, size, (i, j) -> j >= i ? lu[i][j] : 0d);
+  }
+
+  @Override
+  public DoubleMatrix getP() {
+    int size = lu.length;
+    return DoubleMatrix.of(size, size, (i, j) -> pivot[i] == j ? 1d : 0d);
+  }
+
+  @Override
+  public int[] getPivot() {
+    return pivot.clone();
+  }
+
+  @Override
+  public double getDeterminant() {
+    double determinant = evenSwaps ? 1d : -1d;
+    for (int i = 0; i < lu.length; i++) {
+      determinant *= lu[i][i];
+    }
+    return determinant;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public DoubleArray solve(DoubleArray b) {
+    ArgChecker.notNull(b, "b");
+    return DoubleArray.ofUnsafe(solve(b.toArrayUnsafe()));
+  }
+
+  @Override
+  public double[] solve(double[] b) {
+    ArgChecker.notNull(b, "b");
+    int size = lu.length;
+    ArgChecker.isTrue(b.length == size, "b array of incorrect size");
+    double[] x = new double[size];
+    // L y = P b
+    for (int i = 0; i < size; i++) {
+      double[] row = lu[i];
+      double sum = b[pivot[i]];
+      for (int j = 0; j < i; j++) {
+        sum -= row[j] * x[j];
+      }
+      x[i] = sum;
+    }
+    // U x = y
+    for (int i = size - 1; i >= 0; i--) {
+      double[] row = lu[i];
+      double sum = x[i];
+      for (int j = i + 1; j < size; j++) {
+        sum -= row[j] * x[j];
+      }
+      x[i] = sum / row[i];
+    }
+    return x;
+  }
+
+  @Override
+  public DoubleMatrix solve(DoubleMatrix b) {
+    ArgChecker.notNull(b, "b");
+    int size = lu.length;
+    ArgChecker.isTrue(b.rowCount() == size, "b matrix of incorrect size");
+    int columnCount = b.columnCount();
+    double[][] x = new double[size][];
+    for (int i = 0; i < size; i++) {
+      x[i] = b.row(pivot[i]).toArray();
+    }
+    // L Y = P B, all the columns being processed together so that each step updates a row
+    for (int i = 0; i < size; i++) {
+      double[] row = lu[i];
+      double[] xRow = x[i];
+      for (int j = 0; j < i; j++) {
+        double factor = row[j];
+        if (factor != 0d) {
+          double[] yRow = x[j];
+          for (int c = 0; c < columnCount; c++) {
+            xRow[c] -= factor * yRow[c];
+          }
+        }
+      }
+    }
+    // U X = Y
+    for (int i = size - 1; i >= 0; i--) {
+      double[] row = lu[i];
+      double[] xRow = x[i];
+      for (int j = i + 1; j < size; j++) {
+        double factor = row[j];
+        if (factor != 0d) {
+          double[] yRow = x[j];
+          for (int c = 0; c < columnCount; c++) {
+            xRow[c] -= factor * yRow[c];
+          }
+        }
+      }
+      double diagonal = row[i];
+      for (int c = 0; c < columnCount; c++) {
+        xRow[c] /= diagonal;
+      }
+    }
+    return DoubleMatrix.ofUnsafe(x);
+  }
+
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import java.util.stream.IntStream;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+
+/**
+ * OpenGamma implementation of QR decomposition using Householder reflections.
+ * <p>
+ * The decomposition is $\mathbf{A} = \mathbf{Q}\mathbf{R}$, computed in place on a copy of
+ * the transpose of the matrix, so that each reflection works on contiguous memory.
+ * The Householder vectors are kept in place of the eliminated elements and $\mathbf{Q}$
+ * is only formed when requested.
+ * <p>
+ * For large matrices the application of each reflection to the remaining columns is split
+ * between the threads of the common fork-join pool.
+ */
+public class QRDecompositionOpenGamma extends Decomposition<QRDecompositionResult> {
+
+  /**
+   * The number of elements updated by a reflection above which the update is run in parallel.
+   */
+  private static final int PARALLEL_THRESHOLD = 1 << 16;
+  /**
+   * The number of columns updated by each parallel task.
+   */
+  private static final int PARALLEL_COLUMNS = 32;
+
+  @Override
+  public QRDecompositionResult apply(DoubleMatrix x) {
+    ArgChecker.notNull(x, "x");
+    int rowCount = x.rowCount();
+    int columnCount = x.columnCount();
+    // each row of qrt is a column of the matrix
+    double[][] qrt = x.transpose().toArray();
+    int minor = Math.min(rowCount, columnCount);
+    double[] rDiagonal = new double[minor];
+    for (int k = 0; k < minor; k++) {
+      double[] householder = qrt[k];
+      double normSquared = 0d;
+      for (int i = k; i < rowCount; i++) {
+        normSquared += householder[i] * householder[i];
+      }
+      double alpha = householder[k] > 0 ? -Math.sqrt(normSquared) : Math.sqrt(normSquared);
+      rDiagonal[k] = alpha;
+      if (alpha != 0d) {
+        householder[k] -= alpha;
+        int step = k;
+        int remaining = columnCount - k - 1;
+        if ((long) remaining * (rowCount - k) >= PARALLEL_THRESHOLD) {
+          int taskCount = (remaining + PARALLEL_COLUMNS - 1) / PARALLEL_COLUMNS;
+          IntStream.range(0, taskCount).parallel().forEach(task -> {
+            int start = step + 1 + task * PARALLEL_COLUMNS;
+            reflect(qrt, step, alpha, start, Math.min(start + PARALLEL_COLUMNS, columnCount));
+          });
+        } else {
+          reflect(qrt, step, alpha, step + 1, columnCount);
+        }
+      }
+    }
+    return new QRDecompositionOpenGammaResult(qrt, rDiagonal, rowCount);
+  }
+
+  // applies the reflection of the step to the columns in the range
+  private static void reflect(double[][] qrt, int step, double alpha, int startColumn, int endColumn) {
+    double[] householder = qrt[step];
+    int rowCount = householder.length;
+    double scale = alpha * householder[step];
+    for (int j = startColumn; j < endColumn; j++) {
+      double[] column = qrt[j];
+      double dot = 0d;
+      for (int i = step; i < rowCount; i++) {
+        dot += column[i] * householder[i];
+      }
+      // the squared norm of the Householder vector is -2 alpha v_k
+      double factor = dot / scale;
+      for (int i = step; i < rowCount; i++) {
+        column[i] += factor * householder[i];
+      }
+    }
+  }
+
+}
@@ -0,0 +1,189 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import java.util.Arrays;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+
+/**
+ * Results of the OpenGamma implementation of QR decomposition ({@link QRDecompositionOpenGamma}).
+ * <p>
+ * The factors are held by column, with $\mathbf{R}$ above the diagonal and the Householder vectors
+ * on and below the diagonal. The diagonal of $\mathbf{R}$ is held separately.
+ * <p>
+ * The solution of $\mathbf{A}x = b$ is the least squares solution, which requires the matrix to have
+ * at least as many rows as columns and to be of full rank.
+ */
+public class QRDecompositionOpenGammaResult implements QRDecompositionResult {
+
+  /**
+   * The factors by column, each column having the length of a column of the original matrix.
+   */
+  private final double[][] qrt;
+  /**
+   * The diagonal of R.
+   */
+  private final double[] rDiagonal;
+  /**
+   * The number of rows of the original matrix.
+   */
+  private final int rowCount;
+
+  /**
+   * Creates an instance.
+   *
+   * @param qrt  the factors by column
+   * @param rDiagonal  the diagonal of R
+   * @param rowCount  the number of rows of the original matrix
+   */
+  QRDecompositionOpenGammaResult(double[][] qrt, double[] rDiagonal, int rowCount) {
+    this.qrt = qrt;
+    this.rDiagonal = rDiagonal;
+    this.rowCount = rowCount;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public DoubleMatrix getR() {
+    return DoubleMatrix.of(rowCount, qrt.length, (i, j) -> j > i ? qrt[j][i] : (i == j ? rDiagonal[i] : 0d));
+  }
+
+  @Override
+  public DoubleMatrix getQ() {
+    return getQT().transpose();
+  }
+
+  @Override
+  public DoubleMatrix getQT() {
+    double[][] qt = new double[rowCount][rowCount];
+    for (int k = rowCount - 1; k >= rDiagonal.length; k--) {
+      qt[k][k] = 1d;
+    }
+    // the reflections are applied in reverse order to the rows of the identity
+    for (int k = rDiagonal.length - 1; k >= 0; k--) {
+      qt[k][k] = 1d;
+      if (rDiagonal[k] != 0d) {
+        double[] householder = qrt[k];
+        double scale = rDiagonal[k] * householder[k];
+        for (int j = k; j < rowCount; j++) {
+          double[] row = qt[j];
+          double dot = 0d;
+          for (int i = k; i < rowCount; i++) {
+            dot += row[i] * householder[i];
+          }
+          double factor = dot / scale;
+          for (int i = k; i < rowCount; i++) {
+            row[i] += factor * householder[i];
+          }
+        }
+      }
+    }
+    return DoubleMatrix.ofUnsafe(qt);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public DoubleArray solve(DoubleArray b) {
+    ArgChecker.notNull(b, "b");
+    return DoubleArray.ofUnsafe(solve(b.toArrayUnsafe()));
+  }
+
+  @Override
+  public double[] solve(double[] b) {
+    ArgChecker.notNull(b, "b");
+    ArgChecker.isTrue(b.length == rowCount, "b array of incorrect size");
+    checkNonSingular();
+    double[] y = b.clone();
+    // y = Q^T b
+    for (int k = 0; k < rDiagonal.length; k++) {
+      double[] householder = qrt[k];
+      double dot = 0d;
+      for (int i = k; i < rowCount; i++) {
+        dot += y[i] * householder[i];
+      }
+      double factor = dot / (rDiagonal[k] * householder[k]);
+      for (int i = k; i < rowCount; i++) {
+        y[i] += factor * householder[i];
+      }
+    }
+    // R x = y
+    double[] x = new double[qrt.length];
+    for (int k = rDiagonal.length - 1; k >= 0; k--) {
+      double value = y[k] / rDiagonal[k];
+      x[k] = value;
+      double[] column = qrt[k];
+      for (int i = 0; i < k; i++) {
+        y[i] -= value * column[i];
+      }
+    }
+    return x;
+  }
+
+  @Override
+  public DoubleMatrix solve(DoubleMatrix b) {
+    ArgChecker.notNull(b, "b");
+    ArgChecker.isTrue(b.rowCount() == rowCount, "b matrix of incorrect size");
+    checkNonSingular();
+    int columnCount = b.columnCount();
+    double[][] y = b.toArray();
+    // Y = Q^T B, all the columns being processed together so that each step runs along rows
+    double[] dots = new double[columnCount];
+    for (int k = 0; k < rDiagonal.length; k++) {
+      double[] householder = qrt[k];
+      Arrays.fill(dots, 0d);
+      for (int i = k; i < rowCount; i++) {
+        double[] row = y[i];
+        double value = householder[i];
+        for (int c = 0; c < columnCount; c++) {
+          dots[c] += row[c] * value;
+        }
+      }
+      double scale = rDiagonal[k] * householder[k];
+      for (int c = 0; c < columnCount; c++) {
+        dots[c] /= scale;
+      }
+      for (int i = k; i < rowCount; i++) {
+        double[] row = y[i];
+        double value = householder[i];
+        for (int c = 0; c < columnCount; c++) {
+          row[c] += dots[c] * value;
+        }
+      }
+    }
+    // R X = Y
+    double[][] x = new double[qrt.length][columnCount];
+    for (int k = rDiagonal.length - 1; k >= 0; k--) {
+      double[] row = y[k];
+      double diagonal = rDiagonal[k];
+      for (int c = 0; c < columnCount; c++) {
+        row[c] /= diagonal;
+      }
+      System.arraycopy(row, 0, x[k], 0, columnCount);
+      double[] column = qrt[k];
+      for (int i = 0; i < k; i++) {
+        double factor = column[i];
+        if (factor != 0d) {
+          double[] target = y[i];
+          for (int c = 0; c < columnCount; c++) {
+            target[c] -= row[c] * factor;
+          }
+        }
+      }
+    }
+    return DoubleMatrix.ofUnsafe(x);
+  }
+
+  // the least squares solution requires R to be non-singular
+  private void checkNonSingular() {
+    for (double diagonal : rDiagonal) {
+      ArgChecker.isTrue(diagonal != 0d, "Matrix is singular; could not solve using QR decomposition");
+    }
+  }
+
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.impl.MathException;
+
+/**
+ * OpenGamma implementation of singular value decomposition using one-sided Jacobi rotations.
+ * <p>
+ * The decomposition is $\mathbf{A} = \mathbf{U}\mathbf{\Sigma}\mathbf{V}^T$ in its compact form,
+ * where $\mathbf{U}$ is $m \times p$, $\mathbf{\Sigma}$ is $p \times p$ and $\mathbf{V}$ is $n \times p$,
+ * with $p = \min(m, n)$, as in the Commons implementation.
+ * <p>
+ * The columns of the matrix, or of its transpose if it has more columns than rows, are held as
+ * contiguous arrays and rotated in pairs until they are orthogonal. The singular values are then
+ * the norms of the columns. The method is slower than bidiagonalization for large matrices but
+ * computes the small singular values to high relative accuracy. The singular vectors of the singular
+ * values at the level of rounding errors are completed to an orthonormal set.
+ */
+public class SVDecompositionOpenGamma extends Decomposition<SVDecompositionResult> {
+
+  /**
+   * The relative accuracy of the orthogonality of the columns.
+   */
+  private static final double EPS = Math.ulp(1d);
+  /**
+   * The maximum number of sweeps through the pairs of columns.
+   */
+  private static final int MAX_SWEEPS = 100;
+
+  @Override
+  public SVDecompositionResult apply(DoubleMatrix x) {
+    ArgChecker.notNull(x, "x");
+    MatrixValidate.notNaNOrInfinite(x);
+    int rowCount = x.rowCount();
+    int columnCount = x.columnCount();
+    boolean wide = rowCount < columnCount;
+    // the columns of A, or of A^T if A is wide, each held as a row
+    double[][] w = wide ? x.toArray() : x.transpose().toArray();
+    int size = w.length;
+    int length = wide ? columnCount : rowCount;
+    double[][] vt = new double[size][size];
+    for (int i = 0; i < size; i++) {
+      vt[i][i] = 1d;
+    }
+    // columns whose norm is at the level of rounding errors cannot be made orthogonal and are negligible
+    double frobeniusSquared = 0d;
+    for (double[] column : w) {
+      frobeniusSquared += dot(column, column);
+    }
+    double negligibleSquared = EPS * EPS * frobeniusSquared;
+    boolean rotated = true;
+    for (int sweep = 0; rotated; sweep++) {
+      if (sweep == MAX_SWEEPS) {
+        throw new MathException("Singular value decomposition did not converge");
+      }
+      rotated = false;
+      for (int p = 0; p < size - 1; p++) {
+        for (int q = p + 1; q < size; q++) {
+          double alpha = dot(w[p], w[p]);
+          double beta = dot(w[q], w[q]);
+          double gamma = dot(w[p], w[q]);
+          boolean negligible = alpha <= negligibleSquared || beta <= negligibleSquared;
+          if (negligible || Math.abs(gamma) <= EPS * Math.sqrt(alpha * beta)) {
+            continue;
+          }
+          rotated = true;
+          // the rotation that makes the columns orthogonal, choosing the smaller angle
+          double zeta = (beta - alpha) / (2d * gamma);
+          double t = (zeta >= 0d ? 1d : -1d) / (Math.abs(zeta) + Math.hypot(1d, zeta));
+          double c = 1d / Math.sqrt(1d + t * t);
+          double s = c * t;
+          rotate(w[p], w[q], c, s);
+          rotate(vt[p], vt[q], c, s);
+        }
+      }
+    }
+    // singular values in non-increasing order
+    double[] norms = new double[size];
+    for (int j = 0; j < size; j++) {
+      norms[j] = Math.sqrt(dot(w[j], w[j]));
+    }
+    int[] order = IntStream.range(0, size)
+        .boxed()
+        .sorted(Comparator.comparingDouble(j -> -norms[j]))
+        .mapToInt(j -> j)
+        .toArray();
+    double[] singularValues = new double[size];
+    double[][] left = new double[size][];
+    double[][] right = new double[size][];
+    for (int k = 0; k < size; k++) {
+      int j = order[k];
+      singularValues[k] = norms[j];
+      right[k] = vt[j];
+      if (norms[j] * norms[j] > negligibleSquared) {
+        double[] column = w[j];
+        for (int i = 0; i < length; i++) {
+          column[i] /= norms[j];
+        }
+        left[k] = column;
+      }
+    }
+    complete(left, length);
+    // the singular vectors are held by column
+    return wide ?
+        new SVDecompositionOpenGammaResult(right, singularValues, left) :
+        new SVDecompositionOpenGammaResult(left, singularValues, right);
+  }
+
+  // the scalar product of two vectors
+  private static double dot(double[] a, double[] b) {
+    double sum = 0d;
+    for (int i = 0; i < a.length; i++) {
+      sum += a[i] * b[i];
+    }
+    return sum;
+  }
+
+  // applies a plane rotation to two vectors
+  private static void rotate(double[] a, double[] b, double c, double s) {
+    for (int i = 0; i < a.length; i++) {
+      double ai = a[i];
+      double bi = b[i];
+      a[i] = c * ai - s * bi;
+      b[i] = s * ai + c * bi;
+    }
+  }
+
+  // replaces the missing vectors, those of negligible singular values, by orthonormal vectors
+  private static void complete(double[][] vectors, int length) {
+    int candidate = 0;
+    for (int k = 0; k < vectors.length; k++) {
+      while (vectors[k] == null) {
+        ArgChecker.isTrue(candidate < length, "Unable to complete the singular vectors");
+        double[] vector = new double[length];
+        vector[candidate++] = 1d;
+        // Gram-Schmidt, applied twice for numerical orthogonality
+        for (int pass = 0; pass < 2; pass++) {
+          for (double[] other : vectors) {
+            if (other != null) {
+              double projection = dot(vector, other);
+              for (int i = 0; i < length; i++) {
+                vector[i] -= projection * other[i];
+              }
+            }
+          }
+        }
+        double norm = Math.sqrt(dot(vector, vector));
+        if (norm > 0.5) {
+          for (int i = 0; i < length; i++) {
+            vector[i] /= norm;
+          }
+          vectors[k] = vector;
+        }
+      }
+    }
+  }
+
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import java.util.Arrays;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+
+/**
+ * Results of the OpenGamma implementation of singular value decomposition ({@link SVDecompositionOpenGamma}).
+ * <p>
+ * The solution of $\mathbf{A}x = b$ uses the pseudo-inverse, the singular values below the
+ * threshold of the {@linkplain #getRank() rank} being treated as zero.
+ */
+public class SVDecompositionOpenGammaResult implements SVDecompositionResult {
+
+  /**
+   * The columns of U.
+   */
+  private final double[][] uColumns;
+  /**
+   * The singular values, in non-increasing order.
+   */
+  private final double[] singularValues;
+  /**
+   * The columns of V.
+   */
+  private final double[][] vColumns;
+
+  /**
+   * Creates an instance.
+   *
+   * @param uColumns  the columns of U
+   * @param singularValues  the singular values, in non-increasing order
+   * @param vColumns  the columns of V
+   */
+  SVDecompositionOpenGammaResult(double[][] uColumns, double[] singularValues, double[][] vColumns) {
+    this.uColumns = uColumns;
+    this.singularValues = singularValues;
+    this.vColumns = vColumns;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public DoubleMatrix getU() {
+    return getUT().transpose();
+  }
+
+  @Override
+  public DoubleMatrix getUT() {
+    return DoubleMatrix.copyOf(uColumns);
+  }
+
+  @Override
+  public DoubleMatrix getS() {
+    return DoubleMatrix.diagonal(DoubleArray.copyOf(singularValues));
+  }
+
+  @Override
+  public double[] getSingularValues() {
+    return singularValues.clone();
+  }
+
+  @Override
+  public DoubleMatrix getV() {
+    return getVT().transpose();
+  }
+
+  @Override
+  public DoubleMatrix getVT() {
+    return DoubleMatrix.copyOf(vColumns);
+  }
+
+  @Override
+  public double getNorm() {
+    return singularValues[0];
+  }
+
+  @Override
+  public double getConditionNumber() {
+    return singularValues[0] / singularValues[singularValues.length - 1];
+  }
+
+  @Override
+  public int getRank() {
+    double threshold = threshold();
+    int rank = 0;
+    for (double singularValue : singularValues) {
+      if (singularValue > threshold) {
+        rank++;
+      }
+    }
+    return rank;
+  }
+
+  // the threshold below which singular values are negligible
+  private double threshold() {
+    return Math.max(uColumns[0].length, vColumns[0].length) * Math.ulp(singularValues[0]);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public DoubleArray solve(DoubleArray b) {
+    ArgChecker.notNull(b, "b");
+    return DoubleArray.ofUnsafe(solve(b.toArrayUnsafe()));
+  }
+
+  @Override
+  public double[] solve(double[] b) {
+    ArgChecker.notNull(b, "b");
+    ArgChecker.isTrue(b.length == uColumns[0].length, "b array of incorrect size");
+    double threshold = threshold();
+    double[] x = new double[vColumns[0].length];
+    // x = V S^-1 U^T b, ignoring the negligible singular values
+    for (int k = 0; k < singularValues.length && singularValues[k] > threshold; k++) {
+      double[] u = uColumns[k];
+      double y = 0d;
+      for (int i = 0; i < u.length; i++) {
+        y += u[i] * b[i];
+      }
+      y /= singularValues[k];
+      double[] v = vColumns[k];
+      for (int i = 0; i < v.length; i++) {
+        x[i] += v[i] * y;
+      }
+    }
+    return x;
+  }
+
+  @Override
+  public DoubleMatrix solve(DoubleMatrix b) {
+    ArgChecker.notNull(b, "b");
+    ArgChecker.isTrue(b.rowCount() == uColumns[0].length, "b matrix of incorrect size");
+    double threshold = threshold();
+    int columnCount = b.columnCount();
+    double[][] bArray = b.toArrayUnsafe();
+    double[][] x = new double[vColumns[0].length][columnCount];
+    double[] y = new double[columnCount];
+    // X = V S^-1 U^T B, one singular value at a time so that each step runs along rows
+    for (int k = 0; k < singularValues.length && singularValues[k] > threshold; k++) {
+      double[] u = uColumns[k];
+      Arrays.fill(y, 0d);
+      for (int i = 0; i < u.length; i++) {
+        double[] row = bArray[i];
+        double factor = u[i];
+        for (int c = 0; c < columnCount; c++) {
+          y[c] += factor * row[c];
+        }
+      }
+      for (int c = 0; c < columnCount; c++) {
+        y[c] /= singularValues[k];
+      }
+      double[] v = vColumns[k];
+      for (int i = 0; i < v.length; i++) {
+        double[] row = x[i];
+        double factor = v[i];
+        for (int c = 0; c < columnCount; c++) {
+          row[c] += factor * y[c];
+        }
+      }
+    }
+    return DoubleMatrix.ofUnsafe(x);
+  }
+
+}
@@ -0,0 +1,441 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.matrix;
+
+import java.util.stream.IntStream;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.collect.array.Matrix;
+import com.opengamma.strata.math.impl.linearalgebra.LUDecompositionOpenGamma;
+import com.opengamma.strata.math.impl.linearalgebra.SVDecompositionOpenGamma;
+import com.opengamma.strata.math.impl.linearalgebra.TridiagonalMatrix;
+
+/**
+ * A pure Java implementation of matrix algebra that operates directly on the rows of {@link DoubleMatrix}.
+ * <p>
+ * Multiplication is cache-blocked, so that blocks of the operands are reused while they are held in cache,
+ * and the inner loop always runs along a row. Each element of a product is summed in the same order as
+ * {@link OGMatrixAlgebra}, so the results are identical. Large products are split by blocks of rows
+ * between the threads of the common fork-join pool.
+ * <p>
+ * The inverse, determinant and condition number use {@link LUDecompositionOpenGamma} and
+ * {@link SVDecompositionOpenGamma}. Unlike {@link CommonsMatrixAlgebra}, no copy of the data is made
+ * to convert to and from another matrix representation.
+ */
+public class BlockedMatrixAlgebra extends MatrixAlgebra {
+
+  /**
+   * The size of the square blocks of the operands.
+   */
+  private static final int BLOCK_SIZE = 64;
+  /**
+   * The number of multiplications above which a product is calculated in parallel.
+   */
+  private static final long PARALLEL_THRESHOLD = 1L << 20;
+  /**
+   * The algebra used for tridiagonal matrices.
+   */
+  private static final OGMatrixAlgebra OG_ALGEBRA = new OGMatrixAlgebra();
+  /**
+   * The LU decomposition.
+   */
+  private static final LUDecompositionOpenGamma LU = new LUDecompositionOpenGamma();
+  /**
+   * The singular value decomposition.
+   */
+  private static final SVDecompositionOpenGamma SVD = new SVDecompositionOpenGamma();
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double getCondition(Matrix m) {
+    ArgChecker.notNull(m, "m");
+    if (m instanceof DoubleMatrix) {
+      return SVD.apply((DoubleMatrix) m).getConditionNumber();
+    }
+    throw new IllegalArgumentException("Can only find condition number of DoubleMatrix; have " + m.getClass());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double getDeterminant(Matrix m) {
+    ArgChecker.notNull(m, "m");
+    if (m instanceof DoubleMatrix) {
+      DoubleMatrix matrix = (DoubleMatrix) m;
+      ArgChecker.isTrue(matrix.isSquare(), "Matrix not square");
+      try {
+        return LU.evaluate(matrix, 0d).getDeterminant();
+      } catch (IllegalArgumentException ex) {
+        // a zero pivot, the matrix is singular
+        return 0d;
+      }
+    }
+    throw new IllegalArgumentException("Can only find determinant of DoubleMatrix; have " + m.getClass());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double getInnerProduct(Matrix m1, Matrix m2) {
+    ArgChecker.notNull(m1, "m1");
+    ArgChecker.notNull(m2, "m2");
+    if (m1 instanceof DoubleArray && m2 instanceof DoubleArray) {
+      double[] array1 = ((DoubleArray) m1).toArrayUnsafe();
+      double[] array2 = ((DoubleArray) m2).toArrayUnsafe();
+      ArgChecker.isTrue(array1.length == array2.length, "Vector size mismatch");
+      double sum = 0d;
+      for (int i = 0; i < array1.length; i++) {
+        sum += array1[i] * array2[i];
+      }
+      return sum;
+    }
+    throw new IllegalArgumentException("Can only find inner product of DoubleArray; have " + m1.getClass() +
+        " and " + m2.getClass());
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The inverse of a non-singular square matrix is calculated using LU decomposition.
+   * Otherwise the pseudo-inverse is calculated using singular value decomposition.
+   */
+  @Override
+  public DoubleMatrix getInverse(Matrix m) {
+    ArgChecker.notNull(m, "m");
+    if (m instanceof DoubleMatrix) {
+      DoubleMatrix matrix = (DoubleMatrix) m;
+      if (matrix.isSquare()) {
+        try {
+          return LU.apply(matrix).solve(DoubleMatrix.identity(matrix.rowCount()));
+        } catch (IllegalArgumentException ex) {
+          // the matrix is singular, so the pseudo-inverse is used
+        }
+      }
+      return SVD.apply(matrix).solve(DoubleMatrix.identity(matrix.rowCount()));
+    }
+    throw new IllegalArgumentException("Can only find inverse of DoubleMatrix; have " + m.getClass());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double getNorm1(Matrix m) {
+    ArgChecker.notNull(m, "m");
+    if (m instanceof DoubleArray) {
+      double sum = 0d;
+      for (double value : ((DoubleArray) m).toArrayUnsafe()) {
+        sum += Math.abs(value);
+      }
+      return sum;
+
+    } else if (m instanceof DoubleMatrix) {
+      // the maximum absolute column sum
+      DoubleMatrix matrix = (DoubleMatrix) m;
+      double[] sums = new double[matrix.columnCount()];
+      for (double[] row : matrix.toArrayUnsafe()) {
+        for (int j = 0; j < sums.length; j++) {
+          sums[j] += Math.abs(row[j]);
+        }
+      }
+      double max = 0d;
+      for (double sum : sums) {
+        max = Math.max(max, sum);
+      }
+      return max;
+    }
+    throw new IllegalArgumentException("Can only find norm1 of DoubleArray or DoubleMatrix; have " + m.getClass());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double getNorm2(Matrix m) {
+    ArgChecker.notNull(m, "m");
+    if (m instanceof DoubleArray) {
+      return Math.sqrt(getInnerProduct(m, m));
+
+    } else if (m instanceof DoubleMatrix) {
+      return SVD.apply((DoubleMatrix) m).getNorm();
+    }
+    throw new IllegalArgumentException("Can only find norm2 of DoubleArray or DoubleMatrix; have " + m.getClass());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double getNormInfinity(Matrix m) {
+    ArgChecker.notNull(m, "m");
+    if (m instanceof DoubleArray) {
+      double max = 0d;
+      for (double value : ((DoubleArray) m).toArrayUnsafe()) {
+        max = Math.max(max, Math.abs(value));
+      }
+      return max;
+
+    } else if (m instanceof DoubleMatrix) {
+      // the maximum absolute row sum
+      double max = 0d;
+      for (double[] row : ((DoubleMatrix) m).toArrayUnsafe()) {
+        double sum = 0d;
+        for (double value : row) {
+          sum += Math.abs(value);
+        }
+        max = Math.max(max, sum);
+      }
+      return max;
+    }
+    throw new IllegalArgumentException(
+        "Can only find normInfinity of DoubleArray or DoubleMatrix; have " + m.getClass());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public DoubleMatrix getOuterProduct(Matrix m1, Matrix m2) {
+    ArgChecker.notNull(m1, "m1");
+    ArgChecker.notNull(m2, "m2");
+    if (m1 instanceof DoubleArray && m2 instanceof DoubleArray) {
+      double[] array1 = ((DoubleArray) m1).toArrayUnsafe();
+      double[] array2 = ((DoubleArray) m2).toArrayUnsafe();
+      double[][] result = new double[array1.length][array2.length];
+      for (int i = 0; i < array1.length; i++) {
+        double[] row = result[i];
+        double value = array1[i];
+        for (int j = 0; j < array2.length; j++) {
+          row[j] = value * array2[j];
+        }
+      }
+      return DoubleMatrix.ofUnsafe(result);
+    }
+    throw new IllegalArgumentException("Can only find outer product of DoubleArray; have " + m1.getClass() +
+        " and " + m2.getClass());
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The power is calculated by repeated squaring.
+   */
+  @Override
+  public DoubleMatrix getPower(Matrix m, int p) {
+    ArgChecker.notNull(m, "m");
+    ArgChecker.notNegative(p, "p");
+    if (m instanceof DoubleMatrix) {
+      DoubleMatrix matrix = (DoubleMatrix) m;
+      ArgChecker.isTrue(matrix.isSquare(), "Matrix not square");
+      DoubleMatrix result = DoubleMatrix.identity(matrix.rowCount());
+      DoubleMatrix square = matrix;
+      for (int remaining = p; remaining > 0; remaining >>= 1) {
+        if ((remaining & 1) == 1) {
+          result = multiply(result, square);
+        }
+        if (remaining > 1) {
+          square = multiply(square, square);
+        }
+      }
+      return result;
+    }
+    throw new IllegalArgumentException("Can only find power of DoubleMatrix; have " + m.getClass());
+  }
+
+  /**
+   * {@inheritDoc}
+   * @throws UnsupportedOperationException always
+   */
+  @Override
+  public DoubleMatrix getPower(Matrix m, double p) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double getTrace(Matrix m) {
+    ArgChecker.notNull(m, "m");
+    if (m instanceof DoubleMatrix) {
+      DoubleMatrix matrix = (DoubleMatrix) m;
+      ArgChecker.isTrue(matrix.isSquare(), "Matrix not square");
+      double[][] array = matrix.toArrayUnsafe();
+      double sum = 0d;
+      for (int i = 0; i < array.length; i++) {
+        sum += array[i][i];
+      }
+      return sum;
+    }
+    throw new IllegalArgumentException("Can only take the trace of DoubleMatrix; have " + m.getClass());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public DoubleMatrix getTranspose(Matrix m) {
+    ArgChecker.notNull(m, "m");
+    if (m instanceof DoubleMatrix) {
+      DoubleMatrix matrix = (DoubleMatrix) m;
+      double[][] array = matrix.toArrayUnsafe();
+      int rowCount = matrix.rowCount();
+      int columnCount = matrix.columnCount();
+      double[][] result = new double[columnCount][rowCount];
+      // by block, so that the rows read and written stay in cache
+      for (int iStart = 0; iStart < rowCount; iStart += BLOCK_SIZE) {
+        int iEnd = Math.min(rowCount, iStart + BLOCK_SIZE);
+        for (int jStart = 0; jStart < columnCount; jStart += BLOCK_SIZE) {
+          int jEnd = Math.min(columnCount, jStart + BLOCK_SIZE);
+          for (int i = iStart; i < iEnd; i++) {
+            double[] row = array[i];
+            for (int j = jStart; j < jEnd; j++) {
+              result[j][i] = row[j];
+            }
+          }
+        }
+      }
+      return DoubleMatrix.ofUnsafe(result);
+    }
+    throw new IllegalArgumentException("Can only take transpose of DoubleMatrix; have " + m.getClass());
+  }
+
+  /**
+   * {@inheritDoc} The following combinations of input matrices m1 and m2 are allowed:
+   * <ul>
+   * <li>m1 = 2-D matrix, m2 = 2-D matrix, returns $\mathbf{C} = \mathbf{AB}$
+   * <li>m1 = 2-D matrix, m2 = 1-D matrix, returns $\mathbf{C} = \mathbf{A}b$
+   * <li>m1 = 1-D matrix, m2 = 2-D matrix, returns $\mathbf{C} = a^T\mathbf{B}$
+   * </ul>
+   */
+  @Override
+  public Matrix multiply(Matrix m1, Matrix m2) {
+    ArgChecker.notNull(m1, "m1");
+    ArgChecker.notNull(m2, "m2");
+    if (m1 instanceof TridiagonalMatrix || m2 instanceof TridiagonalMatrix) {
+      return OG_ALGEBRA.multiply(m1, m2);
+    } else if (m1 instanceof DoubleMatrix && m2 instanceof DoubleMatrix) {
+      return multiply((DoubleMatrix) m1, (DoubleMatrix) m2);
+    } else if (m1 instanceof DoubleMatrix && m2 instanceof DoubleArray) {
+      return multiply((DoubleMatrix) m1, (DoubleArray) m2);
+    } else if (m1 instanceof DoubleArray && m2 instanceof DoubleMatrix) {
+      return multiply((DoubleArray) m1, (DoubleMatrix) m2);
+    }
+    throw new IllegalArgumentException(
+        "Can only multiply two DoubleMatrix; a DoubleMatrix and a DoubleArray; " +
+            "or a DoubleArray and a DoubleMatrix. have " + m1.getClass() + " and " + m2.getClass());
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The rows of the matrix are read once, the product being accumulated row by row.
+   */
+  @Override
+  public DoubleMatrix matrixTransposeMultiplyMatrix(DoubleMatrix a) {
+    ArgChecker.notNull(a, "a");
+    int m = a.columnCount();
+    double[][] data = new double[m][m];
+    // the upper triangle, the sum over the rows being in the same order as the default implementation
+    for (double[] row : a.toArrayUnsafe()) {
+      for (int i = 0; i < m; i++) {
+        double[] dataRow = data[i];
+        double value = row[i];
+        for (int j = i; j < m; j++) {
+          dataRow[j] += value * row[j];
+        }
+      }
+    }
+    for (int i = 0; i < m; i++) {
+      for (int j = i + 1; j < m; j++) {
+        data[j][i] = data[i][j];
+      }
+    }
+    return DoubleMatrix.ofUnsafe(data);
+  }
+
+  //-------------------------------------------------------------------------
+  private DoubleMatrix multiply(DoubleMatrix m1, DoubleMatrix m2) {
+    ArgChecker.isTrue(
+        m1.columnCount() == m2.rowCount(),
+        "Matrix size mismatch. m1 is " + m1.rowCount() + " by " + m1.columnCount() +
+            ", but m2 is " + m2.rowCount() + " by " + m2.columnCount());
+    return DoubleMatrix.ofUnsafe(multiply(m1.toArrayUnsafe(), m2.toArrayUnsafe(), m2.columnCount()));
+  }
+
+  private DoubleArray multiply(DoubleMatrix matrix, DoubleArray vector) {
+    double[] x = vector.toArrayUnsafe();
+    ArgChecker.isTrue(matrix.columnCount() == x.length, "Matrix/vector size mismatch");
+    double[][] array = matrix.toArrayUnsafe();
+    double[] result = new double[array.length];
+    for (int i = 0; i < array.length; i++) {
+      double[] row = array[i];
+      double sum = 0d;
+      for (int j = 0; j < x.length; j++) {
+        sum += row[j] * x[j];
+      }
+      result[i] = sum;
+    }
+    return DoubleArray.ofUnsafe(result);
+  }
+
+  private DoubleArray multiply(DoubleArray vector, DoubleMatrix matrix) {
+    double[] x = vector.toArrayUnsafe();
+    ArgChecker.isTrue(matrix.rowCount() == x.length, "Matrix/vector size mismatch");
+    double[][] array = matrix.toArrayUnsafe();
+    double[] result = new double[matrix.columnCount()];
+    // accumulated row by row, so that the matrix is read along its rows
+    for (int i = 0; i < x.length; i++) {
+      double[] row = array[i];
+      double value = x[i];
+      for (int j = 0; j < result.length; j++) {
+        result[j] += value * row[j];
+      }
+    }
+    return DoubleArray.ofUnsafe(result);
+  }
+
+  // the blocked product of two matrices held as arrays of rows
+  private static double[][] multiply(double[][] left, double[][] right, int columnCount) {
+    int rowCount = left.length;
+    int innerCount = right.length;
+    double[][] result = new double[rowCount][columnCount];
+    int blockCount = (rowCount + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    IntStream blocks = IntStream.range(0, blockCount);
+    if ((long) rowCount * innerCount * columnCount >= PARALLEL_THRESHOLD) {
+      blocks = blocks.parallel();
+    }
+    blocks.forEach(block -> {
+      int rowStart = block * BLOCK_SIZE;
+      int rowEnd = Math.min(rowCount, rowStart + BLOCK_SIZE);
+      for (int innerStart = 0; innerStart < innerCount; innerStart += BLOCK_SIZE) {
+        int innerEnd = Math.min(innerCount, innerStart + BLOCK_SIZE);
+        for (int columnStart = 0; columnStart < columnCount; columnStart += BLOCK_SIZE) {
+          int columnEnd = Math.min(columnCount, columnStart + BLOCK_SIZE);
+          for (int i = rowStart; i < rowEnd; i++) {
+            double[] leftRow = left[i];
+            double[] resultRow = result[i];
+            for (int k = innerStart; k < innerEnd; k++) {
+              double value = leftRow[k];
+              double[] rightRow = right[k];
+              for (int j = columnStart; j < columnEnd; j++) {
+                resultRow[j] += value * rightRow[j];
+              }
+            }
+          }
+        }
+      }
+    });
+    return result;
+  }
+
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * Brownian bridge construction of a Brownian motion path.
+ * <p>
+ * The path is built from independent standard normal variables. The first variable determines the value
+ * at the last time, the next ones the values at the middle points of the successive bisections of the time grid.
+ * With low-discrepancy sequences, this concentrates most of the variance of the path on the first coordinates,
+ * which have the best uniformity properties.
+ * <p>
+ * The implementation follows P. Jaeckel, "Monte Carlo methods in finance", Wiley (2002).
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class BrownianBridge {
+
+  /**
+   * The number of points of the path.
+   */
+  private final int size;
+  /**
+   * The index of the point constructed at each step.
+   */
+  private final int[] bridgeIndex;
+  /**
+   * The index of the point on the left of the constructed point, shifted by one; 0 represents the origin.
+   */
+  private final int[] leftIndex;
+  /**
+   * The index of the point on the right of the constructed point.
+   */
+  private final int[] rightIndex;
+  /**
+   * The weight of the left point.
+   */
+  private final double[] leftWeight;
+  /**
+   * The weight of the right point.
+   */
+  private final double[] rightWeight;
+  /**
+   * The standard deviation of the constructed point conditional on the left and right points.
+   */
+  private final double[] stdDev;
+
+  /**
+   * Creates an instance.
+   * <p>
+   * The times are the variances of the Brownian motion at the points of the path. For a standard Brownian motion,
+   * they are the times of the points. They should be strictly positive and in increasing order.
+   *
+   * @param times  the times of the points
+   */
+  public BrownianBridge(double[] times) {
+    ArgChecker.notEmpty(times, "times");
+    ArgChecker.isTrue(times[0] > 0d, "times must be strictly positive");
+    for (int i = 1; i < times.length; i++) {
+      ArgChecker.isTrue(times[i] > times[i - 1], "times must be in increasing order");
+    }
+    this.size = times.length;
+    this.bridgeIndex = new int[size];
+    this.leftIndex = new int[size];
+    this.rightIndex = new int[size];
+    this.leftWeight = new double[size];
+    this.rightWeight = new double[size];
+    this.stdDev = new double[size];
+    int[] map = new int[size];
+    // the last point first
+    map[size - 1] = 1;
+    bridgeIndex[0] = size - 1;
+    stdDev[0] = Math.sqrt(times[size - 1]);
+    int j = 0;
+    for (int i = 1; i < size; i++) {
+      // the first point not yet constructed, and the next constructed point
+      while (map[j] != 0) {
+        j++;
+      }
+      int k = j;
+      while (map[k] == 0) {
+        k++;
+      }
+      int l = j + ((k - 1 - j) >> 1);
+      map[l] = i;
+      bridgeIndex[i] = l;
+      leftIndex[i] = j;
+      rightIndex[i] = k;
+      if (j != 0) {
+        leftWeight[i] = (times[k] - times[l]) / (times[k] - times[j - 1]);
+        rightWeight[i] = (times[l] - times[j - 1]) / (times[k] - times[j - 1]);
+        stdDev[i] = Math.sqrt((times[l] - times[j - 1]) * (times[k] - times[l]) / (times[k] - times[j - 1]));
+      } else {
+        leftWeight[i] = (times[k] - times[l]) / times[k];
+        rightWeight[i] = times[l] / times[k];
+        stdDev[i] = Math.sqrt(times[l] * (times[k] - times[l]) / times[k]);
+      }
+      j = k + 1;
+      if (j >= size) {
+        j = 0;
+      }
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the number of points of the path.
+   *
+   * @return the size
+   */
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * Constructs the path from standard normal variables.
+   * <p>
+   * The path values are the values of the Brownian motion at the times, not the increments.
+   * No object is created by this method.
+   *
+   * @param normals  the standard normal variables, of length at least the size
+   * @param path  the array in which the path is written, of length at least the size
+   */
+  public void transform(double[] normals, double[] path) {
+    path[size - 1] = stdDev[0] * normals[0];
+    for (int i = 1; i < size; i++) {
+      int j = leftIndex[i];
+      int k = rightIndex[i];
+      int l = bridgeIndex[i];
+      if (j != 0) {
+        path[l] = leftWeight[i] * path[j - 1] + rightWeight[i] * path[k] + stdDev[i] * normals[i];
+      } else {
+        path[l] = rightWeight[i] * path[k] + stdDev[i] * normals[i];
+      }
+    }
+  }
+
+}
@@ -0,0 +1,225 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import com.opengamma.strata.collect.ArgChecker;
+
+import cern.jet.stat.Probability;
+
+/**
+ * Generator of Sobol low-discrepancy sequences.
+ * <p>
+ * The points are generated in Gray code order, as described by Antonov and Saleev.
+ * The direction numbers are the ones of Joe and Kuo, "Constructing Sobol sequences with better
+ * two-dimensional projections", SIAM J. Sci. Comput. 30, 2635-2654 (2008).
+ * <p>
+ * The point of index 0, which is the origin, is skipped. The first point returned is the point of index 1,
+ * thus all the coordinates are strictly between 0 and 1.
+ * <p>
+ * The generator can be positioned on any index with {@link #skipTo(long)}. This allows disjoint blocks
+ * of the sequence to be generated independently, for example on different threads,
+ * with each block using its own generator.
+ * <p>
+ * This class is mutable and not thread-safe.
+ */
+public final class SobolSequenceGenerator {
+
+  /**
+   * The maximal dimension.
+   */
+  public static final int MAX_DIMENSION = 37;
+  /**
+   * The number of bits of the direction numbers.
+   */
+  private static final int BITS = 52;
+  /**
+   * The scale from the integer representation to the unit interval.
+   */
+  private static final double SCALE = Math.pow(2d, -BITS);
+  /**
+   * The degree, the polynomial coefficients and the initial direction numbers for the dimensions from 2.
+   */
+  private static final int[][] DIRECTION_DATA = {
+      {1, 0, 1},
+      {2, 1, 1, 3},
+      {3, 1, 1, 3, 1},
+      {3, 2, 1, 1, 1},
+      {4, 1, 1, 1, 3, 3},
+      {4, 4, 1, 3, 5, 13},
+      {5, 2, 1, 1, 5, 5, 17},
+      {5, 4, 1, 1, 5, 5, 5},
+      {5, 7, 1, 1, 7, 11, 19},
+      {5, 11, 1, 1, 5, 1, 1},
+      {5, 13, 1, 1, 1, 3, 11},
+      {5, 14, 1, 3, 5, 5, 31},
+      {6, 1, 1, 3, 3, 9, 7, 49},
+      {6, 13, 1, 1, 1, 15, 21, 21},
+      {6, 16, 1, 3, 1, 13, 27, 49},
+      {6, 19, 1, 1, 1, 15, 7, 5},
+      {6, 22, 1, 3, 1, 15, 13, 25},
+      {6, 25, 1, 1, 5, 5, 19, 61},
+      {7, 1, 1, 3, 7, 11, 23, 15, 103},
+      {7, 4, 1, 3, 7, 13, 13, 15, 69},
+      {7, 7, 1, 1, 3, 13, 7, 35, 63},
+      {7, 8, 1, 3, 5, 9, 1, 25, 53},
+      {7, 14, 1, 3, 1, 13, 9, 35, 107},
+      {7, 19, 1, 3, 1, 5, 27, 61, 31},
+      {7, 21, 1, 1, 5, 11, 19, 41, 61},
+      {7, 28, 1, 3, 5, 3, 3, 13, 69},
+      {7, 31, 1, 1, 7, 13, 1, 19, 1},
+      {7, 32, 1, 3, 7, 5, 13, 19, 59},
+      {7, 37, 1, 1, 3, 9, 25, 29, 41},
+      {7, 41, 1, 3, 5, 13, 23, 1, 55},
+      {7, 42, 1, 3, 7, 3, 13, 59, 17},
+      {7, 50, 1, 3, 1, 3, 5, 53, 69},
+      {7, 55, 1, 1, 5, 5, 23, 33, 13},
+      {7, 56, 1, 1, 7, 7, 1, 61, 123},
+      {7, 59, 1, 1, 7, 9, 13, 61, 49},
+      {7, 62, 1, 3, 3, 5, 3, 55, 33}};
+
+  /**
+   * The dimension.
+   */
+  private final int dimension;
+  /**
+   * The direction numbers, indexed by dimension and bit.
+   */
+  private final long[][] direction;
+  /**
+   * The current point in integer representation.
+   */
+  private final long[] current;
+  /**
+   * The index of the next point.
+   */
+  private long index;
+
+  /**
+   * Creates an instance.
+   *
+   * @param dimension  the dimension of the points, between 1 and {@link #MAX_DIMENSION}
+   */
+  public SobolSequenceGenerator(int dimension) {
+    ArgChecker.inRangeInclusive(dimension, 1, MAX_DIMENSION, "dimension");
+    this.dimension = dimension;
+    this.direction = new long[dimension][BITS];
+    for (int i = 0; i < BITS; i++) {
+      direction[0][i] = 1L << (BITS - 1 - i);
+    }
+    for (int d = 1; d < dimension; d++) {
+      int[] data = DIRECTION_DATA[d - 1];
+      int degree = data[0];
+      int coefficients = data[1];
+      long[] v = direction[d];
+      for (int i = 0; i < degree; i++) {
+        v[i] = ((long) data[2 + i]) << (BITS - 1 - i);
+      }
+      for (int i = degree; i < BITS; i++) {
+        v[i] = v[i - degree] ^ (v[i - degree] >> degree);
+        for (int k = 1; k < degree; k++) {
+          if (((coefficients >> (degree - 1 - k)) & 1) == 1) {
+            v[i] ^= v[i - k];
+          }
+        }
+      }
+    }
+    this.current = new long[dimension];
+    this.index = 1;
+    for (int d = 0; d < dimension; d++) {
+      current[d] = direction[d][0];
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the dimension of the points.
+   *
+   * @return the dimension
+   */
+  public int getDimension() {
+    return dimension;
+  }
+
+  /**
+   * Gets the index of the next point.
+   *
+   * @return the index
+   */
+  public long getNextIndex() {
+    return index;
+  }
+
+  /**
+   * Positions the generator such that the next point is the point of the specified index.
+   * <p>
+   * The point is computed directly from the Gray code of the index, in a number of operations
+   * proportional to the dimension and the number of bits of the index.
+   *
+   * @param index  the index of the next point, at least 1
+   */
+  public void skipTo(long index) {
+    ArgChecker.isTrue(index >= 1, "index must be at least 1");
+    ArgChecker.isTrue(index < (1L << BITS), "index too large");
+    long gray = index ^ (index >> 1);
+    for (int d = 0; d < dimension; d++) {
+      long x = 0;
+      for (int i = 0; i < BITS; i++) {
+        if (((gray >> i) & 1) == 1) {
+          x ^= direction[d][i];
+        }
+      }
+      current[d] = x;
+    }
+    this.index = index;
+  }
+
+  /**
+   * Writes the next point of the sequence in the array.
+   * <p>
+   * No object is created by this method.
+   *
+   * @param point  the array in which the point is written, of length at least the dimension
+   */
+  public void nextPoint(double[] point) {
+    ArgChecker.isTrue(index + 1 < (1L << BITS), "sequence exhausted");
+    for (int d = 0; d < dimension; d++) {
+      point[d] = current[d] * SCALE;
+    }
+    // the Gray codes of consecutive indices differ by the lowest zero bit of the current index
+    int bit = Long.numberOfTrailingZeros(index + 1);
+    for (int d = 0; d < dimension; d++) {
+      current[d] ^= direction[d][bit];
+    }
+    index++;
+  }
+
+  /**
+   * Writes the next point of the sequence, transformed to standard normal coordinates, in the array.
+   * <p>
+   * Each coordinate is transformed by the inverse of the cumulative normal distribution.
+   * No object is created by this method.
+   *
+   * @param point  the array in which the point is written, of length at least the dimension
+   */
+  public void nextNormalPoint(double[] point) {
+    nextPoint(point);
+    for (int d = 0; d < dimension; d++) {
+      point[d] = Probability.normalInverse(point[d]);
+    }
+  }
+
+  /**
+   * Gets the next point of the sequence.
+   *
+   * @return the point
+   */
+  public double[] nextPoint() {
+    double[] point = new double[dimension];
+    nextPoint(point);
+    return point;
+  }
+
+}
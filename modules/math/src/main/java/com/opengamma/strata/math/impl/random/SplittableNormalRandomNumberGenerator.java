@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.opengamma.strata.collect.ArgChecker;
+
+import cern.jet.stat.Probability;
+
+/**
+ * Generator of standard normal random numbers that can be split into independent generators.
+ * <p>
+ * The uniform numbers are produced by a {@link SplittableRandom} and transformed by the inverse of
+ * the cumulative normal distribution. The sequence is fully determined by the seed.
+ * <p>
+ * {@link #split()} creates a new generator whose sequence is determined by the state of this generator.
+ * Splitting a generator a given number of times from the same seed, on a single thread, thus produces
+ * the same generators. Each of them can then be used by a different thread, producing results that
+ * do not depend on the number of threads.
+ * <p>
+ * This class is mutable and not thread-safe.
+ */
+public final class SplittableNormalRandomNumberGenerator
+    implements RandomNumberGenerator {
+
+  /**
+   * The scale from the 53 random bits to the unit interval.
+   */
+  private static final double SCALE = 1d / (1L << 53);
+
+  /**
+   * The underlying generator.
+   */
+  private final SplittableRandom random;
+
+  /**
+   * Creates an instance.
+   *
+   * @param seed  the seed
+   */
+  public SplittableNormalRandomNumberGenerator(long seed) {
+    this.random = new SplittableRandom(seed);
+  }
+
+  private SplittableNormalRandomNumberGenerator(SplittableRandom random) {
+    this.random = random;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates a new generator, independent of this one.
+   * <p>
+   * The state of this generator is modified.
+   *
+   * @return the new generator
+   */
+  public SplittableNormalRandomNumberGenerator split() {
+    return new SplittableNormalRandomNumberGenerator(random.split());
+  }
+
+  /**
+   * Fills the array with standard normal random numbers.
+   * <p>
+   * No object is created by this method.
+   *
+   * @param array  the array to fill
+   */
+  public void fill(double[] array) {
+    for (int i = 0; i < array.length; i++) {
+      array[i] = nextNormal();
+    }
+  }
+
+  @Override
+  public double[] getVector(int size) {
+    ArgChecker.notNegative(size, "size");
+    double[] result = new double[size];
+    fill(result);
+    return result;
+  }
+
+  @Override
+  public List<double[]> getVectors(int arraySize, int listSize) {
+    ArgChecker.notNegative(arraySize, "arraySize");
+    ArgChecker.notNegative(listSize, "listSize");
+    List<double[]> result = new ArrayList<>(listSize);
+    for (int i = 0; i < listSize; i++) {
+      result.add(getVector(arraySize));
+    }
+    return result;
+  }
+
+  // uniform strictly between 0 and 1, transformed to normal
+  private double nextNormal() {
+    double uniform = ((random.nextLong() >>> 11) + 0.5d) * SCALE;
+    return Probability.normalInverse(uniform);
+  }
+
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.integration;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.function.DoubleUnaryOperator;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test {@link GaussKronrodIntegrator1D}.
+ */
+@Test
+public class GaussKronrodIntegrator1DTest extends Integrator1DTestCase {
+
+  private static final GaussKronrodIntegrator1D INTEGRATOR = new GaussKronrodIntegrator1D();
+  private static final double ROOT_2PI = Math.sqrt(2.0 * Math.PI);
+  private static final DoubleUnaryOperator MIX_NORM = new DoubleUnaryOperator() {
+    private final double[] w = new double[] {0.2, 0.2, 0.2, 0.2, 0.2};
+    private final double[] mu = new double[] {0.0, -0.4, 0.5, 0.0, 0.01234583};
+    private final double[] sigma = new double[] {3.0, 0.1, 5.0, 0.001, 0.0001};
+
+    @Override
+    public double applyAsDouble(double x) {
+      double res = 0.0;
+      for (int i = 0; i < w.length; i++) {
+        double expo = (x - mu[i]) * (x - mu[i]) / sigma[i] / sigma[i];
+        res += w[i] * Math.exp(-0.5 * expo) / ROOT_2PI / sigma[i];
+      }
+      return res;
+    }
+  };
+
+  @Override
+  protected Integrator1D<Double, Double> getIntegrator() {
+    return INTEGRATOR;
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testNegativeAbsTol() {
+    new GaussKronrodIntegrator1D(-1.0);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testNegativeRelTol() {
+    new GaussKronrodIntegrator1D(1e-7, -1.0);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testNoInterval() {
+    new GaussKronrodIntegrator1D(1e-7, 1e-7, 0);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testInfiniteBound() {
+    INTEGRATOR.integrate(x -> x, 0d, Double.POSITIVE_INFINITY);
+  }
+
+  public void test_primitive() {
+    double eps = 1e-9;
+    assertEquals(4.0, INTEGRATOR.integrate(x -> x * x * x, 0d, 2d), eps);
+    assertEquals(-4.0, INTEGRATOR.integrate(x -> x * x * x, 2d, 0d), eps);
+    assertEquals(0d, INTEGRATOR.integrate(x -> x * x * x, 1d, 1d), eps);
+    assertEquals(2d, INTEGRATOR.integrate(Math::sin, 0d, Math.PI), eps);
+    assertEquals(1.0, INTEGRATOR.integrate(MIX_NORM, -30d, 30d), eps);
+  }
+
+  public void test_consistentWithRungeKutta() {
+    RungeKuttaIntegrator1D rungeKutta = new RungeKuttaIntegrator1D(1e-12, 1e-12, 10);
+    DoubleUnaryOperator f = x -> Math.exp(-x) * Math.cos(3d * x);
+    assertEquals(rungeKutta.integrate(f, 0d, 5d), INTEGRATOR.integrate(f, 0d, 5d), 1e-10);
+  }
+
+}
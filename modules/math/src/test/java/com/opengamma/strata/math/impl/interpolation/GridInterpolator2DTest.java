@@ -16,6 +16,7 @@ import org.apache.commons.math3.random.Well44497b;
 import org.testng.annotations.Test;
 
 import com.opengamma.strata.collect.tuple.DoublesPair;
+import com.opengamma.strata.math.impl.interpolation.data.GridInterpolator2DDataBundle;
 import com.opengamma.strata.math.impl.interpolation.data.Interpolator1DDataBundle;
 
 /**
@@ -100,4 +101,45 @@ public class GridInterpolator2DTest {
         INTERPOLATOR_2D.interpolate(INTERPOLATOR_2D.getDataBundle(nonTrivial), pair),
         F.applyAsDouble(pair.getFirst(), pair.getSecond()), EPS);
   }
+
+  @Test
+  public void testPrimitiveDataBundle() {
+    GridInterpolator2D interpolator = new GridInterpolator2D(
+        Interpolator1DFactory.NATURAL_CUBIC_SPLINE_INSTANCE,
+        INTERPOLATOR_1D,
+        Interpolator1DFactory.LINEAR_EXTRAPOLATOR_INSTANCE,
+        Interpolator1DFactory.FLAT_EXTRAPOLATOR_INSTANCE);
+    // unsorted points
+    double[] x = {5., 1., 2., 1., 5., 2., 1., 2., 5., 1., 2., 5.};
+    double[] y = {3., 2., 7., 5., 2., 3., 3., 2., 7., 7., 5., 5.};
+    double[] z = new double[x.length];
+    Map<DoublesPair, Double> map = new HashMap<>();
+    for (int i = 0; i < x.length; i++) {
+      z[i] = F.applyAsDouble(x[i], y[i]) + x[i] * x[i] * y[i];
+      map.put(DoublesPair.of(x[i], y[i]), z[i]);
+    }
+    GridInterpolator2DDataBundle primitive = interpolator.getDataBundle(x, y, z);
+    Map<Double, Interpolator1DDataBundle> boxed = interpolator.getDataBundle(map);
+    double[] xPoints = {0.5, 1., 1.7, 3.2, 4.9, 6.};
+    double[] yPoints = {1., 2.5, 2.5, 4.1, 7., 8.};
+    for (int i = 0; i < xPoints.length; i++) {
+      DoublesPair pair = DoublesPair.of(xPoints[i], yPoints[i]);
+      double expectedValue = interpolator.interpolate(boxed, pair);
+      assertEquals(interpolator.interpolate(primitive, xPoints[i], yPoints[i]), expectedValue, EPS);
+      double[] sensitivities = interpolator.getNodeSensitivitiesForValue(primitive, xPoints[i], yPoints[i]);
+      Map<DoublesPair, Double> expected = interpolator.getNodeSensitivitiesForValue(boxed, pair);
+      for (int j = 0; j < x.length; j++) {
+        assertEquals(sensitivities[j], expected.get(DoublesPair.of(x[j], y[j])), EPS);
+      }
+    }
+    double[] batch = interpolator.interpolate(primitive, xPoints, yPoints);
+    for (int i = 0; i < xPoints.length; i++) {
+      assertEquals(batch[i], interpolator.interpolate(primitive, xPoints[i], yPoints[i]), 0d);
+    }
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testPrimitiveDataBundleWrongLength() {
+    INTERPOLATOR_2D.getDataBundle(new double[] {1., 2.}, new double[] {1., 2.}, new double[] {1.});
+  }
 }
@@ -72,6 +72,25 @@ public class CholeskyDecompositionOpenGammaTest {
     ArrayAsserts.assertArrayEquals("Cholesky decomposition OpenGamma - solve", b[1], ax.rowArray(1), 1.0E-10);
   }
 
+  /**
+   * Tests solve Ax = b from A and b as a DoubleArray.
+   */
+  public void solveDoubleArray() {
+    final CholeskyDecompositionResult result = CDOG.apply(A5);
+    double[] b = new double[] {1.0, 2.0, 3.0, 4.0, -1.0 };
+    DoubleArray x = result.solve(DoubleArray.copyOf(b));
+    ArrayAsserts.assertArrayEquals("Cholesky decomposition OpenGamma - solve", result.solve(b), x.toArray(), 1.0E-15);
+  }
+
+  /**
+   * Compare results with Common decomposition for a matrix large enough to be decomposed in parallel.
+   */
+  public void compareCommonLarge() {
+    int size = 400;
+    DoubleMatrix a = DoubleMatrix.of(size, size, (i, j) -> i == j ? size : 1d / (1 + Math.abs(i - j)));
+    checkEquals(CDC.apply(a).getL(), CDOG.apply(a).getL());
+  }
+
   /**
    * Compare results with Common decomposition
    */
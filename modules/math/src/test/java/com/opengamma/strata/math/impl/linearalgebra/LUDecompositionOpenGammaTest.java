@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
+import com.opengamma.strata.math.impl.matrix.OGMatrixAlgebra;
+
+/**
+ * Test.
+ */
+@Test
+public class LUDecompositionOpenGammaTest {
+  private static final MatrixAlgebra ALGEBRA = new OGMatrixAlgebra();
+  private static final Decomposition<LUDecompositionResult> LU = new LUDecompositionOpenGamma();
+  private static final Decomposition<LUDecompositionResult> LU_COMMONS = new LUDecompositionCommons();
+  private static final DoubleMatrix A = DoubleMatrix.copyOf(
+      new double[][] { {1, 2, -1}, {4, 3, 1}, {2, 2, 3}});
+  private static final DoubleArray B = DoubleArray.of(1, -2, 3);
+  private static final double EPS = 1e-9;
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testNullObjectMatrix() {
+    LU.apply((DoubleMatrix) null);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testNonSquare() {
+    LU.apply(DoubleMatrix.of(2, 3, 1, 2, 3, 4, 5, 6));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testSingular() {
+    LU.apply(DoubleMatrix.copyOf(new double[][] { {1, 2}, {2, 4}}));
+  }
+
+  @Test
+  public void testRecoverOrginal() {
+    LUDecompositionResult result = LU.apply(A);
+    DoubleMatrix pa = (DoubleMatrix) ALGEBRA.multiply(result.getP(), A);
+    checkEquals(pa, (DoubleMatrix) ALGEBRA.multiply(result.getL(), result.getU()));
+  }
+
+  @Test
+  public void testCompareCommons() {
+    LUDecompositionResult result = LU.apply(A);
+    LUDecompositionResult expected = LU_COMMONS.apply(A);
+    checkEquals(expected.getL(), result.getL());
+    checkEquals(expected.getU(), result.getU());
+    checkEquals(expected.getP(), result.getP());
+    assertEquals(Arrays.toString(expected.getPivot()), Arrays.toString(result.getPivot()));
+    assertEquals(expected.getDeterminant(), result.getDeterminant(), EPS);
+  }
+
+  @Test
+  public void testSolve() {
+    LUDecompositionResult result = LU.apply(A);
+    DoubleArray expected = LU_COMMONS.apply(A).solve(B);
+    checkEquals(expected, result.solve(B));
+    checkEquals(expected, DoubleArray.ofUnsafe(result.solve(B.toArray())));
+    checkEquals(LU_COMMONS.apply(A).solve(DoubleMatrix.identity(3)), result.solve(DoubleMatrix.identity(3)));
+  }
+
+  @Test
+  public void testSolveLarge() {
+    // large enough for the elimination to be run in parallel
+    int size = 300;
+    Random random = new Random(1);
+    DoubleMatrix matrix = DoubleMatrix.of(size, size, (i, j) -> random.nextDouble() - 0.5);
+    DoubleArray b = DoubleArray.of(size, i -> i);
+    DoubleArray x = LU.apply(matrix).solve(b);
+    checkEquals(b, (DoubleArray) ALGEBRA.multiply(matrix, x));
+    assertEquals(LU_COMMONS.apply(matrix).getDeterminant(), LU.apply(matrix).getDeterminant(),
+        Math.abs(LU_COMMONS.apply(matrix).getDeterminant()) * EPS);
+  }
+
+  private void checkEquals(DoubleArray x, DoubleArray y) {
+    assertEquals(x.size(), y.size());
+    for (int i = 0; i < x.size(); i++) {
+      assertEquals(x.get(i), y.get(i), EPS);
+    }
+  }
+
+  private void checkEquals(DoubleMatrix x, DoubleMatrix y) {
+    int n = x.rowCount();
+    int m = x.columnCount();
+    assertEquals(n, y.rowCount());
+    assertEquals(m, y.columnCount());
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < m; j++) {
+        assertEquals(x.get(i, j), y.get(i, j), EPS);
+      }
+    }
+  }
+}
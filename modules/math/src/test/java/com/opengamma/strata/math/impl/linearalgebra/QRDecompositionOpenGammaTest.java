@@ -0,0 +1,109 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
+import com.opengamma.strata.math.impl.matrix.OGMatrixAlgebra;
+
+/**
+ * Test.
+ */
+@Test
+public class QRDecompositionOpenGammaTest {
+  private static final MatrixAlgebra ALGEBRA = new OGMatrixAlgebra();
+  private static final Decomposition<QRDecompositionResult> QR = new QRDecompositionOpenGamma();
+  private static final Decomposition<QRDecompositionResult> QR_COMMONS = new QRDecompositionCommons();
+  private static final DoubleMatrix A = DoubleMatrix.copyOf(
+      new double[][] { {1, 2, 3}, {4, 5, 6}, {7, 8, 9}});
+  private static final DoubleMatrix TALL = DoubleMatrix.copyOf(
+      new double[][] { {1, 2}, {-3, 4}, {5, 1}, {2, -2}});
+  private static final DoubleMatrix WIDE = DoubleMatrix.copyOf(
+      new double[][] { {1, -3, 5, 2}, {2, 4, 1, -2}});
+  private static final double EPS = 1e-9;
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testNullObjectMatrix() {
+    QR.apply((DoubleMatrix) null);
+  }
+
+  @Test
+  public void testRecoverOrginal() {
+    checkRecoverOriginal(A);
+    checkRecoverOriginal(TALL);
+    checkRecoverOriginal(WIDE);
+  }
+
+  @Test
+  public void testCompareCommons() {
+    QRDecompositionResult result = QR.apply(TALL);
+    QRDecompositionResult expected = QR_COMMONS.apply(TALL);
+    checkEquals(expected.getQ(), result.getQ());
+    checkEquals(expected.getQT(), result.getQT());
+    checkEquals(expected.getR(), result.getR());
+  }
+
+  @Test
+  public void testSolveLeastSquares() {
+    QRDecompositionResult result = QR.apply(TALL);
+    DoubleArray b = DoubleArray.of(1, 2, 3, 4);
+    checkEquals(QR_COMMONS.apply(TALL).solve(b), result.solve(b));
+    DoubleMatrix bMatrix = DoubleMatrix.copyOf(new double[][] { {1, 0}, {2, 1}, {3, 0}, {4, 1}});
+    checkEquals(QR_COMMONS.apply(TALL).solve(bMatrix), result.solve(bMatrix));
+  }
+
+  @Test
+  public void testSolveLarge() {
+    // large enough for the reflections to be applied in parallel
+    int size = 300;
+    Random random = new Random(1);
+    DoubleMatrix matrix = DoubleMatrix.of(size, size, (i, j) -> random.nextDouble() - 0.5);
+    DoubleArray b = DoubleArray.of(size, i -> i);
+    double[] x = QR.apply(matrix).solve(b.toArray());
+    DoubleArray ax = (DoubleArray) ALGEBRA.multiply(matrix, DoubleArray.ofUnsafe(x));
+    for (int i = 0; i < size; i++) {
+      assertEquals(b.get(i), ax.get(i), EPS);
+    }
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testSolveSingular() {
+    QR.apply(DoubleMatrix.copyOf(new double[][] { {1, 0}, {2, 0}})).solve(DoubleArray.of(1, 2));
+  }
+
+  private void checkRecoverOriginal(DoubleMatrix matrix) {
+    QRDecompositionResult result = QR.apply(matrix);
+    checkEquals(matrix, (DoubleMatrix) ALGEBRA.multiply(result.getQ(), result.getR()));
+    DoubleMatrix identity = DoubleMatrix.identity(matrix.rowCount());
+    checkEquals(identity, (DoubleMatrix) ALGEBRA.multiply(result.getQT(), result.getQ()));
+  }
+
+  private void checkEquals(DoubleArray x, DoubleArray y) {
+    assertEquals(x.size(), y.size());
+    for (int i = 0; i < x.size(); i++) {
+      assertEquals(x.get(i), y.get(i), EPS);
+    }
+  }
+
+  private void checkEquals(DoubleMatrix x, DoubleMatrix y) {
+    int n = x.rowCount();
+    int m = x.columnCount();
+    assertEquals(n, y.rowCount());
+    assertEquals(m, y.columnCount());
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < m; j++) {
+        assertEquals(x.get(i, j), y.get(i, j), EPS);
+      }
+    }
+  }
+}
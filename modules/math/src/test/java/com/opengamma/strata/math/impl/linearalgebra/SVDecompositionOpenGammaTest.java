@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
+import com.opengamma.strata.math.impl.matrix.OGMatrixAlgebra;
+
+/**
+ * Test.
+ */
+@Test
+public class SVDecompositionOpenGammaTest extends SVDecompositionCalculationTestCase {
+  private static final MatrixAlgebra ALGEBRA = new OGMatrixAlgebra();
+  private static final Decomposition<SVDecompositionResult> SVD = new SVDecompositionOpenGamma();
+  private static final Decomposition<SVDecompositionResult> SVD_COMMONS = new SVDecompositionCommons();
+  private static final DoubleMatrix TALL = DoubleMatrix.copyOf(
+      new double[][] { {1, 2}, {-3, 4}, {5, 1}, {2, -2}});
+  private static final DoubleMatrix RANK_DEFICIENT = DoubleMatrix.copyOf(
+      new double[][] { {1, 2, 3}, {2, 4, 6}, {1, 0, 1}, {0, 0, 0}});
+  private static final double EPS = 1e-10;
+
+  @Override
+  protected MatrixAlgebra getAlgebra() {
+    return ALGEBRA;
+  }
+
+  @Override
+  protected Decomposition<SVDecompositionResult> getSVD() {
+    return SVD;
+  }
+
+  @Test
+  public void testCompareCommons() {
+    checkCompareCommons(TALL);
+    checkCompareCommons(TALL.transpose());
+    checkCompareCommons(RANK_DEFICIENT);
+  }
+
+  @Test
+  public void testRankDeficient() {
+    SVDecompositionResult result = SVD.apply(RANK_DEFICIENT);
+    assertEquals(2, result.getRank());
+    // the singular vectors are orthonormal even for the zero singular value
+    checkEquals(DoubleMatrix.identity(3), (DoubleMatrix) ALGEBRA.multiply(result.getUT(), result.getU()));
+    checkEquals(DoubleMatrix.identity(3), (DoubleMatrix) ALGEBRA.multiply(result.getVT(), result.getV()));
+    DoubleMatrix usvt = (DoubleMatrix) ALGEBRA.multiply(ALGEBRA.multiply(result.getU(), result.getS()), result.getVT());
+    checkEquals(RANK_DEFICIENT, usvt);
+  }
+
+  private void checkCompareCommons(DoubleMatrix matrix) {
+    SVDecompositionResult result = SVD.apply(matrix);
+    SVDecompositionResult expected = SVD_COMMONS.apply(matrix);
+    checkEquals(DoubleArray.copyOf(expected.getSingularValues()), DoubleArray.copyOf(result.getSingularValues()));
+    assertEquals(expected.getRank(), result.getRank());
+    assertEquals(expected.getNorm(), result.getNorm(), EPS);
+    assertEquals(expected.getU().rowCount(), result.getU().rowCount());
+    assertEquals(expected.getV().rowCount(), result.getV().rowCount());
+    // the least squares solution of minimum norm is unique
+    DoubleArray b = DoubleArray.of(matrix.rowCount(), i -> i + 1);
+    checkEquals(expected.solve(b), result.solve(b));
+    DoubleMatrix identity = DoubleMatrix.identity(matrix.rowCount());
+    checkEquals(expected.solve(identity), result.solve(identity));
+  }
+
+  private void checkEquals(DoubleArray x, DoubleArray y) {
+    assertEquals(x.size(), y.size());
+    for (int i = 0; i < x.size(); i++) {
+      assertEquals(x.get(i), y.get(i), EPS);
+    }
+  }
+
+  private void checkEquals(DoubleMatrix x, DoubleMatrix y) {
+    int n = x.rowCount();
+    int m = x.columnCount();
+    assertEquals(n, y.rowCount());
+    assertEquals(m, y.columnCount());
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < m; j++) {
+        assertEquals(x.get(i, j), y.get(i, j), EPS);
+      }
+    }
+  }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.matrix;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.impl.linearalgebra.TridiagonalMatrix;
+import com.opengamma.strata.math.impl.util.AssertMatrix;
+
+/**
+ * Test {@link BlockedMatrixAlgebra}.
+ */
+@Test
+public class BlockedMatrixAlgebraTest {
+  private static final MatrixAlgebra ALGEBRA = MatrixAlgebraFactory.getMatrixAlgebra("Blocked");
+  private static final MatrixAlgebra OG = MatrixAlgebraFactory.OG_ALGEBRA;
+  private static final MatrixAlgebra COMMONS = MatrixAlgebraFactory.COMMONS_ALGEBRA;
+  private static final DoubleMatrix A = DoubleMatrix.copyOf(
+      new double[][] { {1., 2., 3.}, {-1., 1., 0.}, {-2., 1., -2.}});
+  private static final DoubleMatrix B = DoubleMatrix.copyOf(new double[][] { {1, 1}, {2, -2}, {3, 1}});
+  private static final DoubleMatrix SINGULAR = DoubleMatrix.copyOf(new double[][] { {1, 2}, {2, 4}});
+  private static final DoubleArray E = DoubleArray.of(-1, 2, 3);
+  private static final DoubleArray F = DoubleArray.of(2, -2, 1);
+  private static final double EPS = 1e-12;
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testMatrixSizeMismatch() {
+    ALGEBRA.multiply(B, A);
+  }
+
+  public void testMultiplySmall() {
+    assertEquals(OG.multiply(A, B), ALGEBRA.multiply(A, B));
+    assertEquals(OG.multiply(A, E), ALGEBRA.multiply(A, E));
+    assertEquals(OG.multiply(E, A), ALGEBRA.multiply(E, A));
+  }
+
+  public void testMultiplyLarge() {
+    // several blocks, and large enough to be calculated in parallel
+    DoubleMatrix left = random(150, 130, 1);
+    DoubleMatrix right = random(130, 140, 2);
+    // the sums are in the same order, so the results are identical
+    assertEquals(OG.multiply(left, right), ALGEBRA.multiply(left, right));
+  }
+
+  public void testTridiagonalMultiply() {
+    TridiagonalMatrix m = new TridiagonalMatrix(new double[] {1, 2, 3}, new double[] {4, 5}, new double[] {6, 7});
+    assertEquals(OG.multiply(m, E), ALGEBRA.multiply(m, E));
+    assertEquals(OG.multiply(E, m), ALGEBRA.multiply(E, m));
+  }
+
+  public void testTranspose() {
+    DoubleMatrix matrix = random(70, 130, 3);
+    assertEquals(matrix.transpose(), ALGEBRA.getTranspose(matrix));
+  }
+
+  public void testMatrixTransposeMultiplyMatrix() {
+    DoubleMatrix matrix = random(40, 30, 4);
+    assertEquals(OG.matrixTransposeMultiplyMatrix(matrix), ALGEBRA.matrixTransposeMultiplyMatrix(matrix));
+  }
+
+  public void testProducts() {
+    assertEquals(OG.getInnerProduct(E, F), ALGEBRA.getInnerProduct(E, F));
+    assertEquals(OG.getOuterProduct(E, F), ALGEBRA.getOuterProduct(E, F));
+  }
+
+  public void testNorms() {
+    assertEquals(COMMONS.getNorm1(E), ALGEBRA.getNorm1(E), EPS);
+    assertEquals(COMMONS.getNorm1(A), ALGEBRA.getNorm1(A), EPS);
+    assertEquals(COMMONS.getNorm2(E), ALGEBRA.getNorm2(E), EPS);
+    assertEquals(COMMONS.getNorm2(A), ALGEBRA.getNorm2(A), EPS);
+    assertEquals(COMMONS.getNormInfinity(E), ALGEBRA.getNormInfinity(E), EPS);
+    assertEquals(COMMONS.getNormInfinity(A), ALGEBRA.getNormInfinity(A), EPS);
+  }
+
+  public void testDeterminant() {
+    assertEquals(COMMONS.getDeterminant(A), ALGEBRA.getDeterminant(A), EPS);
+    assertEquals(0d, ALGEBRA.getDeterminant(SINGULAR), 0d);
+  }
+
+  public void testInverse() {
+    AssertMatrix.assertEqualsMatrix(COMMONS.getInverse(A), ALGEBRA.getInverse(A), EPS);
+    DoubleMatrix large = random(100, 100, 5);
+    AssertMatrix.assertEqualsMatrix(COMMONS.getInverse(large), ALGEBRA.getInverse(large), 1e-9);
+    // the pseudo-inverse of singular and non-square matrices
+    AssertMatrix.assertEqualsMatrix(COMMONS.getInverse(SINGULAR), ALGEBRA.getInverse(SINGULAR), EPS);
+    AssertMatrix.assertEqualsMatrix(COMMONS.getInverse(B), ALGEBRA.getInverse(B), EPS);
+  }
+
+  public void testCondition() {
+    assertEquals(COMMONS.getCondition(A), ALGEBRA.getCondition(A), 1e-10);
+  }
+
+  public void testPowerAndTrace() {
+    AssertMatrix.assertEqualsMatrix(COMMONS.getPower(A, 5), ALGEBRA.getPower(A, 5), EPS);
+    assertEquals(DoubleMatrix.identity(3), ALGEBRA.getPower(A, 0));
+    assertEquals(OG.getTrace(A), ALGEBRA.getTrace(A));
+  }
+
+  @Test(expectedExceptions = UnsupportedOperationException.class)
+  public void testPowerDouble() {
+    ALGEBRA.getPower(A, 0.5);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testInverseVector() {
+    ALGEBRA.getInverse(E);
+  }
+
+  private static DoubleMatrix random(int rows, int columns, long seed) {
+    Random random = new Random(seed);
+    return DoubleMatrix.of(rows, columns, (i, j) -> random.nextDouble() - 0.5);
+  }
+
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.Arrays;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test {@link BrownianBridge}.
+ */
+@Test
+public class BrownianBridgeTest {
+
+  private static final double TOL = 1.0E-14;
+
+  public void test_covariance() {
+    // the covariance of the path values is the minimum of the times
+    double[] times = {0.1, 0.3, 0.35, 1.0, 1.7, 2.0, 4.5};
+    int size = times.length;
+    BrownianBridge bridge = new BrownianBridge(times);
+    assertEquals(size, bridge.getSize());
+    double[][] covariance = new double[size][size];
+    double[] normals = new double[size];
+    double[] path = new double[size];
+    for (int i = 0; i < size; i++) {
+      Arrays.fill(normals, 0d);
+      normals[i] = 1d;
+      bridge.transform(normals, path);
+      for (int j = 0; j < size; j++) {
+        for (int k = 0; k < size; k++) {
+          covariance[j][k] += path[j] * path[k];
+        }
+      }
+    }
+    for (int j = 0; j < size; j++) {
+      for (int k = 0; k < size; k++) {
+        assertEquals(Math.min(times[j], times[k]), covariance[j][k], TOL);
+      }
+    }
+  }
+
+  public void test_lastPoint() {
+    double[] times = {0.5, 1.0, 4.0};
+    BrownianBridge bridge = new BrownianBridge(times);
+    double[] path = new double[3];
+    bridge.transform(new double[] {1d, 0d, 0d}, path);
+    assertEquals(2d, path[2], TOL);
+    assertEquals(0.5d, path[1], TOL);
+    assertEquals(0.25d, path[0], TOL);
+  }
+
+  public void test_invalid() {
+    assertThrowsIllegalArg(() -> new BrownianBridge(new double[0]));
+    assertThrowsIllegalArg(() -> new BrownianBridge(new double[] {0d, 1d}));
+    assertThrowsIllegalArg(() -> new BrownianBridge(new double[] {1d, 1d}));
+  }
+
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test {@link SobolSequenceGenerator}.
+ */
+@Test
+public class SobolSequenceGeneratorTest {
+
+  public void test_firstPoints() {
+    SobolSequenceGenerator generator = new SobolSequenceGenerator(3);
+    assertEquals(3, generator.getDimension());
+    double[][] expected = {
+        {0.5, 0.5, 0.5},
+        {0.75, 0.25, 0.25},
+        {0.25, 0.75, 0.75},
+        {0.375, 0.375, 0.625},
+        {0.875, 0.875, 0.125}};
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(i + 1L, generator.getNextIndex());
+      double[] point = generator.nextPoint();
+      for (int d = 0; d < 3; d++) {
+        assertEquals(expected[i][d], point[d], 0d);
+      }
+    }
+  }
+
+  public void test_stratification() {
+    // the first 2^k points, with the origin, have one coordinate in each interval of length 2^-k
+    int nbPoints = 1 << 10;
+    int dimension = SobolSequenceGenerator.MAX_DIMENSION;
+    SobolSequenceGenerator generator = new SobolSequenceGenerator(dimension);
+    int[][] counts = new int[dimension][nbPoints];
+    for (int d = 0; d < dimension; d++) {
+      counts[d][0] = 1;
+    }
+    double[] point = new double[dimension];
+    for (int i = 1; i < nbPoints; i++) {
+      generator.nextPoint(point);
+      for (int d = 0; d < dimension; d++) {
+        assertTrue(point[d] > 0d && point[d] < 1d);
+        counts[d][(int) (point[d] * nbPoints)]++;
+      }
+    }
+    for (int d = 0; d < dimension; d++) {
+      for (int i = 0; i < nbPoints; i++) {
+        assertEquals(1, counts[d][i]);
+      }
+    }
+  }
+
+  public void test_skipTo() {
+    SobolSequenceGenerator sequential = new SobolSequenceGenerator(10);
+    for (int i = 1; i < 1000; i++) {
+      sequential.nextPoint();
+    }
+    SobolSequenceGenerator skipped = new SobolSequenceGenerator(10);
+    skipped.skipTo(1000);
+    for (int i = 0; i < 100; i++) {
+      double[] expected = sequential.nextPoint();
+      double[] computed = skipped.nextPoint();
+      for (int d = 0; d < 10; d++) {
+        assertEquals(expected[d], computed[d], 0d);
+      }
+    }
+  }
+
+  public void test_integration() {
+    // expectation of exp of a normalized sum of normal variables
+    int dimension = 5;
+    int nbPoints = 1 << 14;
+    SobolSequenceGenerator generator = new SobolSequenceGenerator(dimension);
+    double[] point = new double[dimension];
+    double sum = 0d;
+    for (int i = 0; i < nbPoints; i++) {
+      generator.nextNormalPoint(point);
+      double x = 0d;
+      for (int d = 0; d < dimension; d++) {
+        x += point[d];
+      }
+      sum += Math.exp(x / Math.sqrt(dimension));
+    }
+    assertEquals(Math.exp(0.5), sum / nbPoints, 5.0E-3);
+  }
+
+  public void test_invalid() {
+    assertThrowsIllegalArg(() -> new SobolSequenceGenerator(0));
+    assertThrowsIllegalArg(() -> new SobolSequenceGenerator(SobolSequenceGenerator.MAX_DIMENSION + 1));
+    assertThrowsIllegalArg(() -> new SobolSequenceGenerator(2).skipTo(0));
+  }
+
+}
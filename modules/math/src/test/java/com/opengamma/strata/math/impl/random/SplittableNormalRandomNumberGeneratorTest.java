@@ -0,0 +1,69 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test {@link SplittableNormalRandomNumberGenerator}.
+ */
+@Test
+public class SplittableNormalRandomNumberGeneratorTest {
+
+  public void test_array() {
+    double[] result = new SplittableNormalRandomNumberGenerator(1L).getVector(10);
+    assertEquals(result.length, 10);
+  }
+
+  public void test_list() {
+    List<double[]> result = new SplittableNormalRandomNumberGenerator(1L).getVectors(10, 50);
+    assertEquals(result.size(), 50);
+    for (double[] d : result) {
+      assertEquals(d.length, 10);
+    }
+  }
+
+  public void test_reproducible() {
+    SplittableNormalRandomNumberGenerator generator1 = new SplittableNormalRandomNumberGenerator(42L);
+    SplittableNormalRandomNumberGenerator generator2 = new SplittableNormalRandomNumberGenerator(42L);
+    SplittableNormalRandomNumberGenerator split1 = generator1.split();
+    SplittableNormalRandomNumberGenerator split2 = generator2.split();
+    double[] values1 = split1.getVector(100);
+    assertEquals(Arrays.toString(values1), Arrays.toString(split2.getVector(100)));
+    assertEquals(Arrays.toString(generator1.getVector(100)), Arrays.toString(generator2.getVector(100)));
+    assertFalse(Arrays.equals(values1, generator1.getVector(100)));
+  }
+
+  public void test_moments() {
+    SplittableNormalRandomNumberGenerator generator = new SplittableNormalRandomNumberGenerator(1L);
+    int nbValues = 100_000;
+    double[] values = new double[nbValues];
+    generator.fill(values);
+    double sum = 0d;
+    double sumSquare = 0d;
+    for (double value : values) {
+      sum += value;
+      sumSquare += value * value;
+    }
+    assertEquals(0d, sum / nbValues, 0.02);
+    assertEquals(1d, sumSquare / nbValues, 0.02);
+  }
+
+  public void test_invalid() {
+    SplittableNormalRandomNumberGenerator generator = new SplittableNormalRandomNumberGenerator(1L);
+    assertThrowsIllegalArg(() -> generator.getVector(-1));
+    assertThrowsIllegalArg(() -> generator.getVectors(-1, 4));
+    assertThrowsIllegalArg(() -> generator.getVectors(1, -5));
+  }
+
+}
@@ -80,6 +80,14 @@ public final class Measures {
    * Measure representing the Bucketed PV01 of the calculation target.
    */
   public static final Measure BUCKETED_PV01 = Measure.of(StandardMeasures.BUCKETED_PV01.getName());
+  /**
+   * Measure representing the Bucketed PV01 of the calculation target with respect to the market quotes
+   * used to calibrate the curves.
+   * <p>
+   * The curves must have been calibrated, providing the Jacobian calibration information.
+   */
+  public static final Measure PV01_MARKET_QUOTE_BUCKETED =
+      Measure.of(StandardMeasures.PV01_MARKET_QUOTE_BUCKETED.getName());
   /**
    * Measure representing the (scalar) PV change to a 1 bps shift in par interest rates.
    */
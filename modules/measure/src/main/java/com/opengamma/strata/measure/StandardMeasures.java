@@ -82,6 +82,11 @@ final class StandardMeasures {
    * Measure representing the Bucketed PV01 of the calculation target.
    */
   public static final Measure BUCKETED_PV01 = ImmutableMeasure.of("BucketedPV01");
+  /**
+   * Measure representing the Bucketed PV01 of the calculation target with respect to the market quotes
+   * used to calibrate the curves.
+   */
+  public static final Measure PV01_MARKET_QUOTE_BUCKETED = ImmutableMeasure.of("PV01MarketQuoteBucketed");
   /**
    * Measure representing the (scalar) PV change to a 1 bps shift in par interest rates.
    */
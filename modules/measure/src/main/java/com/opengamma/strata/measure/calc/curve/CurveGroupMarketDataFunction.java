@@ -146,6 +146,7 @@ public class CurveGroupMarketDataFunction implements MarketDataFunction<CurveGro
   }
 
   // calibrates when there are multiple groups
+  // the first scenario is calibrated first, then seeds the calibration of the others which runs in parallel
   private MarketDataBox<CurveGroup> buildMultipleCurveGroups(
       CurveGroupDefinition groupDefn,
       CurveCalibrator calibrator,
@@ -154,15 +155,18 @@ public class CurveGroupMarketDataFunction implements MarketDataFunction<CurveGro
       ReferenceData refData) {
 
     int scenarioCount = scenarioCount(valuationDateBox, inputBoxes);
-    ImmutableList.Builder<CurveGroup> builder = ImmutableList.builder();
+    ImmutableList.Builder<MarketData> inputsBuilder = ImmutableList.builder();
 
     for (int i = 0; i < scenarioCount; i++) {
       List<CurveInputs> curveInputsList = inputsForScenario(inputBoxes, i);
-      LocalDate valuationDate = valuationDateBox.getValue(scenarioCount);
-      MarketData inputs = inputsByKey(valuationDate, curveInputsList);
-      builder.add(buildGroup(groupDefn, calibrator, valuationDate, inputs, refData));
+      LocalDate valuationDate = valuationDateBox.getValue(i);
+      inputsBuilder.add(inputsByKey(valuationDate, curveInputsList));
     }
-    ImmutableList<CurveGroup> curveGroups = builder.build();
+    List<ImmutableRatesProvider> calibratedProviders =
+        calibrator.calibrateScenarios(groupDefn, inputsBuilder.build(), refData, ImmutableMap.of());
+    ImmutableList<CurveGroup> curveGroups = calibratedProviders.stream()
+        .map(provider -> curveGroup(groupDefn, provider))
+        .collect(toImmutableList());
     return MarketDataBox.ofScenarioValues(curveGroups);
   }
 
@@ -234,6 +238,11 @@ public class CurveGroupMarketDataFunction implements MarketDataFunction<CurveGro
         refData,
         ImmutableMap.of());
 
+    return curveGroup(groupDefn, calibratedProvider);
+  }
+
+  // extracts the curve group from the calibrated provider
+  private static CurveGroup curveGroup(CurveGroupDefinition groupDefn, ImmutableRatesProvider calibratedProvider) {
     return CurveGroup.of(
         groupDefn.getName(),
         calibratedProvider.getDiscountCurves(),
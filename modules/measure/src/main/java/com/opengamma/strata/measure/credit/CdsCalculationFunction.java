@@ -5,17 +5,23 @@
  */
 package com.opengamma.strata.measure.credit;
 
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.calc.Measure;
-import com.opengamma.strata.calc.runner.CalculationFunction;
+import com.opengamma.strata.calc.runner.BatchCalculationFunction;
 import com.opengamma.strata.calc.runner.CalculationParameters;
 import com.opengamma.strata.calc.runner.FunctionRequirements;
 import com.opengamma.strata.calc.runner.FunctionUtils;
@@ -58,9 +64,12 @@ import com.opengamma.strata.product.credit.SingleNameReferenceInformation;
  * </ul>
  * <p>
  * The "natural" currency is the currency of the fee leg.
+ * <p>
+ * When invoked for a batch of trades, the present value and par rate of trades sharing the same curves
+ * are calculated together, calibrating the curves once per scenario.
  */
 public class CdsCalculationFunction
-    implements CalculationFunction<CdsTrade> {
+    implements BatchCalculationFunction<CdsTrade> {
 
   /**
    * The calculations by measure.
@@ -80,6 +89,14 @@ public class CdsCalculationFunction
           .put(Measures.RECOVERY01, CdsMeasureCalculations::recovery01)
           .put(Measures.JUMP_TO_DEFAULT, CdsMeasureCalculations::jumpToDefault)
           .build();
+  /**
+   * The calculations of several trades by measure, for those measures that benefit from calculating together.
+   */
+  private static final ImmutableMap<Measure, BatchMeasureCalculation> BATCH_CALCULATORS =
+      ImmutableMap.<Measure, BatchMeasureCalculation>builder()
+          .put(Measures.PAR_RATE, CdsMeasureCalculations::parRate)
+          .put(Measures.PRESENT_VALUE, CdsMeasureCalculations::presentValue)
+          .build();
 
   private static final ImmutableSet<Measure> MEASURES = ImmutableSet.<Measure>builder()
       .addAll(CALCULATORS.keySet())
@@ -152,6 +169,16 @@ public class CdsCalculationFunction
     }
   }
 
+  @Override
+  public Optional<Object> requirementsKey(CdsTrade trade) {
+    // the requirements only depend on the currencies and reference information
+    Cds cds = trade.getProduct();
+    return Optional.of(ImmutableList.of(
+        cds.getFeeLeg().getPeriodicPayments().getNotional().getCurrency(),
+        cds.getFeeLeg().getUpfrontFee().getCurrency(),
+        cds.getReferenceInformation()));
+  }
+
   //-------------------------------------------------------------------------
   @Override
   public Map<Measure, Result<?>> calculate(
@@ -174,6 +201,57 @@ public class CdsCalculationFunction
     return results;
   }
 
+  @Override
+  public List<Map<Measure, Result<?>>> calculateBatch(
+      List<CdsTrade> trades,
+      Set<Measure> measures,
+      CalculationParameters parameters,
+      ScenarioMarketData scenarioMarketData,
+      ReferenceData refData) {
+
+    // resolve the trades once for all measures and all scenarios
+    List<ResolvedCdsTrade> resolved = trades.stream()
+        .map(trade -> trade.resolve(refData))
+        .collect(toImmutableList());
+
+    // loop around measures, calculating all trades and scenarios for one measure
+    List<Map<Measure, Result<?>>> results = new ArrayList<>(trades.size());
+    for (int i = 0; i < trades.size(); i++) {
+      results.add(new HashMap<>());
+    }
+    for (Measure measure : measures) {
+      List<? extends ScenarioArray<?>> batchValues = calculateBatch(measure, resolved, scenarioMarketData);
+      for (int i = 0; i < trades.size(); i++) {
+        Result<?> result = batchValues != null ?
+            Result.success(batchValues.get(i)) :
+            calculate(measure, resolved.get(i), scenarioMarketData);
+        results.get(i).put(measure, result);
+      }
+    }
+    for (Map<Measure, Result<?>> tradeResults : results) {
+      FunctionUtils.duplicateResult(Measures.PRESENT_VALUE, Measures.PRESENT_VALUE_MULTI_CCY, tradeResults);
+    }
+    return results;
+  }
+
+  // calculate one measure for all trades together, returning null if the trades must be calculated separately
+  private List<? extends ScenarioArray<?>> calculateBatch(
+      Measure measure,
+      List<ResolvedCdsTrade> trades,
+      ScenarioMarketData scenarioMarketData) {
+
+    BatchMeasureCalculation calculator = BATCH_CALCULATORS.get(measure);
+    if (calculator == null) {
+      return null;
+    }
+    try {
+      return calculator.calculate(trades, scenarioMarketData);
+    } catch (RuntimeException ex) {
+      // calculating separately reports the failure against the trade that caused it
+      return null;
+    }
+  }
+
   // calculate one measure
   private Result<?> calculate(
       Measure measure,
@@ -195,4 +273,11 @@ public class CdsCalculationFunction
         ScenarioMarketData marketData);
   }
 
+  @FunctionalInterface
+  interface BatchMeasureCalculation {
+    public abstract List<? extends ScenarioArray<?>> calculate(
+        List<ResolvedCdsTrade> trades,
+        ScenarioMarketData marketData);
+  }
+
 }
@@ -5,12 +5,25 @@
  */
 package com.opengamma.strata.measure.credit;
 
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.MarketDataId;
 import com.opengamma.strata.data.scenario.CurrencyValuesArray;
 import com.opengamma.strata.data.scenario.ScenarioArray;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 import com.opengamma.strata.data.scenario.ValuesArray;
+import com.opengamma.strata.market.curve.NodalCurve;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
 import com.opengamma.strata.market.product.credit.CdsRecoveryRate;
 import com.opengamma.strata.market.product.credit.IsdaCreditCurveInputs;
@@ -49,26 +62,39 @@ class CdsMeasureCalculations {
       ResolvedCdsTrade trade,
       ScenarioMarketData marketData) {
 
-    return ValuesArray.of(
-        marketData.getScenarioCount(),
-        index -> calculateParRate(trade, marketData.scenario(index)));
+    return parRate(ImmutableList.of(trade), marketData).get(0);
   }
 
-  // par rate for one scenario
-  private static double calculateParRate(
-      ResolvedCdsTrade trade,
-      MarketData marketData) {
+  // calculates par rate for all scenarios, for several trades
+  // trades sharing the same curves are priced together, calibrating the curves once per scenario
+  static List<ValuesArray> parRate(
+      List<ResolvedCdsTrade> trades,
+      ScenarioMarketData marketData) {
 
-    ResolvedCds product = trade.getProduct();
-    IsdaYieldCurveInputs yieldCurveInputs = marketData.getValue(IsdaYieldCurveInputsId.of(product.getCurrency()));
-    IsdaCreditCurveInputs creditCurveInputs = creditCurveInputs(trade, marketData);
-    double recoveryRate = cdsRecoveryRate(trade, marketData).getRecoveryRate();
-    return PRICER.parRate(
-        product,
-        yieldCurveInputs,
-        creditCurveInputs,
-        marketData.getValuationDate(),
-        recoveryRate);
+    int scenarioCount = marketData.getScenarioCount();
+    double[][] values = new double[trades.size()][scenarioCount];
+    Collection<List<Integer>> groups = groupByCurves(trades);
+    for (int i = 0; i < scenarioCount; i++) {
+      MarketData scenarioData = marketData.scenario(i);
+      for (List<Integer> group : groups) {
+        CalibratedCurves curves = CalibratedCurves.of(trades.get(group.get(0)), scenarioData);
+        List<ResolvedCds> products = group.stream()
+            .map(index -> trades.get(index).getProduct())
+            .collect(toImmutableList());
+        DoubleArray parRates = PRICER.parRate(
+            products,
+            curves.yieldCurve,
+            curves.creditCurve,
+            scenarioData.getValuationDate(),
+            curves.recoveryRate);
+        for (int j = 0; j < group.size(); j++) {
+          values[group.get(j)][i] = parRates.get(j);
+        }
+      }
+    }
+    return Stream.of(values)
+        .map(array -> ValuesArray.of(DoubleArray.ofUnsafe(array)))
+        .collect(toImmutableList());
   }
 
   //-------------------------------------------------------------------------
@@ -77,27 +103,54 @@ class CdsMeasureCalculations {
       ResolvedCdsTrade trade,
       ScenarioMarketData marketData) {
 
-    return CurrencyValuesArray.of(
-        marketData.getScenarioCount(),
-        i -> calculatePresentValue(trade, marketData.scenario(i)));
+    return presentValue(ImmutableList.of(trade), marketData).get(0);
   }
 
-  // present value for one scenario
-  private static CurrencyAmount calculatePresentValue(
-      ResolvedCdsTrade trade,
-      MarketData marketData) {
+  // calculates present value for all scenarios, for several trades
+  // trades sharing the same curves are priced together, calibrating the curves once per scenario
+  static List<CurrencyValuesArray> presentValue(
+      List<ResolvedCdsTrade> trades,
+      ScenarioMarketData marketData) {
 
-    ResolvedCds product = trade.getProduct();
-    IsdaYieldCurveInputs yieldCurveInputs = marketData.getValue(IsdaYieldCurveInputsId.of(product.getCurrency()));
-    IsdaCreditCurveInputs creditCurveInputs = creditCurveInputs(trade, marketData);
-    double recoveryRate = cdsRecoveryRate(trade, marketData).getRecoveryRate();
-    return PRICER.presentValue(
-        product,
-        yieldCurveInputs,
-        creditCurveInputs,
-        marketData.getValuationDate(),
-        recoveryRate,
-        creditCurveInputs.getScalingFactor());
+    int scenarioCount = marketData.getScenarioCount();
+    CurrencyAmount[][] values = new CurrencyAmount[trades.size()][scenarioCount];
+    Collection<List<Integer>> groups = groupByCurves(trades);
+    for (int i = 0; i < scenarioCount; i++) {
+      MarketData scenarioData = marketData.scenario(i);
+      for (List<Integer> group : groups) {
+        CalibratedCurves curves = CalibratedCurves.of(trades.get(group.get(0)), scenarioData);
+        List<ResolvedCds> products = group.stream()
+            .map(index -> trades.get(index).getProduct())
+            .collect(toImmutableList());
+        List<CurrencyAmount> presentValues = PRICER.presentValue(
+            products,
+            curves.yieldCurve,
+            curves.creditCurve,
+            scenarioData.getValuationDate(),
+            curves.recoveryRate,
+            curves.scalingFactor);
+        for (int j = 0; j < group.size(); j++) {
+          values[group.get(j)][i] = presentValues.get(j);
+        }
+      }
+    }
+    return Stream.of(values)
+        .map(array -> CurrencyValuesArray.of(ImmutableList.copyOf(array)))
+        .collect(toImmutableList());
+  }
+
+  // groups the trades by the market data used to build their curves, preserving the order of the trades
+  private static Collection<List<Integer>> groupByCurves(List<ResolvedCdsTrade> trades) {
+    Map<List<MarketDataId<?>>, List<Integer>> groups = new LinkedHashMap<>();
+    for (int i = 0; i < trades.size(); i++) {
+      ResolvedCdsTrade trade = trades.get(i);
+      List<MarketDataId<?>> key = ImmutableList.of(
+          IsdaYieldCurveInputsId.of(trade.getProduct().getCurrency()),
+          creditCurveInputsId(trade),
+          recoveryRateId(trade));
+      groups.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+    }
+    return groups.values();
   }
 
   //-------------------------------------------------------------------------
@@ -393,30 +446,68 @@ class CdsMeasureCalculations {
   //-------------------------------------------------------------------------
   // obtains the credit curve inputs
   private static IsdaCreditCurveInputs creditCurveInputs(ResolvedCdsTrade trade, MarketData marketData) {
+    return marketData.getValue(creditCurveInputsId(trade));
+  }
+
+  // obtains the recovey rate
+  private static CdsRecoveryRate cdsRecoveryRate(ResolvedCdsTrade trade, MarketData marketData) {
+    return marketData.getValue(recoveryRateId(trade));
+  }
+
+  // obtains the identifier of the credit curve inputs
+  private static MarketDataId<IsdaCreditCurveInputs> creditCurveInputsId(ResolvedCdsTrade trade) {
     ReferenceInformation refInfo = trade.getProduct().getReferenceInformation();
     if (refInfo instanceof SingleNameReferenceInformation) {
-      return marketData.getValue(IsdaSingleNameCreditCurveInputsId.of((SingleNameReferenceInformation) refInfo));
+      return IsdaSingleNameCreditCurveInputsId.of((SingleNameReferenceInformation) refInfo);
 
     } else if (refInfo instanceof IndexReferenceInformation) {
-      return marketData.getValue(IsdaIndexCreditCurveInputsId.of((IndexReferenceInformation) refInfo));
+      return IsdaIndexCreditCurveInputsId.of((IndexReferenceInformation) refInfo);
 
     } else {
       throw new IllegalStateException("Unknown reference information type: " + refInfo.getType());
     }
   }
 
-  // obtains the recovey rate
-  private static CdsRecoveryRate cdsRecoveryRate(ResolvedCdsTrade trade, MarketData marketData) {
+  // obtains the identifier of the recovey rate
+  private static MarketDataId<CdsRecoveryRate> recoveryRateId(ResolvedCdsTrade trade) {
     ReferenceInformation refInfo = trade.getProduct().getReferenceInformation();
     if (refInfo instanceof SingleNameReferenceInformation) {
-      return marketData.getValue(IsdaSingleNameRecoveryRateId.of((SingleNameReferenceInformation) refInfo));
+      return IsdaSingleNameRecoveryRateId.of((SingleNameReferenceInformation) refInfo);
 
     } else if (refInfo instanceof IndexReferenceInformation) {
-      return marketData.getValue(IsdaIndexRecoveryRateId.of((IndexReferenceInformation) refInfo));
+      return IsdaIndexRecoveryRateId.of((IndexReferenceInformation) refInfo);
 
     } else {
       throw new IllegalStateException("Unknown reference information type: " + refInfo.getType());
     }
   }
 
+  //-------------------------------------------------------------------------
+  // the curves calibrated for one scenario, shared by the trades using the same market data
+  private static final class CalibratedCurves {
+    private final NodalCurve yieldCurve;
+    private final NodalCurve creditCurve;
+    private final double recoveryRate;
+    private final double scalingFactor;
+
+    private CalibratedCurves(NodalCurve yieldCurve, NodalCurve creditCurve, double recoveryRate, double scalingFactor) {
+      this.yieldCurve = yieldCurve;
+      this.creditCurve = creditCurve;
+      this.recoveryRate = recoveryRate;
+      this.scalingFactor = scalingFactor;
+    }
+
+    // calibrates the curves used by the trade
+    private static CalibratedCurves of(ResolvedCdsTrade trade, MarketData marketData) {
+      IsdaYieldCurveInputs yieldCurveInputs =
+          marketData.getValue(IsdaYieldCurveInputsId.of(trade.getProduct().getCurrency()));
+      IsdaCreditCurveInputs creditCurveInputs = creditCurveInputs(trade, marketData);
+      double recoveryRate = cdsRecoveryRate(trade, marketData).getRecoveryRate();
+      NodalCurve yieldCurve = PRICER.calibrateYieldCurve(yieldCurveInputs, marketData.getValuationDate());
+      NodalCurve creditCurve = PRICER.calibrateCreditCurve(
+          creditCurveInputs, yieldCurve, marketData.getValuationDate(), recoveryRate);
+      return new CalibratedCurves(yieldCurve, creditCurve, recoveryRate, creditCurveInputs.getScalingFactor());
+    }
+  }
+
 }
@@ -8,6 +8,7 @@ package com.opengamma.strata.measure.rate;
 import java.time.LocalDate;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 import org.joda.beans.BeanDefinition;
@@ -70,6 +71,19 @@ final class DefaultLookupRatesProvider
    * The FX rate provider.
    */
   private final FxRateProvider fxRateProvider;  // derived
+  /**
+   * The discount factors, built on demand and shared by all callers.
+   */
+  private final ConcurrentHashMap<Currency, DiscountFactors> discountFactors = new ConcurrentHashMap<>();  // derived
+  /**
+   * The Ibor index rates, built on demand and shared by all callers.
+   */
+  private final ConcurrentHashMap<IborIndex, IborIndexRates> iborIndexRates = new ConcurrentHashMap<>();  // derived
+  /**
+   * The Overnight index rates, built on demand and shared by all callers.
+   */
+  private final ConcurrentHashMap<OvernightIndex, OvernightIndexRates> overnightIndexRates =
+      new ConcurrentHashMap<>();  // derived
 
   //-------------------------------------------------------------------------
   /**
@@ -129,6 +143,12 @@ final class DefaultLookupRatesProvider
   //-------------------------------------------------------------------------
   @Override
   public DiscountFactors discountFactors(Currency currency) {
+    DiscountFactors cached = discountFactors.get(currency);
+    return cached != null ? cached : discountFactors.computeIfAbsent(currency, this::createDiscountFactors);
+  }
+
+  // creates the discount factors from the curve
+  private DiscountFactors createDiscountFactors(Currency currency) {
     CurveId curveId = lookup.getDiscountCurves().get(currency);
     if (curveId == null) {
       throw new IllegalArgumentException(lookup.msgCurrencyNotFound(currency));
@@ -156,6 +176,12 @@ final class DefaultLookupRatesProvider
   //-------------------------------------------------------------------------
   @Override
   public IborIndexRates iborIndexRates(IborIndex index) {
+    IborIndexRates cached = iborIndexRates.get(index);
+    return cached != null ? cached : iborIndexRates.computeIfAbsent(index, this::createIborIndexRates);
+  }
+
+  // creates the Ibor index rates from the curve
+  private IborIndexRates createIborIndexRates(IborIndex index) {
     CurveId curveId = lookup.getForwardCurves().get(index);
     if (curveId == null) {
       throw new IllegalArgumentException(lookup.msgIndexNotFound(index));
@@ -167,6 +193,12 @@ final class DefaultLookupRatesProvider
   //-------------------------------------------------------------------------
   @Override
   public OvernightIndexRates overnightIndexRates(OvernightIndex index) {
+    OvernightIndexRates cached = overnightIndexRates.get(index);
+    return cached != null ? cached : overnightIndexRates.computeIfAbsent(index, this::createOvernightIndexRates);
+  }
+
+  // creates the Overnight index rates from the curve
+  private OvernightIndexRates createOvernightIndexRates(OvernightIndex index) {
     CurveId curveId = lookup.getForwardCurves().get(index);
     if (curveId == null) {
       throw new IllegalArgumentException(lookup.msgIndexNotFound(index));
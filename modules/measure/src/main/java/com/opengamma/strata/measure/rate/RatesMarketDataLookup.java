@@ -21,6 +21,7 @@ import com.opengamma.strata.collect.MapStream;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.data.MarketDataId;
 import com.opengamma.strata.data.ObservableSource;
+import com.opengamma.strata.data.scenario.CachingScenarioMarketData;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 import com.opengamma.strata.market.curve.CurveGroup;
 import com.opengamma.strata.market.curve.CurveGroupDefinition;
@@ -244,11 +245,19 @@ public interface RatesMarketDataLookup extends CalculationParameter {
    * <p>
    * This method returns an instance that binds the lookup to the market data.
    * The input is {@link ScenarioMarketData}, which contains market data for all scenarios.
+   * <p>
+   * If the market data is a {@link CachingScenarioMarketData}, as provided by the calculation runner,
+   * the view is shared with all other callers using an equal lookup.
+   * This allows the rates provider of each scenario to be built once for the whole run.
    * 
    * @param marketData  the complete set of market data for all scenarios
    * @return the filtered market data
    */
   public default RatesScenarioMarketData marketDataView(ScenarioMarketData marketData) {
+    if (marketData instanceof CachingScenarioMarketData) {
+      return ((CachingScenarioMarketData) marketData).derivedValue(
+          RatesScenarioMarketData.class, this, underlying -> DefaultRatesScenarioMarketData.of(this, underlying));
+    }
     return DefaultRatesScenarioMarketData.of(this, marketData);
   }
 
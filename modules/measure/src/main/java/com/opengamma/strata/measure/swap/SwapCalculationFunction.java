@@ -5,16 +5,24 @@
  */
 package com.opengamma.strata.measure.swap;
 
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.Set;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.calc.Measure;
-import com.opengamma.strata.calc.runner.CalculationFunction;
+import com.opengamma.strata.calc.runner.BatchCalculationFunction;
 import com.opengamma.strata.calc.runner.CalculationParameters;
 import com.opengamma.strata.calc.runner.FunctionRequirements;
 import com.opengamma.strata.calc.runner.FunctionUtils;
@@ -43,6 +51,7 @@ import com.opengamma.strata.product.swap.SwapTrade;
  *   <li>{@linkplain Measures#CASH_FLOWS Cash flows}
  *   <li>{@linkplain Measures#PV01 PV01}
  *   <li>{@linkplain Measures#BUCKETED_PV01 Bucketed PV01}
+ *   <li>{@linkplain Measures#PV01_MARKET_QUOTE_BUCKETED Bucketed PV01 with respect to market quotes}
  *   <li>{@linkplain Measures#BUCKETED_GAMMA_PV01 Gamma PV01}
  *   <li>{@linkplain Measures#ACCRUED_INTEREST Accrued interest}
  *   <li>{@linkplain Measures#LEG_INITIAL_NOTIONAL Leg initial notional}
@@ -52,9 +61,13 @@ import com.opengamma.strata.product.swap.SwapTrade;
  * </ul>
  * <p>
  * The "natural" currency is the currency of the swaption, which is limited to be single-currency.
+ * <p>
+ * When invoked for a batch of trades, the market data view and rates providers are shared by the trades.
+ * The market quote sensitivities of the trades are calculated together, applying the Jacobian of each
+ * curve to the sensitivities of all the trades in a single matrix multiplication.
  */
 public class SwapCalculationFunction
-    implements CalculationFunction<SwapTrade> {
+    implements BatchCalculationFunction<SwapTrade> {
 
   /**
    * The calculations by measure.
@@ -68,6 +81,7 @@ public class SwapCalculationFunction
           .put(Measures.CASH_FLOWS, SwapMeasureCalculations::cashFlows)
           .put(Measures.PV01, SwapMeasureCalculations::pv01)
           .put(Measures.BUCKETED_PV01, SwapMeasureCalculations::bucketedPv01)
+          .put(Measures.PV01_MARKET_QUOTE_BUCKETED, SwapMeasureCalculations::pv01MarketQuoteBucketed)
           .put(Measures.BUCKETED_GAMMA_PV01, SwapMeasureCalculations::bucketedGammaPv01)
           .put(Measures.ACCRUED_INTEREST, SwapMeasureCalculations::accruedInterest)
           .put(Measures.LEG_INITIAL_NOTIONAL, SwapMeasureCalculations::legInitialNotional)
@@ -75,6 +89,13 @@ public class SwapCalculationFunction
           .put(Measures.CURRENCY_EXPOSURE, SwapMeasureCalculations::currencyExposure)
           .put(Measures.CURRENT_CASH, SwapMeasureCalculations::currentCash)
           .build();
+  /**
+   * The calculations of several trades by measure, for those measures that benefit from calculating together.
+   */
+  private static final ImmutableMap<Measure, BatchMeasureCalculation> BATCH_CALCULATORS =
+      ImmutableMap.<Measure, BatchMeasureCalculation>builder()
+          .put(Measures.PV01_MARKET_QUOTE_BUCKETED, SwapMeasureCalculations::pv01MarketQuoteBucketed)
+          .build();
 
   private static final ImmutableSet<Measure> MEASURES = ImmutableSet.<Measure>builder()
       .addAll(CALCULATORS.keySet())
@@ -120,6 +141,13 @@ public class SwapCalculationFunction
     return ratesLookup.requirements(currencies, product.allIndices());
   }
 
+  @Override
+  public Optional<Object> requirementsKey(SwapTrade trade) {
+    // the requirements only depend on the currencies and indices
+    Swap product = trade.getProduct();
+    return Optional.of(ImmutableList.of(product.allPaymentCurrencies(), product.allIndices()));
+  }
+
   //-------------------------------------------------------------------------
   @Override
   public Map<Measure, Result<?>> calculate(
@@ -135,6 +163,68 @@ public class SwapCalculationFunction
     // use lookup to query market data
     RatesMarketDataLookup ratesLookup = parameters.getParameter(RatesMarketDataLookup.class);
     RatesScenarioMarketData marketData = ratesLookup.marketDataView(scenarioMarketData);
+    return calculate(resolved, measures, marketData);
+  }
+
+  @Override
+  public List<Map<Measure, Result<?>>> calculateBatch(
+      List<SwapTrade> trades,
+      Set<Measure> measures,
+      CalculationParameters parameters,
+      ScenarioMarketData scenarioMarketData,
+      ReferenceData refData) {
+
+    // use lookup to query market data once for all trades
+    // the view creates the rates provider of each scenario once, shared by all trades
+    RatesMarketDataLookup ratesLookup = parameters.getParameter(RatesMarketDataLookup.class);
+    RatesScenarioMarketData marketData = ratesLookup.marketDataView(scenarioMarketData);
+    List<ResolvedSwapTrade> resolved = trades.stream()
+        .map(trade -> trade.resolve(refData))
+        .collect(toImmutableList());
+
+    // calculate the measures that benefit from calculating together, then the remaining measures by trade
+    Map<Measure, List<? extends ScenarioArray<?>>> batchValues = new HashMap<>();
+    for (Measure measure : measures) {
+      List<? extends ScenarioArray<?>> values = calculateBatch(measure, resolved, marketData);
+      if (values != null) {
+        batchValues.put(measure, values);
+      }
+    }
+    Set<Measure> remaining = Sets.difference(measures, batchValues.keySet());
+    List<Map<Measure, Result<?>>> results = new ArrayList<>(trades.size());
+    for (int i = 0; i < trades.size(); i++) {
+      Map<Measure, Result<?>> tradeResults = calculate(resolved.get(i), remaining, marketData);
+      for (Entry<Measure, List<? extends ScenarioArray<?>>> entry : batchValues.entrySet()) {
+        tradeResults.put(entry.getKey(), Result.success(entry.getValue().get(i)));
+      }
+      results.add(tradeResults);
+    }
+    return results;
+  }
+
+  // calculate one measure for all trades together, returning null if the trades must be calculated separately
+  private List<? extends ScenarioArray<?>> calculateBatch(
+      Measure measure,
+      List<ResolvedSwapTrade> trades,
+      RatesScenarioMarketData marketData) {
+
+    BatchMeasureCalculation calculator = BATCH_CALCULATORS.get(measure);
+    if (calculator == null) {
+      return null;
+    }
+    try {
+      return calculator.calculate(trades, marketData);
+    } catch (RuntimeException ex) {
+      // calculating separately reports the failure against the trade that caused it
+      return null;
+    }
+  }
+
+  // calculate all measures for one trade
+  private Map<Measure, Result<?>> calculate(
+      ResolvedSwapTrade resolved,
+      Set<Measure> measures,
+      RatesScenarioMarketData marketData) {
 
     // loop around measures, calculating all scenarios for one measure
     Map<Measure, Result<?>> results = new HashMap<>();
@@ -167,4 +257,11 @@ public class SwapCalculationFunction
         RatesScenarioMarketData marketData);
   }
 
+  @FunctionalInterface
+  interface BatchMeasureCalculation {
+    public abstract List<? extends ScenarioArray<?>> calculate(
+        List<ResolvedSwapTrade> trades,
+        RatesScenarioMarketData marketData);
+  }
+
 }
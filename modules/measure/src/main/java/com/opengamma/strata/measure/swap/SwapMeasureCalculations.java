@@ -12,6 +12,7 @@ import static java.util.stream.Collectors.toList;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
@@ -42,6 +43,7 @@ import com.opengamma.strata.measure.rate.RatesMarketData;
 import com.opengamma.strata.measure.rate.RatesScenarioMarketData;
 import com.opengamma.strata.pricer.rate.RatesProvider;
 import com.opengamma.strata.pricer.sensitivity.CurveGammaCalculator;
+import com.opengamma.strata.pricer.sensitivity.MarketQuoteSensitivityCalculator;
 import com.opengamma.strata.pricer.swap.DiscountingSwapLegPricer;
 import com.opengamma.strata.pricer.swap.DiscountingSwapProductPricer;
 import com.opengamma.strata.product.swap.NotionalPaymentPeriod;
@@ -61,6 +63,10 @@ final class SwapMeasureCalculations {
    * The pricer to use.
    */
   private static final DiscountingSwapProductPricer PRICER = DiscountingSwapProductPricer.DEFAULT;
+  /**
+   * The market quote sensitivity calculator.
+   */
+  private static final MarketQuoteSensitivityCalculator MARKET_QUOTE_SENS = MarketQuoteSensitivityCalculator.DEFAULT;
   /**
    * One basis point, expressed as a {@code double}.
    */
@@ -203,6 +209,53 @@ final class SwapMeasureCalculations {
     return provider.parameterSensitivity(pointSensitivity).multipliedBy(ONE_BASIS_POINT);
   }
 
+  //-------------------------------------------------------------------------
+  // calculates market quote bucketed PV01 for all scenarios
+  static ScenarioArray<CurrencyParameterSensitivities> pv01MarketQuoteBucketed(
+      ResolvedSwapTrade trade,
+      RatesScenarioMarketData marketData) {
+
+    ResolvedSwap product = trade.getProduct();
+    return ScenarioArray.of(
+        marketData.getScenarioCount(),
+        i -> calculatePv01MarketQuoteBucketed(product, marketData.scenario(i)));
+  }
+
+  // market quote bucketed PV01 for one scenario
+  private static CurrencyParameterSensitivities calculatePv01MarketQuoteBucketed(
+      ResolvedSwap product,
+      RatesMarketData marketData) {
+
+    CurrencyParameterSensitivities paramSens = calculateBucketedPv01(product, marketData);
+    return MARKET_QUOTE_SENS.sensitivity(paramSens, marketData.ratesProvider());
+  }
+
+  // calculates market quote bucketed PV01 for several trades and all scenarios
+  static List<ScenarioArray<CurrencyParameterSensitivities>> pv01MarketQuoteBucketed(
+      List<ResolvedSwapTrade> trades,
+      RatesScenarioMarketData marketData) {
+
+    int scenarioCount = marketData.getScenarioCount();
+    List<List<CurrencyParameterSensitivities>> scenarioValues = IntStream.range(0, scenarioCount)
+        .mapToObj(i -> calculatePv01MarketQuoteBucketed(trades, marketData.scenario(i)))
+        .collect(toImmutableList());
+    return IntStream.range(0, trades.size())
+        .mapToObj(t -> ScenarioArray.of(scenarioCount, i -> scenarioValues.get(i).get(t)))
+        .collect(toImmutableList());
+  }
+
+  // market quote bucketed PV01 for several trades and one scenario
+  // the Jacobians are applied to the sensitivities of all the trades together
+  private static List<CurrencyParameterSensitivities> calculatePv01MarketQuoteBucketed(
+      List<ResolvedSwapTrade> trades,
+      RatesMarketData marketData) {
+
+    List<CurrencyParameterSensitivities> paramSens = trades.stream()
+        .map(trade -> calculateBucketedPv01(trade.getProduct(), marketData))
+        .collect(toImmutableList());
+    return MARKET_QUOTE_SENS.sensitivity(paramSens, marketData.ratesProvider());
+  }
+
   //-------------------------------------------------------------------------
   // calculates bucketed gamma PV01 for all scenarios
   static ScenarioArray<CurrencyParameterSensitivities> bucketedGammaPv01(
@@ -0,0 +1,242 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.credit;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static com.opengamma.strata.collect.TestHelper.coverPrivateConstructor;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static com.opengamma.strata.pricer.datasets.IsdaCdsDataSets.CREDIT_CURVE_INPUTS_1;
+import static com.opengamma.strata.pricer.datasets.IsdaCdsDataSets.CREDIT_CURVE_INPUTS_2;
+import static com.opengamma.strata.pricer.datasets.IsdaCdsDataSets.RECOVERY_RATE;
+import static com.opengamma.strata.pricer.datasets.IsdaCdsDataSets.REF_INFO_1;
+import static com.opengamma.strata.pricer.datasets.IsdaCdsDataSets.REF_INFO_2;
+import static com.opengamma.strata.pricer.datasets.IsdaCdsDataSets.VAL_DATE;
+import static com.opengamma.strata.pricer.datasets.IsdaCdsDataSets.YIELD_CURVE_INPUTS;
+import static com.opengamma.strata.pricer.datasets.IsdaCdsDataSets.trade;
+import static com.opengamma.strata.product.common.BuySell.BUY;
+import static com.opengamma.strata.product.common.BuySell.SELL;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.calc.Measure;
+import com.opengamma.strata.calc.runner.CalculationParameters;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.CurrencyValuesArray;
+import com.opengamma.strata.data.scenario.ImmutableScenarioMarketData;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+import com.opengamma.strata.data.scenario.ValuesArray;
+import com.opengamma.strata.market.product.credit.CdsRecoveryRate;
+import com.opengamma.strata.market.product.credit.IsdaCreditCurveInputs;
+import com.opengamma.strata.market.product.credit.IsdaSingleNameCreditCurveInputsId;
+import com.opengamma.strata.market.product.credit.IsdaSingleNameRecoveryRateId;
+import com.opengamma.strata.market.product.credit.IsdaYieldCurveInputsId;
+import com.opengamma.strata.measure.Measures;
+import com.opengamma.strata.pricer.credit.IsdaCdsPricer;
+import com.opengamma.strata.product.credit.CdsTrade;
+import com.opengamma.strata.product.credit.ResolvedCds;
+import com.opengamma.strata.product.credit.ResolvedCdsTrade;
+
+/**
+ * Test {@link CdsCalculationFunction}.
+ * <p>
+ * Trades sharing the same curves are priced as strips of maturities, which take a different path
+ * from pricing a single CDS. The results agree to within 1e-10 per unit notional.
+ */
+@Test
+public class CdsCalculationFunctionTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final IsdaCdsPricer PRICER = IsdaCdsPricer.DEFAULT;
+  private static final CalculationParameters PARAMS = CalculationParameters.empty();
+  private static final double NOTIONAL = 10_000_000d;
+  private static final double TOL = 1e-10;
+
+  // first entity, maturities a whole number of quarters apart, priced as a strip
+  private static final CdsTrade TRADE_1Y =
+      trade(REF_INFO_1, date(2014, 9, 20), date(2015, 12, 20), BUY, NOTIONAL, 0.01);
+  private static final CdsTrade TRADE_5Y =
+      trade(REF_INFO_1, date(2014, 9, 20), date(2019, 12, 20), SELL, NOTIONAL, 0.01);
+  private static final CdsTrade TRADE_7Y =
+      trade(REF_INFO_1, date(2014, 9, 20), date(2021, 12, 20), BUY, NOTIONAL, 0.05);
+  // first entity, maturities not aligned on the schedule, priced one at a time
+  private static final CdsTrade TRADE_ODD_1 =
+      trade(REF_INFO_1, date(2014, 6, 20), date(2016, 6, 20), BUY, NOTIONAL, 0.01);
+  private static final CdsTrade TRADE_ODD_2 =
+      trade(REF_INFO_1, date(2014, 6, 20), date(2018, 8, 5), SELL, NOTIONAL, 0.01);
+  // second entity, the only trade on its curves
+  private static final CdsTrade TRADE_OTHER =
+      trade(REF_INFO_2, date(2014, 9, 20), date(2019, 12, 20), BUY, NOTIONAL, 0.01);
+  private static final List<CdsTrade> TRADES =
+      ImmutableList.of(TRADE_5Y, TRADE_OTHER, TRADE_ODD_1, TRADE_1Y, TRADE_ODD_2, TRADE_7Y);
+
+  // the credit curve of the first entity differs between the two scenarios
+  private static final List<IsdaCreditCurveInputs> SCENARIO_CREDIT_CURVES_1 =
+      ImmutableList.of(CREDIT_CURVE_INPUTS_1, CREDIT_CURVE_INPUTS_2);
+
+  //-------------------------------------------------------------------------
+  public void test_parRate_trades() {
+    List<ResolvedCdsTrade> resolved = resolve(TRADES);
+    List<ValuesArray> computed = CdsMeasureCalculations.parRate(resolved, marketData());
+    assertThat(computed).hasSize(TRADES.size());
+    for (int i = 0; i < TRADES.size(); i++) {
+      assertParRates(computed.get(i), resolved.get(i));
+    }
+  }
+
+  public void test_presentValue_trades() {
+    List<ResolvedCdsTrade> resolved = resolve(TRADES);
+    List<CurrencyValuesArray> computed = CdsMeasureCalculations.presentValue(resolved, marketData());
+    assertThat(computed).hasSize(TRADES.size());
+    for (int i = 0; i < TRADES.size(); i++) {
+      assertPresentValues(computed.get(i), resolved.get(i));
+    }
+  }
+
+  public void test_singleTrade() {
+    ResolvedCdsTrade resolved = TRADE_5Y.resolve(REF_DATA);
+    assertParRates(CdsMeasureCalculations.parRate(resolved, marketData()), resolved);
+    assertPresentValues(CdsMeasureCalculations.presentValue(resolved, marketData()), resolved);
+  }
+
+  public void test_calculate() {
+    CdsCalculationFunction function = new CdsCalculationFunction();
+    ResolvedCdsTrade resolved = TRADE_7Y.resolve(REF_DATA);
+    Set<Measure> measures = ImmutableSet.of(Measures.PRESENT_VALUE, Measures.PAR_RATE);
+    Map<Measure, Result<?>> computed = function.calculate(TRADE_7Y, measures, PARAMS, marketData(), REF_DATA);
+    assertParRates((ValuesArray) computed.get(Measures.PAR_RATE).getValue(), resolved);
+    assertPresentValues((CurrencyValuesArray) computed.get(Measures.PRESENT_VALUE).getValue(), resolved);
+  }
+
+  public void test_calculateBatch() {
+    // trades sharing curves, both strips and not, and a trade that is the only one on its curves
+    CdsCalculationFunction function = new CdsCalculationFunction();
+    ScenarioMarketData md = marketData();
+    Set<Measure> measures = ImmutableSet.of(Measures.PRESENT_VALUE, Measures.PAR_RATE, Measures.RECOVERY01);
+    List<Map<Measure, Result<?>>> batch = function.calculateBatch(TRADES, measures, PARAMS, md, REF_DATA);
+    assertThat(batch).hasSize(TRADES.size());
+    for (int i = 0; i < TRADES.size(); i++) {
+      Map<Measure, Result<?>> expected = function.calculate(TRADES.get(i), measures, PARAMS, md, REF_DATA);
+      Map<Measure, Result<?>> computed = batch.get(i);
+      assertThat(computed.keySet()).isEqualTo(expected.keySet());
+      // the batch measures are priced as strips, the others one trade at a time
+      assertCloseTo(
+          (ValuesArray) computed.get(Measures.PAR_RATE).getValue(),
+          (ValuesArray) expected.get(Measures.PAR_RATE).getValue(),
+          TOL);
+      assertCloseTo(
+          (CurrencyValuesArray) computed.get(Measures.PRESENT_VALUE).getValue(),
+          (CurrencyValuesArray) expected.get(Measures.PRESENT_VALUE).getValue());
+      assertCloseTo(
+          (CurrencyValuesArray) computed.get(Measures.PRESENT_VALUE_MULTI_CCY).getValue(),
+          (CurrencyValuesArray) expected.get(Measures.PRESENT_VALUE_MULTI_CCY).getValue());
+      assertThat(computed.get(Measures.RECOVERY01)).isEqualTo(expected.get(Measures.RECOVERY01));
+    }
+  }
+
+  public void test_calculateBatch_failure() {
+    // the credit curve of the second entity is missing, so the batch calculation fails
+    CdsCalculationFunction function = new CdsCalculationFunction();
+    ScenarioMarketData md = ImmutableScenarioMarketData.builder(VAL_DATE)
+        .addValue(IsdaYieldCurveInputsId.of(REF_INFO_1.getCurrency()), YIELD_CURVE_INPUTS)
+        .addScenarioValue(IsdaSingleNameCreditCurveInputsId.of(REF_INFO_1), SCENARIO_CREDIT_CURVES_1)
+        .addValue(IsdaSingleNameRecoveryRateId.of(REF_INFO_1), CdsRecoveryRate.of(RECOVERY_RATE))
+        .addValue(IsdaSingleNameRecoveryRateId.of(REF_INFO_2), CdsRecoveryRate.of(RECOVERY_RATE))
+        .build();
+    Set<Measure> measures = ImmutableSet.of(Measures.PRESENT_VALUE, Measures.PAR_RATE);
+    List<Map<Measure, Result<?>>> batch = function.calculateBatch(TRADES, measures, PARAMS, md, REF_DATA);
+    assertThat(batch).hasSize(TRADES.size());
+    // the results of the other trades are calculated one at a time
+    for (int i = 0; i < TRADES.size(); i++) {
+      Map<Measure, Result<?>> computed = batch.get(i);
+      if (TRADES.get(i) == TRADE_OTHER) {
+        assertThat(computed.get(Measures.PAR_RATE).isFailure()).isTrue();
+        assertThat(computed.get(Measures.PRESENT_VALUE).isFailure()).isTrue();
+      } else {
+        ResolvedCdsTrade resolved = TRADES.get(i).resolve(REF_DATA);
+        assertParRates((ValuesArray) computed.get(Measures.PAR_RATE).getValue(), resolved);
+        assertPresentValues((CurrencyValuesArray) computed.get(Measures.PRESENT_VALUE).getValue(), resolved);
+      }
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // two scenarios
+  private static ScenarioMarketData marketData() {
+    return ImmutableScenarioMarketData.builder(VAL_DATE)
+        .addValue(IsdaYieldCurveInputsId.of(REF_INFO_1.getCurrency()), YIELD_CURVE_INPUTS)
+        .addScenarioValue(IsdaSingleNameCreditCurveInputsId.of(REF_INFO_1), SCENARIO_CREDIT_CURVES_1)
+        .addValue(IsdaSingleNameCreditCurveInputsId.of(REF_INFO_2), CREDIT_CURVE_INPUTS_2)
+        .addValue(IsdaSingleNameRecoveryRateId.of(REF_INFO_1), CdsRecoveryRate.of(RECOVERY_RATE))
+        .addValue(IsdaSingleNameRecoveryRateId.of(REF_INFO_2), CdsRecoveryRate.of(RECOVERY_RATE))
+        .build();
+  }
+
+  // the credit curve inputs of the trade in the scenario
+  private static IsdaCreditCurveInputs creditCurveInputs(ResolvedCdsTrade trade, int scenarioIndex) {
+    return trade.getProduct().getReferenceInformation().equals(REF_INFO_1) ?
+        SCENARIO_CREDIT_CURVES_1.get(scenarioIndex) :
+        CREDIT_CURVE_INPUTS_2;
+  }
+
+  private static List<ResolvedCdsTrade> resolve(List<CdsTrade> trades) {
+    return trades.stream()
+        .map(trade -> trade.resolve(REF_DATA))
+        .collect(toImmutableList());
+  }
+
+  // compares the par rates with the single CDS pricer
+  private static void assertParRates(ValuesArray computed, ResolvedCdsTrade trade) {
+    ResolvedCds product = trade.getProduct();
+    assertThat(computed.getScenarioCount()).isEqualTo(SCENARIO_CREDIT_CURVES_1.size());
+    for (int i = 0; i < computed.getScenarioCount(); i++) {
+      double expected = PRICER.parRate(
+          product, YIELD_CURVE_INPUTS, creditCurveInputs(trade, i), VAL_DATE, RECOVERY_RATE);
+      assertThat(computed.get(i)).isCloseTo(expected, offset(TOL));
+    }
+  }
+
+  // compares the present values with the single CDS pricer
+  private static void assertPresentValues(CurrencyValuesArray computed, ResolvedCdsTrade trade) {
+    ResolvedCds product = trade.getProduct();
+    assertThat(computed.getScenarioCount()).isEqualTo(SCENARIO_CREDIT_CURVES_1.size());
+    for (int i = 0; i < computed.getScenarioCount(); i++) {
+      CurrencyAmount expected = PRICER.presentValue(
+          product, YIELD_CURVE_INPUTS, creditCurveInputs(trade, i), VAL_DATE, RECOVERY_RATE, 1d);
+      assertThat(computed.getCurrency()).isEqualTo(expected.getCurrency());
+      assertThat(computed.get(i).getAmount()).isCloseTo(expected.getAmount(), offset(NOTIONAL * TOL));
+    }
+  }
+
+  // compares values calculated by different paths
+  private static void assertCloseTo(ValuesArray computed, ValuesArray expected, double tolerance) {
+    assertThat(computed.getScenarioCount()).isEqualTo(expected.getScenarioCount());
+    for (int i = 0; i < computed.getScenarioCount(); i++) {
+      assertThat(computed.get(i)).isCloseTo(expected.get(i), offset(tolerance));
+    }
+  }
+
+  // compares amounts calculated by different paths
+  private static void assertCloseTo(CurrencyValuesArray computed, CurrencyValuesArray expected) {
+    assertThat(computed.getCurrency()).isEqualTo(expected.getCurrency());
+    assertCloseTo(ValuesArray.of(computed.getValues()), ValuesArray.of(expected.getValues()), NOTIONAL * TOL);
+  }
+
+  //-------------------------------------------------------------------------
+  public void coverage() {
+    coverPrivateConstructor(CdsMeasureCalculations.class);
+  }
+
+}
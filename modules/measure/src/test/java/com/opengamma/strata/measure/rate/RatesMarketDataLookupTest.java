@@ -22,6 +22,8 @@ import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
 import static com.opengamma.strata.collect.TestHelper.date;
 import static org.mockito.Mockito.mock;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
 
 import java.time.LocalDate;
 import java.util.Optional;
@@ -41,6 +43,7 @@ import com.opengamma.strata.data.ImmutableMarketData;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.data.MarketDataNotFoundException;
 import com.opengamma.strata.data.ObservableSource;
+import com.opengamma.strata.data.scenario.CachingScenarioMarketData;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 import com.opengamma.strata.market.curve.ConstantCurve;
 import com.opengamma.strata.market.curve.Curve;
@@ -148,6 +151,22 @@ public class RatesMarketDataLookupTest {
     assertEquals(scenario.getValuationDate(), valDate);
   }
 
+  public void test_marketDataView_caching() {
+    ImmutableMap<Currency, CurveId> discounts = ImmutableMap.of(USD, CURVE_ID_DSC);
+    ImmutableMap<Index, CurveId> forwards = ImmutableMap.of(USD_LIBOR_3M, CURVE_ID_FWD);
+    RatesMarketDataLookup test = RatesMarketDataLookup.of(discounts, forwards);
+    RatesMarketDataLookup other = RatesMarketDataLookup.of(discounts, ImmutableMap.of());
+    ScenarioMarketData md = new TestMarketDataMap(date(2015, 6, 30), ImmutableMap.of(), ImmutableMap.of());
+    CachingScenarioMarketData cachingMd = CachingScenarioMarketData.of(md);
+    RatesScenarioMarketData multiScenario = test.marketDataView(cachingMd);
+    assertEquals(multiScenario.getMarketData(), md);
+    assertSame(test.marketDataView(cachingMd), multiScenario);
+    assertSame(RatesMarketDataLookup.of(discounts, forwards).marketDataView(cachingMd), multiScenario);
+    assertSame(multiScenario.scenario(0), multiScenario.scenario(0));
+    assertNotSame(other.marketDataView(cachingMd), multiScenario);
+    assertNotSame(test.marketDataView(md), test.marketDataView(md));
+  }
+
   public void test_ratesProvider() {
     ImmutableMap<Currency, CurveId> discounts = ImmutableMap.of(USD, CURVE_ID_DSC);
     ImmutableMap<Index, CurveId> forwards =
@@ -165,16 +184,19 @@ public class RatesMarketDataLookupTest {
     // check discount factors
     SimpleDiscountFactors df = (SimpleDiscountFactors) ratesProvider.discountFactors(USD);
     assertEquals(df.getCurve().getName(), dscCurve.getName());
+    assertSame(ratesProvider.discountFactors(USD), df);
     assertThrowsIllegalArg(() -> ratesProvider.discountFactors(GBP));
     // check Ibor
     DiscountIborIndexRates ibor = (DiscountIborIndexRates) ratesProvider.iborIndexRates(USD_LIBOR_3M);
     SimpleDiscountFactors iborDf = (SimpleDiscountFactors) ibor.getDiscountFactors();
     assertEquals(iborDf.getCurve().getName(), fwdCurve.getName());
+    assertSame(ratesProvider.iborIndexRates(USD_LIBOR_3M), ibor);
     assertThrowsIllegalArg(() -> ratesProvider.iborIndexRates(GBP_LIBOR_3M));
     // check Overnight
     DiscountOvernightIndexRates on = (DiscountOvernightIndexRates) ratesProvider.overnightIndexRates(USD_FED_FUND);
     SimpleDiscountFactors onDf = (SimpleDiscountFactors) on.getDiscountFactors();
     assertEquals(onDf.getCurve().getName(), dscCurve.getName());
+    assertSame(ratesProvider.overnightIndexRates(USD_FED_FUND), on);
     assertThrowsIllegalArg(() -> ratesProvider.overnightIndexRates(GBP_SONIA));
     // check price curve must be interpolated
     assertThrowsIllegalArg(() -> ratesProvider.priceIndexValues(US_CPI_U));
@@ -11,6 +11,8 @@ import static com.opengamma.strata.collect.TestHelper.date;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.testng.annotations.Test;
@@ -26,6 +28,7 @@ import com.opengamma.strata.basics.index.IborIndex;
 import com.opengamma.strata.calc.Measure;
 import com.opengamma.strata.calc.runner.CalculationParameters;
 import com.opengamma.strata.calc.runner.FunctionRequirements;
+import com.opengamma.strata.collect.array.DoubleMatrix;
 import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.data.scenario.MultiCurrencyValuesArray;
 import com.opengamma.strata.data.scenario.ScenarioArray;
@@ -35,7 +38,11 @@ import com.opengamma.strata.market.amount.CashFlows;
 import com.opengamma.strata.market.curve.ConstantCurve;
 import com.opengamma.strata.market.curve.Curve;
 import com.opengamma.strata.market.curve.CurveId;
+import com.opengamma.strata.market.curve.CurveInfoType;
+import com.opengamma.strata.market.curve.CurveName;
+import com.opengamma.strata.market.curve.CurveParameterSize;
 import com.opengamma.strata.market.curve.Curves;
+import com.opengamma.strata.market.curve.JacobianCalibrationMatrix;
 import com.opengamma.strata.market.explain.ExplainMap;
 import com.opengamma.strata.market.observable.IndexQuoteId;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
@@ -44,6 +51,7 @@ import com.opengamma.strata.measure.Measures;
 import com.opengamma.strata.measure.calc.curve.TestMarketDataMap;
 import com.opengamma.strata.measure.rate.RatesMarketDataLookup;
 import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.pricer.sensitivity.MarketQuoteSensitivityCalculator;
 import com.opengamma.strata.pricer.swap.DiscountingSwapProductPricer;
 import com.opengamma.strata.product.common.BuySell;
 import com.opengamma.strata.product.swap.ResolvedSwap;
@@ -140,6 +148,49 @@ public class SwapCalculationFunctionTest {
             Measures.BUCKETED_PV01, Result.success(ScenarioArray.of(ImmutableList.of(expectedBucketedPv01))));
   }
 
+  public void test_calculateBatch() {
+    SwapCalculationFunction function = new SwapCalculationFunction();
+    ScenarioMarketData md = marketData();
+    SwapTrade trade2 = FixedIborSwapConventions.GBP_FIXED_6M_LIBOR_6M
+        .createTrade(date(2016, 6, 30), Tenor.TENOR_5Y, BuySell.SELL, 2_000_000, 0.02, REF_DATA);
+    Set<Measure> measures = ImmutableSet.of(Measures.PRESENT_VALUE, Measures.PAR_RATE, Measures.PV01);
+    List<Map<Measure, Result<?>>> batch =
+        function.calculateBatch(ImmutableList.of(TRADE, trade2), measures, PARAMS, md, REF_DATA);
+    assertThat(batch).containsExactly(
+        function.calculate(TRADE, measures, PARAMS, md, REF_DATA),
+        function.calculate(trade2, measures, PARAMS, md, REF_DATA));
+  }
+
+  public void test_pv01MarketQuoteBucketed() {
+    SwapCalculationFunction function = new SwapCalculationFunction();
+    ScenarioMarketData md = calibratedMarketData();
+    RatesProvider provider = RATES_LOOKUP.ratesProvider(md.scenario(0));
+    DiscountingSwapProductPricer pricer = DiscountingSwapProductPricer.DEFAULT;
+    ResolvedSwap resolved = TRADE.getProduct().resolve(REF_DATA);
+    PointSensitivities pvPointSens = pricer.presentValueSensitivity(resolved, provider).build();
+    CurrencyParameterSensitivities pvParamSens = provider.parameterSensitivity(pvPointSens);
+    CurrencyParameterSensitivities expected =
+        MarketQuoteSensitivityCalculator.DEFAULT.sensitivity(pvParamSens.multipliedBy(1e-4), provider);
+
+    Set<Measure> measures = ImmutableSet.of(Measures.PV01_MARKET_QUOTE_BUCKETED);
+    assertThat(function.calculate(TRADE, measures, PARAMS, md, REF_DATA))
+        .containsEntry(
+            Measures.PV01_MARKET_QUOTE_BUCKETED, Result.success(ScenarioArray.of(ImmutableList.of(expected))));
+  }
+
+  public void test_calculateBatch_pv01MarketQuoteBucketed() {
+    SwapCalculationFunction function = new SwapCalculationFunction();
+    ScenarioMarketData md = calibratedMarketData();
+    SwapTrade trade2 = FixedIborSwapConventions.GBP_FIXED_6M_LIBOR_6M
+        .createTrade(date(2016, 6, 30), Tenor.TENOR_5Y, BuySell.SELL, 2_000_000, 0.02, REF_DATA);
+    Set<Measure> measures = ImmutableSet.of(Measures.PRESENT_VALUE, Measures.PV01_MARKET_QUOTE_BUCKETED);
+    List<Map<Measure, Result<?>>> batch =
+        function.calculateBatch(ImmutableList.of(TRADE, trade2), measures, PARAMS, md, REF_DATA);
+    assertThat(batch).containsExactly(
+        function.calculate(TRADE, measures, PARAMS, md, REF_DATA),
+        function.calculate(trade2, measures, PARAMS, md, REF_DATA));
+  }
+
   //-------------------------------------------------------------------------
   private ScenarioMarketData marketData() {
     Curve curve = ConstantCurve.of(Curves.discountFactors("Test", ACT_360), 0.99);
@@ -150,6 +201,20 @@ public class SwapCalculationFunctionTest {
     return md;
   }
 
+  // market data with a curve providing Jacobian calibration information
+  private ScenarioMarketData calibratedMarketData() {
+    CurveName name = CurveName.of("Test");
+    JacobianCalibrationMatrix jacobian =
+        JacobianCalibrationMatrix.of(ImmutableList.of(CurveParameterSize.of(name, 1)), DoubleMatrix.of(1, 1, 2d));
+    Curve curve = ConstantCurve.of(
+        Curves.discountFactors(name, ACT_360).withInfo(CurveInfoType.JACOBIAN, jacobian), 0.99);
+    TestMarketDataMap md = new TestMarketDataMap(
+        VAL_DATE,
+        ImmutableMap.of(DISCOUNT_CURVE_ID, curve, FORWARD_CURVE_ID, curve),
+        ImmutableMap.of());
+    return md;
+  }
+
   //-------------------------------------------------------------------------
   public void coverage() {
     coverPrivateConstructor(SwapMeasureCalculations.class);
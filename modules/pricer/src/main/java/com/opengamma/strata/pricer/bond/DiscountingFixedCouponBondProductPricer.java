@@ -794,7 +794,8 @@ public class DiscountingFixedCouponBondProductPricer {
   }
 
   //-------------------------------------------------------------------------
-  private double factorToNextCoupon(ResolvedFixedCouponBond bond, LocalDate settlementDate) {
+  // the fraction of the current coupon period remaining after the settlement date
+  double factorToNextCoupon(ResolvedFixedCouponBond bond, LocalDate settlementDate) {
     if (bond.getPeriodicPayments().get(0).getStartDate().isAfter(settlementDate)) {
       return 0d;
     }
@@ -804,7 +805,8 @@ public class DiscountingFixedCouponBondProductPricer {
     return (factorPeriod - factorSpot) / factorPeriod;
   }
 
-  private int couponIndex(ImmutableList<FixedCouponBondPaymentPeriod> list, LocalDate date) {
+  // the index of the first period ending after the date
+  int couponIndex(ImmutableList<FixedCouponBondPaymentPeriod> list, LocalDate date) {
     int nbCoupon = list.size();
     int couponIndex = 0;
     for (int loopcpn = 0; loopcpn < nbCoupon; ++loopcpn) {
@@ -0,0 +1,630 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.bond;
+
+import static com.opengamma.strata.product.bond.FixedCouponBondYieldConvention.GERMAN_BONDS;
+import static com.opengamma.strata.product.bond.FixedCouponBondYieldConvention.JAPAN_SIMPLE;
+import static com.opengamma.strata.product.bond.FixedCouponBondYieldConvention.UK_BUMP_DMO;
+import static com.opengamma.strata.product.bond.FixedCouponBondYieldConvention.US_STREET;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.market.product.CompoundedRateType;
+import com.opengamma.strata.market.product.DiscountFactors;
+import com.opengamma.strata.math.impl.rootfinding.BracketRoot;
+import com.opengamma.strata.math.impl.rootfinding.BrentSingleRootFinder;
+import com.opengamma.strata.math.impl.rootfinding.RealSingleRootFinder;
+import com.opengamma.strata.pricer.rate.LegalEntityDiscountingProvider;
+import com.opengamma.strata.product.bond.FixedCouponBondPaymentPeriod;
+import com.opengamma.strata.product.bond.FixedCouponBondYieldConvention;
+import com.opengamma.strata.product.bond.ResolvedFixedCouponBond;
+
+/**
+ * Pricer for yield and z-spread measures of many fixed coupon bonds at once.
+ * <p>
+ * This provides the yield based measures of {@link DiscountingFixedCouponBondProductPricer}
+ * for a set of bonds, each with a settlement date.
+ * On creation, the coupons of each bond are extracted into primitive arrays, such that
+ * the measures can be repeatedly calculated, for example on each price update, without
+ * examining the payment periods of the bonds again.
+ * <p>
+ * The inputs and outputs are arrays with one element for each bond, in the order of the bonds.
+ * Yields and z-spreads are solved simultaneously for all the bonds using Newton iterations
+ * with analytic derivatives. Any bond that does not converge is solved using the bracketing
+ * root finder of {@code DiscountingFixedCouponBondProductPricer}.
+ */
+public final class FixedCouponBondBatchPricer {
+
+  /**
+   * The year fraction below which the discount factor is one, matching the discount factors implementations.
+   */
+  private static final double EFFECTIVE_ZERO = 1e-10;
+  /**
+   * The absolute tolerance of the Newton iterations.
+   */
+  private static final double TOLERANCE = 1e-13;
+  /**
+   * The maximum number of Newton iterations.
+   */
+  private static final int MAX_ITERATIONS = 50;
+  /**
+   * The root finder, used for bonds that do not converge.
+   */
+  private static final RealSingleRootFinder ROOT_FINDER = new BrentSingleRootFinder();
+  /**
+   * Brackets a root.
+   */
+  private static final BracketRoot ROOT_BRACKETER = new BracketRoot();
+  /**
+   * The product pricer.
+   */
+  private static final DiscountingFixedCouponBondProductPricer PRICER = DiscountingFixedCouponBondProductPricer.DEFAULT;
+
+  /**
+   * The bonds.
+   */
+  private final ImmutableList<ResolvedFixedCouponBond> bonds;
+  /**
+   * The settlement dates, one for each bond.
+   */
+  private final ImmutableList<LocalDate> settlementDates;
+  /**
+   * The yield convention of each bond.
+   */
+  private final FixedCouponBondYieldConvention[] conventions;
+  /**
+   * The number of coupons per year of each bond.
+   */
+  private final double[] couponsPerYear;
+  /**
+   * The fraction of the current coupon period remaining after settlement, for each bond.
+   */
+  private final double[] factorToNextCoupon;
+  /**
+   * Whether the simple formula for the final coupon period applies, for each bond.
+   */
+  private final boolean[] finalPeriod;
+  /**
+   * The index of the first coupon of each bond in {@code coupons}, with an extra element for the end.
+   */
+  private final int[] couponStart;
+  /**
+   * The coupons received by the holder after settlement, as a fraction of the notional.
+   * For bonds in their final period, this is the final coupon.
+   */
+  private final double[] coupons;
+  /**
+   * The year fraction from settlement to maturity of each bond using the simple convention, negative if matured.
+   */
+  private final double[] simpleMaturity;
+  /**
+   * The accrued interest of each bond using the simple convention, as a fraction of the notional.
+   */
+  private final double[] simpleAccrued;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance for bonds with the same settlement date.
+   *
+   * @param bonds  the bonds
+   * @param settlementDate  the settlement date
+   * @return the pricer
+   */
+  public static FixedCouponBondBatchPricer of(List<ResolvedFixedCouponBond> bonds, LocalDate settlementDate) {
+    ArgChecker.notNull(bonds, "bonds");
+    ArgChecker.notNull(settlementDate, "settlementDate");
+    return new FixedCouponBondBatchPricer(bonds, Collections.nCopies(bonds.size(), settlementDate));
+  }
+
+  /**
+   * Obtains an instance for bonds with different settlement dates.
+   *
+   * @param bonds  the bonds
+   * @param settlementDates  the settlement dates, one for each bond
+   * @return the pricer
+   */
+  public static FixedCouponBondBatchPricer of(List<ResolvedFixedCouponBond> bonds, List<LocalDate> settlementDates) {
+    ArgChecker.noNulls(bonds, "bonds");
+    ArgChecker.noNulls(settlementDates, "settlementDates");
+    ArgChecker.isTrue(bonds.size() == settlementDates.size(), "Bonds and settlement dates must be the same size");
+    return new FixedCouponBondBatchPricer(bonds, settlementDates);
+  }
+
+  // extracts the coupons of each bond
+  private FixedCouponBondBatchPricer(List<ResolvedFixedCouponBond> bonds, List<LocalDate> settlementDates) {
+    int size = bonds.size();
+    this.bonds = ImmutableList.copyOf(bonds);
+    this.settlementDates = ImmutableList.copyOf(settlementDates);
+    this.conventions = new FixedCouponBondYieldConvention[size];
+    this.couponsPerYear = new double[size];
+    this.factorToNextCoupon = new double[size];
+    this.finalPeriod = new boolean[size];
+    this.couponStart = new int[size + 1];
+    this.simpleMaturity = new double[size];
+    this.simpleAccrued = new double[size];
+    double[] allCoupons = new double[bonds.stream().mapToInt(bond -> bond.getPeriodicPayments().size()).sum()];
+    int count = 0;
+    for (int i = 0; i < size; i++) {
+      ResolvedFixedCouponBond bond = bonds.get(i);
+      LocalDate settlementDate = settlementDates.get(i);
+      FixedCouponBondYieldConvention convention = bond.getYieldConvention();
+      conventions[i] = convention;
+      couponStart[i] = count;
+      if (convention.equals(JAPAN_SIMPLE)) {
+        LocalDate maturityDate = bond.getUnadjustedEndDate();
+        if (settlementDate.isAfter(maturityDate)) {
+          simpleMaturity[i] = -1d;
+        } else {
+          simpleMaturity[i] = bond.getDayCount().relativeYearFraction(settlementDate, maturityDate);
+          simpleAccrued[i] = PRICER.accruedInterest(bond, settlementDate) / bond.getNotional();
+        }
+      } else if (convention.equals(US_STREET) || convention.equals(UK_BUMP_DMO) || convention.equals(GERMAN_BONDS)) {
+        ImmutableList<FixedCouponBondPaymentPeriod> payments = bond.getPeriodicPayments();
+        couponsPerYear[i] = bond.getFrequency().eventsPerYear();
+        factorToNextCoupon[i] = PRICER.factorToNextCoupon(bond, settlementDate);
+        int nCoupon = payments.size() - PRICER.couponIndex(payments, settlementDate);
+        if (nCoupon == 1 && (convention.equals(US_STREET) || convention.equals(GERMAN_BONDS))) {
+          FixedCouponBondPaymentPeriod payment = payments.get(payments.size() - 1);
+          finalPeriod[i] = true;
+          allCoupons[count++] = payment.getFixedRate() * payment.getYearFraction();
+        } else {
+          for (FixedCouponBondPaymentPeriod period : payments) {
+            if ((period.hasExCouponPeriod() && !settlementDate.isAfter(period.getDetachmentDate())) ||
+                (!period.hasExCouponPeriod() && period.getPaymentDate().isAfter(settlementDate))) {
+              allCoupons[count++] = bond.getFixedRate() * period.getYearFraction();
+            }
+          }
+        }
+      } else {
+        throw new UnsupportedOperationException("The convention " + convention.name() + " is not supported.");
+      }
+    }
+    couponStart[size] = count;
+    this.coupons = allCoupons;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the bonds.
+   *
+   * @return the bonds
+   */
+  public ImmutableList<ResolvedFixedCouponBond> getBonds() {
+    return bonds;
+  }
+
+  /**
+   * Gets the settlement dates, one for each bond.
+   *
+   * @return the settlement dates
+   */
+  public ImmutableList<LocalDate> getSettlementDates() {
+    return settlementDates;
+  }
+
+  /**
+   * Gets the number of bonds.
+   *
+   * @return the number of bonds
+   */
+  public int size() {
+    return bonds.size();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the dirty price of each bond from its yield.
+   * <p>
+   * This matches {@link DiscountingFixedCouponBondProductPricer#dirtyPriceFromYield} for each bond.
+   *
+   * @param yields  the yields, one for each bond
+   * @return the dirty prices
+   */
+  public DoubleArray dirtyPriceFromYield(DoubleArray yields) {
+    checkSize(yields, "yields");
+    double[] derivatives = new double[3];
+    return DoubleArray.of(size(), i -> {
+      priceFromYield(i, yields.get(i), derivatives);
+      return derivatives[0];
+    });
+  }
+
+  /**
+   * Calculates the yield of each bond from its dirty price.
+   * <p>
+   * This matches {@link DiscountingFixedCouponBondProductPricer#yieldFromDirtyPrice} for each bond.
+   *
+   * @param dirtyPrices  the dirty prices, one for each bond
+   * @return the yields
+   */
+  public DoubleArray yieldFromDirtyPrice(DoubleArray dirtyPrices) {
+    checkSize(dirtyPrices, "dirtyPrices");
+    int size = size();
+    double[] yields = new double[size];
+    int[] active = new int[size];
+    int activeCount = 0;
+    for (int i = 0; i < size; i++) {
+      if (conventions[i].equals(JAPAN_SIMPLE)) {
+        ArgChecker.isTrue(simpleMaturity[i] >= 0d, "Date outside range of bond");
+        double cleanPrice = dirtyPrices.get(i) - simpleAccrued[i];
+        yields[i] = (bonds.get(i).getFixedRate() + (1d - cleanPrice) / simpleMaturity[i]) / cleanPrice;
+      } else {
+        yields[i] = bonds.get(i).getFixedRate();
+        active[activeCount++] = i;
+      }
+    }
+    double[] derivatives = new double[3];
+    int[] failed = new int[size];
+    int failedCount = 0;
+    for (int iteration = 0; iteration < MAX_ITERATIONS && activeCount > 0; iteration++) {
+      int remaining = 0;
+      for (int j = 0; j < activeCount; j++) {
+        int i = active[j];
+        priceFromYield(i, yields[i], derivatives);
+        double step = (derivatives[0] - dirtyPrices.get(i)) / derivatives[1];
+        double yield = yields[i] - step;
+        if (!Double.isFinite(yield) || yield <= -couponsPerYear[i]) {
+          failed[failedCount++] = i;
+        } else {
+          yields[i] = yield;
+          if (Math.abs(step) > TOLERANCE) {
+            active[remaining++] = i;
+          }
+        }
+      }
+      activeCount = remaining;
+    }
+    System.arraycopy(active, 0, failed, failedCount, activeCount);
+    for (int j = 0; j < failedCount + activeCount; j++) {
+      int i = failed[j];
+      double dirtyPrice = dirtyPrices.get(i);
+      Function<Double, Double> residual = y -> priceFromYield(i, y, new double[3]) - dirtyPrice;
+      double[] range = ROOT_BRACKETER.getBracketedPoints(residual, 0.00, 0.20);
+      yields[i] = ROOT_FINDER.getRoot(residual, range[0], range[1]);
+    }
+    return DoubleArray.ofUnsafe(yields);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the modified duration of each bond from its yield.
+   * <p>
+   * This matches {@link DiscountingFixedCouponBondProductPricer#modifiedDurationFromYield} for each bond.
+   *
+   * @param yields  the yields, one for each bond
+   * @return the modified durations
+   */
+  public DoubleArray modifiedDurationFromYield(DoubleArray yields) {
+    checkSize(yields, "yields");
+    double[] derivatives = new double[3];
+    return DoubleArray.of(size(), i -> {
+      double price = priceFromYield(i, yields.get(i), derivatives);
+      return price == 0d ? 0d : -derivatives[1] / price;
+    });
+  }
+
+  /**
+   * Calculates the Macaulay duration of each bond from its yield.
+   * <p>
+   * This matches {@link DiscountingFixedCouponBondProductPricer#macaulayDurationFromYield} for each bond.
+   *
+   * @param yields  the yields, one for each bond
+   * @return the Macaulay durations
+   * @throws UnsupportedOperationException if the yield convention of a bond is not supported
+   */
+  public DoubleArray macaulayDurationFromYield(DoubleArray yields) {
+    checkSize(yields, "yields");
+    double[] derivatives = new double[3];
+    return DoubleArray.of(size(), i -> {
+      if (conventions[i].equals(JAPAN_SIMPLE)) {
+        throw new UnsupportedOperationException("The convention " + conventions[i].name() + " is not supported.");
+      }
+      if (finalPeriod[i] && conventions[i].equals(US_STREET)) {
+        return factorToNextCoupon[i] / couponsPerYear[i];
+      }
+      double yield = yields.get(i);
+      double price = priceFromYield(i, yield, derivatives);
+      return -derivatives[1] / price * (1d + yield / couponsPerYear[i]);
+    });
+  }
+
+  /**
+   * Calculates the convexity of each bond from its yield.
+   * <p>
+   * This matches {@link DiscountingFixedCouponBondProductPricer#convexityFromYield} for each bond.
+   *
+   * @param yields  the yields, one for each bond
+   * @return the convexities
+   */
+  public DoubleArray convexityFromYield(DoubleArray yields) {
+    checkSize(yields, "yields");
+    double[] derivatives = new double[3];
+    return DoubleArray.of(size(), i -> {
+      double price = priceFromYield(i, yields.get(i), derivatives);
+      return price == 0d ? 0d : derivatives[2] / price;
+    });
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the dirty price of each bond from curves with its z-spread.
+   * <p>
+   * This matches {@link DiscountingFixedCouponBondProductPricer#dirtyPriceFromCurvesWithZSpread} for each bond.
+   *
+   * @param provider  the rates provider
+   * @param zSpreads  the z-spreads, one for each bond
+   * @param compoundedRateType  the compounded rate type
+   * @param periodsPerYear  the number of periods per year
+   * @return the dirty prices
+   */
+  public DoubleArray dirtyPriceFromCurvesWithZSpread(
+      LegalEntityDiscountingProvider provider,
+      DoubleArray zSpreads,
+      CompoundedRateType compoundedRateType,
+      int periodsPerYear) {
+
+    checkSize(zSpreads, "zSpreads");
+    CurveCashFlows cashFlows = new CurveCashFlows(provider, compoundedRateType, periodsPerYear);
+    double[] derivative = new double[1];
+    return DoubleArray.of(size(), i -> cashFlows.price(i, zSpreads.get(i), derivative));
+  }
+
+  /**
+   * Calculates the z-spread of each bond from curves and its dirty price.
+   * <p>
+   * This matches {@link DiscountingFixedCouponBondProductPricer#zSpreadFromCurvesAndDirtyPrice} for each bond,
+   * using the settlement dates of this pricer.
+   *
+   * @param provider  the rates provider
+   * @param dirtyPrices  the dirty prices, one for each bond
+   * @param compoundedRateType  the compounded rate type
+   * @param periodsPerYear  the number of periods per year
+   * @return the z-spreads
+   */
+  public DoubleArray zSpreadFromCurvesAndDirtyPrice(
+      LegalEntityDiscountingProvider provider,
+      DoubleArray dirtyPrices,
+      CompoundedRateType compoundedRateType,
+      int periodsPerYear) {
+
+    checkSize(dirtyPrices, "dirtyPrices");
+    CurveCashFlows cashFlows = new CurveCashFlows(provider, compoundedRateType, periodsPerYear);
+    int size = size();
+    double[] zSpreads = new double[size];
+    int[] active = new int[size];
+    for (int i = 0; i < size; i++) {
+      active[i] = i;
+    }
+    int activeCount = size;
+    double[] derivative = new double[1];
+    int[] failed = new int[size];
+    int failedCount = 0;
+    for (int iteration = 0; iteration < MAX_ITERATIONS && activeCount > 0; iteration++) {
+      int remaining = 0;
+      for (int j = 0; j < activeCount; j++) {
+        int i = active[j];
+        double price = cashFlows.price(i, zSpreads[i], derivative);
+        double step = (price - dirtyPrices.get(i)) / derivative[0];
+        double zSpread = zSpreads[i] - step;
+        if (!Double.isFinite(zSpread) || !cashFlows.isValid(i, zSpread)) {
+          failed[failedCount++] = i;
+        } else {
+          zSpreads[i] = zSpread;
+          if (Math.abs(step) > TOLERANCE) {
+            active[remaining++] = i;
+          }
+        }
+      }
+      activeCount = remaining;
+    }
+    System.arraycopy(active, 0, failed, failedCount, activeCount);
+    for (int j = 0; j < failedCount + activeCount; j++) {
+      int i = failed[j];
+      double dirtyPrice = dirtyPrices.get(i);
+      Function<Double, Double> residual = z -> cashFlows.price(i, z, new double[1]) - dirtyPrice;
+      double[] range = ROOT_BRACKETER.getBracketedPoints(residual, -0.01, 0.01); // Starting range is [-1%, 1%]
+      zSpreads[i] = ROOT_FINDER.getRoot(residual, range[0], range[1]);
+    }
+    return DoubleArray.ofUnsafe(zSpreads);
+  }
+
+  //-------------------------------------------------------------------------
+  // computes the dirty price and its first and second derivatives with respect to the yield
+  // the price is returned and is also stored in the first element of the derivatives array
+  private double priceFromYield(int i, double yield, double[] derivatives) {
+    if (conventions[i].equals(JAPAN_SIMPLE)) {
+      double maturity = simpleMaturity[i];
+      if (maturity < 0d) {
+        derivatives[0] = 0d;
+        derivatives[1] = 0d;
+        derivatives[2] = 0d;
+        return 0d;
+      }
+      double num = 1d + bonds.get(i).getFixedRate() * maturity;
+      double den = 1d + yield * maturity;
+      derivatives[0] = num / den + simpleAccrued[i];
+      derivatives[1] = -num * maturity / (den * den);
+      derivatives[2] = 2d * num * maturity * maturity / (den * den * den);
+      return derivatives[0];
+    }
+    double couponPerYear = couponsPerYear[i];
+    double factor = factorToNextCoupon[i];
+    if (finalPeriod[i]) {
+      double amount = 1d + coupons[couponStart[i]];
+      double time = factor / couponPerYear;
+      double den = 1d + time * yield;
+      derivatives[0] = amount / den;
+      derivatives[1] = -amount * time / (den * den);
+      derivatives[2] = 2d * amount * time * time / (den * den * den);
+      return derivatives[0];
+    }
+    // coupon k is discounted over (k + factor) periods, the notional with the last coupon
+    double discount = 1d / (1d + yield / couponPerYear);
+    double pv = 0d;
+    double d1 = 0d;
+    double d2 = 0d;
+    double discountK = 1d;
+    int start = couponStart[i];
+    int nbCoupon = couponStart[i + 1] - start;
+    for (int k = 0; k < nbCoupon; k++) {
+      double coupon = coupons[start + k] * discountK;
+      double periods = k + factor;
+      pv += coupon;
+      d1 += coupon * periods;
+      d2 += coupon * periods * (periods + 1d);
+      discountK *= discount;
+    }
+    double discountNominal = Math.pow(discount, nbCoupon - 1);
+    double periodsNominal = nbCoupon - 1 + factor;
+    pv += discountNominal;
+    d1 += discountNominal * periodsNominal;
+    d2 += discountNominal * periodsNominal * (periodsNominal + 1d);
+    double discountFactor = Math.pow(discount, factor);
+    derivatives[0] = pv * discountFactor;
+    derivatives[1] = -d1 * discountFactor * discount / couponPerYear;
+    derivatives[2] = d2 * discountFactor * discount * discount / (couponPerYear * couponPerYear);
+    return derivatives[0];
+  }
+
+  // checks the size of the input
+  private void checkSize(DoubleArray values, String name) {
+    ArgChecker.notNull(values, name);
+    ArgChecker.isTrue(values.size() == size(), "Expected {} {}, but was {}", size(), name, values.size());
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The cash flows of the bonds after settlement, with their discount factors from the curves.
+   */
+  private final class CurveCashFlows {
+
+    /**
+     * Whether the spread applies to periodically compounded rates.
+     */
+    private final boolean periodic;
+    /**
+     * The number of periods per year.
+     */
+    private final int periodsPerYear;
+    /**
+     * The index of the first cash flow of each bond, with an extra element for the end.
+     */
+    private final int[] start;
+    /**
+     * The amounts of the cash flows.
+     */
+    private final double[] amounts;
+    /**
+     * The year fractions of the cash flows.
+     */
+    private final double[] times;
+    /**
+     * The discount factors of the cash flows, or for periodic compounding, one plus the periodic rate.
+     */
+    private final double[] bases;
+    /**
+     * The factor converting the present value of each bond to its dirty price.
+     */
+    private final double[] priceFactors;
+
+    // extracts the cash flows
+    private CurveCashFlows(
+        LegalEntityDiscountingProvider provider,
+        CompoundedRateType compoundedRateType,
+        int periodsPerYear) {
+
+      ArgChecker.notNull(provider, "provider");
+      ArgChecker.notNull(compoundedRateType, "compoundedRateType");
+      this.periodic = compoundedRateType.equals(CompoundedRateType.PERIODIC);
+      if (periodic) {
+        ArgChecker.notNegativeOrZero(periodsPerYear, "periodPerYear");
+      }
+      this.periodsPerYear = periodsPerYear;
+      int size = size();
+      int maxCount = bonds.stream().mapToInt(bond -> bond.getPeriodicPayments().size() + 1).sum();
+      this.start = new int[size + 1];
+      this.amounts = new double[maxCount];
+      this.times = new double[maxCount];
+      this.bases = new double[maxCount];
+      this.priceFactors = new double[size];
+      int count = 0;
+      for (int i = 0; i < size; i++) {
+        ResolvedFixedCouponBond bond = bonds.get(i);
+        LocalDate settlementDate = settlementDates.get(i);
+        DiscountFactors discountFactors = provider.issuerCurveDiscountFactors(
+            bond.getLegalEntityId(), bond.getCurrency()).getDiscountFactors();
+        LocalDate valuationDate = discountFactors.getValuationDate();
+        start[i] = count;
+        for (FixedCouponBondPaymentPeriod period : bond.getPeriodicPayments()) {
+          if (period.getDetachmentDate().isAfter(settlementDate) && !period.getPaymentDate().isBefore(valuationDate)) {
+            double amount = period.getFixedRate() * period.getNotional() * period.getYearFraction();
+            count = addCashFlow(discountFactors, period.getPaymentDate(), amount, count);
+          }
+        }
+        if (!valuationDate.isAfter(bond.getNominalPayment().getDate())) {
+          count = addCashFlow(
+              discountFactors, bond.getNominalPayment().getDate(), bond.getNominalPayment().getAmount(), count);
+        }
+        double repoDf = provider.repoCurveDiscountFactors(
+            bond.getSecurityId(), bond.getLegalEntityId(), bond.getCurrency()).discountFactor(settlementDate);
+        priceFactors[i] = 1d / repoDf / bond.getNotional();
+      }
+      start[size] = count;
+    }
+
+    // adds a cash flow, returning the updated count
+    private int addCashFlow(DiscountFactors discountFactors, LocalDate date, double amount, int count) {
+      double time = discountFactors.relativeYearFraction(date);
+      double df = discountFactors.discountFactor(time);
+      amounts[count] = amount;
+      times[count] = time;
+      bases[count] = periodic && Math.abs(time) >= EFFECTIVE_ZERO ? Math.pow(df, -1d / periodsPerYear / time) : df;
+      return count + 1;
+    }
+
+    // computes the dirty price, storing the derivative with respect to the z-spread
+    private double price(int i, double zSpread, double[] derivative) {
+      double pv = 0d;
+      double pvDerivative = 0d;
+      for (int j = start[i]; j < start[i + 1]; j++) {
+        double time = times[j];
+        if (Math.abs(time) < EFFECTIVE_ZERO) {
+          pv += amounts[j];
+        } else if (periodic) {
+          double ratePlusOne = bases[j] + zSpread / periodsPerYear;
+          double df = Math.pow(ratePlusOne, -periodsPerYear * time);
+          pv += amounts[j] * df;
+          pvDerivative -= amounts[j] * df * time / ratePlusOne;
+        } else {
+          double df = bases[j] * Math.exp(-zSpread * time);
+          pv += amounts[j] * df;
+          pvDerivative -= amounts[j] * df * time;
+        }
+      }
+      derivative[0] = pvDerivative * priceFactors[i];
+      return pv * priceFactors[i];
+    }
+
+    // checks the z-spread is in the domain of the discount factors
+    private boolean isValid(int i, double zSpread) {
+      if (periodic) {
+        for (int j = start[i]; j < start[i + 1]; j++) {
+          if (bases[j] + zSpread / periodsPerYear <= 0d) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+  }
+
+}
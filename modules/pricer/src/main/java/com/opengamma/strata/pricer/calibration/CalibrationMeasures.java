@@ -144,6 +144,10 @@ public final class CalibrationMeasures {
    * <p>
    * The result array is composed of the concatenated curve sensitivities from
    * all curves currently being processed.
+   * The block of a curve that the trade is not sensitive to is left as zero.
+   * <p>
+   * The sensitivities are calculated to all the curves of the provider that the trade depends on,
+   * including curves that are not being processed, which are then discarded.
    * 
    * @param trade  the trade
    * @param provider  the rates provider
@@ -153,15 +157,20 @@ public final class CalibrationMeasures {
   public DoubleArray derivative(ResolvedTrade trade, RatesProvider provider, List<CurveParameterSize> curveOrder) {
     UnitParameterSensitivities unitSens = extractSensitivities(trade, provider);
 
-    // expand to a concatenated array
-    DoubleArray result = DoubleArray.EMPTY;
+    // expand to a concatenated array, only copying the blocks of the curves with sensitivity
+    int totalParamCount = 0;
+    for (CurveParameterSize curveParams : curveOrder) {
+      totalParamCount += curveParams.getParameterCount();
+    }
+    double[] result = new double[totalParamCount];
+    int start = 0;
     for (CurveParameterSize curveParams : curveOrder) {
-      DoubleArray sens = unitSens.findSensitivity(curveParams.getName())
-          .map(s -> s.getSensitivity())
-          .orElseGet(() -> DoubleArray.filled(curveParams.getParameterCount()));
-      result = result.concat(sens);
+      int start0 = start;
+      unitSens.findSensitivity(curveParams.getName())
+          .ifPresent(s -> s.getSensitivity().copyInto(result, start0));
+      start += curveParams.getParameterCount();
     }
-    return result;
+    return DoubleArray.ofUnsafe(result);
   }
 
   // determine the curve parameter sensitivities, removing the curency
@@ -8,14 +8,17 @@ package com.opengamma.strata.pricer.calibration;
 import static com.opengamma.strata.collect.Guavate.toImmutableList;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.index.Index;
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.Messages;
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.array.DoubleMatrix;
@@ -27,9 +30,11 @@ import com.opengamma.strata.market.curve.CurveName;
 import com.opengamma.strata.market.curve.CurveNode;
 import com.opengamma.strata.market.curve.CurveParameterSize;
 import com.opengamma.strata.market.curve.JacobianCalibrationMatrix;
+import com.opengamma.strata.math.impl.linearalgebra.Decomposition;
 import com.opengamma.strata.math.impl.linearalgebra.DecompositionFactory;
 import com.opengamma.strata.math.impl.matrix.CommonsMatrixAlgebra;
 import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
+import com.opengamma.strata.math.impl.matrix.MatrixAlgebraFactory;
 import com.opengamma.strata.math.impl.rootfinding.newton.BroydenVectorRootFinder;
 import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
 import com.opengamma.strata.product.ResolvedTrade;
@@ -60,6 +65,10 @@ public final class CurveCalibrator {
    * The matrix algebra used for matrix inversion.
    */
   private static final MatrixAlgebra MATRIX_ALGEBRA = new CommonsMatrixAlgebra();
+  /**
+   * The matrix algebra used for matrix multiplication, operating directly on the arrays of the matrices.
+   */
+  private static final MatrixAlgebra BLOCKED_ALGEBRA = MatrixAlgebraFactory.BLOCKED_ALGEBRA;
 
   /**
    * The root finder used for curve calibration.
@@ -117,7 +126,31 @@ public final class CurveCalibrator {
       int stepMaximum,
       CalibrationMeasures measures) {
 
-    return new CurveCalibrator(toleranceAbs, toleranceRel, stepMaximum, measures);
+    return of(toleranceAbs, toleranceRel, stepMaximum, measures, DecompositionFactory.SV_COMMONS);
+  }
+
+  /**
+   * Obtains an instance specifying tolerances, measures and the matrix decomposition to use.
+   * <p>
+   * The decomposition is used by the root finder to solve the linear system of each step.
+   * The default is the singular value decomposition, {@link DecompositionFactory#SV_COMMONS},
+   * which is the most robust when the Jacobian is close to singular.
+   *
+   * @param toleranceAbs  the absolute tolerance
+   * @param toleranceRel  the relative tolerance
+   * @param stepMaximum  the maximum steps
+   * @param measures  the calibration measures, used to compute the function for which the root is found
+   * @param decomposition  the matrix decomposition used by the root finder
+   * @return the curve calibrator
+   */
+  public static CurveCalibrator of(
+      double toleranceAbs,
+      double toleranceRel,
+      int stepMaximum,
+      CalibrationMeasures measures,
+      Decomposition<?> decomposition) {
+
+    return new CurveCalibrator(toleranceAbs, toleranceRel, stepMaximum, measures, decomposition);
   }
 
   //-------------------------------------------------------------------------
@@ -126,13 +159,12 @@ public final class CurveCalibrator {
       double toleranceAbs,
       double toleranceRel,
       int stepMaximum,
-      CalibrationMeasures measures) {
+      CalibrationMeasures measures,
+      Decomposition<?> decomposition) {
 
-    this.rootFinder = new BroydenVectorRootFinder(
-        toleranceAbs,
-        toleranceRel,
-        stepMaximum,
-        DecompositionFactory.getDecomposition(DecompositionFactory.SV_COMMONS_NAME));
+    ArgChecker.notNull(measures, "measures");
+    ArgChecker.notNull(decomposition, "decomposition");
+    this.rootFinder = new BroydenVectorRootFinder(toleranceAbs, toleranceRel, stepMaximum, decomposition);
     this.measures = measures;
   }
 
@@ -194,24 +226,122 @@ public final class CurveCalibrator {
       MarketData marketData,
       ReferenceData refData) {
 
+    return calibrate(allGroupsDefn, knownData, marketData, refData, ImmutableList.of(), new ArrayList<>());
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calibrates a single curve group, containing one or more curves, for each of a number of scenarios.
+   * <p>
+   * The calibration is defined using {@link CurveGroupDefinition}.
+   * The valuation date of each scenario is taken from the market data of the scenario.
+   * <p>
+   * See {@link #calibrateScenarios(List, List, List, ReferenceData)} for details of how the
+   * scenarios are calibrated.
+   *
+   * @param curveGroupDefn  the curve group definition
+   * @param scenarioMarketData  the market data required to build a trade for the instrument, one for each scenario
+   * @param refData  the reference data, used to resolve the trades
+   * @param timeSeries  the time-series
+   * @return the rates providers resulting from the calibration, one for each scenario
+   */
+  public List<ImmutableRatesProvider> calibrateScenarios(
+      CurveGroupDefinition curveGroupDefn,
+      List<MarketData> scenarioMarketData,
+      ReferenceData refData,
+      Map<Index, LocalDateDoubleTimeSeries> timeSeries) {
+
+    List<ImmutableRatesProvider> knownData = scenarioMarketData.stream()
+        .map(marketData -> ImmutableRatesProvider.builder(marketData.getValuationDate())
+            .fxRateProvider(MarketDataFxRateProvider.of(marketData))
+            .timeSeries(timeSeries)
+            .build())
+        .collect(toImmutableList());
+    return calibrateScenarios(ImmutableList.of(curveGroupDefn), knownData, scenarioMarketData, refData);
+  }
+
+  /**
+   * Calibrates a list of curve groups, each containing one or more curves, for each of a number of scenarios.
+   * <p>
+   * The calibration is defined using a list of {@link CurveGroupDefinition}.
+   * The known data and market data lists contain one element for each scenario.
+   * <p>
+   * The first scenario is calibrated first, and is treated as the base scenario.
+   * The remaining scenarios are then calibrated in parallel, starting from the solution of the base scenario.
+   * The curve metadata of the base scenario is reused where the valuation date is the same.
+   * When the scenarios are small perturbations of the base scenario, such as quote shocks,
+   * this considerably reduces the number of root finding iterations.
+   *
+   * @param allGroupsDefn  the curve group definitions
+   * @param knownData  the starting data for the calibration, one for each scenario
+   * @param marketData  the market data required to build a trade for the instrument, one for each scenario
+   * @param refData  the reference data, used to resolve the trades
+   * @return the rates providers resulting from the calibration, one for each scenario
+   */
+  public List<ImmutableRatesProvider> calibrateScenarios(
+      List<CurveGroupDefinition> allGroupsDefn,
+      List<ImmutableRatesProvider> knownData,
+      List<MarketData> marketData,
+      ReferenceData refData) {
+
+    ArgChecker.isTrue(
+        knownData.size() == marketData.size(),
+        "Known data and market data must have the same number of scenarios, but were {} and {}",
+        knownData.size(),
+        marketData.size());
+    if (marketData.isEmpty()) {
+      return ImmutableList.of();
+    }
+    List<GroupCalibration> base = new ArrayList<>();
+    ImmutableRatesProvider baseProvider =
+        calibrate(allGroupsDefn, knownData.get(0), marketData.get(0), refData, ImmutableList.of(), base);
+    List<ImmutableRatesProvider> otherProviders = IntStream.range(1, marketData.size())
+        .parallel()
+        .mapToObj(i -> calibrate(allGroupsDefn, knownData.get(i), marketData.get(i), refData, base, new ArrayList<>()))
+        .collect(toImmutableList());
+    return ImmutableList.<ImmutableRatesProvider>builder()
+        .add(baseProvider)
+        .addAll(otherProviders)
+        .build();
+  }
+
+  // calibrates the groups, seeded by the calibration of the base scenario if available
+  // the calibration of each group is added to the results list
+  private ImmutableRatesProvider calibrate(
+      List<CurveGroupDefinition> allGroupsDefn,
+      ImmutableRatesProvider knownData,
+      MarketData marketData,
+      ReferenceData refData,
+      List<GroupCalibration> base,
+      List<GroupCalibration> results) {
+
     // perform calibration one group at a time, building up the result by mutating these variables
     ImmutableRatesProvider providerCombined = knownData;
     ImmutableList<CurveParameterSize> orderPrev = ImmutableList.of();
     ImmutableMap<CurveName, JacobianCalibrationMatrix> jacobians = ImmutableMap.of();
-    for (CurveGroupDefinition groupDefn : allGroupsDefn) {
+    for (int groupIndex = 0; groupIndex < allGroupsDefn.size(); groupIndex++) {
+      CurveGroupDefinition groupDefn = allGroupsDefn.get(groupIndex);
+      GroupCalibration baseGroup = base.isEmpty() ? null : base.get(groupIndex);
       // combine all data in the group into flat lists
-      ImmutableList<ResolvedTrade> trades = groupDefn.resolvedTrades(knownData.getValuationDate(), marketData, refData);
-      ImmutableList<Double> initialGuesses = groupDefn.initialGuesses(knownData.getValuationDate(), marketData);
+      LocalDate valuationDate = knownData.getValuationDate();
+      ImmutableList<ResolvedTrade> trades = groupDefn.resolvedTrades(valuationDate, marketData, refData);
+      DoubleArray initialGuesses = baseGroup != null ?
+          baseGroup.parameters :
+          DoubleArray.copyOf(groupDefn.initialGuesses(valuationDate, marketData));
       ImmutableList<CurveParameterSize> orderGroup = toOrder(groupDefn);
       ImmutableList<CurveParameterSize> orderPrevAndGroup = ImmutableList.<CurveParameterSize>builder()
           .addAll(orderPrev)
           .addAll(orderGroup)
           .build();
 
-      // calibrate
-      RatesProviderGenerator providerGenerator = ImmutableRatesProviderGenerator.of(providerCombined, groupDefn, refData);
+      // calibrate, reusing the curve metadata of the base scenario if the valuation date matches
+      boolean reuseGenerator = baseGroup != null && baseGroup.valuationDate.equals(valuationDate);
+      ImmutableRatesProviderGenerator providerGenerator = reuseGenerator ?
+          baseGroup.generator.withKnownProvider(providerCombined) :
+          ImmutableRatesProviderGenerator.of(providerCombined, groupDefn, refData);
       DoubleArray calibratedGroupParams = calibrateGroup(providerGenerator, trades, initialGuesses, orderGroup);
       ImmutableRatesProvider calibratedProvider = providerGenerator.generate(calibratedGroupParams);
+      results.add(new GroupCalibration(valuationDate, providerGenerator, calibratedGroupParams));
 
       // use calibration to build Jacobian matrices
       jacobians = updateJacobiansForGroup(
@@ -235,7 +365,7 @@ public final class CurveCalibrator {
   private DoubleArray calibrateGroup(
       RatesProviderGenerator providerGenerator,
       ImmutableList<ResolvedTrade> trades,
-      ImmutableList<Double> initialGuesses,
+      DoubleArray initialGuesses,
       ImmutableList<CurveParameterSize> curveOrder) {
 
     // setup for calibration
@@ -244,8 +374,7 @@ public final class CurveCalibrator {
         new CalibrationDerivative(trades, measures, providerGenerator, curveOrder);
 
     // calibrate
-    DoubleArray initGuessMatrix = DoubleArray.copyOf(initialGuesses);
-    return rootFinder.getRoot(valueCalculator, derivativeCalculator, initGuessMatrix);
+    return rootFinder.getRoot(valueCalculator, derivativeCalculator, initialGuesses);
   }
 
   //-------------------------------------------------------------------------
@@ -342,8 +471,8 @@ public final class CurveCalibrator {
     for (int i = 0; i < nbTrades; i++) {
       System.arraycopy(res.rowArray(i), 0, nonDirect[i], 0, totalParamsPrevious);
     }
-    DoubleMatrix pDpPreviousMatrix = (DoubleMatrix) MATRIX_ALGEBRA.scale(
-        MATRIX_ALGEBRA.multiply(pDmCurrentMatrix, DoubleMatrix.copyOf(nonDirect)), -1d);
+    DoubleMatrix pDpPreviousMatrix = (DoubleMatrix) BLOCKED_ALGEBRA.scale(
+        BLOCKED_ALGEBRA.multiply(pDmCurrentMatrix, DoubleMatrix.ofUnsafe(nonDirect)), -1d);
     // all curves: order and size
     int[] startIndexBefore = new int[orderPrevious.size()];
     for (int i = 1; i < orderPrevious.size(); i++) {
@@ -371,8 +500,37 @@ public final class CurveCalibrator {
         startIndexInner += paramCountInner;
       }
     }
-    DoubleMatrix transitionMatrix = DoubleMatrix.copyOf(transition);
-    return (DoubleMatrix) MATRIX_ALGEBRA.multiply(pDpPreviousMatrix, transitionMatrix);
+    DoubleMatrix transitionMatrix = DoubleMatrix.ofUnsafe(transition);
+    return (DoubleMatrix) BLOCKED_ALGEBRA.multiply(pDpPreviousMatrix, transitionMatrix);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The calibration of a single group, used to seed the calibration of other scenarios.
+   */
+  private static final class GroupCalibration {
+    /**
+     * The valuation date.
+     */
+    private final LocalDate valuationDate;
+    /**
+     * The generator, holding the curve metadata.
+     */
+    private final ImmutableRatesProviderGenerator generator;
+    /**
+     * The calibrated parameters.
+     */
+    private final DoubleArray parameters;
+
+    private GroupCalibration(
+        LocalDate valuationDate,
+        ImmutableRatesProviderGenerator generator,
+        DoubleArray parameters) {
+
+      this.valuationDate = valuationDate;
+      this.generator = generator;
+      this.parameters = parameters;
+    }
   }
 
   //-------------------------------------------------------------------------
@@ -120,6 +120,27 @@ public class ImmutableRatesProviderGenerator
     this.forwardCurveNames = ImmutableSetMultimap.copyOf(ArgChecker.notNull(forwardCurveNames, "forwardCurveNames"));
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Returns a generator based on a different known provider.
+   * <p>
+   * The curve definitions and metadata of this generator are reused, avoiding the cost of rebuilding them.
+   * The valuation date of the known provider must match that of this generator.
+   *
+   * @param knownProvider  the underlying known provider
+   * @return the generator
+   */
+  public ImmutableRatesProviderGenerator withKnownProvider(ImmutableRatesProvider knownProvider) {
+    ArgChecker.notNull(knownProvider, "knownProvider");
+    ArgChecker.isTrue(
+        knownProvider.getValuationDate().equals(this.knownProvider.getValuationDate()),
+        "Valuation date must match, expected {} but was {}",
+        this.knownProvider.getValuationDate(),
+        knownProvider.getValuationDate());
+    return new ImmutableRatesProviderGenerator(
+        knownProvider, curveDefinitions, curveMetadata, discountCurveNames, forwardCurveNames);
+  }
+
   //-------------------------------------------------------------------------
   @Override
   public ImmutableRatesProvider generate(
@@ -7,16 +7,24 @@ package com.opengamma.strata.pricer.credit;
 
 import java.time.LocalDate;
 import java.time.Period;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalDouble;
+import java.util.TreeSet;
 import java.util.stream.Stream;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.currency.CurrencyAmount;
 import com.opengamma.strata.basics.date.BusinessDayConvention;
 import com.opengamma.strata.basics.date.DayCount;
 import com.opengamma.strata.basics.date.DayCounts;
 import com.opengamma.strata.basics.date.HolidayCalendarId;
+import com.opengamma.strata.basics.date.Tenor;
 import com.opengamma.strata.market.curve.NodalCurve;
 import com.opengamma.strata.market.product.credit.IsdaCreditCurveInputs;
 import com.opengamma.strata.market.product.credit.IsdaYieldCurveInputs;
@@ -29,9 +37,12 @@ import com.opengamma.strata.pricer.impl.credit.isda.CdsPriceType;
 import com.opengamma.strata.pricer.impl.credit.isda.FastCreditCurveBuilder;
 import com.opengamma.strata.pricer.impl.credit.isda.IsdaCompliantCreditCurve;
 import com.opengamma.strata.pricer.impl.credit.isda.IsdaCompliantCreditCurveBuilder;
+import com.opengamma.strata.pricer.impl.credit.isda.IsdaCompliantCurve;
 import com.opengamma.strata.pricer.impl.credit.isda.IsdaCompliantYieldCurve;
 import com.opengamma.strata.pricer.impl.credit.isda.IsdaCompliantYieldCurveBuild;
 import com.opengamma.strata.pricer.impl.credit.isda.IsdaInstrumentTypes;
+import com.opengamma.strata.pricer.impl.credit.isda.MultiAnalyticCdsPricer;
+import com.opengamma.strata.pricer.impl.credit.isda.MultiCdsAnalytic;
 import com.opengamma.strata.product.credit.ResolvedCds;
 import com.opengamma.strata.product.credit.type.CdsConvention;
 import com.opengamma.strata.product.credit.type.IsdaYieldCurveConvention;
@@ -71,6 +82,10 @@ class IsdaCdsHelper {
    * ISDA Standard model implementation in analytics.
    */
   private final static AnalyticCdsPricer CALCULATOR = new AnalyticCdsPricer();
+  /**
+   * ISDA Standard model implementation in analytics, pricing a strip of maturities at once.
+   */
+  private final static MultiAnalyticCdsPricer MULTI_CALCULATOR = new MultiAnalyticCdsPricer();
 
   //-------------------------------------------------------------------------
   /**
@@ -94,10 +109,8 @@ class IsdaCdsHelper {
 
     // setup
     CdsAnalytic cdsAnalytic = toAnalytic(valuationDate, product, recoveryRate);
-    IsdaCompliantYieldCurve yieldCurveAnalytics =
-        IsdaCompliantYieldCurve.makeFromRT(yieldCurve.getXValues(), yieldCurve.getYValues());
-    IsdaCompliantCreditCurve creditCurveAnalytics =
-        IsdaCompliantCreditCurve.makeFromRT(creditCurve.getXValues(), creditCurve.getYValues());
+    IsdaCompliantYieldCurve yieldCurveAnalytics = toYieldCurveAnalytics(yieldCurve);
+    IsdaCompliantCreditCurve creditCurveAnalytics = toCreditCurveAnalytics(creditCurve);
 
     // calculate
     double coupon = product.getCoupon();
@@ -114,6 +127,210 @@ class IsdaCdsHelper {
     return CurrencyAmount.of(product.getCurrency(), adjustedPlusFee);
   }
 
+  /**
+   * Calculate present value of several products on the specified valuation date.
+   * <p>
+   * The curves are converted to the analytics form once for all the products.
+   * Products with the same accrual start date and schedule conventions, and whose end dates are a whole number
+   * of payment intervals apart, are priced together as a single strip of maturities.
+   * The other products are priced one at a time.
+   *
+   * @param valuationDate date that present value is calculated on, also date that curves will be calibrated to
+   * @param products  the expanded CDS products
+   * @param yieldCurve  the par rates representation of the ISDA yield curve
+   * @param creditCurve  the par rates representation of the ISDA credit curve
+   * @param recoveryRate  the recovery rate for the reference entity/issue
+   * @param scalingFactor  the scaling factor
+   * @return the present values of the expanded CDS products, in the order of the products
+   */
+  public static List<CurrencyAmount> price(
+      LocalDate valuationDate,
+      List<ResolvedCds> products,
+      NodalCurve yieldCurve,
+      NodalCurve creditCurve,
+      double recoveryRate,
+      double scalingFactor) {
+
+    // setup
+    IsdaCompliantYieldCurve yieldCurveAnalytics = toYieldCurveAnalytics(yieldCurve);
+    IsdaCompliantCreditCurve creditCurveAnalytics = toCreditCurveAnalytics(creditCurve);
+
+    // calculate
+    int size = products.size();
+    double[] annuities = new double[size];
+    double[] protectionLegs = new double[size];
+    legs(valuationDate, products, yieldCurveAnalytics, creditCurveAnalytics, recoveryRate, CdsPriceType.DIRTY,
+        annuities, protectionLegs);
+
+    // create results
+    ImmutableList.Builder<CurrencyAmount> results = ImmutableList.builder();
+    for (int i = 0; i < size; i++) {
+      ResolvedCds product = products.get(i);
+      double pv = protectionLegs[i] - product.getCoupon() * annuities[i];
+      int sign = product.getBuySellProtection().isBuy() ? 1 : -1;
+      double adjusted = pv * product.getNotional() * sign * scalingFactor;
+      double upfrontFeeAmount = priceUpfrontFee(
+          valuationDate, product.getUpfrontFeeAmount(), product.getUpfrontFeePaymentDate(), yieldCurveAnalytics) * sign;
+      results.add(CurrencyAmount.of(product.getCurrency(), adjusted + upfrontFeeAmount));
+    }
+    return results.build();
+  }
+
+  /**
+   * Calculate par spread of several products on the specified valuation date.
+   * <p>
+   * The products are grouped as described in {@link #price(LocalDate, List, NodalCurve, NodalCurve, double, double)}.
+   *
+   * @param valuationDate date that par spread is calculated on, also date that curves will be calibrated to
+   * @param products  the expanded CDS products
+   * @param yieldCurve  the par rates representation of the ISDA yield curve
+   * @param creditCurve  the par rates representation of the ISDA credit curve
+   * @param recoveryRate  the recovery rate for the reference entity/issue
+   * @return the par spreads of the expanded CDS products, in the order of the products
+   */
+  public static double[] parSpread(
+      LocalDate valuationDate,
+      List<ResolvedCds> products,
+      NodalCurve yieldCurve,
+      NodalCurve creditCurve,
+      double recoveryRate) {
+
+    // setup
+    IsdaCompliantYieldCurve yieldCurveAnalytics = toYieldCurveAnalytics(yieldCurve);
+    IsdaCompliantCreditCurve creditCurveAnalytics = toCreditCurveAnalytics(creditCurve);
+
+    // calculate
+    int size = products.size();
+    double[] annuities = new double[size];
+    double[] protectionLegs = new double[size];
+    legs(valuationDate, products, yieldCurveAnalytics, creditCurveAnalytics, recoveryRate, CdsPriceType.CLEAN,
+        annuities, protectionLegs);
+    double[] parSpreads = new double[size];
+    for (int i = 0; i < size; i++) {
+      if (!products.get(i).getEndDate().isAfter(valuationDate)) {
+        throw new IllegalArgumentException("CDSs has expired - cannot compute a par spread for it");
+      }
+      parSpreads[i] = protectionLegs[i] / annuities[i];
+    }
+    return parSpreads;
+  }
+
+  // computes the annuity and the protection leg of each product on unit notional
+  // compatible products are priced as a strip of maturities, the others one at a time
+  private static void legs(
+      LocalDate valuationDate,
+      List<ResolvedCds> products,
+      IsdaCompliantYieldCurve yieldCurve,
+      IsdaCompliantCreditCurve creditCurve,
+      double recoveryRate,
+      CdsPriceType priceType,
+      double[] annuities,
+      double[] protectionLegs) {
+
+    Map<List<Object>, List<Integer>> groups = new LinkedHashMap<>();
+    for (int i = 0; i < products.size(); i++) {
+      ResolvedCds product = products.get(i);
+      List<Object> key = ImmutableList.of(
+          product.getStartDate(),
+          product.getPaymentInterval(),
+          product.getStubConvention(),
+          product.isPayAccruedOnDefault(),
+          product.getBusinessDayAdjustment(),
+          product.getAccrualDayCount());
+      groups.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+    }
+    for (List<Integer> group : groups.values()) {
+      if (group.size() == 1 ||
+          !multiLegs(valuationDate, products, group, yieldCurve, creditCurve, recoveryRate, priceType,
+              annuities, protectionLegs)) {
+        for (int i : group) {
+          CdsAnalytic cdsAnalytic = toAnalytic(valuationDate, products.get(i), recoveryRate);
+          if (cdsAnalytic.getProtectionEnd() > 0d) {
+            annuities[i] = CALCULATOR.annuity(cdsAnalytic, yieldCurve, creditCurve, priceType, 0d);
+            protectionLegs[i] = CALCULATOR.protectionLeg(cdsAnalytic, yieldCurve, creditCurve, 0d);
+          }
+        }
+      }
+    }
+  }
+
+  // computes the legs of a group of products sharing accrual start and conventions as a strip of maturities
+  // returns false if the products do not form a regular strip, in which case nothing is computed
+  private static boolean multiLegs(
+      LocalDate valuationDate,
+      List<ResolvedCds> products,
+      List<Integer> group,
+      IsdaCompliantYieldCurve yieldCurve,
+      IsdaCompliantCreditCurve creditCurve,
+      double recoveryRate,
+      CdsPriceType priceType,
+      double[] annuities,
+      double[] protectionLegs) {
+
+    ResolvedCds first = products.get(group.get(0));
+    if (!first.getStubConvention().isCalculateBackwards()) {
+      return false;  // the schedules of the shorter maturities would not be aligned with the longest one
+    }
+    Period period = first.getPaymentInterval();
+    LocalDate referenceDate = group.stream()
+        .map(i -> products.get(i).getEndDate())
+        .min(LocalDate::compareTo)
+        .get();
+    if (!referenceDate.isAfter(valuationDate) || !referenceDate.isAfter(first.getStartDate())) {
+      return false;  // expired or degenerate products have no strip schedule
+    }
+    int[] periodCounts = new int[group.size()];
+    TreeSet<Integer> distinctCounts = new TreeSet<>();
+    for (int j = 0; j < group.size(); j++) {
+      LocalDate endDate = products.get(group.get(j)).getEndDate();
+      int count = 0;
+      LocalDate date = referenceDate;
+      while (date.isBefore(endDate)) {
+        count++;
+        date = referenceDate.plus(period.multipliedBy(count));
+      }
+      if (!date.equals(endDate)) {
+        return false;
+      }
+      periodCounts[j] = count;
+      distinctCounts.add(count);
+    }
+    // the schedule is generated backwards from the longest maturity, which must reach every other maturity
+    LocalDate longest = referenceDate.plus(period.multipliedBy(distinctCounts.last()));
+    for (int count : distinctCounts) {
+      if (!longest.minus(period.multipliedBy(distinctCounts.last() - count))
+          .equals(referenceDate.plus(period.multipliedBy(count)))) {
+        return false;
+      }
+    }
+    int[] maturityIndexes = Ints.toArray(distinctCounts);
+    MultiCdsAnalytic multiAnalytic = new MultiCdsAnalytic(
+        valuationDate,
+        valuationDate.plusDays(1),
+        valuationDate,
+        first.getStartDate(),
+        referenceDate,
+        maturityIndexes,
+        first.isPayAccruedOnDefault(),
+        Tenor.of(period),
+        first.getStubConvention(),
+        PROTECT_START,
+        recoveryRate,
+        first.getBusinessDayAdjustment().getConvention(),
+        first.getBusinessDayAdjustment().getCalendar().resolve(REF_DATA),
+        first.getAccrualDayCount(),
+        CURVE_DAY_COUNT);
+    double[] annuityStrip =
+        MULTI_CALCULATOR.pvPremiumLegPerUnitSpread(multiAnalytic, yieldCurve, creditCurve, priceType);
+    double[] protectionLegStrip = MULTI_CALCULATOR.protectionLeg(multiAnalytic, yieldCurve, creditCurve);
+    for (int j = 0; j < group.size(); j++) {
+      int position = distinctCounts.headSet(periodCounts[j]).size();
+      annuities[group.get(j)] = annuityStrip[position];
+      protectionLegs[group.get(j)] = protectionLegStrip[position];
+    }
+    return true;
+  }
+
   //-------------------------------------------------------------------------
   // The fee is always calculated as being payable by the protection buyer.
   // If the seller should pay the fee, then a negative amount is used.
@@ -151,10 +368,8 @@ class IsdaCdsHelper {
       double recoveryRate) {
     // setup
     CdsAnalytic cdsAnalytic = toAnalytic(valuationDate, product, recoveryRate);
-    IsdaCompliantYieldCurve yieldCurveAnalytics =
-        IsdaCompliantYieldCurve.makeFromRT(yieldCurve.getXValues(), yieldCurve.getYValues());
-    IsdaCompliantCreditCurve creditCurveAnalytics =
-        IsdaCompliantCreditCurve.makeFromRT(creditCurve.getXValues(), creditCurve.getYValues());
+    IsdaCompliantYieldCurve yieldCurveAnalytics = toYieldCurveAnalytics(yieldCurve);
+    IsdaCompliantCreditCurve creditCurveAnalytics = toCreditCurveAnalytics(creditCurve);
 
     return CALCULATOR.parSpread(cdsAnalytic, yieldCurveAnalytics, creditCurveAnalytics);
 
@@ -241,8 +456,7 @@ class IsdaCdsHelper {
       double recoveryRate) {
 
     try {
-      IsdaCompliantYieldCurve yieldCurveAnalytics = IsdaCompliantYieldCurve.makeFromRT(yieldCurve.getXValues(),
-          yieldCurve.getYValues());
+      IsdaCompliantYieldCurve yieldCurveAnalytics = toYieldCurveAnalytics(yieldCurve);
       CdsConvention cdsConvention = curveCurve.getCdsConvention();
       FastCreditCurveBuilder builder = new FastCreditCurveBuilder(
           AccrualOnDefaultFormulae.ORIGINAL_ISDA, IsdaCompliantCreditCurveBuilder.ArbitrageHandling.Fail);
@@ -265,6 +479,28 @@ class IsdaCdsHelper {
     }
   }
 
+  // Converts the yield curve to the analytics form, avoiding the copy if the curve is already backed by it.
+  private static IsdaCompliantYieldCurve toYieldCurveAnalytics(NodalCurve yieldCurve) {
+    if (yieldCurve instanceof IsdaCdsPricer.IsdaNodalCurve) {
+      IsdaCompliantCurve underlying = ((IsdaCdsPricer.IsdaNodalCurve) yieldCurve).getUnderlyingCurve();
+      if (underlying instanceof IsdaCompliantYieldCurve) {
+        return (IsdaCompliantYieldCurve) underlying;
+      }
+    }
+    return IsdaCompliantYieldCurve.makeFromRT(yieldCurve.getXValues(), yieldCurve.getYValues());
+  }
+
+  // Converts the credit curve to the analytics form, avoiding the copy if the curve is already backed by it.
+  private static IsdaCompliantCreditCurve toCreditCurveAnalytics(NodalCurve creditCurve) {
+    if (creditCurve instanceof IsdaCdsPricer.IsdaNodalCurve) {
+      IsdaCompliantCurve underlying = ((IsdaCdsPricer.IsdaNodalCurve) creditCurve).getUnderlyingCurve();
+      if (underlying instanceof IsdaCompliantCreditCurve) {
+        return (IsdaCompliantCreditCurve) underlying;
+      }
+    }
+    return IsdaCompliantCreditCurve.makeFromRT(creditCurve.getXValues(), creditCurve.getYValues());
+  }
+
   // Converts the expanded CDS product to the corresponding analytics form.
   private static CdsAnalytic toAnalytic(LocalDate valuationDate, ResolvedCds product, double recoveryRate) {
     try {
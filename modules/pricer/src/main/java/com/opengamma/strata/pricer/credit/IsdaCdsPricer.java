@@ -6,6 +6,7 @@
 package com.opengamma.strata.pricer.credit;
 
 import java.time.LocalDate;
+import java.util.List;
 
 import com.opengamma.strata.basics.currency.CurrencyAmount;
 import com.opengamma.strata.collect.array.DoubleArray;
@@ -119,6 +120,116 @@ public class IsdaCdsPricer {
     return IsdaCdsHelper.parSpread(valuationDate, product, yieldCurve, creditCurve, recoveryRate);
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Calibrates the ISDA discount curve.
+   * <p>
+   * The calibrated curve can be used with the methods taking calibrated curves,
+   * allowing the calibration to be shared between products and measures.
+   *
+   * @param yieldCurveInputs  par rate curve points of the ISDA discount curve
+   * @param valuationDate  date to use when calibrating the curve
+   * @return the calibrated curve
+   */
+  public NodalCurve calibrateYieldCurve(IsdaYieldCurveInputs yieldCurveInputs, LocalDate valuationDate) {
+    return IsdaNodalCurve.of(valuationDate, yieldCurveInputs);
+  }
+
+  /**
+   * Calibrates the ISDA credit curve.
+   * <p>
+   * The calibrated curve can be used with the methods taking calibrated curves,
+   * allowing the calibration to be shared between products and measures.
+   *
+   * @param creditCurveInputs  par spread rate curve points of the ISDA spread curve
+   * @param yieldCurve  calibrated curve points of the ISDA discount curve
+   * @param valuationDate  date to use when calibrating the curve
+   * @param recoveryRate  recovery rate associate with underlying issue or index
+   * @return the calibrated curve
+   */
+  public NodalCurve calibrateCreditCurve(
+      IsdaCreditCurveInputs creditCurveInputs,
+      NodalCurve yieldCurve,
+      LocalDate valuationDate,
+      double recoveryRate) {
+
+    return IsdaNodalCurve.of(valuationDate, creditCurveInputs, yieldCurve, recoveryRate);
+  }
+
+  /**
+   * Calculates the present value of several expanded CDS products sharing the same curves.
+   * <p>
+   * The present value of each CDS is the present value of all cashflows as of the valuation date.
+   * The curves are converted once for all the products. Products with the same accrual start date and
+   * conventions, whose maturities are a whole number of payment intervals apart, are priced together
+   * in a single pass over the curves.
+   *
+   * @param products  expanded CDS products
+   * @param yieldCurve  calibrated curve points of the ISDA discount curve to use
+   * @param creditCurve  calibrated curve points of the ISDA spread curve to use
+   * @param valuationDate date to use when calibrating curves and calculating the result
+   * @param recoveryRate  recovery rate associate with underlying issue or index
+   * @param scalingFactor linear scaling factor associated with underlying index, or 1 in case of CDS
+   * @return present value of fee leg and any up front fee, in the order of the products
+   */
+  public List<CurrencyAmount> presentValue(
+      List<ResolvedCds> products,
+      NodalCurve yieldCurve,
+      NodalCurve creditCurve,
+      LocalDate valuationDate,
+      double recoveryRate,
+      double scalingFactor) {
+
+    return IsdaCdsHelper.price(valuationDate, products, yieldCurve, creditCurve, recoveryRate, scalingFactor);
+  }
+
+  /**
+   * Calculates the par rate of the expanded CDS product.
+   * <p>
+   * The par rate of the CDS is the coupon rate that will make present value of all cashflows
+   * equal zero as of the valuation date.
+   *
+   * @param product  expanded CDS product
+   * @param yieldCurve  calibrated curve points of the ISDA discount curve to use
+   * @param creditCurve  calibrated curve points of the ISDA spread curve to use
+   * @param valuationDate  date to use when calibrating curves and calculating the result
+   * @param recoveryRate  recovery rate associate with underlying issue or index
+   * @return par rate for the credit default swap
+   */
+  public double parRate(
+      ResolvedCds product,
+      NodalCurve yieldCurve,
+      NodalCurve creditCurve,
+      LocalDate valuationDate,
+      double recoveryRate) {
+
+    return IsdaCdsHelper.parSpread(valuationDate, product, yieldCurve, creditCurve, recoveryRate);
+  }
+
+  /**
+   * Calculates the par rate of several expanded CDS products sharing the same curves.
+   * <p>
+   * The products are grouped and priced together as described in
+   * {@link #presentValue(List, NodalCurve, NodalCurve, LocalDate, double, double)}.
+   *
+   * @param products  expanded CDS products
+   * @param yieldCurve  calibrated curve points of the ISDA discount curve to use
+   * @param creditCurve  calibrated curve points of the ISDA spread curve to use
+   * @param valuationDate  date to use when calibrating curves and calculating the result
+   * @param recoveryRate  recovery rate associate with underlying issue or index
+   * @return par rates for the credit default swaps, in the order of the products
+   */
+  public DoubleArray parRate(
+      List<ResolvedCds> products,
+      NodalCurve yieldCurve,
+      NodalCurve creditCurve,
+      LocalDate valuationDate,
+      double recoveryRate) {
+
+    double[] parSpreads = IsdaCdsHelper.parSpread(valuationDate, products, yieldCurve, creditCurve, recoveryRate);
+    return DoubleArray.ofUnsafe(parSpreads);
+  }
+
   /**
    * Local class that implements ISDANodalCurve
    * This is a further step towards supporting regular Strata ParRates and zero curves for CDS
@@ -137,6 +248,11 @@ public class IsdaCdsPricer {
       this.curveMetadata = curveMetadata;
     }
 
+    // the underlying analytics curve
+    IsdaCompliantCurve getUnderlyingCurve() {
+      return underlyingCurve;
+    }
+
     @Override
     public DoubleArray getXValues() {
       return underlyingCurve.getXValues();
@@ -5,6 +5,9 @@
  */
 package com.opengamma.strata.pricer.fx;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.function.Function;
 
 import com.opengamma.strata.basics.currency.Currency;
@@ -18,6 +21,11 @@ import com.opengamma.strata.product.fx.ResolvedFxVanillaOption;
 
 /**
  * Utilities to calibrate implied trinomial tree to Black volatilities of FX options.
+ * <p>
+ * The calibrator can optionally keep the most recently calibrated trees in a bounded cache.
+ * A tree is reused when the inputs to the calibration are equal, these being the time to expiry,
+ * the currency pair, the FX rate, the discount factors of both currencies and the volatility provider.
+ * The providers passed in are not held by the cache, and equal providers created separately share the same trees.
  */
 public class ImpliedTrinomialTreeFxOptionCalibrator {
 
@@ -25,6 +33,10 @@ public class ImpliedTrinomialTreeFxOptionCalibrator {
    * Number of time steps.
    */
   private final int nSteps;
+  /**
+   * The calibrated trees, null if caching is disabled.
+   */
+  private final Map<TreeKey, RecombiningTrinomialTreeData> cache;
 
   /**
    * Calibrator with the specified number of time steps. 
@@ -34,6 +46,29 @@ public class ImpliedTrinomialTreeFxOptionCalibrator {
   public ImpliedTrinomialTreeFxOptionCalibrator(int nSteps) {
     ArgChecker.isTrue(nSteps > 1, "the number of steps should be greater than 1");
     this.nSteps = nSteps;
+    this.cache = null;
+  }
+
+  /**
+   * Calibrator with the specified number of time steps, caching the calibrated trees. 
+   * <p>
+   * At most {@code cacheSize} trees are kept, the least recently used tree being discarded first.
+   * 
+   * @param nSteps  number of time steps
+   * @param cacheSize  the maximum number of calibrated trees to keep
+   */
+  public ImpliedTrinomialTreeFxOptionCalibrator(int nSteps, int cacheSize) {
+    ArgChecker.isTrue(nSteps > 1, "the number of steps should be greater than 1");
+    ArgChecker.notNegativeOrZero(cacheSize, "cacheSize");
+    this.nSteps = nSteps;
+    this.cache = new LinkedHashMap<TreeKey, RecombiningTrinomialTreeData>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<TreeKey, RecombiningTrinomialTreeData> eldest) {
+        return size() > cacheSize;
+      }
+    };
   }
 
   //-------------------------------------------------------------------------
@@ -73,6 +108,8 @@ public class ImpliedTrinomialTreeFxOptionCalibrator {
    * <p>
    * {@code timeToExpiry} determines the coverage of the resulting trinomial tree. 
    * Thus this should match the time to expiry of the target instrument to price using the calibrated tree.  
+   * <p>
+   * If caching is enabled, a tree previously calibrated to the same inputs is returned.
    * 
    * @param timeToExpiry  the time to expiry
    * @param currencyPair  the currency pair
@@ -86,6 +123,39 @@ public class ImpliedTrinomialTreeFxOptionCalibrator {
       RatesProvider ratesProvider,
       BlackVolatilityFxProvider volatilityProvider) {
 
+    if (cache == null) {
+      return calibrateUncached(timeToExpiry, currencyPair, ratesProvider, volatilityProvider);
+    }
+    TreeKey key = new TreeKey(
+        timeToExpiry,
+        currencyPair,
+        ratesProvider.fxRate(currencyPair),
+        ratesProvider.discountFactors(currencyPair.getBase()),
+        ratesProvider.discountFactors(currencyPair.getCounter()),
+        volatilityProvider);
+    synchronized (cache) {
+      RecombiningTrinomialTreeData cached = cache.get(key);
+      if (cached != null) {
+        return cached;
+      }
+    }
+    // calibrate outside the lock, concurrent calibrations of the same tree give the same result
+    RecombiningTrinomialTreeData calibrated =
+        calibrateUncached(timeToExpiry, currencyPair, ratesProvider, volatilityProvider);
+    synchronized (cache) {
+      cache.put(key, calibrated);
+    }
+    return calibrated;
+  }
+
+  // calibrates the tree, bypassing the cache
+  // this is used for short-lived inputs, such as bumped rates providers, to avoid evicting useful trees
+  RecombiningTrinomialTreeData calibrateUncached(
+      double timeToExpiry,
+      CurrencyPair currencyPair,
+      RatesProvider ratesProvider,
+      BlackVolatilityFxProvider volatilityProvider) {
+
     validate(ratesProvider, volatilityProvider);
     if (timeToExpiry <= 0d) {
       throw new IllegalArgumentException("option expired");
@@ -131,4 +201,58 @@ public class ImpliedTrinomialTreeFxOptionCalibrator {
         "Volatility and rate data must be for the same date");
   }
 
+  //-------------------------------------------------------------------------
+  // the key of the cache, holding the inputs to the calibration, which are immutable and compared by value
+  // the valuation date is part of both the discount factors and the volatility provider
+  private static final class TreeKey {
+    private final double timeToExpiry;
+    private final CurrencyPair currencyPair;
+    private final double fxRate;
+    private final DiscountFactors baseDiscountFactors;
+    private final DiscountFactors counterDiscountFactors;
+    private final BlackVolatilityFxProvider volatilityProvider;
+    private final int hashCode;
+
+    private TreeKey(
+        double timeToExpiry,
+        CurrencyPair currencyPair,
+        double fxRate,
+        DiscountFactors baseDiscountFactors,
+        DiscountFactors counterDiscountFactors,
+        BlackVolatilityFxProvider volatilityProvider) {
+
+      this.timeToExpiry = timeToExpiry;
+      this.currencyPair = currencyPair;
+      this.fxRate = fxRate;
+      this.baseDiscountFactors = baseDiscountFactors;
+      this.counterDiscountFactors = counterDiscountFactors;
+      this.volatilityProvider = volatilityProvider;
+      this.hashCode = Objects.hash(
+          timeToExpiry, currencyPair, fxRate, baseDiscountFactors, counterDiscountFactors, volatilityProvider);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (!(obj instanceof TreeKey)) {
+        return false;
+      }
+      TreeKey other = (TreeKey) obj;
+      return hashCode == other.hashCode &&
+          Double.doubleToLongBits(timeToExpiry) == Double.doubleToLongBits(other.timeToExpiry) &&
+          Double.doubleToLongBits(fxRate) == Double.doubleToLongBits(other.fxRate) &&
+          currencyPair.equals(other.currencyPair) &&
+          baseDiscountFactors.equals(other.baseDiscountFactors) &&
+          counterDiscountFactors.equals(other.counterDiscountFactors) &&
+          volatilityProvider.equals(other.volatilityProvider);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
 }
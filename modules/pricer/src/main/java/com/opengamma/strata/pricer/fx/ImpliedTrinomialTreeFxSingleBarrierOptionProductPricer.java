@@ -9,6 +9,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.stream.IntStream;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.math.DoubleMath;
@@ -54,11 +55,30 @@ public class ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer {
    * Default number of time steps. 
    */
   private static final int NUM_STEPS_DEFAULT = 51;
+  /**
+   * Default maximum number of calibrated trees kept by the default instance. 
+   */
+  private static final int CACHE_SIZE_DEFAULT = 100;
+
+  /**
+   * Default implementation.
+   * <p>
+   * This uses the default number of time steps and shares a cache of the calibrated trees,
+   * such that options with the same currency pair and expiry priced with equal providers
+   * are priced with the same tree. The curve parameter sensitivity is computed sequentially.
+   */
+  public static final ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer DEFAULT =
+      new ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer(
+          new ImpliedTrinomialTreeFxOptionCalibrator(NUM_STEPS_DEFAULT, CACHE_SIZE_DEFAULT), false);
 
   /**
-   * Number of time steps.
+   * The calibrator.
    */
   private final ImpliedTrinomialTreeFxOptionCalibrator calibrator;
+  /**
+   * Whether the bumped curve parameters of the sensitivity are computed in parallel.
+   */
+  private final boolean parallelBumps;
 
   /**
    * Pricer with the default number of time steps. 
@@ -73,7 +93,37 @@ public class ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer {
    * @param nSteps  number of time steps
    */
   public ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer(int nSteps) {
-    this.calibrator = new ImpliedTrinomialTreeFxOptionCalibrator(nSteps);
+    this(new ImpliedTrinomialTreeFxOptionCalibrator(nSteps));
+  }
+
+  /**
+   * Pricer with the specified calibrator. 
+   * <p>
+   * A calibrator with a cache allows the calibrated trees to be shared between options
+   * with the same currency pair and expiry priced with the same providers.
+   * 
+   * @param calibrator  the calibrator
+   */
+  public ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer(ImpliedTrinomialTreeFxOptionCalibrator calibrator) {
+    this(calibrator, false);
+  }
+
+  /**
+   * Pricer with the specified calibrator, optionally computing the curve parameter sensitivity in parallel. 
+   * <p>
+   * The sensitivity recalibrates the tree for each bumped curve parameter.
+   * Computing the bumps in parallel uses the common fork-join pool, thus it is best avoided
+   * when the options are already priced in parallel, as in the calculation runner.
+   * 
+   * @param calibrator  the calibrator
+   * @param parallelBumps  whether the bumped curve parameters are computed in parallel
+   */
+  public ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer(
+      ImpliedTrinomialTreeFxOptionCalibrator calibrator,
+      boolean parallelBumps) {
+
+    this.calibrator = ArgChecker.notNull(calibrator, "calibrator");
+    this.parallelBumps = parallelBumps;
   }
 
   //-------------------------------------------------------------------------
@@ -221,6 +271,8 @@ public class ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer {
    * the underlying curve parameters.
    * <p>
    * The sensitivity is computed by bump and re-price.
+   * The trinomial tree is recalibrated for each bumped curve parameter.
+   * The bumps are computed in parallel if the pricer was created to do so.
    * 
    * @param option  the option product
    * @param ratesProvider  the rates provider
@@ -241,6 +293,7 @@ public class ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer {
     ResolvedFxVanillaOption underlyingOption = option.getUnderlyingOption();
     ResolvedFxSingle underlyingFx = underlyingOption.getUnderlying();
     CurrencyPair currencyPair = underlyingFx.getCurrencyPair();
+    double timeToExpiry = volatilityProvider.relativeTime(underlyingOption.getExpiry());
     ImmutableRatesProvider immRatesProvider = (ImmutableRatesProvider) ratesProvider;
     ImmutableMap<Currency, Curve> baseCurves = immRatesProvider.getDiscountCurves();
     CurrencyParameterSensitivities result = CurrencyParameterSensitivities.empty();
@@ -249,15 +302,20 @@ public class ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer {
       if (currencyPair.contains(entry.getKey())) {
         Curve curve = entry.getValue();
         int nParams = curve.getParameterCount();
-        DoubleArray sensitivity = DoubleArray.of(nParams, i -> {
+        IntStream bumps = IntStream.range(0, nParams);
+        double[] sensitivity = (parallelBumps ? bumps.parallel() : bumps).mapToDouble(i -> {
           Curve dscBumped = curve.withParameter(i, curve.getParameter(i) + shift);
           Map<Currency, Curve> mapBumped = new HashMap<>(baseCurves);
           mapBumped.put(entry.getKey(), dscBumped);
           ImmutableRatesProvider providerDscBumped = immRatesProvider.toBuilder().discountCurves(mapBumped).build();
-          double pvBumped = presentValue(option, providerDscBumped, volatilityProvider).getAmount();
+          // the bumped trees are not reused, thus they are not cached
+          RecombiningTrinomialTreeData treeDataBumped = calibrator.calibrateUncached(
+              timeToExpiry, currencyPair, providerDscBumped, volatilityProvider);
+          double pvBumped = presentValue(option, providerDscBumped, volatilityProvider, treeDataBumped).getAmount();
           return (pvBumped - pvBase.getAmount()) / shift;
-        });
-        result = result.combinedWith(curve.createParameterSensitivity(pvBase.getCurrency(), sensitivity));
+        }).toArray();
+        result = result.combinedWith(
+            curve.createParameterSensitivity(pvBase.getCurrency(), DoubleArray.ofUnsafe(sensitivity)));
       }
     }
     return result;
@@ -14,6 +14,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.joda.beans.Bean;
@@ -30,6 +31,8 @@ import org.joda.beans.impl.direct.DirectMetaBean;
 import org.joda.beans.impl.direct.DirectMetaProperty;
 import org.joda.beans.impl.direct.DirectMetaPropertyMap;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.array.DoubleArray;
@@ -51,11 +54,20 @@ import com.opengamma.strata.market.interpolator.CurveInterpolator;
  * <p>
  * The default for the time direction is time squire interpolation with flat extrapolation.
  * The default for the strike direction is linear interpolation with flat extrapolation.
+ * <p>
+ * The smiles interpolated at the requested times and the strike interpolators bound to them are cached,
+ * such that options with the same expiry and forward reuse them. The caches are bounded and thread-safe,
+ * discarding the least recently used entries first.
  */
 @BeanDefinition(builderScope = "private")
 public final class InterpolatedSmileDeltaTermStructureStrikeInterpolation
     implements InterpolatedSmileDeltaTermStructure, ImmutableBean, Serializable {
 
+  /**
+   * The maximum number of entries in each cache.
+   */
+  private static final int CACHE_SIZE = 1000;
+
   /**
    * The name of the smile term structure.
    */
@@ -104,6 +116,18 @@ public final class InterpolatedSmileDeltaTermStructureStrikeInterpolation
    */
   @PropertyDefinition(validate = "notNull", overrideGet = true)
   private final DoubleArray timeToExpiry;
+  /**
+   * The smiles interpolated at the requested times, keyed by time.
+   */
+  private transient final Cache<Double, SmileDeltaParameters> smileCache;  // derived and cached, not a property
+  /**
+   * The smiles and their sensitivities to a unit sensitivity at each strike, keyed by time.
+   */
+  private transient final Cache<Double, SmileAndBucketedSensitivities> sensitivityCache;  // derived and cached
+  /**
+   * The strike interpolators bound to the smiles, keyed by time and forward.
+   */
+  private transient final Cache<StrikeKey, BoundCurveInterpolator> strikeCache;  // derived and cached
 
   //-------------------------------------------------------------------------
   /**
@@ -495,32 +519,114 @@ public final class InterpolatedSmileDeltaTermStructureStrikeInterpolation
     this.strikeInterpolator = strikeInterpolator;
     this.strikeRightExtrapolator = strikeRightExtrapolator;
     this.timeToExpiry = timeToExpiry;
+    this.smileCache = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+    this.sensitivityCache = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+    this.strikeCache = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+  }
+
+  // ensure standard constructor is invoked
+  private Object readResolve() {
+    return new InterpolatedSmileDeltaTermStructureStrikeInterpolation(
+        name,
+        volatilityTerm,
+        timeLeftExtrapolator,
+        timeInterpolator,
+        timeRightExtrapolator,
+        strikeLeftExtrapolator,
+        strikeInterpolator,
+        strikeRightExtrapolator,
+        timeToExpiry);
   }
 
   //-------------------------------------------------------------------------
   @Override
   public double volatility(double time, double strike, double forward) {
     ArgChecker.isTrue(time >= 0, "Positive time");
-    SmileDeltaParameters smile = smileForTime(time);
-    DoubleArray strikes = smile.getStrike(forward);
-    BoundCurveInterpolator bound = strikeInterpolator.bind(
-        strikes, smile.getVolatility(), strikeLeftExtrapolator, strikeRightExtrapolator);
-    return bound.interpolate(strike);
+    return boundStrikeInterpolator(time, forward).interpolate(strike);
   }
 
   @Override
   public VolatilityAndBucketedSensitivities volatilityAndSensitivities(double time, double strike, double forward) {
     ArgChecker.isTrue(time >= 0, "Positive time");
-    SmileDeltaParameters smile = smileForTime(time);
-    DoubleArray strikes = smile.getStrike(forward);
-    BoundCurveInterpolator bound = strikeInterpolator.bind(
-        strikes, smile.getVolatility(), strikeLeftExtrapolator, strikeRightExtrapolator);
+    BoundCurveInterpolator bound = boundStrikeInterpolator(time, forward);
     double volatility = bound.interpolate(strike);
     DoubleArray smileVolatilityBar = bound.parameterSensitivity(strike);
     SmileAndBucketedSensitivities smileAndSensitivities = smileAndSensitivitiesForTime(time, smileVolatilityBar);
     return VolatilityAndBucketedSensitivities.of(volatility, smileAndSensitivities.getSensitivities());
   }
 
+  @Override
+  public SmileDeltaParameters smileForTime(double expiry) {
+    return cached(smileCache, expiry, InterpolatedSmileDeltaTermStructure.super::smileForTime);
+  }
+
+  @Override
+  public SmileAndBucketedSensitivities smileAndSensitivitiesForTime(
+      double expiry,
+      DoubleArray volatilityAtTimeSensitivity) {
+
+    int nbVol = getStrikeCount();
+    ArgChecker.isTrue(volatilityAtTimeSensitivity.size() == nbVol, "Sensitivity with incorrect size");
+    // the sensitivities are linear in the sensitivity at each strike, thus those to a unit sensitivity are scaled
+    SmileAndBucketedSensitivities unit = cached(sensitivityCache, expiry, key ->
+        InterpolatedSmileDeltaTermStructure.super.smileAndSensitivitiesForTime(key, DoubleArray.filled(nbVol, 1d)));
+    DoubleMatrix volatilitySensitivity = unit.getSensitivities().mapWithIndex(
+        (looptime, loopvol, value) -> value * volatilityAtTimeSensitivity.get(loopvol));
+    return SmileAndBucketedSensitivities.of(unit.getSmile(), volatilitySensitivity);
+  }
+
+  //-------------------------------------------------------------------------
+  // obtains the strike interpolator bound to the smile at the time, for the forward
+  private BoundCurveInterpolator boundStrikeInterpolator(double time, double forward) {
+    return cached(strikeCache, new StrikeKey(time, forward), key -> {
+      SmileDeltaParameters smile = smileForTime(time);
+      DoubleArray strikes = smile.getStrike(forward);
+      return strikeInterpolator.bind(strikes, smile.getVolatility(), strikeLeftExtrapolator, strikeRightExtrapolator);
+    });
+  }
+
+  // obtains the value from the cache, computing it if absent
+  // the value is computed outside the cache, such that exceptions are thrown unchanged
+  private static <K, V> V cached(Cache<K, V> cache, K key, Function<K, V> function) {
+    V value = cache.getIfPresent(key);
+    if (value == null) {
+      value = function.apply(key);
+      cache.put(key, value);
+    }
+    return value;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The key of the strike interpolators, comparing the time and the forward by their bit patterns.
+   */
+  private static final class StrikeKey {
+    private final long timeBits;
+    private final long forwardBits;
+
+    private StrikeKey(double time, double forward) {
+      this.timeBits = Double.doubleToLongBits(time);
+      this.forwardBits = Double.doubleToLongBits(forward);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (!(obj instanceof StrikeKey)) {
+        return false;
+      }
+      StrikeKey other = (StrikeKey) obj;
+      return timeBits == other.timeBits && forwardBits == other.forwardBits;
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(timeBits) * 31 + Long.hashCode(forwardBits);
+    }
+  }
+
   //------------------------- AUTOGENERATED START -------------------------
   ///CLOVER:OFF
   /**
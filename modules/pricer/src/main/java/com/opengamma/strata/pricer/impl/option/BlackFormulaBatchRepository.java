@@ -0,0 +1,386 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.option;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.math.impl.statistics.distribution.NormalDistribution;
+import com.opengamma.strata.math.impl.statistics.distribution.ProbabilityDistribution;
+
+/**
+ * Batch variants of the Black formulas, calculating the price, greeks and implied volatility of many options at once.
+ * <p>
+ * Each method takes arrays of inputs, one element for each option, and returns an array of results.
+ * The results match those of the scalar methods of {@link BlackFormulaRepository}, which are
+ * used directly for inputs in the limiting regimes, such as zero or very large volatility.
+ * As with {@code BlackFormulaRepository}, all prices are <b>forward</b> prices.
+ * <p>
+ * The implied volatility is calculated using the normalised Black function of Jäckel,
+ * "Let's Be Rational", Wilmott (2015), pp40-53.
+ * The initial guess is derived from the asymptotic form of the normalised function on either side
+ * of its point of inflection, which is followed by Householder iterations on a logarithmic objective.
+ * This typically converges to machine precision in three or four iterations, with no per-call setup.
+ */
+public final class BlackFormulaBatchRepository {
+
+  /**
+   * The normal distribution implementation.
+   */
+  private static final ProbabilityDistribution<Double> NORMAL = new NormalDistribution(0, 1);
+  /**
+   * The value above which inputs are considered large, matching {@code BlackFormulaRepository}.
+   */
+  private static final double LARGE = 1e13;
+  /**
+   * The value below which inputs are considered small, matching {@code BlackFormulaRepository}.
+   */
+  private static final double SMALL = 1e-13;
+  /**
+   * The relative tolerance of the implied volatility iterations.
+   */
+  private static final double TOLERANCE = 1e-14;
+  /**
+   * The maximum number of implied volatility iterations.
+   */
+  private static final int MAX_ITERATIONS = 40;
+
+  // restricted constructor
+  private BlackFormulaBatchRepository() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Computes the forward price of each option.
+   * <p>
+   * This matches {@link BlackFormulaRepository#price(double, double, double, double, boolean)} for each option.
+   *
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param lognormalVols  the log-normal volatilities
+   * @param isCall  true for calls, false for puts
+   * @return the forward prices
+   */
+  public static DoubleArray price(
+      DoubleArray forwards,
+      DoubleArray strikes,
+      DoubleArray timesToExpiry,
+      DoubleArray lognormalVols,
+      boolean isCall) {
+
+    int size = checkSizes(forwards, strikes, timesToExpiry, lognormalVols);
+    int sign = isCall ? 1 : -1;
+    double[] result = new double[size];
+    for (int i = 0; i < size; i++) {
+      double forward = forwards.get(i);
+      double strike = strikes.get(i);
+      double sigmaRootT = lognormalVols.get(i) * Math.sqrt(timesToExpiry.get(i));
+      if (isRegular(forward, strike, timesToExpiry.get(i), lognormalVols.get(i), sigmaRootT)) {
+        double d1 = Math.log(forward / strike) / sigmaRootT + 0.5 * sigmaRootT;
+        double d2 = d1 - sigmaRootT;
+        double price = sign * (forward * NORMAL.getCDF(sign * d1) - strike * NORMAL.getCDF(sign * d2));
+        result[i] = Math.max(0d, price);
+      } else {
+        result[i] = BlackFormulaRepository.price(forward, strike, timesToExpiry.get(i), lognormalVols.get(i), isCall);
+      }
+    }
+    return DoubleArray.ofUnsafe(result);
+  }
+
+  /**
+   * Computes the forward driftless delta of each option.
+   * <p>
+   * This matches {@link BlackFormulaRepository#delta(double, double, double, double, boolean)} for each option.
+   *
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param lognormalVols  the log-normal volatilities
+   * @param isCall  true for calls, false for puts
+   * @return the forward driftless deltas
+   */
+  public static DoubleArray delta(
+      DoubleArray forwards,
+      DoubleArray strikes,
+      DoubleArray timesToExpiry,
+      DoubleArray lognormalVols,
+      boolean isCall) {
+
+    int size = checkSizes(forwards, strikes, timesToExpiry, lognormalVols);
+    int sign = isCall ? 1 : -1;
+    double[] result = new double[size];
+    for (int i = 0; i < size; i++) {
+      double forward = forwards.get(i);
+      double strike = strikes.get(i);
+      double sigmaRootT = lognormalVols.get(i) * Math.sqrt(timesToExpiry.get(i));
+      if (isRegular(forward, strike, timesToExpiry.get(i), lognormalVols.get(i), sigmaRootT)) {
+        double d1 = Math.log(forward / strike) / sigmaRootT + 0.5 * sigmaRootT;
+        result[i] = sign * NORMAL.getCDF(sign * d1);
+      } else {
+        result[i] = BlackFormulaRepository.delta(forward, strike, timesToExpiry.get(i), lognormalVols.get(i), isCall);
+      }
+    }
+    return DoubleArray.ofUnsafe(result);
+  }
+
+  /**
+   * Computes the forward driftless gamma of each option.
+   * <p>
+   * This matches {@link BlackFormulaRepository#gamma(double, double, double, double)} for each option.
+   *
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param lognormalVols  the log-normal volatilities
+   * @return the forward driftless gammas
+   */
+  public static DoubleArray gamma(
+      DoubleArray forwards,
+      DoubleArray strikes,
+      DoubleArray timesToExpiry,
+      DoubleArray lognormalVols) {
+
+    int size = checkSizes(forwards, strikes, timesToExpiry, lognormalVols);
+    double[] result = new double[size];
+    for (int i = 0; i < size; i++) {
+      double forward = forwards.get(i);
+      double strike = strikes.get(i);
+      double sigmaRootT = lognormalVols.get(i) * Math.sqrt(timesToExpiry.get(i));
+      if (isRegular(forward, strike, timesToExpiry.get(i), lognormalVols.get(i), sigmaRootT)) {
+        double d1 = Math.log(forward / strike) / sigmaRootT + 0.5 * sigmaRootT;
+        result[i] = NORMAL.getPDF(d1) / forward / sigmaRootT;
+      } else {
+        result[i] = BlackFormulaRepository.gamma(forward, strike, timesToExpiry.get(i), lognormalVols.get(i));
+      }
+    }
+    return DoubleArray.ofUnsafe(result);
+  }
+
+  /**
+   * Computes the forward vega of each option.
+   * <p>
+   * This matches {@link BlackFormulaRepository#vega(double, double, double, double)} for each option.
+   *
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param lognormalVols  the log-normal volatilities
+   * @return the forward vegas
+   */
+  public static DoubleArray vega(
+      DoubleArray forwards,
+      DoubleArray strikes,
+      DoubleArray timesToExpiry,
+      DoubleArray lognormalVols) {
+
+    int size = checkSizes(forwards, strikes, timesToExpiry, lognormalVols);
+    double[] result = new double[size];
+    for (int i = 0; i < size; i++) {
+      double forward = forwards.get(i);
+      double strike = strikes.get(i);
+      double rootT = Math.sqrt(timesToExpiry.get(i));
+      double sigmaRootT = lognormalVols.get(i) * rootT;
+      if (isRegular(forward, strike, timesToExpiry.get(i), lognormalVols.get(i), sigmaRootT)) {
+        double d1 = Math.log(forward / strike) / sigmaRootT + 0.5 * sigmaRootT;
+        result[i] = forward * rootT * NORMAL.getPDF(d1);
+      } else {
+        result[i] = BlackFormulaRepository.vega(forward, strike, timesToExpiry.get(i), lognormalVols.get(i));
+      }
+    }
+    return DoubleArray.ofUnsafe(result);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Computes the log-normal implied volatility of each option.
+   * <p>
+   * This calculates the same volatility as
+   * {@link BlackFormulaRepository#impliedVolatility(double, double, double, double, boolean)} for each option,
+   * to a higher accuracy.
+   *
+   * @param prices  the forward prices, which are the market prices divided by the numeraire
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param isCall  true for calls, false for puts
+   * @return the log-normal (Black) implied volatilities
+   */
+  public static DoubleArray impliedVolatility(
+      DoubleArray prices,
+      DoubleArray forwards,
+      DoubleArray strikes,
+      DoubleArray timesToExpiry,
+      boolean isCall) {
+
+    int size = checkSizes(prices, forwards, strikes, timesToExpiry);
+    double[] result = new double[size];
+    for (int i = 0; i < size; i++) {
+      result[i] = impliedVolatility(prices.get(i), forwards.get(i), strikes.get(i), timesToExpiry.get(i), isCall);
+    }
+    return DoubleArray.ofUnsafe(result);
+  }
+
+  // computes the implied volatility of a single option
+  private static double impliedVolatility(
+      double price,
+      double forward,
+      double strike,
+      double timeToExpiry,
+      boolean isCall) {
+
+    double otmPrice = price - Math.max(0d, (isCall ? 1 : -1) * (forward - strike));
+    boolean regular = otmPrice > 0d &&
+        forward > 0d && strike > 0d && timeToExpiry > 0d &&
+        !Double.isInfinite(forward) && !Double.isInfinite(strike) && !Double.isInfinite(timeToExpiry);
+    if (!regular) {
+      return BlackFormulaRepository.impliedVolatility(price, forward, strike, timeToExpiry, isCall);
+    }
+    ArgChecker.isTrue(otmPrice < Math.min(forward, strike), "otmPrice of {} exceeded upper bound of {}", otmPrice,
+        Math.min(forward, strike));
+    if (forward == strike) {
+      // at-the-money calls and puts have the same price, F (2 N(s/2) - 1), which inverts in closed form
+      return 2d * NORMAL.getInverseCDF(0.5 * (1d + otmPrice / forward)) / Math.sqrt(timeToExpiry);
+    }
+    // the out-the-money option is a call with x < 0, using the symmetry of the normalised price
+    double x = -Math.abs(Math.log(forward / strike));
+    double beta = otmPrice / Math.sqrt(forward * strike);
+    return normalisedImpliedVolatility(beta, x) / Math.sqrt(timeToExpiry);
+  }
+
+  //-------------------------------------------------------------------------
+  // solves for the total volatility s of the normalised out-the-money call price beta, where x < 0
+  // below the point of inflection, the objective is log(b(s)) - log(beta)
+  // above the point of inflection, the objective is log(bMax - b(s)) - log(bMax - beta)
+  private static double normalisedImpliedVolatility(double beta, double x) {
+    double sInflection = Math.sqrt(-2d * x);
+    double bInflection = normalisedPrice(x, sInflection);
+    double[] derivatives = new double[2];
+    if (beta < bInflection) {
+      // the asymptotic form log(b) ~ -x^2 / (2 s^2) gives the initial guess
+      double s = 1d / Math.sqrt(1d / (sInflection * sInflection) + 2d * Math.log(bInflection / beta) / (x * x));
+      double lower = 0d;
+      double upper = sInflection;
+      double logBeta = Math.log(beta);
+      for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+        double b = normalisedPrice(x, s);
+        if (!(b > 0d)) {
+          // the price has underflowed, so the volatility is too low
+          lower = s;
+          s = 0.5 * (lower + upper);
+          continue;
+        }
+        normalisedVegaAndVolga(x, s, derivatives);
+        double f = Math.log(b) - logBeta;
+        if (f == 0d) {
+          return s;
+        }
+        if (f < 0d) {
+          lower = s;
+        } else {
+          upper = s;
+        }
+        if (upper - lower <= TOLERANCE * s) {
+          return s;
+        }
+        double f1 = derivatives[0] / b;
+        double f2 = derivatives[1] / b - f1 * f1;
+        double step = -2d * f * f1 / (2d * f1 * f1 - f * f2);
+        if (Math.abs(step) <= TOLERANCE * s) {
+          return s + step;
+        }
+        s = (s + step > lower && s + step < upper) ? s + step : 0.5 * (lower + upper);
+      }
+      return s;
+    }
+    // the complement of the price tends to 2 N(-s/2) cosh(x/2) for large s, which gives the initial guess
+    double bMax = Math.exp(0.5 * x);
+    double cTarget = bMax - beta;
+    ArgChecker.isTrue(cTarget > 0d, "Normalised price {} is not below the upper bound {}", beta, bMax);
+    double coshTerm = bMax + Math.exp(-0.5 * x);
+    double s = Math.max(sInflection, -2d * NORMAL.getInverseCDF(cTarget / coshTerm));
+    double lower = sInflection;
+    double upper = Double.POSITIVE_INFINITY;
+    double logTarget = Math.log(cTarget);
+    for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+      double c = normalisedComplementPrice(x, s);
+      normalisedVegaAndVolga(x, s, derivatives);
+      double f = Math.log(c) - logTarget;
+      if (f == 0d) {
+        return s;
+      }
+      if (f > 0d) {
+        lower = s;
+      } else {
+        upper = s;
+      }
+      if (upper - lower <= TOLERANCE * s) {
+        return s;
+      }
+      double f1 = -derivatives[0] / c;
+      double f2 = -derivatives[1] / c - f1 * f1;
+      double step = -2d * f * f1 / (2d * f1 * f1 - f * f2);
+      if (Math.abs(step) <= TOLERANCE * s) {
+        return s + step;
+      }
+      if (s + step > lower && s + step < upper) {
+        s = s + step;
+      } else {
+        s = Double.isInfinite(upper) ? 2d * s : 0.5 * (lower + upper);
+      }
+    }
+    return s;
+  }
+
+  // the normalised call price b(x, s), the Black price divided by the square root of forward times strike
+  private static double normalisedPrice(double x, double s) {
+    double h = x / s;
+    double t = 0.5 * s;
+    return Math.exp(0.5 * x) * NORMAL.getCDF(h + t) - Math.exp(-0.5 * x) * NORMAL.getCDF(h - t);
+  }
+
+  // the complement of the normalised call price, bMax - b(x, s), calculated without cancellation
+  private static double normalisedComplementPrice(double x, double s) {
+    double h = x / s;
+    double t = 0.5 * s;
+    return Math.exp(0.5 * x) * NORMAL.getCDF(-h - t) + Math.exp(-0.5 * x) * NORMAL.getCDF(h - t);
+  }
+
+  // the first and second derivatives of the normalised call price with respect to s
+  private static void normalisedVegaAndVolga(double x, double s, double[] derivatives) {
+    double d1 = x / s + 0.5 * s;
+    double vega = Math.exp(0.5 * x) * NORMAL.getPDF(d1);
+    derivatives[0] = vega;
+    derivatives[1] = vega * (x * x / (s * s * s) - 0.25 * s);
+  }
+
+  //-------------------------------------------------------------------------
+  // whether the closed form applies directly, otherwise the scalar method handles limits and validation
+  private static boolean isRegular(
+      double forward,
+      double strike,
+      double timeToExpiry,
+      double lognormalVol,
+      double sigmaRootT) {
+
+    return forward > 0d && strike > 0d && timeToExpiry >= 0d && lognormalVol >= 0d &&
+        forward <= LARGE && strike <= LARGE && sigmaRootT >= SMALL && sigmaRootT <= LARGE &&
+        Math.abs(forward - strike) >= SMALL;
+  }
+
+  // checks the arrays have the same size
+  private static int checkSizes(DoubleArray first, DoubleArray second, DoubleArray third, DoubleArray fourth) {
+    ArgChecker.notNull(first, "first");
+    ArgChecker.notNull(second, "second");
+    ArgChecker.notNull(third, "third");
+    ArgChecker.notNull(fourth, "fourth");
+    int size = first.size();
+    ArgChecker.isTrue(
+        second.size() == size && third.size() == size && fourth.size() == size,
+        "Arrays must be the same size");
+    return size;
+  }
+
+}
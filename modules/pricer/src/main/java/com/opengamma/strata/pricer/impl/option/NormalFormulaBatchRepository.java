@@ -0,0 +1,279 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.option;
+
+import com.google.common.math.DoubleMath;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.math.impl.statistics.distribution.NormalDistribution;
+import com.opengamma.strata.math.impl.statistics.distribution.ProbabilityDistribution;
+import com.opengamma.strata.product.common.PutCall;
+
+/**
+ * Batch variants of the normal model formulas, calculating the price, greeks and implied volatility
+ * of many options at once.
+ * <p>
+ * Each method takes arrays of inputs, one element for each option, and returns an array of results.
+ * The results match those of the scalar methods of {@link NormalFormulaRepository}, which are
+ * used directly for inputs with near-zero volatility.
+ * As with {@code NormalFormulaRepository}, all prices are <b>forward</b> prices.
+ * <p>
+ * The implied volatility is calculated using the closed form approximation of Jäckel,
+ * "Implied Normal Volatility", Wilmott (2017), pp52-54, which is accurate to machine precision
+ * without iteration.
+ */
+public final class NormalFormulaBatchRepository {
+
+  /**
+   * The normal distribution implementation.
+   */
+  private static final ProbabilityDistribution<Double> DISTRIBUTION = new NormalDistribution(0, 1);
+  /**
+   * The comparison value used to determine near-zero, matching {@code NormalFormulaRepository}.
+   */
+  private static final double NEAR_ZERO = 1e-16;
+  /**
+   * The square root of two pi.
+   */
+  private static final double ROOT_TWO_PI = Math.sqrt(2d * Math.PI);
+  /**
+   * The value of the scaled time value at which the two rational approximations meet.
+   */
+  private static final double PHI_TILDE_CUTOFF = -0.001882039271;
+
+  // restricted constructor
+  private NormalFormulaBatchRepository() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Computes the forward price of each option.
+   * <p>
+   * This matches {@link NormalFormulaRepository#price(double, double, double, double, PutCall)} for each option.
+   *
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param normalVols  the normal volatilities
+   * @param putCall  whether they are puts or calls
+   * @return the forward prices
+   */
+  public static DoubleArray price(
+      DoubleArray forwards,
+      DoubleArray strikes,
+      DoubleArray timesToExpiry,
+      DoubleArray normalVols,
+      PutCall putCall) {
+
+    int size = checkSizes(forwards, strikes, timesToExpiry, normalVols);
+    int sign = putCall.isCall() ? 1 : -1;
+    double[] result = new double[size];
+    for (int i = 0; i < size; i++) {
+      double sigmaRootT = normalVols.get(i) * Math.sqrt(timesToExpiry.get(i));
+      if (sigmaRootT < NEAR_ZERO) {
+        result[i] = NormalFormulaRepository.price(
+            forwards.get(i), strikes.get(i), timesToExpiry.get(i), normalVols.get(i), putCall);
+      } else {
+        double x = sign * (forwards.get(i) - strikes.get(i));
+        double arg = x / sigmaRootT;
+        result[i] = x * DISTRIBUTION.getCDF(arg) + sigmaRootT * DISTRIBUTION.getPDF(arg);
+      }
+    }
+    return DoubleArray.ofUnsafe(result);
+  }
+
+  /**
+   * Computes the delta of each option.
+   * <p>
+   * This matches {@link NormalFormulaRepository#delta(double, double, double, double, PutCall)} for each option.
+   *
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param normalVols  the normal volatilities
+   * @param putCall  whether they are puts or calls
+   * @return the deltas
+   */
+  public static DoubleArray delta(
+      DoubleArray forwards,
+      DoubleArray strikes,
+      DoubleArray timesToExpiry,
+      DoubleArray normalVols,
+      PutCall putCall) {
+
+    int size = checkSizes(forwards, strikes, timesToExpiry, normalVols);
+    int sign = putCall.isCall() ? 1 : -1;
+    double[] result = new double[size];
+    for (int i = 0; i < size; i++) {
+      double sigmaRootT = normalVols.get(i) * Math.sqrt(timesToExpiry.get(i));
+      if (sigmaRootT < NEAR_ZERO) {
+        result[i] = NormalFormulaRepository.delta(
+            forwards.get(i), strikes.get(i), timesToExpiry.get(i), normalVols.get(i), putCall);
+      } else {
+        double arg = sign * (forwards.get(i) - strikes.get(i)) / sigmaRootT;
+        result[i] = sign * DISTRIBUTION.getCDF(arg);
+      }
+    }
+    return DoubleArray.ofUnsafe(result);
+  }
+
+  /**
+   * Computes the gamma of each option.
+   * <p>
+   * This matches {@link NormalFormulaRepository#gamma(double, double, double, double, PutCall)} for each option.
+   *
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param normalVols  the normal volatilities
+   * @param putCall  whether they are puts or calls
+   * @return the gammas
+   */
+  public static DoubleArray gamma(
+      DoubleArray forwards,
+      DoubleArray strikes,
+      DoubleArray timesToExpiry,
+      DoubleArray normalVols,
+      PutCall putCall) {
+
+    int size = checkSizes(forwards, strikes, timesToExpiry, normalVols);
+    double[] result = new double[size];
+    for (int i = 0; i < size; i++) {
+      double sigmaRootT = normalVols.get(i) * Math.sqrt(timesToExpiry.get(i));
+      if (sigmaRootT < NEAR_ZERO) {
+        result[i] = NormalFormulaRepository.gamma(
+            forwards.get(i), strikes.get(i), timesToExpiry.get(i), normalVols.get(i), putCall);
+      } else {
+        double arg = (forwards.get(i) - strikes.get(i)) / sigmaRootT;
+        result[i] = DISTRIBUTION.getPDF(arg) / sigmaRootT;
+      }
+    }
+    return DoubleArray.ofUnsafe(result);
+  }
+
+  /**
+   * Computes the vega of each option.
+   * <p>
+   * This matches {@link NormalFormulaRepository#vega(double, double, double, double, PutCall)} for each option.
+   *
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param normalVols  the normal volatilities
+   * @param putCall  whether they are puts or calls
+   * @return the vegas
+   */
+  public static DoubleArray vega(
+      DoubleArray forwards,
+      DoubleArray strikes,
+      DoubleArray timesToExpiry,
+      DoubleArray normalVols,
+      PutCall putCall) {
+
+    int size = checkSizes(forwards, strikes, timesToExpiry, normalVols);
+    double[] result = new double[size];
+    for (int i = 0; i < size; i++) {
+      double rootT = Math.sqrt(timesToExpiry.get(i));
+      double sigmaRootT = normalVols.get(i) * rootT;
+      if (sigmaRootT < NEAR_ZERO) {
+        result[i] = NormalFormulaRepository.vega(
+            forwards.get(i), strikes.get(i), timesToExpiry.get(i), normalVols.get(i), putCall);
+      } else {
+        double arg = (forwards.get(i) - strikes.get(i)) / sigmaRootT;
+        result[i] = DISTRIBUTION.getPDF(arg) * rootT;
+      }
+    }
+    return DoubleArray.ofUnsafe(result);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Computes the normal implied volatility of each option.
+   * <p>
+   * This calculates the same volatility as
+   * {@link NormalFormulaRepository#impliedVolatility(double, double, double, double, double, double, PutCall)}
+   * with a numeraire of one, without the need for an initial guess or iteration.
+   * A price equal to the intrinsic value, within a tolerance of 1e-6, has an implied volatility of zero.
+   *
+   * @param prices  the forward prices, which are the market prices divided by the numeraire
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param putCall  whether they are puts or calls
+   * @return the normal implied volatilities
+   */
+  public static DoubleArray impliedVolatility(
+      DoubleArray prices,
+      DoubleArray forwards,
+      DoubleArray strikes,
+      DoubleArray timesToExpiry,
+      PutCall putCall) {
+
+    int size = checkSizes(prices, forwards, strikes, timesToExpiry);
+    double[] result = new double[size];
+    for (int i = 0; i < size; i++) {
+      result[i] = impliedVolatility(prices.get(i), forwards.get(i), strikes.get(i), timesToExpiry.get(i), putCall);
+    }
+    return DoubleArray.ofUnsafe(result);
+  }
+
+  // computes the implied volatility of a single option
+  private static double impliedVolatility(
+      double price,
+      double forward,
+      double strike,
+      double timeToExpiry,
+      PutCall putCall) {
+
+    ArgChecker.isTrue(timeToExpiry > 0d, "Time to expiry must be positive, but was {}", timeToExpiry);
+    double intrinsicPrice = Math.max(0, (putCall.isCall() ? 1 : -1) * (forward - strike));
+    ArgChecker.isTrue(price > intrinsicPrice || DoubleMath.fuzzyEquals(price, intrinsicPrice, 1e-6),
+        "Option price (" + price + ") less than intrinsic value (" + intrinsicPrice + ")");
+    if (price <= intrinsicPrice) {
+      return 0d;
+    }
+    double absMoneyness = Math.abs(forward - strike);
+    if (absMoneyness == 0d) {
+      return price * ROOT_TWO_PI / Math.sqrt(timeToExpiry);
+    }
+    // the time value scaled by the moneyness, which is negative
+    double phiTilde = -(price - intrinsicPrice) / absMoneyness;
+    double xBar;
+    if (phiTilde < PHI_TILDE_CUTOFF) {
+      double g = 1d / (phiTilde - 0.5);
+      double g2 = g * g;
+      double xi = (0.032114372355 - g2 * (0.016969777977 - g2 * (2.6207332461e-3 - 9.6066952861e-5 * g2))) /
+          (1d - g2 * (0.6635646938 - g2 * (0.14528712196 - 0.010472855461 * g2)));
+      xBar = g * (1d / ROOT_TWO_PI + xi * g2);
+    } else {
+      double h = Math.sqrt(-Math.log(-phiTilde));
+      xBar = (9.4883409779 - h * (9.6320903635 - h * (0.58556997323 + 2.1464093351 * h))) /
+          (1d - h * (0.65174820867 + h * (1.5120247828 + 6.6437847132e-5 * h)));
+    }
+    // a single step of Householder's third order method completes the solution
+    double pdf = DISTRIBUTION.getPDF(xBar);
+    double q = (DISTRIBUTION.getCDF(xBar) + pdf / xBar - phiTilde) / pdf;
+    double x2 = xBar * xBar;
+    double xStar = xBar + 3d * q * x2 * (2d - q * xBar * (2d + x2)) /
+        (6d + q * xBar * (-12d + xBar * (6d * q + xBar * (-6d + q * xBar * (3d + x2)))));
+    return absMoneyness / (Math.abs(xStar) * Math.sqrt(timeToExpiry));
+  }
+
+  //-------------------------------------------------------------------------
+  // checks the arrays have the same size
+  private static int checkSizes(DoubleArray first, DoubleArray second, DoubleArray third, DoubleArray fourth) {
+    ArgChecker.notNull(first, "first");
+    ArgChecker.notNull(second, "second");
+    ArgChecker.notNull(third, "third");
+    ArgChecker.notNull(fourth, "fourth");
+    int size = first.size();
+    ArgChecker.isTrue(
+        second.size() == size && third.size() == size && fourth.size() == size,
+        "Arrays must be the same size");
+    return size;
+  }
+
+}
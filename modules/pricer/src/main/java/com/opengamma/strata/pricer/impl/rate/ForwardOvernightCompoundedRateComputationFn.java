@@ -9,6 +9,7 @@ import java.time.LocalDate;
 import java.util.OptionalDouble;
 
 import com.opengamma.strata.basics.date.DayCount;
+import com.opengamma.strata.basics.date.HolidayCalendar;
 import com.opengamma.strata.basics.index.OvernightIndex;
 import com.opengamma.strata.basics.index.OvernightIndexObservation;
 import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
@@ -28,6 +29,9 @@ import com.opengamma.strata.product.rate.OvernightCompoundedRateComputation;
 * Rates that are already fixed are retrieved from the time series of the {@link RatesProvider}.
 * Rates that are in the future and not in the cut-off period are computed as unique forward rate in the full future period.
 * Rates that are in the cut-off period (already fixed or forward) are compounded.
+* <p>
+* The fixings published before the valuation date are compounded using a cumulative index
+* built once for each time series, avoiding the iteration over each fixing date.
 */
 public class ForwardOvernightCompoundedRateComputationFn
     implements RateComputationFn<OvernightCompoundedRateComputation> {
@@ -128,6 +132,21 @@ public class ForwardOvernightCompoundedRateComputationFn
       double compositionFactor = 1.0d;
       LocalDate currentFixing = firstFixing;
       LocalDate currentPublication = computation.calculatePublicationFromFixing(currentFixing);
+      if (currentFixing.isBefore(lastFixingNonCutoff) && rates.getValuationDate().isAfter(currentPublication)) {
+        // use the cumulative index for the fixings in the non-cutoff period published before valuation
+        LocalDate endFixing = firstUnpublishedFixing();
+        if (endFixing.isAfter(lastFixingNonCutoff)) {
+          endFixing = lastFixingNonCutoff;
+        }
+        OptionalDouble indexFactor = OvernightCompoundingIndex.of(computation, indexFixingDateSeries)
+            .compositionFactor(currentFixing, endFixing);
+        if (indexFactor.isPresent()) {
+          compositionFactor = indexFactor.getAsDouble();
+          currentFixing = endFixing;
+          currentPublication = computation.calculatePublicationFromFixing(currentFixing);
+        }
+      }
+      // daily composition, used when the index cannot be used, for example if a fixing is missing
       while ((currentFixing.isBefore(lastFixingNonCutoff)) && // fixing in the non-cutoff period
           rates.getValuationDate().isAfter(currentPublication)) { // publication before valuation
         LocalDate effectiveDate = computation.calculateEffectiveFromFixing(currentFixing);
@@ -153,6 +172,21 @@ public class ForwardOvernightCompoundedRateComputationFn
       return compositionFactor;
     }
 
+    // The first fixing date whose publication date is on or after the valuation date
+    private LocalDate firstUnpublishedFixing() {
+      HolidayCalendar calendar = computation.getFixingCalendar();
+      LocalDate valuationDate = rates.getValuationDate();
+      LocalDate fixing = calendar.shift(
+          calendar.nextOrSame(valuationDate), -computation.getIndex().getPublicationDateOffset());
+      while (!computation.calculatePublicationFromFixing(calendar.previous(fixing)).isBefore(valuationDate)) {
+        fixing = calendar.previous(fixing);
+      }
+      while (computation.calculatePublicationFromFixing(fixing).isBefore(valuationDate)) {
+        fixing = calendar.next(fixing);
+      }
+      return fixing;
+    }
+
     // Composition - publication on valuation date: Check if a fixing is available on current date
     private double valuationCompositionFactor() {
       LocalDate currentFixing = nextFixing;
@@ -0,0 +1,182 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.rate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.OptionalDouble;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.opengamma.strata.basics.date.DayCount;
+import com.opengamma.strata.basics.date.HolidayCalendar;
+import com.opengamma.strata.basics.index.OvernightIndex;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.collect.tuple.Pair;
+import com.opengamma.strata.product.rate.OvernightCompoundedRateComputation;
+
+/**
+ * A cumulative compounding index built from the fixings of an overnight index.
+ * <p>
+ * The index holds, for each fixing date covered by the time series, the product of the
+ * compounding factors {@code (1 + accrualFactor * fixing)} of all the preceding fixing dates.
+ * The composition factor of the fixings between two fixing dates is then the ratio of two values,
+ * avoiding the need to iterate over the fixing dates.
+ * <p>
+ * Instances are cached for each time series, overnight index and fixing calendar.
+ * The time series is held weakly, so the index is discarded once the time series is no longer in use.
+ */
+final class OvernightCompoundingIndex {
+
+  /**
+   * The cache of indices, keyed by time series identity then by overnight index and fixing calendar.
+   */
+  private static final LoadingCache<LocalDateDoubleTimeSeries,
+      ConcurrentHashMap<Pair<OvernightIndex, HolidayCalendar>, OvernightCompoundingIndex>> CACHE =
+          CacheBuilder.newBuilder()
+              .weakKeys()
+              .build(new CacheLoader<LocalDateDoubleTimeSeries,
+                  ConcurrentHashMap<Pair<OvernightIndex, HolidayCalendar>, OvernightCompoundingIndex>>() {
+                @Override
+                public ConcurrentHashMap<Pair<OvernightIndex, HolidayCalendar>, OvernightCompoundingIndex> load(
+                    LocalDateDoubleTimeSeries fixings) {
+                  return new ConcurrentHashMap<>();
+                }
+              });
+
+  /**
+   * The epoch day of the first fixing date.
+   */
+  private final long firstEpochDay;
+  /**
+   * The position in the index of each day from the first fixing date, -1 if the day is not a fixing date.
+   */
+  private final int[] positions;
+  /**
+   * The product of the compounding factors of the fixings before each position.
+   */
+  private final double[] cumulativeFactors;
+  /**
+   * The number of fixing dates without a fixing before each position.
+   */
+  private final int[] missingCounts;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains the index for the fixings of the computation.
+   * <p>
+   * The index is created on first use, and is then shared by all computations with
+   * the same overnight index and fixing calendar.
+   *
+   * @param computation  the computation defining the overnight index and fixing calendar
+   * @param fixings  the time series of fixings
+   * @return the index
+   */
+  static OvernightCompoundingIndex of(
+      OvernightCompoundedRateComputation computation,
+      LocalDateDoubleTimeSeries fixings) {
+
+    ConcurrentHashMap<Pair<OvernightIndex, HolidayCalendar>, OvernightCompoundingIndex> indices =
+        CACHE.getUnchecked(fixings);
+    Pair<OvernightIndex, HolidayCalendar> key = Pair.of(computation.getIndex(), computation.getFixingCalendar());
+    OvernightCompoundingIndex index = indices.get(key);
+    if (index == null) {
+      index = indices.computeIfAbsent(key, k -> build(computation, fixings));
+    }
+    return index;
+  }
+
+  // builds the index from the first fixing date to the date after the last fixing date
+  private static OvernightCompoundingIndex build(
+      OvernightCompoundedRateComputation computation,
+      LocalDateDoubleTimeSeries fixings) {
+
+    if (fixings.isEmpty()) {
+      return new OvernightCompoundingIndex(0, new int[0], new double[] {1d}, new int[] {0});
+    }
+    HolidayCalendar calendar = computation.getFixingCalendar();
+    DayCount dayCount = computation.getIndex().getDayCount();
+    LocalDate firstFixing = calendar.nextOrSame(fixings.getEarliestDate());
+    LocalDate endFixing = calendar.next(fixings.getLatestDate());
+    long firstEpochDay = firstFixing.toEpochDay();
+    int[] positions = new int[Math.toIntExact(endFixing.toEpochDay() - firstEpochDay + 1)];
+    Arrays.fill(positions, -1);
+    double[] cumulativeFactors = new double[positions.length];
+    int[] missingCounts = new int[positions.length];
+    cumulativeFactors[0] = 1d;
+    int count = 0;
+    LocalDate currentFixing = firstFixing;
+    positions[0] = 0;
+    while (currentFixing.isBefore(endFixing)) {
+      LocalDate effectiveDate = computation.calculateEffectiveFromFixing(currentFixing);
+      LocalDate maturityDate = computation.calculateMaturityFromEffective(effectiveDate);
+      double accrualFactor = dayCount.yearFraction(effectiveDate, maturityDate);
+      OptionalDouble fixedRate = fixings.get(currentFixing);
+      if (fixedRate.isPresent()) {
+        cumulativeFactors[count + 1] = cumulativeFactors[count] * (1d + accrualFactor * fixedRate.getAsDouble());
+        missingCounts[count + 1] = missingCounts[count];
+      } else {
+        cumulativeFactors[count + 1] = cumulativeFactors[count];
+        missingCounts[count + 1] = missingCounts[count] + 1;
+      }
+      count++;
+      currentFixing = calendar.next(currentFixing);
+      positions[Math.toIntExact(currentFixing.toEpochDay() - firstEpochDay)] = count;
+    }
+    return new OvernightCompoundingIndex(
+        firstEpochDay,
+        positions,
+        Arrays.copyOf(cumulativeFactors, count + 1),
+        Arrays.copyOf(missingCounts, count + 1));
+  }
+
+  // restricted constructor
+  private OvernightCompoundingIndex(
+      long firstEpochDay,
+      int[] positions,
+      double[] cumulativeFactors,
+      int[] missingCounts) {
+
+    this.firstEpochDay = firstEpochDay;
+    this.positions = positions;
+    this.cumulativeFactors = cumulativeFactors;
+    this.missingCounts = missingCounts;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the composition factor of the fixings from the start fixing date, inclusive,
+   * to the end fixing date, exclusive.
+   * <p>
+   * The result is empty if either date is not a fixing date covered by the index,
+   * or if a fixing is missing between the dates.
+   *
+   * @param startFixing  the first fixing date, inclusive
+   * @param endFixing  the last fixing date, exclusive
+   * @return the composition factor, empty if it cannot be obtained from the index
+   */
+  OptionalDouble compositionFactor(LocalDate startFixing, LocalDate endFixing) {
+    int startPosition = position(startFixing);
+    int endPosition = position(endFixing);
+    if (startPosition < 0 || endPosition < startPosition ||
+        missingCounts[endPosition] != missingCounts[startPosition]) {
+      return OptionalDouble.empty();
+    }
+    return OptionalDouble.of(cumulativeFactors[endPosition] / cumulativeFactors[startPosition]);
+  }
+
+  // the position of the fixing date in the index, -1 if not found
+  private int position(LocalDate fixingDate) {
+    long offset = fixingDate.toEpochDay() - firstEpochDay;
+    if (offset < 0 || offset >= positions.length) {
+      return -1;
+    }
+    return positions[(int) offset];
+  }
+
+}
@@ -0,0 +1,173 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.rate.model;
+
+/**
+ * A path of the Hull-White one factor model simulated by {@link HullWhiteOneFactorMonteCarloSimulator}.
+ * <p>
+ * The model is represented in its linear Gauss-Markov form. The state variable {@code x} is a driftless Gaussian
+ * process with variance {@code zeta(t)} under the measure associated to the numeraire
+ * {@code N(t) = exp(H(t) x(t) + H(t)^2 zeta(t) / 2) / P(0,t)}, with {@code H(t) = (1 - exp(-a t)) / a}
+ * and {@code a} the mean reversion. The discount factors are
+ * {@code P(t,T) = P(0,T) / P(0,t) exp(-(H(T) - H(t)) x(t) - (H(T)^2 - H(t)^2) zeta(t) / 2)}.
+ * <p>
+ * The path is given at the simulation times, and the discount factors are available for the maturities
+ * provided to the simulator. The methods are only meaningful for maturities after the simulation time.
+ * <p>
+ * The instance is reused for all the paths simulated by one thread; it must not be retained by the path function.
+ */
+public final class HullWhiteOneFactorMonteCarloPath {
+
+  /**
+   * The simulation times.
+   */
+  private final double[] times;
+  /**
+   * The values of H at the simulation times.
+   */
+  private final double[] timeH;
+  /**
+   * The variances of the state variable at the simulation times.
+   */
+  private final double[] timeZeta;
+  /**
+   * The initial discount factors at the simulation times.
+   */
+  private final double[] timeDiscountFactor;
+  /**
+   * The maturities.
+   */
+  private final double[] maturities;
+  /**
+   * The values of H at the maturities.
+   */
+  private final double[] maturityH;
+  /**
+   * The initial discount factors at the maturities.
+   */
+  private final double[] maturityDiscountFactor;
+  /**
+   * The state variable at the simulation times, updated for each path.
+   */
+  private final double[] state;
+
+  // creates an instance with its own state buffer, the other arrays are shared and not modified
+  HullWhiteOneFactorMonteCarloPath(
+      double[] times,
+      double[] timeH,
+      double[] timeZeta,
+      double[] timeDiscountFactor,
+      double[] maturities,
+      double[] maturityH,
+      double[] maturityDiscountFactor) {
+
+    this.times = times;
+    this.timeH = timeH;
+    this.timeZeta = timeZeta;
+    this.timeDiscountFactor = timeDiscountFactor;
+    this.maturities = maturities;
+    this.maturityH = maturityH;
+    this.maturityDiscountFactor = maturityDiscountFactor;
+    this.state = new double[times.length];
+  }
+
+  // the state buffer, written by the simulator
+  double[] stateBuffer() {
+    return state;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the number of simulation times.
+   *
+   * @return the number of simulation times
+   */
+  public int getTimeCount() {
+    return times.length;
+  }
+
+  /**
+   * Gets a simulation time.
+   *
+   * @param timeIndex  the index of the simulation time
+   * @return the time
+   */
+  public double getTime(int timeIndex) {
+    return times[timeIndex];
+  }
+
+  /**
+   * Gets the number of maturities.
+   *
+   * @return the number of maturities
+   */
+  public int getMaturityCount() {
+    return maturities.length;
+  }
+
+  /**
+   * Gets a maturity.
+   *
+   * @param maturityIndex  the index of the maturity
+   * @return the maturity
+   */
+  public double getMaturity(int maturityIndex) {
+    return maturities[maturityIndex];
+  }
+
+  /**
+   * Gets the state variable at a simulation time.
+   *
+   * @param timeIndex  the index of the simulation time
+   * @return the state variable
+   */
+  public double getState(int timeIndex) {
+    return state[timeIndex];
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the numeraire at a simulation time.
+   *
+   * @param timeIndex  the index of the simulation time
+   * @return the numeraire
+   */
+  public double numeraire(int timeIndex) {
+    double h = timeH[timeIndex];
+    return Math.exp(h * state[timeIndex] + 0.5 * h * h * timeZeta[timeIndex]) / timeDiscountFactor[timeIndex];
+  }
+
+  /**
+   * Calculates the discount factor between a simulation time and a maturity.
+   *
+   * @param timeIndex  the index of the simulation time
+   * @param maturityIndex  the index of the maturity
+   * @return the discount factor
+   */
+  public double discountFactor(int timeIndex, int maturityIndex) {
+    double ht = timeH[timeIndex];
+    double hm = maturityH[maturityIndex];
+    return maturityDiscountFactor[maturityIndex] / timeDiscountFactor[timeIndex] *
+        Math.exp(-(hm - ht) * state[timeIndex] - 0.5 * (hm * hm - ht * ht) * timeZeta[timeIndex]);
+  }
+
+  /**
+   * Calculates the discount factor between a simulation time and a maturity, divided by the numeraire.
+   * <p>
+   * A cash flow known at the simulation time and paid at the maturity contributes its amount multiplied
+   * by this value to the value returned by a {@link HullWhiteOneFactorPathFunction}.
+   *
+   * @param timeIndex  the index of the simulation time
+   * @param maturityIndex  the index of the maturity
+   * @return the discount factor divided by the numeraire
+   */
+  public double deflatedDiscountFactor(int timeIndex, int maturityIndex) {
+    double hm = maturityH[maturityIndex];
+    return maturityDiscountFactor[maturityIndex] *
+        Math.exp(-hm * state[timeIndex] - 0.5 * hm * hm * timeZeta[timeIndex]);
+  }
+
+}
@@ -0,0 +1,249 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.rate.model;
+
+import java.util.stream.IntStream;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.market.product.DiscountFactors;
+import com.opengamma.strata.math.impl.random.BrownianBridge;
+import com.opengamma.strata.math.impl.random.SobolSequenceGenerator;
+import com.opengamma.strata.math.impl.random.SplittableNormalRandomNumberGenerator;
+import com.opengamma.strata.pricer.index.HullWhiteOneFactorPiecewiseConstantParameters;
+
+/**
+ * Monte Carlo simulator for the Hull-White one factor model with piecewise constant volatility.
+ * <p>
+ * The state variable of the model is simulated exactly at the simulation times,
+ * see {@link HullWhiteOneFactorMonteCarloPath}.
+ * The paths are either pseudo-random or built from a Sobol sequence with a Brownian bridge.
+ * <p>
+ * The paths are split in blocks of fixed size which are simulated in parallel.
+ * Each block has its own random number stream, obtained by splitting the generator of the seed in a fixed order
+ * or by positioning the Sobol sequence at the start of the block. The block results are summed in a fixed order.
+ * The result thus only depends on the number of paths and the seed, not on the number of threads.
+ * <p>
+ * The buffers used to generate the paths are allocated once per block.
+ */
+public final class HullWhiteOneFactorMonteCarloSimulator {
+
+  /**
+   * The number of paths in a block.
+   */
+  private static final int BLOCK_SIZE = 1024;
+
+  /**
+   * The number of paths.
+   */
+  private final int nbPaths;
+  /**
+   * The seed of the pseudo-random numbers.
+   */
+  private final long seed;
+  /**
+   * Whether the paths are built from a Sobol sequence.
+   */
+  private final boolean sobol;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a simulator using pseudo-random numbers.
+   *
+   * @param nbPaths  the number of paths
+   * @param seed  the seed
+   * @return the simulator
+   */
+  public static HullWhiteOneFactorMonteCarloSimulator ofPseudoRandom(int nbPaths, long seed) {
+    return new HullWhiteOneFactorMonteCarloSimulator(nbPaths, seed, false);
+  }
+
+  /**
+   * Obtains a simulator using a Sobol sequence and a Brownian bridge.
+   * <p>
+   * The number of simulation times is limited to {@link SobolSequenceGenerator#MAX_DIMENSION}.
+   *
+   * @param nbPaths  the number of paths
+   * @return the simulator
+   */
+  public static HullWhiteOneFactorMonteCarloSimulator ofSobol(int nbPaths) {
+    return new HullWhiteOneFactorMonteCarloSimulator(nbPaths, 0L, true);
+  }
+
+  private HullWhiteOneFactorMonteCarloSimulator(int nbPaths, long seed, boolean sobol) {
+    ArgChecker.notNegativeOrZero(nbPaths, "nbPaths");
+    this.nbPaths = nbPaths;
+    this.seed = seed;
+    this.sobol = sobol;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the number of paths.
+   *
+   * @return the number of paths
+   */
+  public int getNumberOfPaths() {
+    return nbPaths;
+  }
+
+  /**
+   * Calculates the present value of a payoff by simulation.
+   * <p>
+   * The times are the year fractions of the simulation times from the valuation date, in increasing order.
+   * The maturities are the year fractions of the dates at which the path function requires discount factors.
+   * The times and maturities must be measured consistently with the discount factors.
+   *
+   * @param parameters  the Hull-White model parameters
+   * @param discountFactors  the initial discount factors
+   * @param times  the simulation times
+   * @param maturities  the maturities
+   * @param function  the path function
+   * @return the present value
+   */
+  public double presentValue(
+      HullWhiteOneFactorPiecewiseConstantParameters parameters,
+      DiscountFactors discountFactors,
+      DoubleArray times,
+      DoubleArray maturities,
+      HullWhiteOneFactorPathFunction function) {
+
+    ArgChecker.notNull(parameters, "parameters");
+    ArgChecker.notNull(discountFactors, "discountFactors");
+    ArgChecker.notNull(times, "times");
+    ArgChecker.notNull(maturities, "maturities");
+    ArgChecker.notNull(function, "function");
+    ArgChecker.isTrue(times.size() > 0, "times must not be empty");
+    ArgChecker.isTrue(times.get(0) > 0d, "times must be strictly positive");
+    for (int i = 1; i < times.size(); i++) {
+      ArgChecker.isTrue(times.get(i) > times.get(i - 1), "times must be in increasing order");
+    }
+    ArgChecker.isTrue(!sobol || times.size() <= SobolSequenceGenerator.MAX_DIMENSION,
+        "number of times must not exceed {} with Sobol sequence", SobolSequenceGenerator.MAX_DIMENSION);
+    double meanReversion = parameters.getMeanReversion();
+    double[] timeArray = times.toArray();
+    double[] timeH = new double[timeArray.length];
+    double[] timeZeta = new double[timeArray.length];
+    double[] timeDiscountFactor = new double[timeArray.length];
+    for (int i = 0; i < timeArray.length; i++) {
+      timeH[i] = h(meanReversion, timeArray[i]);
+      timeZeta[i] = zeta(parameters, timeArray[i]);
+      timeDiscountFactor[i] = discountFactors.discountFactor(timeArray[i]);
+    }
+    double[] maturityArray = maturities.toArray();
+    double[] maturityH = new double[maturityArray.length];
+    double[] maturityDiscountFactor = new double[maturityArray.length];
+    for (int i = 0; i < maturityArray.length; i++) {
+      maturityH[i] = h(meanReversion, maturityArray[i]);
+      maturityDiscountFactor[i] = discountFactors.discountFactor(maturityArray[i]);
+    }
+    int nbBlocks = (nbPaths + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    // the streams are split before the parallel simulation, in a fixed order
+    SplittableNormalRandomNumberGenerator[] generators = new SplittableNormalRandomNumberGenerator[nbBlocks];
+    if (!sobol) {
+      SplittableNormalRandomNumberGenerator root = new SplittableNormalRandomNumberGenerator(seed);
+      for (int i = 0; i < nbBlocks; i++) {
+        generators[i] = root.split();
+      }
+    }
+    BrownianBridge bridge = sobol ? new BrownianBridge(timeZeta) : null;
+    double[] blockSums = new double[nbBlocks];
+    IntStream.range(0, nbBlocks).parallel().forEach(block -> {
+      HullWhiteOneFactorMonteCarloPath path = new HullWhiteOneFactorMonteCarloPath(
+          timeArray, timeH, timeZeta, timeDiscountFactor, maturityArray, maturityH, maturityDiscountFactor);
+      int start = block * BLOCK_SIZE;
+      int end = Math.min(start + BLOCK_SIZE, nbPaths);
+      blockSums[block] = sobol ?
+          simulateSobolBlock(start, end, bridge, path, function) :
+          simulatePseudoRandomBlock(start, end, generators[block], timeZeta, path, function);
+    });
+    double sum = 0d;
+    for (int i = 0; i < nbBlocks; i++) {
+      sum += blockSums[i];
+    }
+    return sum / nbPaths;
+  }
+
+  // simulates the paths of a block from a Sobol sequence
+  private static double simulateSobolBlock(
+      int start,
+      int end,
+      BrownianBridge bridge,
+      HullWhiteOneFactorMonteCarloPath path,
+      HullWhiteOneFactorPathFunction function) {
+
+    double[] state = path.stateBuffer();
+    double[] normals = new double[state.length];
+    SobolSequenceGenerator generator = new SobolSequenceGenerator(state.length);
+    generator.skipTo(start + 1L);
+    double sum = 0d;
+    for (int i = start; i < end; i++) {
+      generator.nextNormalPoint(normals);
+      bridge.transform(normals, state);
+      sum += function.deflatedValue(path);
+    }
+    return sum;
+  }
+
+  // simulates the paths of a block from pseudo-random numbers, by independent increments
+  private static double simulatePseudoRandomBlock(
+      int start,
+      int end,
+      SplittableNormalRandomNumberGenerator generator,
+      double[] timeZeta,
+      HullWhiteOneFactorMonteCarloPath path,
+      HullWhiteOneFactorPathFunction function) {
+
+    double[] state = path.stateBuffer();
+    double[] normals = new double[state.length];
+    double[] stdDev = new double[state.length];
+    stdDev[0] = Math.sqrt(timeZeta[0]);
+    for (int j = 1; j < state.length; j++) {
+      stdDev[j] = Math.sqrt(timeZeta[j] - timeZeta[j - 1]);
+    }
+    double sum = 0d;
+    for (int i = start; i < end; i++) {
+      generator.fill(normals);
+      double x = 0d;
+      for (int j = 0; j < state.length; j++) {
+        x += stdDev[j] * normals[j];
+        state[j] = x;
+      }
+      sum += function.deflatedValue(path);
+    }
+    return sum;
+  }
+
+  //-------------------------------------------------------------------------
+  // the function H(t) = (1 - exp(-a t)) / a
+  private static double h(double meanReversion, double time) {
+    if (meanReversion == 0d) {
+      return time;
+    }
+    return -Math.expm1(-meanReversion * time) / meanReversion;
+  }
+
+  // the variance of the state variable, the integral of exp(2 a s) sigma(s)^2 between 0 and time
+  private static double zeta(HullWhiteOneFactorPiecewiseConstantParameters parameters, double time) {
+    double meanReversion = parameters.getMeanReversion();
+    DoubleArray volatility = parameters.getVolatility();
+    DoubleArray volatilityTime = parameters.getVolatilityTime();
+    double zeta = 0d;
+    for (int i = 0; i < volatility.size() && volatilityTime.get(i) < time; i++) {
+      double s0 = volatilityTime.get(i);
+      double s1 = Math.min(volatilityTime.get(i + 1), time);
+      double sigma2 = volatility.get(i) * volatility.get(i);
+      if (meanReversion == 0d) {
+        zeta += sigma2 * (s1 - s0);
+      } else {
+        zeta += sigma2 * Math.exp(2d * meanReversion * s0) * Math.expm1(2d * meanReversion * (s1 - s0)) /
+            (2d * meanReversion);
+      }
+    }
+    return zeta;
+  }
+
+}
@@ -0,0 +1,28 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.rate.model;
+
+/**
+ * The payoff of a product on a path simulated by {@link HullWhiteOneFactorMonteCarloSimulator}.
+ * <p>
+ * Implementations are called concurrently from several threads and must be thread-safe.
+ */
+@FunctionalInterface
+public interface HullWhiteOneFactorPathFunction {
+
+  /**
+   * Calculates the value of the payoff on a path, divided by the numeraire.
+   * <p>
+   * For a cash flow known at a simulation time and paid at a maturity, the value is the amount multiplied by
+   * {@link HullWhiteOneFactorMonteCarloPath#deflatedDiscountFactor(int, int)}.
+   * The present value is the average of this value over the paths.
+   *
+   * @param path  the simulated path
+   * @return the value divided by the numeraire
+   */
+  public abstract double deflatedValue(HullWhiteOneFactorMonteCarloPath path);
+
+}
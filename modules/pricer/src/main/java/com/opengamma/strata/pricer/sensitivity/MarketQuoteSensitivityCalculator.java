@@ -5,19 +5,31 @@
  */
 package com.opengamma.strata.pricer.sensitivity;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.collect.tuple.Pair;
+import com.opengamma.strata.data.MarketDataName;
 import com.opengamma.strata.market.curve.Curve;
 import com.opengamma.strata.market.curve.CurveInfoType;
 import com.opengamma.strata.market.curve.CurveName;
+import com.opengamma.strata.market.curve.CurveParameterSize;
 import com.opengamma.strata.market.curve.JacobianCalibrationMatrix;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivity;
 import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
+import com.opengamma.strata.math.impl.matrix.MatrixAlgebraFactory;
 import com.opengamma.strata.math.impl.matrix.OGMatrixAlgebra;
 import com.opengamma.strata.pricer.rate.RatesProvider;
 
@@ -38,6 +50,10 @@ public class MarketQuoteSensitivityCalculator {
    * The matrix algebra used for matrix inversion.
    */
   private static final MatrixAlgebra MATRIX_ALGEBRA = new OGMatrixAlgebra();
+  /**
+   * The matrix algebra used for the multiplication of stacked sensitivities.
+   */
+  private static final MatrixAlgebra BLOCKED_ALGEBRA = MatrixAlgebraFactory.BLOCKED_ALGEBRA;
 
   //-------------------------------------------------------------------------
   /**
@@ -85,4 +101,122 @@ public class MarketQuoteSensitivityCalculator {
     return result;
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the market quote sensitivities from the parameter sensitivities of a portfolio.
+   * <p>
+   * The result is the same as calling {@link #sensitivity(CurrencyParameterSensitivities, RatesProvider)}
+   * for each element of the list, but is considerably faster for large portfolios.
+   * The parameter sensitivities of all elements to each curve are stacked into a single matrix,
+   * which is multiplied by the Jacobian of the curve in one blocked matrix multiplication.
+   * Large multiplications are performed in parallel.
+   * 
+   * @param paramSensitivities  the curve parameter sensitivities, typically one for each trade
+   * @param provider  the rates provider, containing Jacobian calibration information
+   * @return the market quote sensitivities, one for each element of the input list
+   */
+  public List<CurrencyParameterSensitivities> sensitivity(
+      List<CurrencyParameterSensitivities> paramSensitivities,
+      RatesProvider provider) {
+
+    ArgChecker.noNulls(paramSensitivities, "paramSensitivities");
+    ArgChecker.notNull(provider, "provider");
+
+    // stack the sensitivities to each curve, recording the position of each sensitivity in its stack
+    int count = paramSensitivities.size();
+    Map<MarketDataName<?>, List<CurrencyParameterSensitivity>> stacks = new LinkedHashMap<>();
+    int[][] stackRows = new int[count][];
+    for (int i = 0; i < count; i++) {
+      ImmutableList<CurrencyParameterSensitivity> sensitivities = paramSensitivities.get(i).getSensitivities();
+      stackRows[i] = new int[sensitivities.size()];
+      for (int k = 0; k < sensitivities.size(); k++) {
+        List<CurrencyParameterSensitivity> stack =
+            stacks.computeIfAbsent(sensitivities.get(k).getMarketDataName(), name -> new ArrayList<>());
+        stackRows[i][k] = stack.size();
+        stack.add(sensitivities.get(k));
+      }
+    }
+
+    // apply the Jacobian of each curve to its stack in a single matrix multiplication
+    Map<MarketDataName<?>, JacobianCalibrationMatrix> jacobians = new HashMap<>();
+    Map<MarketDataName<?>, double[][]> products = new HashMap<>();
+    for (Entry<MarketDataName<?>, List<CurrencyParameterSensitivity>> stack : stacks.entrySet()) {
+      JacobianCalibrationMatrix info = jacobian(stack.getKey(), provider);
+      double[][] paramSensMatrix = stack.getValue().stream()
+          .map(paramSens -> paramSens.getSensitivity().toArrayUnsafe())
+          .toArray(double[][]::new);
+      DoubleMatrix jacobianMatrix = info.getJacobianMatrix();
+      for (double[] paramSensRow : paramSensMatrix) {
+        ArgChecker.isTrue(paramSensRow.length == jacobianMatrix.rowCount(), "Matrix/vector size mismatch");
+      }
+      // each element is summed in the same order as the vector-matrix multiplication of a single element
+      DoubleMatrix product =
+          (DoubleMatrix) BLOCKED_ALGEBRA.multiply(DoubleMatrix.ofUnsafe(paramSensMatrix), jacobianMatrix);
+      jacobians.put(stack.getKey(), info);
+      products.put(stack.getKey(), product.toArrayUnsafe());
+    }
+
+    // split between different curves, combining in the same order as the calculation for a single element
+    List<Map<Pair<CurveName, Currency>, double[]>> accumulated = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Map<Pair<CurveName, Currency>, double[]> elementSens = new LinkedHashMap<>();
+      ImmutableList<CurrencyParameterSensitivity> sensitivities = paramSensitivities.get(i).getSensitivities();
+      for (int k = 0; k < sensitivities.size(); k++) {
+        MarketDataName<?> name = sensitivities.get(k).getMarketDataName();
+        Currency currency = sensitivities.get(k).getCurrency();
+        double[] marketQuoteSens = products.get(name)[stackRows[i][k]];
+        int start = 0;
+        for (CurveParameterSize curveParams : jacobians.get(name).getOrder()) {
+          int paramCount = curveParams.getParameterCount();
+          Pair<CurveName, Currency> key = Pair.of(curveParams.getName(), currency);
+          double[] sens = elementSens.get(key);
+          if (sens == null) {
+            elementSens.put(key, Arrays.copyOfRange(marketQuoteSens, start, start + paramCount));
+          } else {
+            for (int j = 0; j < paramCount; j++) {
+              sens[j] += marketQuoteSens[start + j];
+            }
+          }
+          start += paramCount;
+        }
+      }
+      accumulated.add(elementSens);
+    }
+
+    // build the result of each element, using the metadata of the curves
+    Map<CurveName, Optional<Curve>> curves = new HashMap<>();
+    List<CurrencyParameterSensitivities> result = new ArrayList<>(count);
+    for (Map<Pair<CurveName, Currency>, double[]> elementSens : accumulated) {
+      List<CurrencyParameterSensitivity> sensitivities = new ArrayList<>(elementSens.size());
+      for (Entry<Pair<CurveName, Currency>, double[]> entry : elementSens.entrySet()) {
+        CurveName curveName = entry.getKey().getFirst();
+        Currency currency = entry.getKey().getSecond();
+        DoubleArray values = DoubleArray.ofUnsafe(entry.getValue());
+        sensitivities.add(curves.computeIfAbsent(curveName, name -> curve(name, provider))
+            .map(c -> c.createParameterSensitivity(currency, values))
+            .orElse(CurrencyParameterSensitivity.of(curveName, currency, values)));
+      }
+      result.add(CurrencyParameterSensitivities.of(sensitivities));
+    }
+    return result;
+  }
+
+  // finds the Jacobian calibration information of a curve
+  private static JacobianCalibrationMatrix jacobian(MarketDataName<?> name, RatesProvider provider) {
+    Curve curve = provider.findData(name)
+        .filter(v -> v instanceof Curve)
+        .map(v -> (Curve) v)
+        .orElseThrow(() -> new IllegalArgumentException("Market Quote sensitivity requires curve: " + name));
+    return curve.getMetadata().findInfo(CurveInfoType.JACOBIAN)
+        .orElseThrow(() -> new IllegalArgumentException(
+            "Market Quote sensitivity requires Jacobian calibration information"));
+  }
+
+  // finds a curve, used for its metadata
+  private static Optional<Curve> curve(CurveName name, RatesProvider provider) {
+    return provider.findData(name)
+        .filter(v -> v instanceof Curve)
+        .map(v -> (Curve) v);
+  }
+
 }
@@ -11,6 +11,11 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import com.google.common.util.concurrent.MoreExecutors;
 
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.date.BusinessDayAdjustment;
@@ -51,6 +56,14 @@ import com.opengamma.strata.product.swap.type.FixedIborSwapConvention;
  */
 public class SabrSwaptionCalibrator {
 
+  /**
+   * The chi^2 per data point below which a calibration from warm-start parameters is accepted.
+   * <p>
+   * The errors used in the fit of the shifted Black volatilities are 1.0E-4, thus this corresponds to
+   * a root mean square error of 1.0E-4 on the volatilities.
+   */
+  private static final double WARM_START_CHI2_PER_DATA = 1d;
+
   /**
    * The SABR implied volatility function.
    */
@@ -187,7 +200,6 @@ public class SabrSwaptionCalibrator {
    *   expiries/tenors which throw MathException
    * @return the SABR volatility object
    */
-  @SuppressWarnings("null")
   public SabrParametersSwaptionVolatilities calibrateWithFixedBetaAndShift(
       SwaptionVolatilitiesName name,
       FixedIborSwapConvention convention,
@@ -201,11 +213,132 @@ public class SabrSwaptionCalibrator {
       GridInterpolator2D interpolator,
       boolean stopOnMathException) {
 
-    BitSet fixed = new BitSet();
-    fixed.set(1); // Beta fixed
+    return calibrateGrid(name, convention, calibrationDateTime, dayCount, tenors, data, ratesProvider,
+        betaSurface, shiftSurface, interpolator, stopOnMathException, null, false, MoreExecutors.directExecutor());
+  }
+
+  /**
+   * Calibrate SABR parameters to a set of raw swaption data, calibrating the tenors concurrently. 
+   * <p>
+   * The SABR parameters are calibrated with fixed beta and fixed shift surfaces.
+   * The raw data can be (shifted) log-normal volatilities, normal volatilities or option prices
+   * <p>
+   * The smiles of each tenor are calibrated by a task run on the executor.
+   * Within a tenor, the expiries are calibrated in order, each calibration starting from the parameters
+   * calibrated for the previous expiry. The multi-start search is only used when that calibration fails
+   * or does not fit the data. The result does not depend on the executor.
+   * 
+   * @param name  the name
+   * @param convention  the swaption underlying convention
+   * @param calibrationDateTime  the data and time of the calibration
+   * @param dayCount  the day-count used for expiry time computation
+   * @param tenors  the tenors associated to the different raw option data
+   * @param data  the list of raw option data
+   * @param ratesProvider  the rate provider used to compute the swap forward rates
+   * @param betaSurface  the beta surface
+   * @param shiftSurface  the shift surface
+   * @param interpolator  the interpolator for the alpha, rho and nu surfaces
+   * @param stopOnMathException  flag indicating if the calibration should stop on math exceptions or skip the 
+   *   expiries/tenors which throw MathException
+   * @param executor  the executor used to calibrate the tenors
+   * @return the SABR volatility object
+   */
+  public SabrParametersSwaptionVolatilities calibrateWithFixedBetaAndShift(
+      SwaptionVolatilitiesName name,
+      FixedIborSwapConvention convention,
+      ZonedDateTime calibrationDateTime,
+      DayCount dayCount,
+      List<Tenor> tenors,
+      List<RawOptionData> data,
+      RatesProvider ratesProvider,
+      Surface betaSurface,
+      Surface shiftSurface,
+      GridInterpolator2D interpolator,
+      boolean stopOnMathException,
+      Executor executor) {
+
+    ArgChecker.notNull(executor, "executor");
+    return calibrateGrid(name, convention, calibrationDateTime, dayCount, tenors, data, ratesProvider,
+        betaSurface, shiftSurface, interpolator, stopOnMathException, null, true, executor);
+  }
+
+  /**
+   * Calibrate SABR parameters to a set of raw swaption data, starting from previously calibrated parameters. 
+   * <p>
+   * The SABR parameters are calibrated with fixed beta and fixed shift surfaces.
+   * The raw data can be (shifted) log-normal volatilities, normal volatilities or option prices
+   * <p>
+   * This is typically used to calibrate from the parameters of the previous day.
+   * The calibration of each expiry and tenor starts from the previous alpha, rho and nu at that expiry and tenor.
+   * The multi-start search is only used when that calibration fails or does not fit the data.
+   * The tenors are calibrated concurrently as in 
+   * {@link #calibrateWithFixedBetaAndShift(SwaptionVolatilitiesName, FixedIborSwapConvention, ZonedDateTime,
+   * DayCount, List, List, RatesProvider, Surface, Surface, GridInterpolator2D, boolean, Executor)}.
+   * 
+   * @param name  the name
+   * @param convention  the swaption underlying convention
+   * @param calibrationDateTime  the data and time of the calibration
+   * @param dayCount  the day-count used for expiry time computation
+   * @param tenors  the tenors associated to the different raw option data
+   * @param data  the list of raw option data
+   * @param ratesProvider  the rate provider used to compute the swap forward rates
+   * @param betaSurface  the beta surface
+   * @param shiftSurface  the shift surface
+   * @param interpolator  the interpolator for the alpha, rho and nu surfaces
+   * @param stopOnMathException  flag indicating if the calibration should stop on math exceptions or skip the 
+   *   expiries/tenors which throw MathException
+   * @param previous  the previously calibrated volatilities, used as starting point
+   * @param executor  the executor used to calibrate the tenors
+   * @return the SABR volatility object
+   */
+  public SabrParametersSwaptionVolatilities calibrateWithFixedBetaAndShift(
+      SwaptionVolatilitiesName name,
+      FixedIborSwapConvention convention,
+      ZonedDateTime calibrationDateTime,
+      DayCount dayCount,
+      List<Tenor> tenors,
+      List<RawOptionData> data,
+      RatesProvider ratesProvider,
+      Surface betaSurface,
+      Surface shiftSurface,
+      GridInterpolator2D interpolator,
+      boolean stopOnMathException,
+      SabrParametersSwaptionVolatilities previous,
+      Executor executor) {
+
+    ArgChecker.notNull(previous, "previous");
+    ArgChecker.notNull(executor, "executor");
+    return calibrateGrid(name, convention, calibrationDateTime, dayCount, tenors, data, ratesProvider,
+        betaSurface, shiftSurface, interpolator, stopOnMathException, previous.getParameters(), true, executor);
+  }
+
+  // calibrates all the smiles, one task per tenor
+  // the previous parameters may be null, in which case the warm start uses the previous expiry of the tenor
+  private SabrParametersSwaptionVolatilities calibrateGrid(
+      SwaptionVolatilitiesName name,
+      FixedIborSwapConvention convention,
+      ZonedDateTime calibrationDateTime,
+      DayCount dayCount,
+      List<Tenor> tenors,
+      List<RawOptionData> data,
+      RatesProvider ratesProvider,
+      Surface betaSurface,
+      Surface shiftSurface,
+      GridInterpolator2D interpolator,
+      boolean stopOnMathException,
+      SabrInterestRateParameters previous,
+      boolean warmStart,
+      Executor executor) {
+
     int nbTenors = tenors.size();
-    BusinessDayAdjustment bda = convention.getFloatingLeg().getStartDateBusinessDayAdjustment();
-    LocalDate calibrationDate = calibrationDateTime.toLocalDate();
+    List<CompletableFuture<List<CalibratedSmile>>> futures = new ArrayList<>(nbTenors);
+    for (int looptenor = 0; looptenor < nbTenors; looptenor++) {
+      Tenor tenor = tenors.get(looptenor);
+      RawOptionData tenorData = data.get(looptenor);
+      futures.add(CompletableFuture.supplyAsync(() -> calibrateTenor(convention, calibrationDateTime, dayCount,
+          tenor, tenorData, ratesProvider, betaSurface, shiftSurface, stopOnMathException, previous, warmStart),
+          executor));
+    }
     DoubleArray timeToExpiryArray = DoubleArray.EMPTY;
     DoubleArray timeTenorArray = DoubleArray.EMPTY;
     DoubleArray alphaArray = DoubleArray.EMPTY;
@@ -215,55 +348,18 @@ public class SabrSwaptionCalibrator {
     List<DoubleArray> dataSensitivityAlpha = new ArrayList<>(); // Sensitivity to the calibrating data
     List<DoubleArray> dataSensitivityRho = new ArrayList<>();
     List<DoubleArray> dataSensitivityNu = new ArrayList<>();
-    for (int looptenor = 0; looptenor < nbTenors; looptenor++) {
-      double timeTenor = tenors.get(looptenor).getPeriod().getYears() + tenors.get(looptenor).getPeriod().getMonths() / 12;
-      List<Period> expiries = data.get(looptenor).getExpiries();
-      int nbExpiries = expiries.size();
-      for (int loopexpiry = 0; loopexpiry < nbExpiries; loopexpiry++) {
-        Pair<DoubleArray, DoubleArray> availableSmile = data.get(looptenor).availableSmileAtExpiry(expiries.get(loopexpiry));
-        if (availableSmile.getFirst().size() == 0) { // If not data is available, no calibration possible
-          continue;
-        }
-        LocalDate exerciseDate = expirationDate(bda, calibrationDate, expiries.get(loopexpiry));
-        LocalDate effectiveDate = convention.calculateSpotDateFromTradeDate(exerciseDate, refData);
-        double timeToExpiry = dayCount.relativeYearFraction(calibrationDate, exerciseDate);
-        double beta = betaSurface.zValue(timeToExpiry, timeTenor);
-        double shift = shiftSurface.zValue(timeToExpiry, timeTenor);
-        LocalDate endDate = effectiveDate.plus(tenors.get(looptenor));
-        SwapTrade swap0 = convention.toTrade(calibrationDate, effectiveDate, endDate, BuySell.BUY, 1.0, 0.0);
-        double forward = swapPricer.parRate(swap0.getProduct().resolve(refData), ratesProvider);
-        SabrFormulaData sabrPoint = null;
-        DoubleMatrix inverseJacobian = null;
-        boolean error = false;
-        try {
-          Pair<SabrFormulaData, DoubleMatrix> calibrationResult =
-              calibration(forward, shift, beta, fixed, bda, calibrationDateTime, dayCount,
-                  availableSmile.getFirst(), availableSmile.getSecond(), expiries.get(loopexpiry), data.get(looptenor));
-          sabrPoint = calibrationResult.getFirst();
-          inverseJacobian = calibrationResult.getSecond();
-        } catch (MathException e) {
-          error = true;
-          if (stopOnMathException) {
-            String message = Messages.format("{} at expiry {} and tenor {}", e.getMessage(),
-                expiries.get(loopexpiry), tenors.get(looptenor));
-            throw new MathException(message, e);
-          }
-        }
-        if (!error) {
-          timeToExpiryArray = timeToExpiryArray.concat(timeToExpiry);
-          timeTenorArray = timeTenorArray.concat(timeTenor);
-          alphaArray = alphaArray.concat(sabrPoint.getAlpha());
-          rhoArray = rhoArray.concat(sabrPoint.getRho());
-          nuArray = nuArray.concat(sabrPoint.getNu());
-          parameterMetadata.add(
-              SwaptionSurfaceExpiryTenorParameterMetadata.of(
-                  timeToExpiry,
-                  timeTenor,
-                  expiries.get(loopexpiry).toString() + "x" + tenors.get(looptenor).toString()));
-          dataSensitivityAlpha.add(inverseJacobian.row(0));
-          dataSensitivityRho.add(inverseJacobian.row(2));
-          dataSensitivityNu.add(inverseJacobian.row(3));
-        }
+    for (CompletableFuture<List<CalibratedSmile>> future : futures) {
+      for (CalibratedSmile smile : join(future)) {
+        timeToExpiryArray = timeToExpiryArray.concat(smile.timeToExpiry);
+        timeTenorArray = timeTenorArray.concat(smile.timeTenor);
+        alphaArray = alphaArray.concat(smile.sabrPoint.getAlpha());
+        rhoArray = rhoArray.concat(smile.sabrPoint.getRho());
+        nuArray = nuArray.concat(smile.sabrPoint.getNu());
+        parameterMetadata.add(
+            SwaptionSurfaceExpiryTenorParameterMetadata.of(smile.timeToExpiry, smile.timeTenor, smile.label));
+        dataSensitivityAlpha.add(smile.inverseJacobian.row(0));
+        dataSensitivityRho.add(smile.inverseJacobian.row(2));
+        dataSensitivityNu.add(smile.inverseJacobian.row(3));
       }
     }
     SurfaceMetadata metadataAlpha = Surfaces.swaptionSabrExpiryTenor(
@@ -292,8 +388,86 @@ public class SabrSwaptionCalibrator {
         .dataSensitivityNu(dataSensitivityNu).build();
   }
 
-  // The main part of the calibration. The calibration is done 4 times with different starting points: low and high
-  // volatilities and high and low vol of vol. The best result (in term of chi^2) is returned.
+  // waits for the calibration of a tenor, rethrowing the original exception
+  private static List<CalibratedSmile> join(CompletableFuture<List<CalibratedSmile>> future) {
+    try {
+      return future.join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw ex;
+    }
+  }
+
+  // calibrates the smiles of all the expiries of one tenor, in the order of the expiries
+  @SuppressWarnings("null")
+  private List<CalibratedSmile> calibrateTenor(
+      FixedIborSwapConvention convention,
+      ZonedDateTime calibrationDateTime,
+      DayCount dayCount,
+      Tenor tenor,
+      RawOptionData tenorData,
+      RatesProvider ratesProvider,
+      Surface betaSurface,
+      Surface shiftSurface,
+      boolean stopOnMathException,
+      SabrInterestRateParameters previous,
+      boolean warmStart) {
+
+    BitSet fixed = new BitSet();
+    fixed.set(1); // Beta fixed
+    BusinessDayAdjustment bda = convention.getFloatingLeg().getStartDateBusinessDayAdjustment();
+    LocalDate calibrationDate = calibrationDateTime.toLocalDate();
+    double timeTenor = tenor.getPeriod().getYears() + tenor.getPeriod().getMonths() / 12;
+    List<Period> expiries = tenorData.getExpiries();
+    int nbExpiries = expiries.size();
+    List<CalibratedSmile> result = new ArrayList<>(nbExpiries);
+    SabrFormulaData previousExpiryPoint = null;
+    for (int loopexpiry = 0; loopexpiry < nbExpiries; loopexpiry++) {
+      Pair<DoubleArray, DoubleArray> availableSmile = tenorData.availableSmileAtExpiry(expiries.get(loopexpiry));
+      if (availableSmile.getFirst().size() == 0) { // If not data is available, no calibration possible
+        continue;
+      }
+      LocalDate exerciseDate = expirationDate(bda, calibrationDate, expiries.get(loopexpiry));
+      LocalDate effectiveDate = convention.calculateSpotDateFromTradeDate(exerciseDate, refData);
+      double timeToExpiry = dayCount.relativeYearFraction(calibrationDate, exerciseDate);
+      double beta = betaSurface.zValue(timeToExpiry, timeTenor);
+      double shift = shiftSurface.zValue(timeToExpiry, timeTenor);
+      LocalDate endDate = effectiveDate.plus(tenor);
+      SwapTrade swap0 = convention.toTrade(calibrationDate, effectiveDate, endDate, BuySell.BUY, 1.0, 0.0);
+      double forward = swapPricer.parRate(swap0.getProduct().resolve(refData), ratesProvider);
+      DoubleArray startParameters = null;
+      if (previous != null) {
+        startParameters = DoubleArray.of(previous.alpha(timeToExpiry, timeTenor), beta,
+            previous.rho(timeToExpiry, timeTenor), previous.nu(timeToExpiry, timeTenor));
+      } else if (warmStart && previousExpiryPoint != null) {
+        startParameters = DoubleArray.of(
+            previousExpiryPoint.getAlpha(), beta, previousExpiryPoint.getRho(), previousExpiryPoint.getNu());
+      }
+      try {
+        Pair<SabrFormulaData, DoubleMatrix> calibrationResult =
+            calibration(forward, shift, beta, fixed, bda, calibrationDateTime, dayCount,
+                availableSmile.getFirst(), availableSmile.getSecond(), expiries.get(loopexpiry), tenorData,
+                startParameters);
+        SabrFormulaData sabrPoint = calibrationResult.getFirst();
+        previousExpiryPoint = sabrPoint;
+        result.add(new CalibratedSmile(timeToExpiry, timeTenor,
+            expiries.get(loopexpiry).toString() + "x" + tenor.toString(), sabrPoint, calibrationResult.getSecond()));
+      } catch (MathException e) {
+        if (stopOnMathException) {
+          String message = Messages.format("{} at expiry {} and tenor {}", e.getMessage(),
+              expiries.get(loopexpiry), tenor);
+          throw new MathException(message, e);
+        }
+      }
+    }
+    return result;
+  }
+
+  // The main part of the calibration. If starting parameters are provided, the calibration is first done from them
+  // and the result is kept if it fits the data. Otherwise the calibration is done 4 times with different starting
+  // points: low and high volatilities and high and low vol of vol. The best result (in term of chi^2) is returned.
   private Pair<SabrFormulaData, DoubleMatrix> calibration(
       double forward,
       double shift,
@@ -305,8 +479,25 @@ public class SabrSwaptionCalibrator {
       DoubleArray strike,
       DoubleArray data,
       Period expiry,
-      RawOptionData rawData) {
+      RawOptionData rawData,
+      DoubleArray warmStartParameters) {
 
+    double chi2 = 1.0E+12; // Large number 
+    Pair<LeastSquareResultsWithTransform, DoubleArray> sabrCalibrationResult = null;
+    if (warmStartParameters != null) {
+      try {
+        Pair<LeastSquareResultsWithTransform, DoubleArray> r = calibrationFromStart(
+            forward, shift, fixed, bda, calibrationDateTime, dayCount, strike, data, expiry, rawData,
+            warmStartParameters);
+        if (r.getFirst().getChiSq() <= WARM_START_CHI2_PER_DATA * strike.size()) {
+          return toParametersAndSensitivity(r);
+        }
+        sabrCalibrationResult = r;
+        chi2 = r.getFirst().getChiSq();
+      } catch (MathException e) {
+        // the multi-start search below is used instead
+      }
+    }
     double rhoStart = -0.50 * beta + 0.50 * (1 - beta);
     // Correlation is usually positive for normal and negative for log-normal;.
     double[] alphaStart = new double[4];
@@ -319,36 +510,55 @@ public class SabrSwaptionCalibrator {
     nuStart[1] = 0.50; // High vol of vol
     nuStart[2] = 0.10;
     nuStart[3] = 0.50;
-    double chi2 = 1.0E+12; // Large number 
-    Pair<LeastSquareResultsWithTransform, DoubleArray> sabrCalibrationResult = null;
     for (int i = 0; i < 4; i++) { // Try different starting points and take the best
       DoubleArray startParameters = DoubleArray.of(alphaStart[i], beta, rhoStart, nuStart[i]);
-      Pair<LeastSquareResultsWithTransform, DoubleArray> r = null;
-      if (rawData.getDataType().equals(ValueType.NORMAL_VOLATILITY)) {
-        r = calibrateShiftedFromNormalVolatilities(bda, calibrationDateTime, dayCount,
-            expiry, forward, strike, rawData.getStrikeType(),
-            data, startParameters, fixed, shift);
-      } else {
-        if (rawData.getDataType().equals(ValueType.PRICE)) {
-          r = calibrateShiftedFromPrices(bda, calibrationDateTime, dayCount,
-              expiry, forward, strike, rawData.getStrikeType(),
-              data, startParameters, fixed, shift);
-        } else {
-          if (rawData.getDataType().equals(ValueType.BLACK_VOLATILITY)) {
-            r = calibrateShiftedFromBlackVolatilities(bda, calibrationDateTime, dayCount,
-                expiry, forward, strike, rawData.getStrikeType(),
-                data, rawData.getShift().orElse(0d), startParameters, fixed, shift);
-          } else {
-            throw new IllegalArgumentException("Data type not supported");
-          }
-        }
-      }
+      Pair<LeastSquareResultsWithTransform, DoubleArray> r = calibrationFromStart(
+          forward, shift, fixed, bda, calibrationDateTime, dayCount, strike, data, expiry, rawData, startParameters);
       if (r.getFirst().getChiSq() < chi2) { // Keep best calibration
         sabrCalibrationResult = r;
         chi2 = r.getFirst().getChiSq();
       }
     }
-    @SuppressWarnings("null")
+    return toParametersAndSensitivity(sabrCalibrationResult);
+  }
+
+  // calibration from one starting point, depending on the type of the raw data
+  private Pair<LeastSquareResultsWithTransform, DoubleArray> calibrationFromStart(
+      double forward,
+      double shift,
+      BitSet fixed,
+      BusinessDayAdjustment bda,
+      ZonedDateTime calibrationDateTime,
+      DayCount dayCount,
+      DoubleArray strike,
+      DoubleArray data,
+      Period expiry,
+      RawOptionData rawData,
+      DoubleArray startParameters) {
+
+    if (rawData.getDataType().equals(ValueType.NORMAL_VOLATILITY)) {
+      return calibrateShiftedFromNormalVolatilities(bda, calibrationDateTime, dayCount,
+          expiry, forward, strike, rawData.getStrikeType(),
+          data, startParameters, fixed, shift);
+    }
+    if (rawData.getDataType().equals(ValueType.PRICE)) {
+      return calibrateShiftedFromPrices(bda, calibrationDateTime, dayCount,
+          expiry, forward, strike, rawData.getStrikeType(),
+          data, startParameters, fixed, shift);
+    }
+    if (rawData.getDataType().equals(ValueType.BLACK_VOLATILITY)) {
+      return calibrateShiftedFromBlackVolatilities(bda, calibrationDateTime, dayCount,
+          expiry, forward, strike, rawData.getStrikeType(),
+          data, rawData.getShift().orElse(0d), startParameters, fixed, shift);
+    }
+    throw new IllegalArgumentException("Data type not supported");
+  }
+
+  // the SABR parameters and their sensitivity to the raw data
+  @SuppressWarnings("null")
+  private Pair<SabrFormulaData, DoubleMatrix> toParametersAndSensitivity(
+      Pair<LeastSquareResultsWithTransform, DoubleArray> sabrCalibrationResult) {
+
     SabrFormulaData sabrParameters =
         SabrFormulaData.of(sabrCalibrationResult.getFirst().getModelParameters().toArrayUnsafe());
     DoubleMatrix parameterSensitivityToBlackShifted =
@@ -660,4 +870,28 @@ public class SabrSwaptionCalibrator {
     return bda.adjust(calibrationDate.plus(expiry), refData);
   }
 
+  //-------------------------------------------------------------------------
+  // the calibrated SABR parameters for one expiry and tenor
+  private static final class CalibratedSmile {
+    private final double timeToExpiry;
+    private final double timeTenor;
+    private final String label;
+    private final SabrFormulaData sabrPoint;
+    private final DoubleMatrix inverseJacobian;
+
+    private CalibratedSmile(
+        double timeToExpiry,
+        double timeTenor,
+        String label,
+        SabrFormulaData sabrPoint,
+        DoubleMatrix inverseJacobian) {
+
+      this.timeToExpiry = timeToExpiry;
+      this.timeTenor = timeTenor;
+      this.label = label;
+      this.sabrPoint = sabrPoint;
+      this.inverseJacobian = inverseJacobian;
+    }
+  }
+
 }
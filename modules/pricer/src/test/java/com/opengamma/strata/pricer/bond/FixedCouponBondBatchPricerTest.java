@@ -0,0 +1,221 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.bond;
+
+import static com.opengamma.strata.basics.currency.Currency.EUR;
+import static com.opengamma.strata.basics.date.DayCounts.ACT_365F;
+import static com.opengamma.strata.basics.date.HolidayCalendarIds.EUTA;
+import static com.opengamma.strata.basics.date.HolidayCalendarIds.JPTO;
+import static com.opengamma.strata.basics.date.HolidayCalendarIds.SAT_SUN;
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static com.opengamma.strata.market.product.CompoundedRateType.CONTINUOUS;
+import static com.opengamma.strata.market.product.CompoundedRateType.PERIODIC;
+import static org.testng.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.date.BusinessDayAdjustment;
+import com.opengamma.strata.basics.date.BusinessDayConventions;
+import com.opengamma.strata.basics.date.DayCounts;
+import com.opengamma.strata.basics.date.DaysAdjustment;
+import com.opengamma.strata.basics.schedule.Frequency;
+import com.opengamma.strata.basics.schedule.PeriodicSchedule;
+import com.opengamma.strata.basics.schedule.StubConvention;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.tuple.Pair;
+import com.opengamma.strata.market.curve.CurveName;
+import com.opengamma.strata.market.curve.Curves;
+import com.opengamma.strata.market.curve.InterpolatedNodalCurve;
+import com.opengamma.strata.market.interpolator.CurveInterpolators;
+import com.opengamma.strata.market.product.CompoundedRateType;
+import com.opengamma.strata.market.product.DiscountFactors;
+import com.opengamma.strata.market.product.ZeroRateDiscountFactors;
+import com.opengamma.strata.market.product.bond.BondGroup;
+import com.opengamma.strata.market.product.bond.LegalEntityGroup;
+import com.opengamma.strata.pricer.rate.LegalEntityDiscountingProvider;
+import com.opengamma.strata.product.SecurityId;
+import com.opengamma.strata.product.bond.FixedCouponBond;
+import com.opengamma.strata.product.bond.FixedCouponBondYieldConvention;
+import com.opengamma.strata.product.bond.ResolvedFixedCouponBond;
+
+/**
+ * Test {@link FixedCouponBondBatchPricer}.
+ */
+@Test
+public class FixedCouponBondBatchPricerTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final StandardId SECURITY_ID = StandardId.of("OG-Ticker", "GOVT1-BOND1");
+  private static final StandardId ISSUER_ID = StandardId.of("OG-Ticker", "GOVT1");
+  private static final DiscountingFixedCouponBondProductPricer PRICER = DiscountingFixedCouponBondProductPricer.DEFAULT;
+  private static final double TOL = 1.0e-10;
+
+  private static final ResolvedFixedCouponBond PRODUCT_GER = bond(
+      date(2015, 4, 12), 10, Frequency.P6M, 0.015, EUR, FixedCouponBondYieldConvention.GERMAN_BONDS, 1.0e7);
+  private static final ResolvedFixedCouponBond PRODUCT_US = bond(
+      date(2006, 11, 15), 10, Frequency.P6M, 0.04625, Currency.USD, FixedCouponBondYieldConvention.US_STREET, 100);
+  private static final ResolvedFixedCouponBond PRODUCT_UK = bond(
+      date(2002, 9, 7), 12, Frequency.P6M, 0.05, Currency.GBP, FixedCouponBondYieldConvention.UK_BUMP_DMO, 100);
+  private static final ResolvedFixedCouponBond PRODUCT_JP = bond(
+      date(2015, 9, 20), 10, Frequency.P6M, 0.004, Currency.JPY, FixedCouponBondYieldConvention.JAPAN_SIMPLE, 100);
+
+  private static final List<ResolvedFixedCouponBond> BONDS =
+      ImmutableList.of(PRODUCT_GER, PRODUCT_US, PRODUCT_US, PRODUCT_UK, PRODUCT_JP, PRODUCT_JP);
+  private static final List<LocalDate> SETTLEMENT_DATES = ImmutableList.of(
+      date(2016, 4, 28), date(2011, 8, 23), date(2016, 6, 8), date(2011, 9, 5), date(2015, 9, 29), date(2026, 8, 6));
+  private static final DoubleArray YIELDS = DoubleArray.of(0.015, 0.04, 0.04, 0.04, 0.003, 0.003);
+
+  // rates provider
+  private static final LocalDate VAL_DATE = date(2016, 4, 25);
+  private static final BondGroup GROUP_REPO = BondGroup.of("GOVT1 BOND1");
+  private static final LegalEntityGroup GROUP_ISSUER = LegalEntityGroup.of("GOVT1");
+  private static final DiscountFactors DSC_FACTORS_REPO = ZeroRateDiscountFactors.of(EUR, VAL_DATE,
+      InterpolatedNodalCurve.of(Curves.zeroRates(CurveName.of("TestRepoCurve"), ACT_365F),
+          DoubleArray.of(0.1, 2.0, 10.0), DoubleArray.of(0.05, 0.06, 0.09), CurveInterpolators.LINEAR));
+  private static final DiscountFactors DSC_FACTORS_ISSUER = ZeroRateDiscountFactors.of(EUR, VAL_DATE,
+      InterpolatedNodalCurve.of(Curves.zeroRates(CurveName.of("TestIssuerCurve"), ACT_365F),
+          DoubleArray.of(0.2, 9.0, 15.0), DoubleArray.of(0.03, 0.05, 0.13), CurveInterpolators.LINEAR));
+  private static final LegalEntityDiscountingProvider PROVIDER = LegalEntityDiscountingProvider.builder()
+      .issuerCurves(ImmutableMap.<Pair<LegalEntityGroup, Currency>, DiscountFactors>of(
+          Pair.<LegalEntityGroup, Currency>of(GROUP_ISSUER, EUR), DSC_FACTORS_ISSUER))
+      .legalEntityMap(ImmutableMap.<StandardId, LegalEntityGroup>of(ISSUER_ID, GROUP_ISSUER))
+      .repoCurves(ImmutableMap.<Pair<BondGroup, Currency>, DiscountFactors>of(
+          Pair.<BondGroup, Currency>of(GROUP_REPO, EUR), DSC_FACTORS_REPO))
+      .bondMap(ImmutableMap.<StandardId, BondGroup>of(SECURITY_ID, GROUP_REPO))
+      .valuationDate(VAL_DATE)
+      .build();
+
+  //-------------------------------------------------------------------------
+  public void test_of() {
+    FixedCouponBondBatchPricer test = FixedCouponBondBatchPricer.of(BONDS, SETTLEMENT_DATES);
+    assertEquals(test.size(), 6);
+    assertEquals(test.getBonds(), BONDS);
+    assertEquals(test.getSettlementDates(), SETTLEMENT_DATES);
+    FixedCouponBondBatchPricer sameDate = FixedCouponBondBatchPricer.of(BONDS, VAL_DATE);
+    assertEquals(sameDate.getSettlementDates().size(), 6);
+    assertThrowsIllegalArg(() -> FixedCouponBondBatchPricer.of(BONDS, ImmutableList.of(VAL_DATE)));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_yieldMeasures() {
+    FixedCouponBondBatchPricer test = FixedCouponBondBatchPricer.of(BONDS, SETTLEMENT_DATES);
+    DoubleArray dirtyPrices = test.dirtyPriceFromYield(YIELDS);
+    DoubleArray modifiedDurations = test.modifiedDurationFromYield(YIELDS);
+    DoubleArray convexities = test.convexityFromYield(YIELDS);
+    for (int i = 0; i < BONDS.size(); i++) {
+      ResolvedFixedCouponBond bond = BONDS.get(i);
+      LocalDate settlementDate = SETTLEMENT_DATES.get(i);
+      double yield = YIELDS.get(i);
+      assertEquals(dirtyPrices.get(i), PRICER.dirtyPriceFromYield(bond, settlementDate, yield), TOL);
+      assertEquals(modifiedDurations.get(i), PRICER.modifiedDurationFromYield(bond, settlementDate, yield), TOL);
+      assertEquals(convexities.get(i), PRICER.convexityFromYield(bond, settlementDate, yield), TOL);
+    }
+  }
+
+  public void test_macaulayDurationFromYield() {
+    List<ResolvedFixedCouponBond> bonds = BONDS.subList(0, 4);
+    FixedCouponBondBatchPricer test = FixedCouponBondBatchPricer.of(bonds, SETTLEMENT_DATES.subList(0, 4));
+    DoubleArray yields = YIELDS.subArray(0, 4);
+    DoubleArray computed = test.macaulayDurationFromYield(yields);
+    for (int i = 0; i < bonds.size(); i++) {
+      double expected = PRICER.macaulayDurationFromYield(bonds.get(i), SETTLEMENT_DATES.get(i), yields.get(i));
+      assertEquals(computed.get(i), expected, TOL);
+    }
+    FixedCouponBondBatchPricer japan = FixedCouponBondBatchPricer.of(ImmutableList.of(PRODUCT_JP), VAL_DATE);
+    assertThrows(
+        () -> japan.macaulayDurationFromYield(DoubleArray.of(0.003)), UnsupportedOperationException.class);
+  }
+
+  public void test_yieldFromDirtyPrice() {
+    List<ResolvedFixedCouponBond> bonds = BONDS.subList(0, 5);
+    List<LocalDate> settlementDates = SETTLEMENT_DATES.subList(0, 5);
+    FixedCouponBondBatchPricer test = FixedCouponBondBatchPricer.of(bonds, settlementDates);
+    DoubleArray dirtyPrices = DoubleArray.of(1.05, 1.0417352500524246, 1.005635683760684, 0.98, 1.01);
+    DoubleArray computed = test.yieldFromDirtyPrice(dirtyPrices);
+    for (int i = 0; i < bonds.size(); i++) {
+      double expected = PRICER.yieldFromDirtyPrice(bonds.get(i), settlementDates.get(i), dirtyPrices.get(i));
+      assertEquals(computed.get(i), expected, TOL);
+    }
+    assertEquals(computed.get(1), 0.04, TOL);
+    assertEquals(computed.get(2), 0.04, TOL);
+    assertThrowsIllegalArg(() -> test.yieldFromDirtyPrice(DoubleArray.of(1d)));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_zSpread_continuous() {
+    assertZSpread(0.035, CONTINUOUS, 0);
+    assertZSpread(-0.02, CONTINUOUS, 0);
+  }
+
+  public void test_zSpread_periodic() {
+    assertZSpread(0.035, PERIODIC, 4);
+    assertZSpread(-0.02, PERIODIC, 2);
+  }
+
+  private void assertZSpread(double zSpread, CompoundedRateType type, int periods) {
+    LocalDate settlementDate = PRODUCT_GER.getSettlementDateOffset().adjust(VAL_DATE, REF_DATA);
+    ResolvedFixedCouponBond shortBond = bond(
+        date(2015, 4, 12), 2, Frequency.P12M, 0.03, EUR, FixedCouponBondYieldConvention.GERMAN_BONDS, 1.0e6);
+    List<ResolvedFixedCouponBond> bonds = ImmutableList.of(PRODUCT_GER, shortBond);
+    FixedCouponBondBatchPricer test = FixedCouponBondBatchPricer.of(bonds, settlementDate);
+    DoubleArray zSpreads = DoubleArray.of(zSpread, zSpread + 0.01);
+    DoubleArray dirtyPrices = test.dirtyPriceFromCurvesWithZSpread(PROVIDER, zSpreads, type, periods);
+    for (int i = 0; i < bonds.size(); i++) {
+      double expected = PRICER.dirtyPriceFromCurvesWithZSpread(
+          bonds.get(i), PROVIDER, zSpreads.get(i), type, periods, settlementDate);
+      assertEquals(dirtyPrices.get(i), expected, TOL);
+    }
+    DoubleArray computed = test.zSpreadFromCurvesAndDirtyPrice(PROVIDER, dirtyPrices, type, periods);
+    assertEquals(computed.get(0), zSpreads.get(0), TOL);
+    assertEquals(computed.get(1), zSpreads.get(1), TOL);
+    assertEquals(
+        computed.get(0),
+        PRICER.zSpreadFromCurvesAndDirtyPrice(PRODUCT_GER, PROVIDER, REF_DATA, dirtyPrices.get(0), type, periods),
+        TOL);
+  }
+
+  //-------------------------------------------------------------------------
+  private static ResolvedFixedCouponBond bond(
+      LocalDate startDate,
+      int years,
+      Frequency frequency,
+      double fixedRate,
+      Currency currency,
+      FixedCouponBondYieldConvention convention,
+      double notional) {
+
+    BusinessDayAdjustment businessDayAdjustment = BusinessDayAdjustment.of(
+        BusinessDayConventions.FOLLOWING, currency.equals(Currency.JPY) ? JPTO : currency.equals(EUR) ? EUTA : SAT_SUN);
+    PeriodicSchedule schedule = PeriodicSchedule.of(
+        startDate, startDate.plusYears(years), frequency, businessDayAdjustment, StubConvention.SHORT_INITIAL, false);
+    return FixedCouponBond.builder()
+        .securityId(SecurityId.of(SECURITY_ID))
+        .dayCount(currency.equals(Currency.JPY) ? DayCounts.NL_365 : DayCounts.ACT_ACT_ICMA)
+        .fixedRate(fixedRate)
+        .legalEntityId(ISSUER_ID)
+        .currency(currency)
+        .notional(notional)
+        .accrualSchedule(schedule)
+        .settlementDateOffset(DaysAdjustment.ofBusinessDays(3, businessDayAdjustment.getCalendar()))
+        .yieldConvention(convention)
+        .exCouponPeriod(currency.equals(EUR) ?
+            DaysAdjustment.ofBusinessDays(-5, EUTA, businessDayAdjustment) :
+            DaysAdjustment.NONE)
+        .build()
+        .resolve(REF_DATA);
+  }
+
+}
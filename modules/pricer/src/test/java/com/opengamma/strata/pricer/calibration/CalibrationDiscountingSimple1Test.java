@@ -52,6 +52,7 @@ import com.opengamma.strata.market.product.fra.FraCurveNode;
 import com.opengamma.strata.market.product.swap.FixedIborSwapCurveNode;
 import com.opengamma.strata.pricer.deposit.DiscountingIborFixingDepositProductPricer;
 import com.opengamma.strata.pricer.fra.DiscountingFraTradePricer;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
 import com.opengamma.strata.pricer.rate.RatesProvider;
 import com.opengamma.strata.pricer.swap.DiscountingSwapProductPricer;
 import com.opengamma.strata.product.ResolvedTrade;
@@ -213,6 +214,29 @@ public class CalibrationDiscountingSimple1Test {
     }
   }
 
+  public void calibration_scenarios() {
+    double[] shifts = {0d, 0.0001, -0.0005, 0.001};
+    List<MarketData> scenarioQuotes = new ArrayList<>();
+    for (double shift : shifts) {
+      ImmutableMarketDataBuilder builder = ImmutableMarketData.builder(VAL_DATE);
+      for (int i = 0; i < FWD3_NB_NODES; i++) {
+        builder.addValue(QuoteId.of(StandardId.of(SCHEME, FWD3_ID_VALUE[i])), FWD3_MARKET_QUOTES[i] + shift);
+      }
+      scenarioQuotes.add(builder.build());
+    }
+    List<ImmutableRatesProvider> computed =
+        CALIBRATOR.calibrateScenarios(CURVE_GROUP_DEFN, scenarioQuotes, REF_DATA, TS);
+    assertEquals(computed.size(), shifts.length);
+    for (int i = 0; i < shifts.length; i++) {
+      ImmutableRatesProvider expected =
+          CALIBRATOR.calibrate(CURVE_GROUP_DEFN, VAL_DATE, scenarioQuotes.get(i), REF_DATA, TS);
+      for (int year = 1; year <= 10; year++) {
+        LocalDate date = VAL_DATE.plusYears(year);
+        assertEquals(computed.get(i).discountFactor(USD, date), expected.discountFactor(USD, date), 1e-7);
+      }
+    }
+  }
+
   //-------------------------------------------------------------------------
   @Test(enabled = false)
   void performance() {
@@ -64,6 +64,7 @@ import com.opengamma.strata.market.product.index.IborFutureCurveNode;
 import com.opengamma.strata.market.product.swap.FixedIborSwapCurveNode;
 import com.opengamma.strata.market.product.swap.FixedOvernightSwapCurveNode;
 import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
+import com.opengamma.strata.math.impl.linearalgebra.DecompositionFactory;
 import com.opengamma.strata.pricer.deposit.DiscountingIborFixingDepositProductPricer;
 import com.opengamma.strata.pricer.deposit.DiscountingTermDepositProductPricer;
 import com.opengamma.strata.pricer.index.DiscountingIborFutureTradePricer;
@@ -250,6 +251,8 @@ public class CalibrationZeroRateUsd2OisFuturesIrsTest {
   private static final MarketQuoteSensitivityCalculator MQC = MarketQuoteSensitivityCalculator.DEFAULT;
 
   private static final CurveCalibrator CALIBRATOR = CurveCalibrator.of(1e-9, 1e-9, 100);
+  private static final CurveCalibrator CALIBRATOR_LU =
+      CurveCalibrator.of(1e-9, 1e-9, 100, CalibrationMeasures.PAR_SPREAD, DecompositionFactory.LU_COMMONS);
 
   // Constants
   private static final double TOLERANCE_PV = 1.0E-6;
@@ -288,6 +291,12 @@ public class CalibrationZeroRateUsd2OisFuturesIrsTest {
         CALIBRATOR.calibrate(CURVE_GROUP_CONFIG, VAL_DATE, ALL_QUOTES, REF_DATA, TS);
     assertPresentValue(result);
   }
+
+  public void calibration_present_value_oneGroup_lu() {
+    RatesProvider result =
+        CALIBRATOR_LU.calibrate(CURVE_GROUP_CONFIG, VAL_DATE, ALL_QUOTES, REF_DATA, TS);
+    assertPresentValue(result);
+  }
   
   public void calibration_market_quote_sensitivity_one_group() {
     double shift = 1.0E-6;
@@ -296,6 +305,24 @@ public class CalibrationZeroRateUsd2OisFuturesIrsTest {
     calibration_market_quote_sensitivity_check(f, shift);
   }
 
+  public void calibration_market_quote_sensitivity_portfolio() {
+    RatesProvider result = CALIBRATOR.calibrate(CURVE_GROUP_CONFIG, VAL_DATE, ALL_QUOTES, REF_DATA, TS);
+    List<CurrencyParameterSensitivities> paramSens = new ArrayList<>();
+    List<CurrencyParameterSensitivities> expected = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      SwapTrade trade = FixedIborSwapConventions.USD_FIXED_1Y_LIBOR_3M
+          .createTrade(VAL_DATE, Period.ofMonths(8), Tenor.ofYears(2 + 3 * i), BuySell.BUY, 1_000_000, 0.01, REF_DATA);
+      ResolvedSwap product = trade.getProduct().resolve(REF_DATA);
+      CurrencyParameterSensitivities ps =
+          result.parameterSensitivity(SWAP_PRICER.presentValueSensitivity(product, result).build());
+      paramSens.add(ps);
+      expected.add(MQC.sensitivity(ps, result));
+    }
+    paramSens.add(CurrencyParameterSensitivities.empty());
+    expected.add(CurrencyParameterSensitivities.empty());
+    assertEquals(MQC.sensitivity(paramSens, result), expected);
+  }
+
   private void calibration_market_quote_sensitivity_check(
       Function<MarketData, RatesProvider> calibrator,
       double shift) {
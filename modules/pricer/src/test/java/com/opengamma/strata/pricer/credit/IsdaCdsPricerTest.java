@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.credit;
+
+import static com.opengamma.strata.collect.TestHelper.date;
+import static com.opengamma.strata.pricer.datasets.IsdaCdsDataSets.CREDIT_CURVE_INPUTS_1;
+import static com.opengamma.strata.pricer.datasets.IsdaCdsDataSets.RECOVERY_RATE;
+import static com.opengamma.strata.pricer.datasets.IsdaCdsDataSets.REF_INFO_1;
+import static com.opengamma.strata.pricer.datasets.IsdaCdsDataSets.VAL_DATE;
+import static com.opengamma.strata.pricer.datasets.IsdaCdsDataSets.YIELD_CURVE_INPUTS;
+import static com.opengamma.strata.pricer.datasets.IsdaCdsDataSets.trade;
+import static com.opengamma.strata.product.common.BuySell.BUY;
+import static com.opengamma.strata.product.common.BuySell.SELL;
+import static org.testng.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.market.curve.NodalCurve;
+import com.opengamma.strata.product.common.BuySell;
+import com.opengamma.strata.product.credit.ResolvedCds;
+
+/**
+ * Test {@link IsdaCdsPricer}.
+ * <p>
+ * The batch methods price strips of maturities with the multi-CDS analytics, which take a different path
+ * from the single CDS analytics. The results agree to within 1e-10 per unit notional.
+ */
+@Test
+public class IsdaCdsPricerTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final IsdaCdsPricer PRICER = IsdaCdsPricer.DEFAULT;
+  private static final double NOTIONAL = 10_000_000d;
+  private static final double TOL = 1e-10;
+
+  private static final NodalCurve YIELD_CURVE = PRICER.calibrateYieldCurve(YIELD_CURVE_INPUTS, VAL_DATE);
+  private static final NodalCurve CREDIT_CURVE =
+      PRICER.calibrateCreditCurve(CREDIT_CURVE_INPUTS_1, YIELD_CURVE, VAL_DATE, RECOVERY_RATE);
+
+  // standard CDS with the current accrual start, maturities a whole number of quarters apart
+  private static final LocalDate STRIP_START = date(2014, 9, 20);
+  private static final List<ResolvedCds> STRIP = ImmutableList.of(
+      product(STRIP_START, date(2019, 12, 20), BUY, 0.01),
+      product(STRIP_START, date(2015, 12, 20), SELL, 0.01),
+      product(STRIP_START, date(2021, 12, 20), BUY, 0.05),
+      product(STRIP_START, date(2017, 12, 20), BUY, 0.01),
+      product(STRIP_START, date(2019, 12, 20), SELL, 0.05));
+  // same start date, maturities not aligned on the schedule, priced one at a time
+  private static final LocalDate FALLBACK_START = date(2014, 6, 20);
+  private static final List<ResolvedCds> FALLBACK = ImmutableList.of(
+      product(FALLBACK_START, date(2016, 6, 20), BUY, 0.01),
+      product(FALLBACK_START, date(2018, 8, 5), SELL, 0.01));
+  // the only CDS with this start date
+  private static final ResolvedCds SINGLE = product(date(2014, 3, 20), date(2019, 6, 20), BUY, 0.01);
+
+  private static ResolvedCds product(LocalDate start, LocalDate end, BuySell buySell, double coupon) {
+    return trade(REF_INFO_1, start, end, buySell, NOTIONAL, coupon).resolve(REF_DATA).getProduct();
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_calibrateCurves() {
+    assertEquals(
+        PRICER.presentValue(SINGLE, YIELD_CURVE, CREDIT_CURVE, VAL_DATE, RECOVERY_RATE, 1d),
+        PRICER.presentValue(SINGLE, YIELD_CURVE_INPUTS, CREDIT_CURVE_INPUTS_1, VAL_DATE, RECOVERY_RATE, 1d));
+    assertEquals(
+        PRICER.parRate(SINGLE, YIELD_CURVE, CREDIT_CURVE, VAL_DATE, RECOVERY_RATE),
+        PRICER.parRate(SINGLE, YIELD_CURVE_INPUTS, CREDIT_CURVE_INPUTS_1, VAL_DATE, RECOVERY_RATE));
+  }
+
+  public void test_presentValue_strip() {
+    assertPresentValues(STRIP);
+  }
+
+  public void test_presentValue_fallback() {
+    assertPresentValues(FALLBACK);
+  }
+
+  public void test_presentValue_single() {
+    assertPresentValues(ImmutableList.of(SINGLE));
+  }
+
+  public void test_presentValue_mixed() {
+    assertPresentValues(ImmutableList.<ResolvedCds>builder()
+        .add(SINGLE)
+        .addAll(STRIP)
+        .addAll(FALLBACK)
+        .build());
+  }
+
+  public void test_parRate_strip() {
+    assertParRates(STRIP);
+  }
+
+  public void test_parRate_fallback() {
+    assertParRates(FALLBACK);
+  }
+
+  public void test_parRate_single() {
+    assertParRates(ImmutableList.of(SINGLE));
+  }
+
+  public void test_parRate_mixed() {
+    assertParRates(ImmutableList.<ResolvedCds>builder()
+        .addAll(FALLBACK)
+        .addAll(STRIP)
+        .add(SINGLE)
+        .build());
+  }
+
+  //-------------------------------------------------------------------------
+  // compares the batch present values with the single CDS pricer
+  private static void assertPresentValues(List<ResolvedCds> products) {
+    List<CurrencyAmount> computed =
+        PRICER.presentValue(products, YIELD_CURVE, CREDIT_CURVE, VAL_DATE, RECOVERY_RATE, 1d);
+    assertEquals(computed.size(), products.size());
+    for (int i = 0; i < products.size(); i++) {
+      CurrencyAmount expected =
+          PRICER.presentValue(products.get(i), YIELD_CURVE, CREDIT_CURVE, VAL_DATE, RECOVERY_RATE, 1d);
+      assertEquals(computed.get(i).getCurrency(), expected.getCurrency());
+      assertEquals(computed.get(i).getAmount(), expected.getAmount(), NOTIONAL * TOL);
+    }
+  }
+
+  // compares the batch par rates with the single CDS pricer
+  private static void assertParRates(List<ResolvedCds> products) {
+    DoubleArray computed = PRICER.parRate(products, YIELD_CURVE, CREDIT_CURVE, VAL_DATE, RECOVERY_RATE);
+    assertEquals(computed.size(), products.size());
+    for (int i = 0; i < products.size(); i++) {
+      double expected = PRICER.parRate(products.get(i), YIELD_CURVE, CREDIT_CURVE, VAL_DATE, RECOVERY_RATE);
+      assertEquals(computed.get(i), expected, TOL);
+    }
+  }
+
+}
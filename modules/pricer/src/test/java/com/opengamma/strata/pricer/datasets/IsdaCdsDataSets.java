@@ -0,0 +1,122 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.datasets;
+
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.market.product.credit.IsdaYieldCurveUnderlyingType.ISDA_MONEY_MARKET;
+import static com.opengamma.strata.market.product.credit.IsdaYieldCurveUnderlyingType.ISDA_SWAP;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.stream.Stream;
+
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.market.curve.CurveName;
+import com.opengamma.strata.market.product.credit.IsdaCreditCurveInputs;
+import com.opengamma.strata.market.product.credit.IsdaYieldCurveInputs;
+import com.opengamma.strata.market.product.credit.IsdaYieldCurveUnderlyingType;
+import com.opengamma.strata.product.common.BuySell;
+import com.opengamma.strata.product.credit.CdsTrade;
+import com.opengamma.strata.product.credit.RestructuringClause;
+import com.opengamma.strata.product.credit.SeniorityLevel;
+import com.opengamma.strata.product.credit.SingleNameReferenceInformation;
+import com.opengamma.strata.product.credit.type.CdsConvention;
+import com.opengamma.strata.product.credit.type.CdsConventions;
+import com.opengamma.strata.product.credit.type.IsdaYieldCurveConventions;
+
+/**
+ * ISDA CDS market data and trades for testing.
+ */
+public class IsdaCdsDataSets {
+
+  /** Thursday. */
+  public static final LocalDate VAL_DATE = LocalDate.of(2014, 10, 16);
+  /** The convention of the trades and of the credit curve. */
+  public static final CdsConvention CDS_CONVENTION = CdsConventions.USD_NORTH_AMERICAN;
+  /** The recovery rate. */
+  public static final double RECOVERY_RATE = 0.4;
+
+  /** The reference entity of the first credit curve. */
+  public static final SingleNameReferenceInformation REF_INFO_1 = SingleNameReferenceInformation.of(
+      StandardId.of("OG-Ticker", "Entity1"),
+      SeniorityLevel.SENIOR_UNSECURED_FOREIGN,
+      USD,
+      RestructuringClause.NO_RESTRUCTURING_2014);
+  /** The reference entity of the second credit curve. */
+  public static final SingleNameReferenceInformation REF_INFO_2 = SingleNameReferenceInformation.of(
+      StandardId.of("OG-Ticker", "Entity2"),
+      SeniorityLevel.SENIOR_UNSECURED_FOREIGN,
+      USD,
+      RestructuringClause.NO_RESTRUCTURING_2014);
+
+  //-------------------------------------------------------------------------
+  private static final Period[] YIELD_PERIODS = Stream.of(
+      "P1M", "P2M", "P3M", "P6M", "P1Y", "P2Y", "P3Y", "P4Y", "P5Y", "P6Y", "P7Y", "P8Y", "P9Y", "P10Y",
+      "P12Y", "P15Y", "P20Y", "P25Y", "P30Y")
+      .map(Period::parse)
+      .toArray(Period[]::new);
+  private static final double[] YIELD_RATES = {
+      0.00155, 0.00195, 0.00234, 0.00329, 0.00553, 0.0067, 0.0106, 0.0141, 0.0169, 0.0191, 0.0209, 0.0224, 0.0236,
+      0.0246, 0.0262, 0.0278, 0.0293, 0.0300, 0.0304};
+  /** The inputs of the USD yield curve. */
+  public static final IsdaYieldCurveInputs YIELD_CURVE_INPUTS = IsdaYieldCurveInputs.of(
+      CurveName.of("USD-ISDA"),
+      YIELD_PERIODS,
+      Stream.of(YIELD_PERIODS).map(VAL_DATE::plus).toArray(LocalDate[]::new),
+      Stream.of(YIELD_PERIODS)
+          .map(p -> p.toTotalMonths() < 12 || p.equals(Period.ofYears(1)) ? ISDA_MONEY_MARKET : ISDA_SWAP)
+          .toArray(IsdaYieldCurveUnderlyingType[]::new),
+      YIELD_RATES,
+      IsdaYieldCurveConventions.USD_ISDA);
+
+  private static final Period[] CREDIT_PERIODS = Stream.of("P6M", "P1Y", "P2Y", "P3Y", "P5Y", "P7Y", "P10Y")
+      .map(Period::parse)
+      .toArray(Period[]::new);
+  /** The inputs of the first credit curve. */
+  public static final IsdaCreditCurveInputs CREDIT_CURVE_INPUTS_1 = creditCurveInputs(
+      "Entity1", 0.0030, 0.0040, 0.0055, 0.0070, 0.0100, 0.0115, 0.0125);
+  /** The inputs of the second credit curve. */
+  public static final IsdaCreditCurveInputs CREDIT_CURVE_INPUTS_2 = creditCurveInputs(
+      "Entity2", 0.0060, 0.0075, 0.0095, 0.0120, 0.0160, 0.0180, 0.0195);
+
+  // creates the inputs of a credit curve with the standard points
+  private static IsdaCreditCurveInputs creditCurveInputs(String name, double... parRates) {
+    return IsdaCreditCurveInputs.of(
+        CurveName.of(name),
+        CREDIT_PERIODS,
+        Stream.of(CREDIT_PERIODS)
+            .map(p -> CDS_CONVENTION.calculateUnadjustedMaturityDateFromValuationDate(VAL_DATE, p))
+            .toArray(LocalDate[]::new),
+        parRates,
+        CDS_CONVENTION,
+        1d);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates a single name CDS trade with the standard convention and no upfront fee.
+   *
+   * @param referenceInformation  the reference entity
+   * @param startDate  the accrual start date
+   * @param endDate  the maturity date
+   * @param buySell  whether protection is bought or sold
+   * @param notional  the notional
+   * @param coupon  the coupon
+   * @return the trade
+   */
+  public static CdsTrade trade(
+      SingleNameReferenceInformation referenceInformation,
+      LocalDate startDate,
+      LocalDate endDate,
+      BuySell buySell,
+      double notional,
+      double coupon) {
+
+    return CDS_CONVENTION
+        .toTrade(startDate, endDate, buySell, notional, coupon, referenceInformation, 0d, VAL_DATE.plusDays(3));
+  }
+
+}
@@ -8,6 +8,8 @@ package com.opengamma.strata.pricer.fx;
 import static com.opengamma.strata.basics.currency.Currency.EUR;
 import static com.opengamma.strata.basics.currency.Currency.USD;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
 
 import java.time.LocalDate;
 import java.time.ZoneId;
@@ -87,4 +89,30 @@ public class ImpliedTrinomialTreeFxOptionCalibratorTest {
     }
   }
 
+  public void test_cache() {
+    ImpliedTrinomialTreeFxOptionCalibrator calib = new ImpliedTrinomialTreeFxOptionCalibrator(39, 1);
+    RecombiningTrinomialTreeData computed = calib.calibrateTrinomialTree(CALL, RATE_PROVIDER, VOL_PROVIDER);
+    assertEquals(computed, TREE_DATA);
+    assertSame(calib.calibrateTrinomialTree(CALL, RATE_PROVIDER, VOL_PROVIDER), computed);
+    // least recently used tree is discarded
+    RecombiningTrinomialTreeData computedMrkt = calib.calibrateTrinomialTree(CALL, RATE_PROVIDER, VOL_PROVIDER_MRKT);
+    assertEquals(computedMrkt, TREE_DATA_MRKT);
+    RecombiningTrinomialTreeData recomputed = calib.calibrateTrinomialTree(CALL, RATE_PROVIDER, VOL_PROVIDER);
+    assertEquals(recomputed, TREE_DATA);
+    assertNotSame(recomputed, computed);
+    // no cache
+    assertNotSame(CALIB.calibrateTrinomialTree(CALL, RATE_PROVIDER, VOL_PROVIDER), TREE_DATA);
+  }
+
+  public void test_cache_equalProviders() {
+    ImpliedTrinomialTreeFxOptionCalibrator calib = new ImpliedTrinomialTreeFxOptionCalibrator(39, 1);
+    RecombiningTrinomialTreeData computed = calib.calibrateTrinomialTree(CALL, RATE_PROVIDER, VOL_PROVIDER);
+    // providers created separately from the same data share the tree
+    ImmutableRatesProvider ratesProvider = RATE_PROVIDER.toBuilder().build();
+    BlackVolatilitySmileFxProvider volProvider = FxVolatilitySmileDataSet.createVolatilitySmileProvider5(VAL_DATETIME);
+    assertNotSame(ratesProvider, RATE_PROVIDER);
+    assertNotSame(volProvider, VOL_PROVIDER);
+    assertSame(calib.calibrateTrinomialTree(CALL, ratesProvider, volProvider), computed);
+  }
+
 }
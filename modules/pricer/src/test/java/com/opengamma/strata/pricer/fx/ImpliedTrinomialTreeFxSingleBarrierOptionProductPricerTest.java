@@ -9,6 +9,7 @@ import static com.opengamma.strata.basics.currency.Currency.EUR;
 import static com.opengamma.strata.basics.currency.Currency.USD;
 import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
 import java.time.LocalDate;
@@ -307,6 +308,19 @@ public class ImpliedTrinomialTreeFxSingleBarrierOptionProductPricerTest {
     assertTrue(computed.equalWithTolerance(expected, 1.0e-13));
   }
 
+  public void test_presentValueSensitivity_parallel() {
+    ImpliedTrinomialTreeFxOptionCalibrator calibrator = new ImpliedTrinomialTreeFxOptionCalibrator(21);
+    ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer pricer =
+        new ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer(calibrator, true);
+    ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer sequential =
+        new ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer(21);
+    CurrencyParameterSensitivities computed =
+        pricer.presentValueCurveParameterSensitivity(CALL_UKI_C, RATE_PROVIDER, VOL_PROVIDER);
+    CurrencyParameterSensitivities expected =
+        sequential.presentValueCurveParameterSensitivity(CALL_UKI_C, RATE_PROVIDER, VOL_PROVIDER);
+    assertEquals(computed, expected);
+  }
+
   //-------------------------------------------------------------------------
   public void test_withData() {
     ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer pricer =
@@ -324,6 +338,21 @@ public class ImpliedTrinomialTreeFxSingleBarrierOptionProductPricerTest {
     assertEquals(ce, ceWithData);
   }
 
+  public void test_default() {
+    ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer pricer =
+        ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer.DEFAULT;
+    ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer expected =
+        new ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer();
+    assertEquals(pricer.getCalibrator().getNumberOfSteps(), expected.getCalibrator().getNumberOfSteps());
+    assertEquals(pricer.presentValue(CALL_DKO, RATE_PROVIDER, VOL_PROVIDER),
+        expected.presentValue(CALL_DKO, RATE_PROVIDER, VOL_PROVIDER));
+    // the calibrated tree is shared
+    ImpliedTrinomialTreeFxOptionCalibrator calibrator = pricer.getCalibrator();
+    RecombiningTrinomialTreeData data =
+        calibrator.calibrateTrinomialTree(CALL_DKO.getUnderlyingOption(), RATE_PROVIDER, VOL_PROVIDER);
+    assertSame(calibrator.calibrateTrinomialTree(CALL_UKI_C.getUnderlyingOption(), RATE_PROVIDER, VOL_PROVIDER), data);
+  }
+
   public void test_expired_calibration() {
     assertThrowsIllegalArg(() -> PRICER_39.getCalibrator().calibrateTrinomialTree(CALL_DKO.getUnderlyingOption(),
         RATE_PROVIDER_AFTER, VOL_PROVIDER_AFTER));
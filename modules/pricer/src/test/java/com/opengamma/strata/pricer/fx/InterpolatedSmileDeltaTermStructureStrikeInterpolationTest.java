@@ -19,6 +19,7 @@ import org.testng.annotations.Test;
 import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.market.interpolator.BoundCurveInterpolator;
 import com.opengamma.strata.market.interpolator.CurveExtrapolator;
 import com.opengamma.strata.market.interpolator.CurveExtrapolators;
 import com.opengamma.strata.market.interpolator.CurveInterpolator;
@@ -272,6 +273,46 @@ public class InterpolatedSmileDeltaTermStructureStrikeInterpolationTest {
     }
   }
 
+  public void volatilityCached() {
+    double forward = 1.40;
+    double time = 0.75;
+    InterpolatedSmileDeltaTermStructureStrikeInterpolation smileTerm =
+        InterpolatedSmileDeltaTermStructureStrikeInterpolation.of(
+            NAME, VOLATILITY_TERM, FLAT, INTERPOLATOR_STRIKE, FLAT);
+    SmileDeltaParameters smile = smileTerm.smileForTime(time);
+    assertEquals(smileTerm.smileForTime(time), smile);
+    BoundCurveInterpolator bound =
+        INTERPOLATOR_STRIKE.bind(smile.getStrike(forward), smile.getVolatility(), FLAT, FLAT);
+    for (double strike = 1.2; strike < 2.4; strike += 0.1) {
+      double expected = bound.interpolate(strike);
+      assertEquals(smileTerm.volatility(time, strike, forward), expected, TOLERANCE_VOL);
+      assertEquals(smileTerm.volatility(time, strike, forward), expected, TOLERANCE_VOL);
+      VolatilityAndBucketedSensitivities computed = smileTerm.volatilityAndSensitivities(time, strike, forward);
+      DoubleMatrix expectedSensi = InterpolatedSmileDeltaTermStructureStrikeInterpolation
+          .of(NAME, VOLATILITY_TERM, FLAT, INTERPOLATOR_STRIKE, FLAT)
+          .volatilityAndSensitivities(time, strike, forward).getSensitivities();
+      assertEquals(computed.getVolatility(), expected, TOLERANCE_VOL);
+      for (int i = 0; i < NB_EXP; i++) {
+        for (int j = 0; j < 2 * DELTA.size() + 1; j++) {
+          assertEquals(computed.getSensitivities().get(i, j), expectedSensi.get(i, j), TOLERANCE_VOL);
+        }
+      }
+    }
+    // sensitivities scaled from the cached sensitivities
+    DoubleArray volatilityAtTimeSensitivity = DoubleArray.of(2 * DELTA.size() + 1, i -> 0.5 + i);
+    SmileAndBucketedSensitivities expectedSmileSensi = InterpolatedSmileDeltaTermStructureStrikeInterpolation
+        .of(NAME, VOLATILITY_TERM, FLAT, INTERPOLATOR_STRIKE, FLAT)
+        .smileAndSensitivitiesForTime(time, volatilityAtTimeSensitivity);
+    assertEquals(smileTerm.smileAndSensitivitiesForTime(time, volatilityAtTimeSensitivity), expectedSmileSensi);
+    // more requests than the cache size
+    for (int i = 0; i < 2500; i++) {
+      double timeLoop = 0.001 * i;
+      double expected = InterpolatedSmileDeltaTermStructureStrikeInterpolation
+          .of(NAME, VOLATILITY_TERM, FLAT, INTERPOLATOR_STRIKE, FLAT).volatility(timeLoop, 1.5, forward);
+      assertEquals(smileTerm.volatility(timeLoop, 1.5, forward), expected, TOLERANCE_VOL);
+    }
+  }
+
   //-------------------------------------------------------------------------
   public void coverage() {
     coverImmutableBean(SMILE_TERM);
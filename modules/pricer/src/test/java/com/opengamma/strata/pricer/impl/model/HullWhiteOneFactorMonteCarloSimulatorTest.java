@@ -0,0 +1,125 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.model;
+
+import static com.opengamma.strata.basics.currency.Currency.EUR;
+import static com.opengamma.strata.basics.date.DayCounts.ACT_365F;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.market.curve.Curves;
+import com.opengamma.strata.market.curve.InterpolatedNodalCurve;
+import com.opengamma.strata.market.interpolator.CurveInterpolators;
+import com.opengamma.strata.market.product.DiscountFactors;
+import com.opengamma.strata.market.product.ZeroRateDiscountFactors;
+import com.opengamma.strata.math.impl.statistics.distribution.NormalDistribution;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteOneFactorMonteCarloSimulator;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteOneFactorPathFunction;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteOneFactorPiecewiseConstantInterestRateModel;
+import com.opengamma.strata.pricer.index.HullWhiteOneFactorPiecewiseConstantParameters;
+
+/**
+ * Test {@link HullWhiteOneFactorMonteCarloSimulator}.
+ */
+@Test
+public class HullWhiteOneFactorMonteCarloSimulatorTest {
+
+  private static final LocalDate VAL_DATE = LocalDate.of(2016, 7, 21);
+  private static final double MEAN_REVERSION = 0.01;
+  private static final DoubleArray VOLATILITY = DoubleArray.of(0.01, 0.011, 0.012, 0.013, 0.014);
+  private static final DoubleArray VOLATILITY_TIME = DoubleArray.of(0.5, 1.0, 2.0, 5.0);
+  private static final HullWhiteOneFactorPiecewiseConstantParameters MODEL_PARAMETERS =
+      HullWhiteOneFactorPiecewiseConstantParameters.of(MEAN_REVERSION, VOLATILITY, VOLATILITY_TIME);
+  private static final HullWhiteOneFactorPiecewiseConstantInterestRateModel MODEL =
+      HullWhiteOneFactorPiecewiseConstantInterestRateModel.DEFAULT;
+  private static final DiscountFactors DISCOUNT_FACTORS = ZeroRateDiscountFactors.of(EUR, VAL_DATE,
+      InterpolatedNodalCurve.of(Curves.zeroRates("EUR-Dsc", ACT_365F),
+          DoubleArray.of(0.5, 1.0, 2.0, 5.0, 10.0), DoubleArray.of(0.01, 0.012, 0.015, 0.02, 0.025),
+          CurveInterpolators.LINEAR));
+  private static final NormalDistribution NORMAL = new NormalDistribution(0, 1);
+
+  private static final DoubleArray TIMES = DoubleArray.of(0.25, 0.75, 1.5, 3.0, 4.0);
+  private static final DoubleArray MATURITIES = DoubleArray.of(4.0, 5.0, 7.5, 10.0);
+  private static final int NB_PATHS = 20_000;
+  private static final double TOLERANCE_SOBOL = 2.0E-4;
+  private static final double TOLERANCE_PSEUDO = 5.0E-3; // about 4 standard errors
+
+  //-------------------------------------------------------------------------
+  public void test_martingale() {
+    HullWhiteOneFactorMonteCarloSimulator sobol = HullWhiteOneFactorMonteCarloSimulator.ofSobol(NB_PATHS);
+    HullWhiteOneFactorMonteCarloSimulator pseudo = HullWhiteOneFactorMonteCarloSimulator.ofPseudoRandom(NB_PATHS, 1L);
+    for (int loopmat = 0; loopmat < MATURITIES.size(); loopmat++) {
+      int maturityIndex = loopmat;
+      double expected = DISCOUNT_FACTORS.discountFactor(MATURITIES.get(loopmat));
+      HullWhiteOneFactorPathFunction bond = path -> path.deflatedDiscountFactor(TIMES.size() - 1, maturityIndex);
+      double computedSobol = sobol.presentValue(MODEL_PARAMETERS, DISCOUNT_FACTORS, TIMES, MATURITIES, bond);
+      assertEquals(computedSobol, expected, TOLERANCE_SOBOL);
+      double computedPseudo = pseudo.presentValue(MODEL_PARAMETERS, DISCOUNT_FACTORS, TIMES, MATURITIES, bond);
+      assertEquals(computedPseudo, expected, TOLERANCE_PSEUDO);
+    }
+  }
+
+  public void test_bondOption() {
+    double expiry = TIMES.get(TIMES.size() - 1);
+    double maturity = MATURITIES.get(2);
+    double dfExpiry = DISCOUNT_FACTORS.discountFactor(expiry);
+    double dfMaturity = DISCOUNT_FACTORS.discountFactor(maturity);
+    double strike = dfMaturity / dfExpiry;
+    double alpha = MODEL.alpha(MODEL_PARAMETERS, 0d, expiry, expiry, maturity);
+    double d1 = (Math.log(dfMaturity / (strike * dfExpiry)) + 0.5 * alpha * alpha) / alpha;
+    double expected = dfMaturity * NORMAL.getCDF(d1) - strike * dfExpiry * NORMAL.getCDF(d1 - alpha);
+    HullWhiteOneFactorPathFunction call = path -> {
+      int lastTime = path.getTimeCount() - 1;
+      double payoff = Math.max(path.discountFactor(lastTime, 2) - strike, 0d);
+      return payoff / path.numeraire(lastTime);
+    };
+    double computed = HullWhiteOneFactorMonteCarloSimulator.ofSobol(NB_PATHS)
+        .presentValue(MODEL_PARAMETERS, DISCOUNT_FACTORS, TIMES, MATURITIES, call);
+    assertEquals(computed, expected, TOLERANCE_SOBOL);
+  }
+
+  public void test_independentOfThreads() throws Exception {
+    HullWhiteOneFactorPathFunction pathDependent = path -> {
+      double sum = 0d;
+      for (int i = 0; i < path.getTimeCount(); i++) {
+        sum += Math.max(path.getState(i), 0d);
+      }
+      return sum * path.deflatedDiscountFactor(path.getTimeCount() - 1, 0);
+    };
+    for (HullWhiteOneFactorMonteCarloSimulator simulator : new HullWhiteOneFactorMonteCarloSimulator[] {
+        HullWhiteOneFactorMonteCarloSimulator.ofSobol(NB_PATHS),
+        HullWhiteOneFactorMonteCarloSimulator.ofPseudoRandom(NB_PATHS, 123L)}) {
+      double parallel = simulator.presentValue(MODEL_PARAMETERS, DISCOUNT_FACTORS, TIMES, MATURITIES, pathDependent);
+      ForkJoinPool singleThread = new ForkJoinPool(1);
+      try {
+        double serial = singleThread.submit(() -> simulator.presentValue(
+            MODEL_PARAMETERS, DISCOUNT_FACTORS, TIMES, MATURITIES, pathDependent)).get();
+        assertEquals(serial, parallel, 0d);
+      } finally {
+        singleThread.shutdown();
+      }
+    }
+  }
+
+  public void test_invalid() {
+    HullWhiteOneFactorPathFunction function = path -> 0d;
+    HullWhiteOneFactorMonteCarloSimulator simulator = HullWhiteOneFactorMonteCarloSimulator.ofSobol(10);
+    assertThrowsIllegalArg(() -> HullWhiteOneFactorMonteCarloSimulator.ofSobol(0));
+    assertThrowsIllegalArg(() -> simulator.presentValue(
+        MODEL_PARAMETERS, DISCOUNT_FACTORS, DoubleArray.EMPTY, MATURITIES, function));
+    assertThrowsIllegalArg(() -> simulator.presentValue(
+        MODEL_PARAMETERS, DISCOUNT_FACTORS, DoubleArray.of(1d, 0.5d), MATURITIES, function));
+    assertThrowsIllegalArg(() -> simulator.presentValue(
+        MODEL_PARAMETERS, DISCOUNT_FACTORS, DoubleArray.of(100, i -> i + 1d), MATURITIES, function));
+  }
+
+}
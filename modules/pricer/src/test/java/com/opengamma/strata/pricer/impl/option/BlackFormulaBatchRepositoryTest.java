@@ -0,0 +1,145 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.option;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.coverPrivateConstructor;
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+
+/**
+ * Test {@link BlackFormulaBatchRepository}.
+ */
+@Test
+public class BlackFormulaBatchRepositoryTest {
+
+  private static final double[] STRIKES_BASE = {50d, 80d, 95d, 100d, 105d, 120d, 150d, 200d};
+  private static final double[] TIMES_BASE = {0.1, 1d, 5d};
+  private static final double[] VOLS_BASE = {0.05, 0.2, 0.6};
+  private static final double FORWARD = 100d;
+  private static final int SIZE = STRIKES_BASE.length * TIMES_BASE.length * VOLS_BASE.length;
+  private static final DoubleArray FORWARDS = DoubleArray.filled(SIZE, FORWARD);
+  private static final DoubleArray STRIKES =
+      DoubleArray.of(SIZE, i -> STRIKES_BASE[i / (TIMES_BASE.length * VOLS_BASE.length)]);
+  private static final DoubleArray TIMES =
+      DoubleArray.of(SIZE, i -> TIMES_BASE[(i / VOLS_BASE.length) % TIMES_BASE.length]);
+  private static final DoubleArray VOLS = DoubleArray.of(SIZE, i -> VOLS_BASE[i % VOLS_BASE.length]);
+  private static final double TOL = 1e-14;
+
+  //-------------------------------------------------------------------------
+  public void test_price() {
+    for (boolean isCall : new boolean[] {true, false}) {
+      DoubleArray computed = BlackFormulaBatchRepository.price(FORWARDS, STRIKES, TIMES, VOLS, isCall);
+      for (int i = 0; i < SIZE; i++) {
+        double expected = BlackFormulaRepository.price(FORWARD, STRIKES.get(i), TIMES.get(i), VOLS.get(i), isCall);
+        assertEquals(computed.get(i), expected, TOL * FORWARD);
+      }
+    }
+  }
+
+  public void test_greeks() {
+    for (boolean isCall : new boolean[] {true, false}) {
+      DoubleArray delta = BlackFormulaBatchRepository.delta(FORWARDS, STRIKES, TIMES, VOLS, isCall);
+      for (int i = 0; i < SIZE; i++) {
+        double expected = BlackFormulaRepository.delta(FORWARD, STRIKES.get(i), TIMES.get(i), VOLS.get(i), isCall);
+        assertEquals(delta.get(i), expected, TOL);
+      }
+    }
+    DoubleArray gamma = BlackFormulaBatchRepository.gamma(FORWARDS, STRIKES, TIMES, VOLS);
+    DoubleArray vega = BlackFormulaBatchRepository.vega(FORWARDS, STRIKES, TIMES, VOLS);
+    for (int i = 0; i < SIZE; i++) {
+      assertEquals(gamma.get(i), BlackFormulaRepository.gamma(FORWARD, STRIKES.get(i), TIMES.get(i), VOLS.get(i)), TOL);
+      assertEquals(vega.get(i), BlackFormulaRepository.vega(FORWARD, STRIKES.get(i), TIMES.get(i), VOLS.get(i)), TOL);
+    }
+  }
+
+  public void test_price_limits() {
+    DoubleArray forwards = DoubleArray.of(100d, 100d, 0d, 100d, 100d);
+    DoubleArray strikes = DoubleArray.of(90d, 0d, 100d, 100d, 110d);
+    DoubleArray times = DoubleArray.of(0d, 1d, 1d, 1d, 1d);
+    DoubleArray vols = DoubleArray.of(0.2, 0.2, 0.2, 0.2, 0d);
+    DoubleArray computed = BlackFormulaBatchRepository.price(forwards, strikes, times, vols, true);
+    for (int i = 0; i < forwards.size(); i++) {
+      double expected = BlackFormulaRepository.price(forwards.get(i), strikes.get(i), times.get(i), vols.get(i), true);
+      assertEquals(computed.get(i), expected, TOL * FORWARD);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_impliedVolatility() {
+    for (boolean isCall : new boolean[] {true, false}) {
+      DoubleArray prices = BlackFormulaBatchRepository.price(FORWARDS, STRIKES, TIMES, VOLS, isCall);
+      DoubleArray vegas = BlackFormulaBatchRepository.vega(FORWARDS, STRIKES, TIMES, VOLS);
+      DoubleArray computed = BlackFormulaBatchRepository.impliedVolatility(prices, FORWARDS, STRIKES, TIMES, isCall);
+      for (int i = 0; i < SIZE; i++) {
+        double intrinsic = Math.max(0d, (isCall ? 1d : -1d) * (FORWARD - STRIKES.get(i)));
+        if (prices.get(i) == intrinsic) {
+          // the time value is below the precision of the price
+          assertEquals(computed.get(i), 0d);
+          continue;
+        }
+        // the price has a rounding error relative to the forward, which limits the accuracy of the volatility
+        assertEquals(computed.get(i), VOLS.get(i), 1e-8 * VOLS.get(i) + 1e-12 / vegas.get(i));
+        if (vegas.get(i) > 1e-3) {
+          double scalar = BlackFormulaRepository.impliedVolatility(
+              prices.get(i), FORWARD, STRIKES.get(i), TIMES.get(i), isCall);
+          assertEquals(computed.get(i), scalar, 1e-6);
+        }
+      }
+    }
+  }
+
+  public void test_impliedVolatility_highVolatility() {
+    DoubleArray strikes = DoubleArray.of(50d, 80d, 120d, 200d);
+    DoubleArray forwards = DoubleArray.filled(4, FORWARD);
+    DoubleArray times = DoubleArray.filled(4, 10d);
+    DoubleArray vols = DoubleArray.filled(4, 0.9);
+    DoubleArray prices = BlackFormulaBatchRepository.price(forwards, strikes, times, vols, true);
+    DoubleArray computed = BlackFormulaBatchRepository.impliedVolatility(prices, forwards, strikes, times, true);
+    for (int i = 0; i < 4; i++) {
+      assertEquals(computed.get(i), 0.9, 1e-8);
+    }
+  }
+
+  public void test_impliedVolatility_atTheMoney() {
+    DoubleArray vols = DoubleArray.of(0.01, 0.2, 0.6, 0.9, 2d);
+    DoubleArray forwards = DoubleArray.filled(vols.size(), FORWARD);
+    DoubleArray times = DoubleArray.of(0.1, 1d, 5d, 10d, 2d);
+    for (boolean isCall : new boolean[] {true, false}) {
+      DoubleArray prices = BlackFormulaBatchRepository.price(forwards, forwards, times, vols, isCall);
+      DoubleArray computed = BlackFormulaBatchRepository.impliedVolatility(prices, forwards, forwards, times, isCall);
+      for (int i = 0; i < vols.size(); i++) {
+        assertEquals(computed.get(i), vols.get(i), 1e-12);
+      }
+    }
+  }
+
+  public void test_impliedVolatility_intrinsic() {
+    DoubleArray computed = BlackFormulaBatchRepository.impliedVolatility(
+        DoubleArray.of(10d, 0d), DoubleArray.of(100d, 100d), DoubleArray.of(90d, 110d), DoubleArray.of(1d, 1d), true);
+    assertEquals(computed, DoubleArray.of(0d, 0d));
+  }
+
+  public void test_impliedVolatility_aboveUpperBound() {
+    assertThrowsIllegalArg(() -> BlackFormulaBatchRepository.impliedVolatility(
+        DoubleArray.of(101d), DoubleArray.of(100d), DoubleArray.of(110d), DoubleArray.of(1d), true));
+  }
+
+  public void test_sizeMismatch() {
+    assertThrowsIllegalArg(() -> BlackFormulaBatchRepository.price(
+        FORWARDS, STRIKES, TIMES, DoubleArray.of(0.2), true));
+    assertThrowsIllegalArg(() -> BlackFormulaBatchRepository.impliedVolatility(
+        DoubleArray.of(1d), FORWARDS, STRIKES, TIMES, true));
+  }
+
+  public void coverage() {
+    coverPrivateConstructor(BlackFormulaBatchRepository.class);
+  }
+
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.option;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.coverPrivateConstructor;
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.product.common.PutCall;
+
+/**
+ * Test {@link NormalFormulaBatchRepository}.
+ */
+@Test
+public class NormalFormulaBatchRepositoryTest {
+
+  private static final double[] STRIKES_BASE = {-0.01, 0d, 0.01, 0.02, 0.025, 0.03, 0.05};
+  private static final double[] TIMES_BASE = {0.1, 1d, 10d};
+  private static final double[] VOLS_BASE = {0.001, 0.005, 0.02};
+  private static final double FORWARD = 0.02;
+  private static final int SIZE = STRIKES_BASE.length * TIMES_BASE.length * VOLS_BASE.length;
+  private static final DoubleArray FORWARDS = DoubleArray.filled(SIZE, FORWARD);
+  private static final DoubleArray STRIKES =
+      DoubleArray.of(SIZE, i -> STRIKES_BASE[i / (TIMES_BASE.length * VOLS_BASE.length)]);
+  private static final DoubleArray TIMES =
+      DoubleArray.of(SIZE, i -> TIMES_BASE[(i / VOLS_BASE.length) % TIMES_BASE.length]);
+  private static final DoubleArray VOLS = DoubleArray.of(SIZE, i -> VOLS_BASE[i % VOLS_BASE.length]);
+  private static final double TOL = 1e-14;
+
+  //-------------------------------------------------------------------------
+  public void test_price_greeks() {
+    for (PutCall putCall : PutCall.values()) {
+      DoubleArray price = NormalFormulaBatchRepository.price(FORWARDS, STRIKES, TIMES, VOLS, putCall);
+      DoubleArray delta = NormalFormulaBatchRepository.delta(FORWARDS, STRIKES, TIMES, VOLS, putCall);
+      DoubleArray gamma = NormalFormulaBatchRepository.gamma(FORWARDS, STRIKES, TIMES, VOLS, putCall);
+      DoubleArray vega = NormalFormulaBatchRepository.vega(FORWARDS, STRIKES, TIMES, VOLS, putCall);
+      for (int i = 0; i < SIZE; i++) {
+        double strike = STRIKES.get(i);
+        double time = TIMES.get(i);
+        double vol = VOLS.get(i);
+        assertEquals(price.get(i), NormalFormulaRepository.price(FORWARD, strike, time, vol, putCall), TOL);
+        assertEquals(delta.get(i), NormalFormulaRepository.delta(FORWARD, strike, time, vol, putCall), TOL);
+        assertEquals(gamma.get(i), NormalFormulaRepository.gamma(FORWARD, strike, time, vol, putCall), TOL * 1e4);
+        assertEquals(vega.get(i), NormalFormulaRepository.vega(FORWARD, strike, time, vol, putCall), TOL);
+      }
+    }
+  }
+
+  public void test_price_zeroVolatility() {
+    DoubleArray computed = NormalFormulaBatchRepository.price(
+        DoubleArray.of(0.02, 0.02), DoubleArray.of(0.01, 0.03), DoubleArray.of(1d, 0d), DoubleArray.of(0d, 0.01),
+        PutCall.CALL);
+    assertEquals(computed, DoubleArray.of(0.01, 0d));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_impliedVolatility() {
+    for (PutCall putCall : PutCall.values()) {
+      DoubleArray prices = NormalFormulaBatchRepository.price(FORWARDS, STRIKES, TIMES, VOLS, putCall);
+      DoubleArray computed = NormalFormulaBatchRepository.impliedVolatility(prices, FORWARDS, STRIKES, TIMES, putCall);
+      for (int i = 0; i < SIZE; i++) {
+        double intrinsic = Math.max(0d, (putCall.isCall() ? 1d : -1d) * (FORWARD - STRIKES.get(i)));
+        if (prices.get(i) - intrinsic < 1e-12) {
+          // the time value is too small relative to the intrinsic value to recover the volatility
+          continue;
+        }
+        assertEquals(computed.get(i), VOLS.get(i), 1e-8 * VOLS.get(i));
+      }
+    }
+  }
+
+  public void test_impliedVolatility_intrinsic() {
+    DoubleArray computed = NormalFormulaBatchRepository.impliedVolatility(
+        DoubleArray.of(0.01, 0d), DoubleArray.of(0.02, 0.02), DoubleArray.of(0.01, 0.03), DoubleArray.of(1d, 1d),
+        PutCall.CALL);
+    assertEquals(computed, DoubleArray.of(0d, 0d));
+  }
+
+  public void test_impliedVolatility_belowIntrinsic() {
+    assertThrowsIllegalArg(() -> NormalFormulaBatchRepository.impliedVolatility(
+        DoubleArray.of(0.005), DoubleArray.of(0.02), DoubleArray.of(0.01), DoubleArray.of(1d), PutCall.CALL));
+  }
+
+  public void test_sizeMismatch() {
+    assertThrowsIllegalArg(() -> NormalFormulaBatchRepository.price(
+        FORWARDS, STRIKES, TIMES, DoubleArray.of(0.01), PutCall.CALL));
+    assertThrowsIllegalArg(() -> NormalFormulaBatchRepository.impliedVolatility(
+        DoubleArray.of(0.01), FORWARDS, STRIKES, TIMES, PutCall.CALL));
+  }
+
+  public void coverage() {
+    coverPrivateConstructor(NormalFormulaBatchRepository.class);
+  }
+
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.rate;
+
+import static com.opengamma.strata.basics.index.OvernightIndices.GBP_SONIA;
+import static com.opengamma.strata.basics.index.OvernightIndices.USD_FED_FUND;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+import java.time.LocalDate;
+import java.util.OptionalDouble;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.index.OvernightIndexObservation;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeriesBuilder;
+import com.opengamma.strata.product.rate.OvernightCompoundedRateComputation;
+
+/**
+ * Test {@link OvernightCompoundingIndex}.
+ */
+@Test
+public class OvernightCompoundingIndexTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final LocalDate START = date(2014, 1, 2);
+  private static final LocalDate END = date(2016, 1, 4);
+  private static final LocalDate MISSING = date(2015, 6, 10);
+  private static final OvernightCompoundedRateComputation COMPUTATION =
+      OvernightCompoundedRateComputation.of(GBP_SONIA, START, END, 0, REF_DATA);
+  private static final LocalDateDoubleTimeSeries FIXINGS = fixings();
+  private static final double TOLERANCE = 1e-13;
+
+  private static LocalDateDoubleTimeSeries fixings() {
+    LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder();
+    int i = 0;
+    for (LocalDate fixing = START; fixing.isBefore(END); fixing = COMPUTATION.getFixingCalendar().next(fixing)) {
+      if (!fixing.equals(MISSING)) {
+        builder.put(fixing, 0.005 + 0.0001 * (i++ % 17));
+      }
+    }
+    return builder.build();
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_compositionFactor() {
+    OvernightCompoundingIndex test = OvernightCompoundingIndex.of(COMPUTATION, FIXINGS);
+    assertEquals(test.compositionFactor(START, START).getAsDouble(), 1d);
+    assertFactor(test, START, date(2015, 6, 10));
+    assertFactor(test, date(2014, 3, 3), date(2014, 9, 1));
+    assertFactor(test, date(2015, 6, 11), date(2015, 12, 31));
+    assertFactor(test, date(2015, 6, 11), END);
+  }
+
+  public void test_compositionFactor_missingFixing() {
+    OvernightCompoundingIndex test = OvernightCompoundingIndex.of(COMPUTATION, FIXINGS);
+    assertFalse(test.compositionFactor(START, date(2015, 6, 11)).isPresent());
+    assertFalse(test.compositionFactor(date(2015, 6, 10), date(2015, 6, 11)).isPresent());
+  }
+
+  public void test_compositionFactor_outOfRange() {
+    OvernightCompoundingIndex test = OvernightCompoundingIndex.of(COMPUTATION, FIXINGS);
+    assertFalse(test.compositionFactor(date(2013, 12, 31), date(2014, 3, 3)).isPresent());
+    assertFalse(test.compositionFactor(date(2015, 10, 1), date(2016, 1, 5)).isPresent());
+    assertFalse(test.compositionFactor(date(2014, 3, 3), date(2014, 3, 1)).isPresent());
+    assertFalse(test.compositionFactor(date(2014, 9, 1), date(2014, 3, 3)).isPresent());
+  }
+
+  public void test_emptyFixings() {
+    OvernightCompoundingIndex test = OvernightCompoundingIndex.of(COMPUTATION, LocalDateDoubleTimeSeries.empty());
+    assertFalse(test.compositionFactor(START, END).isPresent());
+  }
+
+  public void test_cached() {
+    OvernightCompoundedRateComputation other =
+        OvernightCompoundedRateComputation.of(GBP_SONIA, date(2015, 1, 5), date(2015, 4, 1), 0, REF_DATA);
+    OvernightCompoundedRateComputation otherIndex =
+        OvernightCompoundedRateComputation.of(USD_FED_FUND, date(2015, 1, 5), date(2015, 4, 1), 0, REF_DATA);
+    OvernightCompoundingIndex test = OvernightCompoundingIndex.of(COMPUTATION, FIXINGS);
+    assertSame(OvernightCompoundingIndex.of(other, FIXINGS), test);
+    assertNotSame(OvernightCompoundingIndex.of(otherIndex, FIXINGS), test);
+    assertNotSame(OvernightCompoundingIndex.of(COMPUTATION, fixings()), test);
+  }
+
+  //-------------------------------------------------------------------------
+  // checks the factor against the daily composition
+  private static void assertFactor(OvernightCompoundingIndex test, LocalDate startFixing, LocalDate endFixing) {
+    double expected = 1d;
+    for (LocalDate fixing = startFixing; fixing.isBefore(endFixing);
+        fixing = COMPUTATION.getFixingCalendar().next(fixing)) {
+      OvernightIndexObservation obs = COMPUTATION.observeOn(fixing);
+      expected *= 1d + obs.getYearFraction() * FIXINGS.get(fixing).getAsDouble();
+    }
+    OptionalDouble computed = test.compositionFactor(startFixing, endFixing);
+    assertEquals(computed.getAsDouble(), expected, TOLERANCE);
+  }
+
+}
@@ -20,10 +20,13 @@ import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.index.Index;
 import com.opengamma.strata.collect.io.ResourceLocator;
@@ -97,17 +100,18 @@ public class SabrSwaptionCalibratorCubeNormalTest {
 
   private static final double TOLERANCE_PRICE_CALIBRATION_LS = 5.0E-4; // Calibration Least Square; result not exact
 
+  private static final double BETA = 0.50;
+  private static final Surface BETA_SURFACE = ConstantSurface.of("Beta", BETA)
+      .withMetadata(DefaultSurfaceMetadata.builder()
+          .xValueType(ValueType.YEAR_FRACTION).yValueType(ValueType.YEAR_FRACTION)
+          .zValueType(ValueType.SABR_BETA).surfaceName("Beta").build());
+  private static final double SHIFT = 0.0300;
+  private static final Surface SHIFT_SURFACE = ConstantSurface.of("Shift", SHIFT)
+      .withMetadata(DefaultSurfaceMetadata.builder()
+          .xValueType(ValueType.YEAR_FRACTION).yValueType(ValueType.YEAR_FRACTION).surfaceName("Shift").build());
+
   @Test
   public void normal_cube() {
-    double beta = 0.50;
-    Surface betaSurface = ConstantSurface.of("Beta", beta)
-        .withMetadata(DefaultSurfaceMetadata.builder()
-            .xValueType(ValueType.YEAR_FRACTION).yValueType(ValueType.YEAR_FRACTION)
-            .zValueType(ValueType.SABR_BETA).surfaceName("Beta").build());
-    double shift = 0.0300;
-    Surface shiftSurface = ConstantSurface.of("Shift", shift)
-        .withMetadata(DefaultSurfaceMetadata.builder()
-            .xValueType(ValueType.YEAR_FRACTION).yValueType(ValueType.YEAR_FRACTION).surfaceName("Shift").build());
     SabrParametersSwaptionVolatilities calibrated = SABR_CALIBRATION.calibrateWithFixedBetaAndShift(
         SwaptionVolatilitiesName.of("Calibrated-SABR"),
         EUR_FIXED_1Y_EURIBOR_6M,
@@ -116,10 +120,67 @@ public class SabrSwaptionCalibratorCubeNormalTest {
         TENORS,
         DATA_SPARSE,
         MULTICURVE,
-        betaSurface,
-        shiftSurface,
+        BETA_SURFACE,
+        SHIFT_SURFACE,
         INTERPOLATOR_2D);
+    assertCalibration(calibrated);
+  }
+
+  @Test
+  public void normal_cube_parallel() {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      SabrParametersSwaptionVolatilities calibrated = SABR_CALIBRATION.calibrateWithFixedBetaAndShift(
+          SwaptionVolatilitiesName.of("Calibrated-SABR"),
+          EUR_FIXED_1Y_EURIBOR_6M,
+          CALIBRATION_TIME,
+          ACT_365F,
+          TENORS,
+          DATA_SPARSE,
+          MULTICURVE,
+          BETA_SURFACE,
+          SHIFT_SURFACE,
+          INTERPOLATOR_2D,
+          true,
+          executor);
+      assertCalibration(calibrated);
+      // result independent of the executor
+      SabrParametersSwaptionVolatilities calibratedSerial = SABR_CALIBRATION.calibrateWithFixedBetaAndShift(
+          SwaptionVolatilitiesName.of("Calibrated-SABR"),
+          EUR_FIXED_1Y_EURIBOR_6M,
+          CALIBRATION_TIME,
+          ACT_365F,
+          TENORS,
+          DATA_SPARSE,
+          MULTICURVE,
+          BETA_SURFACE,
+          SHIFT_SURFACE,
+          INTERPOLATOR_2D,
+          true,
+          MoreExecutors.directExecutor());
+      assertEquals(calibrated, calibratedSerial);
+      // warm start from the previous calibration
+      SabrParametersSwaptionVolatilities recalibrated = SABR_CALIBRATION.calibrateWithFixedBetaAndShift(
+          SwaptionVolatilitiesName.of("Calibrated-SABR"),
+          EUR_FIXED_1Y_EURIBOR_6M,
+          CALIBRATION_TIME,
+          ACT_365F,
+          TENORS,
+          DATA_SPARSE,
+          MULTICURVE,
+          BETA_SURFACE,
+          SHIFT_SURFACE,
+          INTERPOLATOR_2D,
+          true,
+          calibrated,
+          executor);
+      assertCalibration(recalibrated);
+    } finally {
+      executor.shutdown();
+    }
+  }
 
+  private void assertCalibration(SabrParametersSwaptionVolatilities calibrated) {
     for (int looptenor = 0; looptenor < TENORS.size(); looptenor++) {
       double tenor = TENORS.get(looptenor).get(ChronoUnit.YEARS);
       for (int loopexpiry = 0; loopexpiry < EXPIRIES.size(); loopexpiry++) {
@@ -136,8 +197,8 @@ public class SabrSwaptionCalibratorCubeNormalTest {
           if (!Double.isNaN(DATA_ARRAY_SPARSE[looptenor][loopexpiry][loopmoney])) {
             double strike = parRate + MONEYNESS.get(loopmoney);
             double volBlack = calibrated.volatility(expiryDateTime, tenor, strike, parRate);
-            double priceComputed = BlackFormulaRepository.price(parRate + shift, parRate + MONEYNESS.get(loopmoney) + shift,
-                time, volBlack, true);
+            double priceComputed = BlackFormulaRepository.price(
+                parRate + SHIFT, parRate + MONEYNESS.get(loopmoney) + SHIFT, time, volBlack, true);
             double priceNormal = NormalFormulaRepository.price(parRate, parRate + MONEYNESS.get(loopmoney),
                 time, DATA_ARRAY_SPARSE[looptenor][loopexpiry][loopmoney], PutCall.CALL);
             assertEquals(priceComputed, priceNormal, TOLERANCE_PRICE_CALIBRATION_LS);